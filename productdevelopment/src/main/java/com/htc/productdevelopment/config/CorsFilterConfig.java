@@ -22,8 +22,9 @@ public class CorsFilterConfig implements Filter {
         response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
         response.setHeader("Access-Control-Max-Age", "3600");
         response.setHeader("Access-Control-Allow-Headers", 
-            "X-Atlassian-Token, Content-Type, Authorization, X-Requested-With, Accept, Origin, Access-Control-Request-Method, Access-Control-Request-Headers");
+            "X-Atlassian-Token, Content-Type, Authorization, X-Requested-With, Accept, Origin, Range, If-Range, If-None-Match, Access-Control-Request-Method, Access-Control-Request-Headers");
         response.setHeader("Access-Control-Allow-Credentials", "true");
+        response.setHeader("Access-Control-Expose-Headers", "X-Jira-Stale, X-Jira-Stale-Age, Warning, Content-Range, Accept-Ranges, Content-Length, ETag");
         
         if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
             response.setStatus(HttpServletResponse.SC_OK);
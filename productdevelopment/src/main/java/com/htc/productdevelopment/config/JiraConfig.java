@@ -5,9 +5,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import java.time.Duration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.context.annotation.Profile;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.service.JiraCircuitBreaker;
+import com.htc.productdevelopment.service.JiraHttpPoolMonitor;
+import com.htc.productdevelopment.service.JiraRateLimiter;
 import com.htc.productdevelopment.service.JiraService;
 
 @Configuration
@@ -47,11 +51,18 @@ public class JiraConfig {
         return apiToken;
     }
     
+    // Timeouts and pool limits are configured on the pooled client (see JiraHttpClientConfig)
+    // The circuit breaker runs before the rate limiter so an open breaker fails fast without queueing;
+    // the rate limiter must stay the last interceptor: it re-executes the request on 429
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     CloseableHttpClient jiraHttpClient,
+                                     JiraHttpPoolMonitor jiraHttpPoolMonitor,
+                                     JiraCircuitBreaker jiraCircuitBreaker,
+                                     JiraRateLimiter jiraRateLimiter) {
         return builder
-            .setConnectTimeout(Duration.ofSeconds(30))
-            .setReadTimeout(Duration.ofSeconds(30))
+            .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(jiraHttpClient))
+            .additionalInterceptors(jiraHttpPoolMonitor, jiraCircuitBreaker, jiraRateLimiter)
             .build();
     }
     
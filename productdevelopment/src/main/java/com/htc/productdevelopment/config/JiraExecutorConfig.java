@@ -0,0 +1,133 @@
+package com.htc.productdevelopment.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Thread pools for background Jira work, kept separate from Tomcat's request threads
+ */
+@Configuration
+public class JiraExecutorConfig {
+
+    @Value("${jira.outbox.worker-threads:4}")
+    private int outboxWorkerThreads;
+
+    @Value("${jira.metadata-cache.refresh-threads:2}")
+    private int metadataRefreshThreads;
+
+    @Value("${jira.attachment-cache.warm-threads:2}")
+    private int attachmentCacheWarmThreads;
+
+    @Value("${jira.batch.threads:4}")
+    private int batchFetchThreads;
+
+    @Value("${jira.bulk-transition.threads:4}")
+    private int bulkTransitionThreads;
+
+    @Value("${jira.bundle.threads:12}")
+    private int bundleThreads;
+
+    /**
+     * Workers draining the contract completion outbox
+     * @return bounded executor; the outbox poller only hands out as many entries as there are idle workers
+     */
+    @Bean(name = "contractCompletionExecutor")
+    public ThreadPoolTaskExecutor contractCompletionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(outboxWorkerThreads);
+        executor.setMaxPoolSize(outboxWorkerThreads);
+        executor.setQueueCapacity(outboxWorkerThreads);
+        executor.setThreadNamePrefix("contract-completion-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers reloading Jira metadata cache entries ahead of expiry
+     * @return small executor; refreshes that do not fit are retried on the next cache hit
+     */
+    @Bean(name = "jiraMetadataRefreshExecutor")
+    public ThreadPoolTaskExecutor jiraMetadataRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(metadataRefreshThreads);
+        executor.setMaxPoolSize(metadataRefreshThreads);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("jira-metadata-refresh-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers downloading attachments into the disk cache ahead of the first request
+     * @return small executor; warm-ups that do not fit are dropped and the first download fills the cache
+     */
+    @Bean(name = "jiraAttachmentCacheExecutor")
+    public ThreadPoolTaskExecutor jiraAttachmentCacheExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(attachmentCacheWarmThreads);
+        executor.setMaxPoolSize(attachmentCacheWarmThreads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("jira-attachment-cache-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers searching the chunks of a batch issue fetch in parallel
+     * @return small executor; when it is saturated the request thread searches the chunk itself
+     */
+    @Bean(name = "jiraBatchFetchExecutor")
+    public ThreadPoolTaskExecutor jiraBatchFetchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(batchFetchThreads);
+        executor.setMaxPoolSize(batchFetchThreads);
+        executor.setQueueCapacity(20);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("jira-batch-fetch-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers running the transitions of a bulk transition request
+     * @return small executor; when it is saturated the request thread makes the transition itself
+     */
+    @Bean(name = "jiraBulkTransitionExecutor")
+    public ThreadPoolTaskExecutor jiraBulkTransitionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bulkTransitionThreads);
+        executor.setMaxPoolSize(bulkTransitionThreads);
+        executor.setQueueCapacity(100);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("jira-bulk-transition-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers loading the Jira sections of issue detail bundles
+     * @return bounded executor; sections that do not fit the queue are reported as failed in the bundle
+     */
+    @Bean(name = "jiraIssueBundleExecutor")
+    public ThreadPoolTaskExecutor jiraIssueBundleExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bundleThreads);
+        executor.setMaxPoolSize(bundleThreads);
+        executor.setQueueCapacity(bundleThreads * 10);
+        executor.setThreadNamePrefix("jira-issue-bundle-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,142 @@
+package com.htc.productdevelopment.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of field projections per JiraFieldView.
+ * Field lists are derived from JiraFieldConfig once at startup and reused for every request,
+ * both as a list (search request bodies) and as a pre-joined "fields=" query value.
+ */
+@Component
+public class JiraFieldProjections {
+
+    // Standard fields shown in issue rows
+    private static final List<String> LIST_SYSTEM_FIELDS = List.of(
+            "summary", "project", "assignee", "issuetype", "status", "priority",
+            "created", "updated", "reporter", "description", "duedate");
+
+    // Assignee / reporter custom fields that issue create and update write (see JiraService)
+    // and the issue tables show next to the standard ones
+    private static final List<String> LIST_PEOPLE_FIELDS = List.of("customfield_10200", "customfield_10201");
+
+    // Extra standard fields for the single issue page
+    private static final List<String> DETAIL_SYSTEM_FIELDS = List.of(
+            "attachment", "comment", "labels", "components",
+            "fixVersions", "environment", "timetracking", "issuelinks", "subtasks");
+
+    // Expand values for the single issue page (the UI asks for names and renderedFields)
+    private static final String DETAIL_EXPAND = "names,renderedFields";
+
+    private final JiraFieldConfig jiraFieldConfig;
+
+    private final Map<JiraFieldView, List<String>> fieldsByView = new EnumMap<>(JiraFieldView.class);
+    private final Map<JiraFieldView, String> fieldsParamByView = new EnumMap<>(JiraFieldView.class);
+
+    public JiraFieldProjections(JiraFieldConfig jiraFieldConfig) {
+        this.jiraFieldConfig = jiraFieldConfig;
+    }
+
+    @PostConstruct
+    void compile() {
+        List<String> contractFields = List.of(
+                jiraFieldConfig.getVendorName(),
+                jiraFieldConfig.getProductName(),
+                jiraFieldConfig.getBillingType(),
+                jiraFieldConfig.getContractType(),
+                jiraFieldConfig.getRequesterName(),
+                jiraFieldConfig.getRequesterEmail(),
+                jiraFieldConfig.getDepartment(),
+                jiraFieldConfig.getOrganization(),
+                jiraFieldConfig.getDueDate(),
+                jiraFieldConfig.getRenewalDate(),
+                jiraFieldConfig.getCurrentLicenseCount(),
+                jiraFieldConfig.getCurrentUsageCount(),
+                jiraFieldConfig.getCurrentUnit(),
+                jiraFieldConfig.getNewLicenseCount(),
+                jiraFieldConfig.getNewUsageCount(),
+                jiraFieldConfig.getNewUnit(),
+                jiraFieldConfig.getLicenseUpdateType(),
+                jiraFieldConfig.getExistingContractId(),
+                jiraFieldConfig.getContractDuration());
+
+        // The edit modal reads the additional comment from list rows, and the issue mirror stores list rows
+        register(JiraFieldView.LIST, LIST_SYSTEM_FIELDS, LIST_PEOPLE_FIELDS, contractFields,
+                List.of(jiraFieldConfig.getAdditionalComment(),
+                        jiraFieldConfig.getTotaloptimizedcost()));
+
+        register(JiraFieldView.DETAIL, LIST_SYSTEM_FIELDS, LIST_PEOPLE_FIELDS, DETAIL_SYSTEM_FIELDS, contractFields,
+                List.of(jiraFieldConfig.getAdditionalComment(),
+                        jiraFieldConfig.getTotalprofit(),
+                        jiraFieldConfig.getTotaloptimizedcost()));
+
+        register(JiraFieldView.CONTRACT_COMPLETION, List.of("status", "updated"), contractFields,
+                List.of(jiraFieldConfig.getAdditionalComment()));
+
+        register(JiraFieldView.PROFIT, List.of("status"),
+                List.of(jiraFieldConfig.getCurrentLicenseCount(),
+                        jiraFieldConfig.getNewLicenseCount(),
+                        jiraFieldConfig.getTotalprofit(),
+                        jiraFieldConfig.getTotaloptimizedcost()));
+
+        register(JiraFieldView.STATUS, List.of("status"));
+    }
+
+    @SafeVarargs
+    private void register(JiraFieldView view, List<String>... groups) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (List<String> group : groups) {
+            for (String field : group) {
+                if (field != null && !field.isBlank()) {
+                    fields.add(field);
+                }
+            }
+        }
+        List<String> fieldList = Collections.unmodifiableList(new ArrayList<>(fields));
+        fieldsByView.put(view, fieldList);
+        fieldsParamByView.put(view, String.join(",", fieldList));
+    }
+
+    /**
+     * Fields for a view, for use in search request bodies
+     * @param view the projection
+     * @return immutable list of field ids
+     */
+    public List<String> fields(JiraFieldView view) {
+        return fieldsByView.get(view);
+    }
+
+    /**
+     * Fields for a view joined for a "fields=" query parameter
+     * @param view the projection
+     * @return comma-separated field ids
+     */
+    public String fieldsParam(JiraFieldView view) {
+        return fieldsParamByView.get(view);
+    }
+
+    /**
+     * Expand parameter for a view, or null when nothing should be expanded
+     * @param view the projection
+     * @return comma-separated expand values
+     */
+    public String expandParam(JiraFieldView view) {
+        return view == JiraFieldView.DETAIL ? DETAIL_EXPAND : null;
+    }
+
+    /**
+     * Every view with its field list, for diagnostics
+     * @return Map of view name to its field list
+     */
+    public Map<JiraFieldView, List<String>> getAllViews() {
+        return Collections.unmodifiableMap(fieldsByView);
+    }
+}
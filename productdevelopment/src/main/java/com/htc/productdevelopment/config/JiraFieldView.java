@@ -0,0 +1,44 @@
+package com.htc.productdevelopment.config;
+
+import java.util.Locale;
+
+/**
+ * Named field projections for Jira reads.
+ * Each view maps to the minimal set of fields its callers need (see JiraFieldProjections).
+ */
+public enum JiraFieldView {
+
+    // Issue list / dashboard rows
+    LIST,
+
+    // Single issue page
+    DETAIL,
+
+    // Fields copied into contract_details when an issue is completed
+    CONTRACT_COMPLETION,
+
+    // License count and profit figures
+    PROFIT,
+
+    // Workflow status only
+    STATUS;
+
+    /**
+     * Parse a request parameter such as "list" or "contract-completion"
+     * @param value the parameter value, may be null
+     * @param defaultView view to use when the value is empty
+     * @return the matching view
+     * @throws IllegalArgumentException if the value is not a known view
+     */
+    public static JiraFieldView fromParam(String value, JiraFieldView defaultView) {
+        if (value == null || value.isBlank()) {
+            return defaultView;
+        }
+        try {
+            return JiraFieldView.valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown view: " + value
+                    + " (use list, detail, contract-completion, profit or status)");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.htc.productdevelopment.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration class for the pooled HTTP transport used for all Jira calls.
+ * Connections to the Jira host are kept alive and reused instead of paying
+ * a TCP + TLS handshake on every request.
+ */
+@Configuration
+@Profile("!test")
+public class JiraHttpClientConfig {
+
+    @Value("${jira.http.max-connections-total:50}")
+    private int maxConnectionsTotal;
+
+    @Value("${jira.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${jira.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${jira.http.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    @Value("${jira.http.connection-request-timeout-ms:5000}")
+    private long connectionRequestTimeoutMs;
+
+    @Value("${jira.http.idle-eviction-seconds:30}")
+    private long idleEvictionSeconds;
+
+    @Value("${jira.http.connection-ttl-minutes:10}")
+    private long connectionTtlMinutes;
+
+    /**
+     * Connection pool shared by every Jira request
+     * @return pooling connection manager with per-route limits
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager jiraConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnectionsTotal)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(connectionTtlMinutes))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Keep-alive HTTP client backed by the shared pool
+     * @param jiraConnectionManager the pool to lease connections from
+     * @return HTTP client that evicts idle and expired connections in the background
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient jiraHttpClient(PoolingHttpClientConnectionManager jiraConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(jiraConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictionSeconds))
+                .evictExpiredConnections()
+                .build();
+    }
+}
@@ -23,6 +23,7 @@ public class WebConfig implements WebMvcConfigurer {
             .allowedOrigins("http://localhost:5173", "http://localhost:5174", "http://127.0.0.1:5173", "http://127.0.0.1:5174")
             .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
             .allowedHeaders("*")
+            .exposedHeaders("X-Jira-Stale", "X-Jira-Stale-Age", "Warning", "Content-Range", "Accept-Ranges", "Content-Length", "ETag")
             .allowCredentials(true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.htc.productdevelopment.controller;
+
+import com.htc.productdevelopment.service.ContractSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/contracts")
+public class ContractController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractController.class);
+
+    private final ContractSearchService contractSearchService;
+
+    public ContractController(ContractSearchService contractSearchService) {
+        this.contractSearchService = contractSearchService;
+    }
+
+    /**
+     * Search contracts one page at a time
+     * @param sort id_desc (default, newest first), id_asc, renewal_asc or renewal_desc
+     * @param cursor Cursor returned as "nextCursor" by the previous page; omit for the first page
+     * @param pageSize Contracts per page (1-100)
+     * @return Page with "contracts", "nextCursor" and "isLast"
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchContracts(
+            @RequestParam(required = false) String vendor,
+            @RequestParam(required = false) String product,
+            @RequestParam(required = false) String renewalStatus,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long organizationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate renewalFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate renewalTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int pageSize) {
+        try {
+            logger.info("Received contract search - vendor: {}, product: {}, status: {}, org: {}, dept: {}, sort: {}, cursor present: {}",
+                    vendor, product, renewalStatus, organizationId, departmentId, sort, cursor != null);
+            ContractSearchService.Filter filter = new ContractSearchService.Filter(
+                    blankToNull(vendor), blankToNull(product), blankToNull(renewalStatus), departmentId, organizationId,
+                    renewalFrom, renewalTo, dueFrom, dueTo);
+            ContractSearchService.Page page = contractSearchService.search(
+                    filter, ContractSearchService.SortOrder.fromParam(sort), cursor, pageSize);
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("contracts", page.contracts());
+            response.put("nextCursor", page.nextCursor());
+            response.put("isLast", page.isLast());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error searching contracts", e);
+            return ResponseEntity.internalServerError().body(Map.of("message", "Failed to search contracts: " + e.getMessage()));
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
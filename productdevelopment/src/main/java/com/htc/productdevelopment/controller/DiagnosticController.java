@@ -104,7 +104,7 @@ public class DiagnosticController {
             }
             
             // Try to sync a single user
-            User user = firebaseSyncService.syncFirebaseUserToDB(uid);
+            User user = firebaseSyncService.autoSyncUser(uid);
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "Success");
@@ -188,7 +188,7 @@ public class DiagnosticController {
                 return ResponseEntity.badRequest().body("UID is required");
             }
             
-            User user = firebaseSyncService.syncFirebaseUserToDB(uid);
+            User user = firebaseSyncService.autoSyncUser(uid);
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "Success");
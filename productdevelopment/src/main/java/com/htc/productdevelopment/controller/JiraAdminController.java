@@ -0,0 +1,323 @@
+package com.htc.productdevelopment.controller;
+
+import com.htc.productdevelopment.config.JiraFieldProjections;
+import com.htc.productdevelopment.service.ContractCompletionOutboxService;
+import com.htc.productdevelopment.service.JiraAttachmentDiskCache;
+import com.htc.productdevelopment.service.JiraCircuitBreaker;
+import com.htc.productdevelopment.service.JiraHttpPoolMonitor;
+import com.htc.productdevelopment.service.JiraIdentityDirectory;
+import com.htc.productdevelopment.service.JiraIssueFieldCache;
+import com.htc.productdevelopment.service.JiraFieldWriteBuffer;
+import com.htc.productdevelopment.service.JiraIssueSyncService;
+import com.htc.productdevelopment.service.JiraMetadataCache;
+import com.htc.productdevelopment.service.JiraRateLimiter;
+import com.htc.productdevelopment.service.JiraRequestCoalescer;
+import com.htc.productdevelopment.service.JiraStaleResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Operational endpoints for the Jira integration (metrics and admin actions)
+ */
+@RestController
+@RequestMapping("/api/jira/admin")
+public class JiraAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraAdminController.class);
+
+    private final JiraHttpPoolMonitor jiraHttpPoolMonitor;
+    private final JiraIssueSyncService jiraIssueSyncService;
+    private final JiraFieldProjections jiraFieldProjections;
+    private final JiraRequestCoalescer jiraRequestCoalescer;
+    private final JiraRateLimiter jiraRateLimiter;
+    private final JiraCircuitBreaker jiraCircuitBreaker;
+    private final JiraStaleResponseCache jiraStaleResponseCache;
+    private final ContractCompletionOutboxService contractCompletionOutboxService;
+    private final JiraMetadataCache jiraMetadataCache;
+    private final JiraAttachmentDiskCache jiraAttachmentDiskCache;
+    private final JiraIdentityDirectory jiraIdentityDirectory;
+    private final JiraIssueFieldCache jiraIssueFieldCache;
+    private final JiraFieldWriteBuffer jiraFieldWriteBuffer;
+
+    public JiraAdminController(JiraHttpPoolMonitor jiraHttpPoolMonitor,
+                               JiraIssueSyncService jiraIssueSyncService,
+                               JiraFieldProjections jiraFieldProjections,
+                               JiraRequestCoalescer jiraRequestCoalescer,
+                               JiraRateLimiter jiraRateLimiter,
+                               JiraCircuitBreaker jiraCircuitBreaker,
+                               JiraStaleResponseCache jiraStaleResponseCache,
+                               ContractCompletionOutboxService contractCompletionOutboxService,
+                               JiraMetadataCache jiraMetadataCache,
+                               JiraAttachmentDiskCache jiraAttachmentDiskCache,
+                               JiraIdentityDirectory jiraIdentityDirectory,
+                               JiraIssueFieldCache jiraIssueFieldCache,
+                               JiraFieldWriteBuffer jiraFieldWriteBuffer) {
+        this.jiraHttpPoolMonitor = jiraHttpPoolMonitor;
+        this.jiraIssueSyncService = jiraIssueSyncService;
+        this.jiraFieldProjections = jiraFieldProjections;
+        this.jiraRequestCoalescer = jiraRequestCoalescer;
+        this.jiraRateLimiter = jiraRateLimiter;
+        this.jiraCircuitBreaker = jiraCircuitBreaker;
+        this.jiraStaleResponseCache = jiraStaleResponseCache;
+        this.contractCompletionOutboxService = contractCompletionOutboxService;
+        this.jiraMetadataCache = jiraMetadataCache;
+        this.jiraAttachmentDiskCache = jiraAttachmentDiskCache;
+        this.jiraIdentityDirectory = jiraIdentityDirectory;
+        this.jiraIssueFieldCache = jiraIssueFieldCache;
+        this.jiraFieldWriteBuffer = jiraFieldWriteBuffer;
+    }
+
+    /**
+     * Connection pool usage and saturation counters for the Jira HTTP client
+     * @return ResponseEntity with pool statistics
+     */
+    @GetMapping("/metrics/http-pool")
+    public ResponseEntity<?> getHttpPoolMetrics() {
+        try {
+            return ResponseEntity.ok(jiraHttpPoolMonitor.getStats());
+        } catch (Exception e) {
+            logger.error("Error reading Jira HTTP pool metrics", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read HTTP pool metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Rate limiter state: available tokens, per-lane queue depth and wait times, throttle events
+     * @return ResponseEntity with rate limiter statistics
+     */
+    @GetMapping("/metrics/rate-limit")
+    public ResponseEntity<?> getRateLimitMetrics() {
+        try {
+            return ResponseEntity.ok(jiraRateLimiter.getStats());
+        } catch (Exception e) {
+            logger.error("Error reading Jira rate limit metrics", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read rate limit metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Circuit breaker state and stale fallback counters
+     * @return ResponseEntity with breaker window rates and stale-serve counts
+     */
+    @GetMapping("/metrics/circuit-breaker")
+    public ResponseEntity<?> getCircuitBreakerMetrics() {
+        try {
+            Map<String, Object> metrics = new LinkedHashMap<>(jiraCircuitBreaker.getStats());
+            metrics.put("staleFallback", jiraStaleResponseCache.getStats());
+            return ResponseEntity.ok(metrics);
+        } catch (Exception e) {
+            logger.error("Error reading Jira circuit breaker metrics", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read circuit breaker metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Single-flight coalescing counters for Jira reads
+     * @return ResponseEntity with total and per-key call and coalesce counts
+     */
+    @GetMapping("/metrics/coalescing")
+    public ResponseEntity<?> getCoalescingMetrics() {
+        try {
+            return ResponseEntity.ok(jiraRequestCoalescer.getStats());
+        } catch (Exception e) {
+            logger.error("Error reading Jira coalescing metrics", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read coalescing metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Reset the coalescing counters
+     * @return ResponseEntity with a confirmation message
+     */
+    @DeleteMapping("/metrics/coalescing")
+    public ResponseEntity<?> resetCoalescingMetrics() {
+        jiraRequestCoalescer.resetStats();
+        return ResponseEntity.ok(Map.of("message", "Coalescing metrics reset"));
+    }
+
+    /**
+     * Jira metadata cache hit ratios, refresh-ahead and load counters
+     * @return ResponseEntity with totals and per-cache statistics
+     */
+    @GetMapping("/metrics/metadata-cache")
+    public ResponseEntity<?> getMetadataCacheMetrics() {
+        try {
+            return ResponseEntity.ok(jiraMetadataCache.getStats());
+        } catch (Exception e) {
+            logger.error("Error reading Jira metadata cache metrics", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read metadata cache metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Invalidate Jira metadata cache entries, e.g. after a field or workflow change in Jira
+     * @param cache cache name (fields, issue-types, create-meta, projects, ...); all caches when omitted
+     * @param key single key within the cache, e.g. a project key; the whole cache when omitted
+     * @return ResponseEntity with the number of entries removed
+     */
+    @DeleteMapping("/metadata-cache")
+    public ResponseEntity<?> invalidateMetadataCache(@RequestParam(required = false) String cache,
+                                                     @RequestParam(required = false) String key) {
+        logger.info("Jira metadata cache invalidation requested (cache={}, key={})", cache, key);
+        int removed = jiraMetadataCache.invalidate(cache, key);
+        return ResponseEntity.ok(Map.of("message", "Metadata cache invalidated", "removed", removed));
+    }
+
+    /**
+     * Attachment disk cache size, hit ratio and eviction counters
+     * @return ResponseEntity with attachment cache statistics
+     */
+    @GetMapping("/metrics/attachment-cache")
+    public ResponseEntity<?> getAttachmentCacheMetrics() {
+        try {
+            return ResponseEntity.ok(jiraAttachmentDiskCache.getStats());
+        } catch (Exception e) {
+            logger.error("Error reading attachment cache metrics", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read attachment cache metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Drop cached attachment bodies
+     * @param attachmentId single Jira attachment id; the whole cache when omitted
+     * @return ResponseEntity with the number of attachments removed
+     */
+    @DeleteMapping("/attachment-cache")
+    public ResponseEntity<?> clearAttachmentCache(@RequestParam(required = false) String attachmentId) {
+        logger.info("Attachment cache invalidation requested (attachmentId={})", attachmentId);
+        int removed = attachmentId == null
+                ? jiraAttachmentDiskCache.clear()
+                : (jiraAttachmentDiskCache.evict(attachmentId) ? 1 : 0);
+        return ResponseEntity.ok(Map.of("message", "Attachment cache invalidated", "removed", removed));
+    }
+
+    /**
+     * Organization/department/user dictionary sizes, age and reload counters
+     * @return ResponseEntity with identity directory statistics
+     */
+    @GetMapping("/metrics/identity-directory")
+    public ResponseEntity<?> getIdentityDirectoryMetrics() {
+        try {
+            return ResponseEntity.ok(jiraIdentityDirectory.getStats());
+        } catch (Exception e) {
+            logger.error("Error reading identity directory metrics", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read identity directory metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Per-issue field cache used for status and profit field lookups
+     * @return ResponseEntity with field cache statistics
+     */
+    @GetMapping("/metrics/field-cache")
+    public ResponseEntity<?> getFieldCacheMetrics() {
+        try {
+            return ResponseEntity.ok(jiraIssueFieldCache.getStats());
+        } catch (Exception e) {
+            logger.error("Error reading field cache metrics", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read field cache metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Buffered Jira custom field writes: pending issues and writes merged per update
+     * @return ResponseEntity with write buffer statistics
+     */
+    @GetMapping("/metrics/write-buffer")
+    public ResponseEntity<?> getWriteBufferMetrics() {
+        try {
+            return ResponseEntity.ok(jiraFieldWriteBuffer.getStats());
+        } catch (Exception e) {
+            logger.error("Error reading write buffer metrics", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read write buffer metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Contract completion outbox: entries per status and failed entries
+     * @return ResponseEntity with outbox statistics
+     */
+    @GetMapping("/outbox")
+    public ResponseEntity<?> getOutboxStatus() {
+        try {
+            return ResponseEntity.ok(contractCompletionOutboxService.getStats());
+        } catch (Exception e) {
+            logger.error("Error reading contract completion outbox", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read outbox: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Requeue the completion of an issue, e.g. after it failed all attempts
+     * @param issueKey the Jira issue key
+     * @return ResponseEntity with a confirmation message
+     */
+    @PostMapping("/outbox/{issueKey}/retry")
+    public ResponseEntity<?> retryOutboxEntry(@PathVariable String issueKey) {
+        logger.info("Manual retry of contract completion requested for {}", issueKey);
+        if (!contractCompletionOutboxService.retry(issueKey)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("message", "Contract completion requeued for " + issueKey));
+    }
+
+    /**
+     * State of the local Jira issue mirror
+     * @return ResponseEntity with watermark and last run details
+     */
+    @GetMapping("/sync")
+    public ResponseEntity<?> getSyncStatus() {
+        try {
+            return ResponseEntity.ok(jiraIssueSyncService.getSyncStatus());
+        } catch (Exception e) {
+            logger.error("Error reading Jira sync status", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to read sync status: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Trigger a sync of the local Jira issue mirror
+     * @param full true to ignore the watermark and reconcile every issue
+     * @return ResponseEntity with the run summary
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<?> runSync(@RequestParam(defaultValue = "false") boolean full) {
+        logger.info("Manual Jira issue sync requested (full={})", full);
+        Map<String, Object> result = jiraIssueSyncService.runSync(full);
+        if ("FAILED".equals(result.get("status"))) {
+            return ResponseEntity.internalServerError().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Field list requested from Jira for each projection view
+     * @return ResponseEntity with fields and expand parameters per view
+     */
+    @GetMapping("/field-views")
+    public ResponseEntity<?> getFieldViews() {
+        return ResponseEntity.ok(jiraFieldProjections.getAllViews());
+    }
+}
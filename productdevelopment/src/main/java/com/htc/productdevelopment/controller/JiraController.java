@@ -1,9 +1,11 @@
 package com.htc.productdevelopment.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -13,6 +15,7 @@ import com.htc.productdevelopment.model.ContractDetails;
 import com.htc.productdevelopment.model.ContractProposal;
 import com.htc.productdevelopment.model.JiraProject;
 import com.htc.productdevelopment.config.JiraFieldConfig;
+import com.htc.productdevelopment.config.JiraFieldView;
 import com.htc.productdevelopment.model.Proposal;
 import com.htc.productdevelopment.repository.ContractAttachmentRepository;
 import com.htc.productdevelopment.repository.ContractDetailsRepository;
@@ -25,6 +28,12 @@ import com.htc.productdevelopment.service.ContractDetailsService;
 import com.htc.productdevelopment.service.VendorDetailsService;
 import com.htc.productdevelopment.service.ProposalService;
 import com.htc.productdevelopment.service.ContractAttachmentService;
+import com.htc.productdevelopment.service.JiraAttachmentDiskCache;
+import com.htc.productdevelopment.service.JiraAttachmentService;
+import com.htc.productdevelopment.service.JiraIssueBatchService;
+import com.htc.productdevelopment.service.JiraBulkTransitionService;
+import com.htc.productdevelopment.service.JiraIssueBundleService;
+import com.htc.productdevelopment.service.JiraFieldWriteBuffer;
 import com.htc.productdevelopment.service.ContractProposalService;
 
 import org.springframework.core.io.ByteArrayResource;
@@ -42,11 +51,17 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 
 import org.springframework.http.HttpEntity;  // ✔ CORRECT
@@ -88,6 +103,18 @@ public class JiraController {
     @Autowired
     private ContractAttachmentService contractAttachmentService;
 
+    @Autowired
+    private JiraAttachmentService jiraAttachmentService;
+
+    @Autowired
+    private JiraIssueBatchService jiraIssueBatchService;
+
+    @Autowired
+    private JiraBulkTransitionService jiraBulkTransitionService;
+
+    @Autowired
+    private JiraIssueBundleService jiraIssueBundleService;
+
     public JiraController(JiraService jiraService,
                           ContractDetailsService contractDetailsService,
                           VendorDetailsService vendorDetailsService,
@@ -164,12 +191,16 @@ public class JiraController {
      * @return The issues for the project
      */
     @GetMapping("/projects/{projectKey}/issues")
-    public ResponseEntity<?> getIssuesForProject(@PathVariable String projectKey) {
+    public ResponseEntity<?> getIssuesForProject(@PathVariable String projectKey,
+                                                 @RequestParam(required = false) String view) {
         try {
+            JiraFieldView fieldView = JiraFieldView.fromParam(view, JiraFieldView.LIST);
             logger.info("Received request for issues in Jira project: {}", projectKey);
-            JsonNode issuesResponse = jiraService.getIssuesForProject(projectKey);
+            JsonNode issuesResponse = jiraService.getIssuesForProject(projectKey, fieldView);
             logger.info("Returning issues for project: {}", projectKey);
             return ResponseEntity.ok(issuesResponse);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error fetching issues for project: {}", projectKey, e);
             return ResponseEntity.internalServerError().body(Map.of("message", "Failed to fetch issues: " + e.getMessage()));
@@ -207,8 +238,10 @@ public class JiraController {
             @RequestParam(required = false) String userRole,
             @RequestParam(required = false) Long userOrganizationId,
             @RequestParam(required = false) Long userDepartmentId,
-            @RequestParam(required = false) String userEmail){
+            @RequestParam(required = false) String userEmail,
+            @RequestParam(required = false) String view){
         try {
+            JiraFieldView fieldView = JiraFieldView.fromParam(view, JiraFieldView.LIST);
             logger.info("Received request for all issues across all projects with user context - Role: {}, Organization ID: {}, Department ID: {}", 
                 userRole, userOrganizationId, userDepartmentId);
             
@@ -223,7 +256,7 @@ public class JiraController {
                 logger.warn("User department ID is null");
             }
             
-            JsonNode allIssues = jiraService.getAllIssues(userRole, userOrganizationId, userDepartmentId, userEmail);
+            JsonNode allIssues = jiraService.getAllIssues(userRole, userOrganizationId, userDepartmentId, userEmail, fieldView);
             logger.info("Returning all issues");
             // Return the issues array directly instead of the full response
             if (allIssues.has("issues")) {
@@ -231,12 +264,94 @@ public class JiraController {
             } else {
                 return ResponseEntity.ok(allIssues);
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error fetching all issues", e);
             return ResponseEntity.internalServerError().body(Map.of("message", "Failed to fetch all issues: " + e.getMessage()));
         }
     }
 
+    /**
+     * Get one page of the role-filtered issue list
+     * @param cursor Cursor returned as "nextCursor" by the previous page; omit for the first page
+     * @param pageSize Issues per page (1-100)
+     * @return Page with "issues", "nextCursor" and "isLast"
+     */
+    @GetMapping("/issues/page")
+    public ResponseEntity<?> getIssuesPage(
+            @RequestParam(required = false) String userRole,
+            @RequestParam(required = false) Long userOrganizationId,
+            @RequestParam(required = false) Long userDepartmentId,
+            @RequestParam(required = false) String userEmail,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int pageSize,
+            @RequestParam(required = false) String view) {
+        try {
+            JiraFieldView fieldView = JiraFieldView.fromParam(view, JiraFieldView.LIST);
+            int size = Math.max(1, Math.min(pageSize, 100));
+            logger.info("Received request for issue page - Role: {}, size: {}, cursor present: {}", userRole, size, cursor != null);
+            JsonNode page = jiraService.getIssuesPage(userRole, userOrganizationId, userDepartmentId, userEmail, cursor, size, fieldView);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error fetching issue page", e);
+            return ResponseEntity.internalServerError().body(Map.of("message", "Failed to fetch issue page: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream the role-filtered issue list as NDJSON (one issue per line), written page by page
+     * @return Streaming response body
+     */
+    @GetMapping(value = "/issues/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllIssues(
+            @RequestParam(required = false) String userRole,
+            @RequestParam(required = false) Long userOrganizationId,
+            @RequestParam(required = false) Long userDepartmentId,
+            @RequestParam(required = false) String userEmail,
+            @RequestParam(required = false) String view) {
+        JiraFieldView fieldView;
+        try {
+            fieldView = JiraFieldView.fromParam(view, JiraFieldView.LIST);
+        } catch (IllegalArgumentException e) {
+            String errorLine = JsonNodeFactory.instance.objectNode().put("error", e.getMessage()).toString();
+            StreamingResponseBody errorBody = out -> out.write((errorLine + "\n").getBytes(StandardCharsets.UTF_8));
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(errorBody);
+        }
+        logger.info("Received request to stream issues - Role: {}, Organization ID: {}, Department ID: {}",
+            userRole, userOrganizationId, userDepartmentId);
+
+        StreamingResponseBody body = out -> {
+            try {
+                jiraService.streamIssues(userRole, userOrganizationId, userDepartmentId, userEmail, fieldView, issues -> {
+                    for (JsonNode issue : issues) {
+                        out.write(issue.toString().getBytes(StandardCharsets.UTF_8));
+                        out.write('\n');
+                    }
+                    out.flush();
+                });
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                // Headers are already sent, so report the failure as a final NDJSON line
+                logger.error("Error streaming issues", e);
+                String errorLine = JsonNodeFactory.instance.objectNode()
+                    .put("error", "Failed to stream issues: " + e.getMessage())
+                    .toString();
+                out.write((errorLine + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+
     /**
      * Get all fields from Jira
      * @return The fields from Jira
@@ -406,18 +521,73 @@ public class JiraController {
      * @return The Jira issue details
      */
     @GetMapping("/issues/{issueIdOrKey}")
-    public ResponseEntity<?> getIssueByIdOrKey(@PathVariable String issueIdOrKey) {
+    public ResponseEntity<?> getIssueByIdOrKey(@PathVariable String issueIdOrKey,
+                                               @RequestParam(required = false) String view) {
         try {
+            JiraFieldView fieldView = JiraFieldView.fromParam(view, JiraFieldView.DETAIL);
             logger.info("Received request for Jira issue with ID/Key: {}", issueIdOrKey);
-            JsonNode issue = jiraService.getIssueByIdOrKey(issueIdOrKey);
+            JsonNode issue = jiraService.getIssueByIdOrKey(issueIdOrKey, fieldView);
             logger.info("Returning issue: {}", issueIdOrKey);
             return ResponseEntity.ok(issue);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error fetching Jira issue with ID/Key: {}", issueIdOrKey, e);
             return ResponseEntity.internalServerError().body(Map.of("message", "Failed to fetch issue: " + e.getMessage()));
         }
     }
     
+    /**
+     * Get several Jira issues in one request
+     * @param request body with "keys" (issue keys) and an optional "view" (field projection, default detail)
+     * @return "issues" keyed by issue key and "errors" keyed by issue key for keys that could not be fetched
+     */
+    @PostMapping("/issues/batch")
+    public ResponseEntity<?> getIssuesBatch(@RequestBody Map<String, Object> request) {
+        try {
+            if (!(request.get("keys") instanceof List<?> keys)) {
+                return ResponseEntity.badRequest().body(Map.of("message", "keys must be a list of issue keys"));
+            }
+            String viewParam = request.get("view") instanceof String value ? value : null;
+            JiraFieldView view = JiraFieldView.fromParam(viewParam, JiraFieldView.DETAIL);
+            logger.info("Received batch request for {} Jira issues (view {})", keys.size(), view);
+            
+            List<String> issueKeys = keys.stream().map(key -> key == null ? null : key.toString()).collect(Collectors.toList());
+            JiraIssueBatchService.BatchResult result = jiraIssueBatchService.getIssues(issueKeys, view);
+            logger.info("Returning {} issues, {} errors", result.issues().size(), result.errors().size());
+            return ResponseEntity.ok(Map.of("issues", result.issues(), "errors", result.errors()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error fetching Jira issues in batch", e);
+            return ResponseEntity.internalServerError().body(Map.of("message", "Failed to fetch issues: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get everything the issue detail page shows in one request
+     * @param issueIdOrKey The issue ID or key
+     * @return issue, Jira comments, worklogs, attachments, transitions, local comments, proposals,
+     *         contract attachments and profit; sections that failed are null and listed in "errors"
+     */
+    @GetMapping("/issues/{issueIdOrKey}/bundle")
+    public ResponseEntity<?> getIssueBundle(@PathVariable String issueIdOrKey) {
+        try {
+            logger.info("Received request for detail bundle of Jira issue: {}", issueIdOrKey);
+            JiraIssueBundleService.IssueBundle bundle = jiraIssueBundleService.getBundle(issueIdOrKey.trim());
+            
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("issueKey", issueIdOrKey.trim());
+            response.putAll(bundle.sections());
+            response.put("errors", bundle.errors());
+            logger.info("Returning detail bundle for issue: {} ({} sections failed)", issueIdOrKey, bundle.errors().size());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error fetching detail bundle for issue: {}", issueIdOrKey, e);
+            return ResponseEntity.internalServerError().body(Map.of("message", "Failed to fetch issue bundle: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get comments for a specific Jira issue
      * @param issueIdOrKey The issue ID or key
@@ -490,11 +660,8 @@ public class JiraController {
         try {
             logger.info("📥 Received Jira attachment upload for issue {}", issueIdOrKey);
 
-            JsonNode response = jiraService.addAttachmentToIssue(
-                    issueIdOrKey,
-                    file.getBytes(),
-                    file.getOriginalFilename()
-            );
+            // Streamed from the spooled part; the file is never read into memory
+            JsonNode response = jiraAttachmentService.uploadToIssue(issueIdOrKey, file);
 
             logger.info("📤 Attachment uploaded successfully to Jira!");
             
@@ -532,6 +699,10 @@ public class JiraController {
 
             return ResponseEntity.ok(response);
 
+        } catch (MaxUploadSizeExceededException e) {
+            logger.warn("Attachment for issue {} rejected: {}", issueIdOrKey, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("error", "File exceeds the maximum upload size of " + e.getMaxUploadSize() + " bytes"));
         } catch (Exception e) {
             logger.error("❌ Error uploading attachment to Jira", e);
             return ResponseEntity.status(500)
@@ -561,19 +732,28 @@ public class JiraController {
     }
     
     /**
-     * Get attachment content by ID
+     * Get attachment content by ID, streamed from Jira with Range support
      * @param attachmentId The attachment ID
-     * @return The attachment content
+     * @param request The client request (Range, If-None-Match, If-Range)
+     * @param response The response the attachment is streamed to
+     * @return null once the content has been written, or an error response
      */
     @GetMapping("/attachment/content/{attachmentId}")
-    public ResponseEntity<?> getAttachmentContent(@PathVariable String attachmentId) {
+    public ResponseEntity<?> getAttachmentContent(@PathVariable String attachmentId,
+                                                  HttpServletRequest request,
+                                                  HttpServletResponse response) {
         try {
             logger.info("Received request for attachment content with ID: {}", attachmentId);
-            byte[] content = jiraService.getAttachmentContent(attachmentId);
-            logger.info("Returning attachment content for ID: {}", attachmentId);
-            return ResponseEntity.ok(content);
+            jiraAttachmentService.streamToResponse(attachmentId, request, response);
+            // The body has been written directly to the response
+            return null;
         } catch (Exception e) {
             logger.error("Error fetching attachment content for ID: {}", attachmentId, e);
+            if (response.isCommitted()) {
+                // Part of the file was already sent; the client sees a truncated download
+                return null;
+            }
+            response.reset();
             return ResponseEntity.internalServerError().body(Map.of("message", "Failed to fetch attachment content: " + e.getMessage()));
         }
     }
@@ -649,6 +829,43 @@ public class JiraController {
         }
     }
 
+    /**
+     * Transition several Jira issues at once
+     * @param request body with "transitions": a list of {"issueKey", "transitionKey"}; transition keys
+     *                are the UI keys (e.g. approve-pre-approval) or numeric Jira transition IDs
+     * @return per-issue results in request order, with success and failure counts
+     */
+    @PostMapping("/issues/transitions/bulk")
+    public ResponseEntity<?> bulkTransitionIssues(@RequestBody Map<String, Object> request) {
+        try {
+            if (!(request.get("transitions") instanceof List<?> items)) {
+                return ResponseEntity.badRequest().body(Map.of("message", "transitions must be a list of {issueKey, transitionKey}"));
+            }
+            List<JiraBulkTransitionService.TransitionRequest> transitions = new ArrayList<>();
+            for (Object item : items) {
+                if (!(item instanceof Map<?, ?> fields)) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "transitions must be a list of {issueKey, transitionKey}"));
+                }
+                transitions.add(new JiraBulkTransitionService.TransitionRequest(
+                        fields.get("issueKey") == null ? null : String.valueOf(fields.get("issueKey")),
+                        fields.get("transitionKey") == null ? null : String.valueOf(fields.get("transitionKey"))));
+            }
+            logger.info("Received bulk transition request for {} issues", transitions.size());
+
+            List<JiraBulkTransitionService.TransitionResult> results = jiraBulkTransitionService.transition(transitions);
+            long succeeded = results.stream().filter(JiraBulkTransitionService.TransitionResult::success).count();
+            return ResponseEntity.ok(Map.of(
+                    "results", results,
+                    "succeeded", succeeded,
+                    "failed", results.size() - succeeded));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error running bulk transition", e);
+            return ResponseEntity.internalServerError().body(Map.of("message", "Failed to transition issues: " + e.getMessage()));
+        }
+    }
+
     
     /**
      * Get current user information
@@ -917,44 +1134,7 @@ public ResponseEntity<?> getCompletedContracts() {
     try {
         logger.info("Fetching COMPLETED contracts (renewalStatus=completed)");
 
-        List<ContractDetails> completed = 
-                contractDetailsService.getContractsByRenewalStatus("completed");
-
-        List<ContractDTO> dtoList = completed.stream().map(c -> {
-            ContractDTO dto = new ContractDTO();
-
-            dto.setId(c.getId());
-            dto.setContractType(c.getContractType());
-            dto.setRenewalStatus(c.getRenewalStatus());   // ⭐ IMPORTANT
-            dto.setJiraIssueKey(c.getJiraIssueKey());
-
-            dto.setNameOfVendor(c.getNameOfVendor());
-            dto.setProductName(c.getProductName());
-            dto.setRequesterName(c.getRequesterName());
-            dto.setRequesterEmail(c.getRequesterMail());
-            dto.setRequesterDepartment(c.getRequesterDepartment());
-            dto.setRequesterOrganization(c.getRequesterOrganization());
-
-            dto.setVendorContractType(c.getVendorContractType());
-            dto.setAdditionalComment(c.getAdditionalComment());
-            dto.setBillingType(c.getBillingType());
-            dto.setLicenseUpdateType(c.getLicenseUpdateType());
-            dto.setExistingContractId(c.getExistingContractId());
-            dto.setContractDuration(c.getContractDuration());
-
-            dto.setCurrentLicenseCount(c.getCurrentLicenseCount());
-            dto.setCurrentUsageCount(c.getCurrentUsageCount());
-            dto.setCurrentUnits(c.getCurrentUnits());
-
-            dto.setNewLicenseCount(c.getNewLicenseCount());
-            dto.setNewUsageCount(c.getNewUsageCount());
-            dto.setNewUnits(c.getNewUnits());
-
-            dto.setDueDate(c.getDueDate() != null ? c.getDueDate().toString() : null);
-            dto.setRenewalDate(c.getRenewalDate() != null ? c.getRenewalDate().toString() : null);
-
-            return dto;
-        }).toList();
+        List<ContractDTO> dtoList = contractDetailsService.getContractDTOs("completed", null, null);
 
         return ResponseEntity.ok(dtoList);
 
@@ -976,46 +1156,8 @@ public ResponseEntity<?> getCompletedContractsByVendorAndProduct(
     try {
         logger.info("Fetching COMPLETED contracts for vendor: {} and product: {}", vendorName, productName);
 
-        List<ContractDetails> completed = 
-                contractDetailsService.getCompletedContractsByVendorAndProduct(vendorName, productName);
-
-        List<ContractDTO> dtoList = completed.stream().map(c -> {
-            ContractDTO dto = new ContractDTO();
-
-            dto.setId(c.getId());
-
-            dto.setContractType(c.getContractType());
-            dto.setJiraIssueKey(c.getJiraIssueKey());
-            dto.setRenewalStatus(c.getRenewalStatus());
-
-            dto.setNameOfVendor(c.getNameOfVendor());
-            dto.setProductName(c.getProductName());
-            dto.setRequesterName(c.getRequesterName());
-            dto.setRequesterEmail(c.getRequesterMail());
-            dto.setRequesterDepartment(c.getRequesterDepartment());
-            dto.setRequesterOrganization(c.getRequesterOrganization());
-
-            dto.setVendorContractType(c.getVendorContractType());
-            dto.setAdditionalComment(c.getAdditionalComment());
-            dto.setBillingType(c.getBillingType());
-            dto.setLicenseUpdateType(c.getLicenseUpdateType());
-            dto.setExistingContractId(c.getExistingContractId());
-            dto.setContractDuration(c.getContractDuration());
-
-            dto.setCurrentLicenseCount(c.getCurrentLicenseCount());
-            dto.setCurrentUsageCount(c.getCurrentUsageCount());
-            dto.setCurrentUnits(c.getCurrentUnits());
-
-            dto.setNewLicenseCount(c.getNewLicenseCount());
-            dto.setNewUsageCount(c.getNewUsageCount());
-            dto.setNewUnits(c.getNewUnits());
-
-            dto.setDueDate(c.getDueDate() != null ? c.getDueDate().toString() : null);
-            dto.setRenewalDate(c.getRenewalDate() != null ? c.getRenewalDate().toString() : null);
-            dto.setTotalProfit(c.getTotalOptimizedCost());
-
-            return dto;
-        }).toList();
+        List<ContractDTO> dtoList =
+                contractDetailsService.getContractDTOs("completed", vendorName, productName);
 
         return ResponseEntity.ok(dtoList);
 
@@ -1215,11 +1357,8 @@ public ResponseEntity<?> markContractCompleted(@RequestBody ContractCompletedReq
             }
         }
 
-        // ⭐ 3. SAVE CONTRACT DATA
-        ContractDetails contract = contractDetailsService.findByJiraIssueKey(request.getIssueKey());
-        if (contract == null) {
-            contract = new ContractDetails();
-        }
+        // ⭐ 3. SAVE CONTRACT DATA (saveCompletedContract inserts or updates by issue key; no lookup needed)
+        ContractDetails contract = new ContractDetails();
 
         contract.setRenewalStatus("completed");
         contract.setJiraIssueKey(request.getIssueKey());
@@ -1499,10 +1638,14 @@ public ResponseEntity<?> getProposalById(@PathVariable Long proposalId) {
     /**
      * Serve attachment file content
      * @param attachmentId The attachment ID
-     * @return The attachment file content
+     * @param request The client request (Range, If-None-Match, If-Range)
+     * @param response The response the attachment is streamed to
+     * @return null once the content has been written, or a redirect or error response
      */
     @GetMapping("/contracts/attachments/{attachmentId}/content")
-    public ResponseEntity<?> getAttachmentContent(@PathVariable Long attachmentId) {
+    public ResponseEntity<?> getAttachmentContent(@PathVariable Long attachmentId,
+                                                  HttpServletRequest request,
+                                                  HttpServletResponse response) {
         try {
             ContractAttachment attachment = contractAttachmentRepository.findById(attachmentId)
                     .orElse(null);
@@ -1511,11 +1654,15 @@ public ResponseEntity<?> getProposalById(@PathVariable Long proposalId) {
                 return ResponseEntity.notFound().build();
             }
             
-            // Since we no longer store file content locally, redirect to Jira for the attachment
-            // Extract Jira attachment URL from our fileUrl
+            // Since we no longer store file content locally, the content comes from Jira
+            // (through the attachment disk cache) when the fileUrl names a Jira attachment
             String fileUrl = attachment.getFileUrl();
-            if (fileUrl != null && !fileUrl.isEmpty()) {
-                // Redirect to the Jira attachment URL
+            String jiraAttachmentId = JiraAttachmentDiskCache.jiraAttachmentId(fileUrl);
+            if (jiraAttachmentId != null) {
+                jiraAttachmentService.streamToResponse(jiraAttachmentId, request, response);
+                return null;
+            } else if (fileUrl != null && !fileUrl.isEmpty()) {
+                // Redirect to the stored attachment URL
                 return ResponseEntity.status(HttpStatus.FOUND)
                         .header(HttpHeaders.LOCATION, fileUrl)
                         .build();
@@ -1525,6 +1672,10 @@ public ResponseEntity<?> getProposalById(@PathVariable Long proposalId) {
             }
         } catch (Exception e) {
             logger.error("Error serving attachment content for ID: {}", attachmentId, e);
+            if (response.isCommitted()) {
+                return null;
+            }
+            response.reset();
             return ResponseEntity.status(500).body(Map.of("error", "Failed to serve attachment: " + e.getMessage()));
         }
     }
@@ -1559,6 +1710,8 @@ public ResponseEntity<?> getProposalById(@PathVariable Long proposalId) {
             String issueKey = (String) payload.get("issueKey");
             Object licenseCountObj = payload.get("newLicenseCount");
             Object totalProfitObj = payload.get("totalProfit");
+            // Jira fields are buffered briefly unless the caller asks for them to be sent now
+            boolean commit = Boolean.TRUE.equals(payload.get("commit")) || "true".equals(payload.get("commit"));
             
             // Validate required fields
             if (issueKey == null || issueKey.isEmpty()) {
@@ -1603,6 +1756,16 @@ public ResponseEntity<?> getProposalById(@PathVariable Long proposalId) {
             logger.info("Successfully updated license count for issueKey: {}", issueKey);
             Map<String, Object> response = new HashMap<>();
             response.put("message", "License count updated successfully");
+            if (commit) {
+                JiraFieldWriteBuffer.FlushResult flushed = contractDetailsService.commitJiraFields(issueKey);
+                response.put("jiraUpdate", flushed.success() ? "flushed" : "failed");
+                response.put("jiraFields", flushed.fields());
+                if (!flushed.success()) {
+                    response.put("jiraError", flushed.message());
+                }
+            } else {
+                response.put("jiraUpdate", "pending");
+            }
             if (updatedContract.getId() != null) {
                 response.put("contractId", updatedContract.getId());
             } else {
@@ -1647,17 +1810,21 @@ public ResponseEntity<?> getProposalById(@PathVariable Long proposalId) {
                     logger.warn("Failed to update total optimized cost for issueKey: {}", issueKey, e);
                 }
             }
+            // One Jira update with everything still buffered from the negotiation
+            JiraFieldWriteBuffer.FlushResult flushed = contractDetailsService.commitJiraFields(issueKey);
             
             // Mark the contract as having a submitted final quote
             ContractDetails updatedContract = contractDetailsService.markFinalQuoteSubmitted(issueKey);
             
             logger.info("Successfully finalized contract submission for issueKey: {}", issueKey);
-            return ResponseEntity.ok(Map.of(
-                "message", "Contract finalized successfully",
-                "issueKey", issueKey,
-                "contractId", updatedContract.getId(),
-                "totalProfit", totalProfit
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Contract finalized successfully");
+            response.put("issueKey", issueKey);
+            response.put("contractId", updatedContract.getId());
+            response.put("totalProfit", totalProfit);
+            response.put("jiraUpdate", flushed.success() ? "flushed" : "failed");
+            response.put("jiraFields", flushed.fields());
+            return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             logger.error("Error finalizing contract submission for issueKey: {}", issueKey, e);
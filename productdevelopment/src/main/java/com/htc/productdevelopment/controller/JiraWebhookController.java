@@ -0,0 +1,66 @@
+package com.htc.productdevelopment.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.service.JiraWebhookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Receiver for Jira issue webhooks.
+ * Register https://<host>/api/jira/webhooks in Jira for issue created/updated/deleted events
+ * with the shared secret from jira.webhook.secret.
+ */
+@RestController
+@RequestMapping("/api/jira/webhooks")
+public class JiraWebhookController {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraWebhookController.class);
+
+    private final JiraWebhookService jiraWebhookService;
+    private final ObjectMapper objectMapper;
+
+    public JiraWebhookController(JiraWebhookService jiraWebhookService, ObjectMapper objectMapper) {
+        this.jiraWebhookService = jiraWebhookService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Receive a Jira webhook event
+     * @param rawBody the event JSON, kept raw so the signature can be checked
+     * @param signature HMAC signature of the body (X-Hub-Signature: sha256=...)
+     * @param headerSecret shared secret sent as a header
+     * @param querySecret shared secret appended to the webhook URL
+     * @return ResponseEntity with the processing result
+     */
+    @PostMapping
+    public ResponseEntity<?> receiveWebhook(
+            @RequestBody String rawBody,
+            @RequestHeader(value = "X-Hub-Signature", required = false) String signature,
+            @RequestHeader(value = "X-Jira-Webhook-Secret", required = false) String headerSecret,
+            @RequestParam(value = "secret", required = false) String querySecret) {
+        String providedSecret = headerSecret != null ? headerSecret : querySecret;
+        if (!jiraWebhookService.isAuthentic(rawBody, signature, providedSecret)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid webhook secret"));
+        }
+
+        try {
+            JsonNode payload = objectMapper.readTree(rawBody);
+            return ResponseEntity.ok(jiraWebhookService.handleEvent(payload));
+        } catch (Exception e) {
+            logger.error("Error processing Jira webhook", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("message", "Failed to process webhook: " + e.getMessage()));
+        }
+    }
+}
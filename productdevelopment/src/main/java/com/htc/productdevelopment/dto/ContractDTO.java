@@ -1,8 +1,12 @@
 package com.htc.productdevelopment.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
 public class ContractDTO {
 
     private Long id;
@@ -40,4 +44,43 @@ public class ContractDTO {
     private String billingType;
     private String contractDuration;
     private Double totalProfit;
+
+    /**
+     * Constructor expression target of ContractDetailsRepository.CONTRACT_DTO_SELECT
+     */
+    public ContractDTO(Long id, String contractType, String renewalStatus, String jiraIssueKey,
+                       String nameOfVendor, String productName,
+                       String requesterName, String requesterEmail, String requesterDepartment, String requesterOrganization,
+                       String vendorContractType, String additionalComment,
+                       Integer currentLicenseCount, Integer currentUsageCount, String currentUnits,
+                       Integer newLicenseCount, Integer newUsageCount, String newUnits,
+                       LocalDate dueDate, LocalDate renewalDate,
+                       String licenseUpdateType, String existingContractId, String billingType, String contractDuration,
+                       Double totalProfit) {
+        this.id = id;
+        this.contractType = contractType;
+        this.renewalStatus = renewalStatus;
+        this.jiraIssueKey = jiraIssueKey;
+        this.nameOfVendor = nameOfVendor;
+        this.productName = productName;
+        this.requesterName = requesterName;
+        this.requesterEmail = requesterEmail;
+        this.requesterDepartment = requesterDepartment;
+        this.requesterOrganization = requesterOrganization;
+        this.vendorContractType = vendorContractType;
+        this.additionalComment = additionalComment;
+        this.currentLicenseCount = currentLicenseCount;
+        this.currentUsageCount = currentUsageCount;
+        this.currentUnits = currentUnits;
+        this.newLicenseCount = newLicenseCount;
+        this.newUsageCount = newUsageCount;
+        this.newUnits = newUnits;
+        this.dueDate = dueDate != null ? dueDate.toString() : null;
+        this.renewalDate = renewalDate != null ? renewalDate.toString() : null;
+        this.licenseUpdateType = licenseUpdateType;
+        this.existingContractId = existingContractId;
+        this.billingType = billingType;
+        this.contractDuration = contractDuration;
+        this.totalProfit = totalProfit;
+    }
 }
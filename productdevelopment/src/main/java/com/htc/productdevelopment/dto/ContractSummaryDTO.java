@@ -0,0 +1,38 @@
+package com.htc.productdevelopment.dto;
+
+import lombok.Data;
+
+/**
+ * Contract row of the contract search listing; leaves out the TEXT columns
+ * (comments, attachments) that only the detail view needs
+ */
+@Data
+public class ContractSummaryDTO {
+
+    private Long id;
+    private String jiraIssueKey;
+    private String contractType;
+    private String renewalStatus;
+
+    private String nameOfVendor;
+    private String productName;
+    private String vendorContractType;
+    private String billingType;
+
+    private String requesterName;
+    private String requesterEmail;
+    private String requesterDepartment;
+    private String requesterOrganization;
+    private Long requesterDepartmentId;
+    private Long requesterOrganizationId;
+
+    private Integer currentLicenseCount;
+    private Integer newLicenseCount;
+
+    private String contractStartDate;
+    private String contractEndDate;
+    private String dueDate;
+    private String renewalDate;
+
+    private Double totalProfit;
+}
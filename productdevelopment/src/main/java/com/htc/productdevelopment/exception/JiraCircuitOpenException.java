@@ -0,0 +1,21 @@
+package com.htc.productdevelopment.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a Jira request is rejected because the circuit breaker is open.
+ * Extends IOException so it can be raised from a RestTemplate interceptor.
+ */
+public class JiraCircuitOpenException extends IOException {
+
+    private final long retryAfterMs;
+
+    public JiraCircuitOpenException(String message, long retryAfterMs) {
+        super(message);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
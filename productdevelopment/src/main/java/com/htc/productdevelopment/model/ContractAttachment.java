@@ -10,9 +10,11 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.htc.productdevelopment.service.ContractAttachmentCacheWarmer;
 
 @Entity
 @Table(name = "contract_attachments")
+@EntityListeners(ContractAttachmentCacheWarmer.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,79 @@
+package com.htc.productdevelopment.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending contract-completion work for a Jira issue.
+ * One row per issue key: enqueueing an issue that already has a row resets it instead of
+ * adding a second one. Each enqueue bumps the generation, so a worker that read an older
+ * generation puts the row back in the queue instead of finishing it.
+ */
+@Entity
+@Table(name = "contract_completion_outbox",
+       uniqueConstraints = @UniqueConstraint(name = "uk_completion_outbox_issue_key", columnNames = "issue_key"),
+       indexes = @Index(name = "idx_completion_outbox_status_next", columnList = "status, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContractCompletionOutbox {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_PROCESSING = "PROCESSING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+
+    // Outcome of a processed entry
+    public static final String OUTCOME_COMPLETED = "COMPLETED";
+    public static final String OUTCOME_NOT_COMPLETED = "NOT_COMPLETED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "issue_key", nullable = false, length = 50)
+    private String issueKey;
+
+    // TRANSITION or WEBHOOK
+    @Column(name = "source", length = 20)
+    private String source;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "outcome", length = 20)
+    private String outcome;
+
+    // Issue fields from a webhook payload; when null the worker fetches them from Jira
+    @Column(name = "fields_json", columnDefinition = "TEXT")
+    private String fieldsJson;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // Incremented by every enqueue; workers only finish the generation they read
+    @Column(name = "generation", nullable = false)
+    private long generation;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // A PROCESSING entry whose lock expired is picked up again (worker died mid-way)
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -35,7 +35,8 @@ public class ContractDetails {
     private String renewalStatus;
 
     
-    @Column(name = "jira_issue_key")
+    // Unique: contracts are upserted by issue key (ContractUpsertService)
+    @Column(name = "jira_issue_key", unique = true)
     private String jiraIssueKey;
     
     // -------------------------
@@ -47,6 +48,22 @@ public class ContractDetails {
     @Column(name = "product_name", nullable = false)
     private String productName;
 
+    // -------------------------
+    // Lookup keys — lower(trim(...)) of vendor, product and renewal status, generated
+    // by the database (see db/migration/V1__baseline.sql) and indexed for case-insensitive lookups
+    // -------------------------
+    @Column(name = "vendor_key", insertable = false, updatable = false)
+    @JsonIgnore
+    private String vendorKey;
+
+    @Column(name = "product_key", insertable = false, updatable = false)
+    @JsonIgnore
+    private String productKey;
+
+    @Column(name = "renewal_status_key", insertable = false, updatable = false)
+    @JsonIgnore
+    private String renewalStatusKey;
+
     // -------------------------
     // Contract Dates
     // -------------------------
@@ -1,11 +1,13 @@
 package com.htc.productdevelopment.model;
 
+import com.htc.productdevelopment.service.JiraIdentityDirectoryInvalidator;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 import java.util.Date;
 
 @Entity
+@EntityListeners(JiraIdentityDirectoryInvalidator.class)
 @Table(name = "departments")
 @Getter
 @Setter
@@ -2,9 +2,16 @@ package com.htc.productdevelopment.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "jira_issues")
+@Table(name = "jira_issues", indexes = {
+    @Index(name = "idx_jira_issues_project_number", columnList = "project_key, issue_number"),
+    @Index(name = "idx_jira_issues_org_dept", columnList = "organization, department"),
+    @Index(name = "idx_jira_issues_requester_email", columnList = "requester_email"),
+    @Index(name = "idx_jira_issues_updated", columnList = "jira_updated")
+})
 public class JiraIssue {
     
     @Id
@@ -44,6 +51,57 @@ public class JiraIssue {
     @Column(name = "due_date")
     private LocalDate dueDate;
     
+    // Numeric part of the issue key, used to keep Jira's "ORDER BY key DESC" ordering
+    @Column(name = "issue_number")
+    private Integer issueNumber;
+    
+    @Column(name = "jira_created")
+    private OffsetDateTime created;
+    
+    @Column(name = "jira_updated")
+    private OffsetDateTime updated;
+    
+    // 🔹 Contract custom fields (see JiraFieldConfig)
+    @Column(name = "vendor_name")
+    private String vendorName;
+    
+    @Column(name = "product_name")
+    private String productName;
+    
+    @Column(name = "contract_type")
+    private String contractType;
+    
+    @Column(name = "billing_type")
+    private String billingType;
+    
+    @Column(name = "license_update_type")
+    private String licenseUpdateType;
+    
+    @Column(name = "requester_name")
+    private String requesterName;
+    
+    @Column(name = "requester_email")
+    private String requesterEmail;
+    
+    @Column(name = "organization")
+    private String organization;
+    
+    @Column(name = "department")
+    private String department;
+    
+    @Column(name = "contract_due_date")
+    private String contractDueDate;
+    
+    @Column(name = "renewal_date")
+    private String renewalDate;
+    
+    // Issue JSON as returned by the Jira search, served back as-is by the issue list
+    @Column(name = "raw_json", columnDefinition = "TEXT")
+    private String rawJson;
+    
+    @Column(name = "synced_at")
+    private LocalDateTime syncedAt;
+    
     // Constructors
     public JiraIssue() {}
     
@@ -160,6 +218,134 @@ public class JiraIssue {
         this.dueDate = dueDate;
     }
     
+    public Integer getIssueNumber() {
+        return issueNumber;
+    }
+    
+    public void setIssueNumber(Integer issueNumber) {
+        this.issueNumber = issueNumber;
+    }
+    
+    public OffsetDateTime getCreated() {
+        return created;
+    }
+    
+    public void setCreated(OffsetDateTime created) {
+        this.created = created;
+    }
+    
+    public OffsetDateTime getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(OffsetDateTime updated) {
+        this.updated = updated;
+    }
+    
+    public String getVendorName() {
+        return vendorName;
+    }
+    
+    public void setVendorName(String vendorName) {
+        this.vendorName = vendorName;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+    
+    public String getContractType() {
+        return contractType;
+    }
+    
+    public void setContractType(String contractType) {
+        this.contractType = contractType;
+    }
+    
+    public String getBillingType() {
+        return billingType;
+    }
+    
+    public void setBillingType(String billingType) {
+        this.billingType = billingType;
+    }
+    
+    public String getLicenseUpdateType() {
+        return licenseUpdateType;
+    }
+    
+    public void setLicenseUpdateType(String licenseUpdateType) {
+        this.licenseUpdateType = licenseUpdateType;
+    }
+    
+    public String getRequesterName() {
+        return requesterName;
+    }
+    
+    public void setRequesterName(String requesterName) {
+        this.requesterName = requesterName;
+    }
+    
+    public String getRequesterEmail() {
+        return requesterEmail;
+    }
+    
+    public void setRequesterEmail(String requesterEmail) {
+        this.requesterEmail = requesterEmail;
+    }
+    
+    public String getOrganization() {
+        return organization;
+    }
+    
+    public void setOrganization(String organization) {
+        this.organization = organization;
+    }
+    
+    public String getDepartment() {
+        return department;
+    }
+    
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+    
+    public String getContractDueDate() {
+        return contractDueDate;
+    }
+    
+    public void setContractDueDate(String contractDueDate) {
+        this.contractDueDate = contractDueDate;
+    }
+    
+    public String getRenewalDate() {
+        return renewalDate;
+    }
+    
+    public void setRenewalDate(String renewalDate) {
+        this.renewalDate = renewalDate;
+    }
+    
+    public String getRawJson() {
+        return rawJson;
+    }
+    
+    public void setRawJson(String rawJson) {
+        this.rawJson = rawJson;
+    }
+    
+    public LocalDateTime getSyncedAt() {
+        return syncedAt;
+    }
+    
+    public void setSyncedAt(LocalDateTime syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+    
     @Override
     public String toString() {
         return "JiraIssue{" +
@@ -175,6 +361,7 @@ public class JiraIssue {
                 ", status='" + status + '\'' +
                 ", priority='" + priority + '\'' +
                 ", dueDate=" + dueDate +
+                ", updated=" + updated +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.htc.productdevelopment.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+
+/**
+ * Progress of the background Jira issue sync.
+ * One row per synced project; the watermark is the newest "updated" timestamp mirrored so far.
+ */
+@Entity
+@Table(name = "jira_sync_state")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JiraSyncState {
+
+    @Id
+    @Column(name = "project_key", length = 50)
+    private String projectKey;
+
+    @Column(name = "watermark")
+    private OffsetDateTime watermark;
+
+    @Column(name = "last_run_started_at")
+    private LocalDateTime lastRunStartedAt;
+
+    @Column(name = "last_success_at")
+    private LocalDateTime lastSuccessAt;
+
+    @Column(name = "last_full_sync_at")
+    private LocalDateTime lastFullSyncAt;
+
+    @Column(name = "last_status")
+    private String lastStatus;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "last_issue_count")
+    private Integer lastIssueCount;
+}
@@ -1,5 +1,6 @@
 package com.htc.productdevelopment.model;
 
+import com.htc.productdevelopment.service.JiraIdentityDirectoryInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(JiraIdentityDirectoryInvalidator.class)
 @Table(name = "organizations")
 public class Organization {
 
@@ -0,0 +1,107 @@
+package com.htc.productdevelopment.repository;
+
+import com.htc.productdevelopment.model.ContractCompletionOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ContractCompletionOutboxRepository extends JpaRepository<ContractCompletionOutbox, Long> {
+    Optional<ContractCompletionOutbox> findByIssueKey(String issueKey);
+    List<ContractCompletionOutbox> findByIssueKeyIn(Collection<String> issueKeys);
+    List<ContractCompletionOutbox> findByStatusOrderByUpdatedAtDesc(String status);
+
+    // Entries ready to run: pending and due, or processing with an expired lock
+    @Query("""
+        SELECT o.id FROM ContractCompletionOutbox o
+        WHERE (o.status = 'PENDING' AND o.nextAttemptAt <= :now)
+           OR (o.status = 'PROCESSING' AND o.lockedUntil < :now)
+        ORDER BY o.nextAttemptAt ASC
+        """)
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Atomically take an entry; returns 0 when another worker or instance got it first
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE ContractCompletionOutbox o
+        SET o.status = 'PROCESSING', o.lockedUntil = :lockedUntil, o.attempts = o.attempts + 1, o.updatedAt = :now
+        WHERE o.id = :id
+          AND ((o.status = 'PENDING' AND o.nextAttemptAt <= :now)
+            OR (o.status = 'PROCESSING' AND o.lockedUntil < :now))
+        """)
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // Record a new completion request for existing entries. Every request bumps the generation;
+    // an entry a worker holds keeps its lock, and the worker requeues it when it sees the newer generation
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE ContractCompletionOutbox o
+        SET o.generation = o.generation + 1,
+            o.source = :source,
+            o.fieldsJson = :fieldsJson,
+            o.status = CASE WHEN o.status = 'PROCESSING' AND o.lockedUntil > :now THEN 'PROCESSING' ELSE 'PENDING' END,
+            o.attempts = CASE WHEN o.status = 'PROCESSING' AND o.lockedUntil > :now THEN o.attempts ELSE 0 END,
+            o.lockedUntil = CASE WHEN o.status = 'PROCESSING' AND o.lockedUntil > :now THEN o.lockedUntil ELSE NULL END,
+            o.nextAttemptAt = :now,
+            o.outcome = NULL,
+            o.lastError = NULL,
+            o.completedAt = NULL,
+            o.updatedAt = :now
+        WHERE o.issueKey IN :issueKeys
+        """)
+    int requestCompletion(@Param("issueKeys") Collection<String> issueKeys, @Param("source") String source,
+                          @Param("fieldsJson") String fieldsJson, @Param("now") LocalDateTime now);
+
+    // Finish an entry; returns 0 when it was re-enqueued after the worker read it
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE ContractCompletionOutbox o
+        SET o.status = 'DONE', o.outcome = :outcome, o.lockedUntil = NULL, o.lastError = NULL,
+            o.completedAt = :now, o.updatedAt = :now
+        WHERE o.id = :id AND o.generation = :generation
+        """)
+    int markDone(@Param("id") Long id, @Param("generation") long generation,
+                 @Param("outcome") String outcome, @Param("now") LocalDateTime now);
+
+    // Schedule a retry or give up; returns 0 when the entry was re-enqueued after the worker read it
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE ContractCompletionOutbox o
+        SET o.status = :status, o.nextAttemptAt = :nextAttemptAt, o.lockedUntil = NULL,
+            o.lastError = :lastError, o.updatedAt = :now
+        WHERE o.id = :id AND o.generation = :generation
+        """)
+    int markRetry(@Param("id") Long id, @Param("generation") long generation, @Param("status") String status,
+                  @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError,
+                  @Param("now") LocalDateTime now);
+
+    // Put a re-enqueued entry straight back in the queue with fresh attempts
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE ContractCompletionOutbox o
+        SET o.status = 'PENDING', o.attempts = 0, o.nextAttemptAt = :now, o.lockedUntil = NULL,
+            o.outcome = NULL, o.completedAt = NULL, o.updatedAt = :now
+        WHERE o.id = :id
+        """)
+    int requeue(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("SELECT o.issueKey FROM ContractCompletionOutbox o WHERE o.issueKey IN :issueKeys")
+    List<String> findExistingIssueKeys(@Param("issueKeys") Collection<String> issueKeys);
+
+    @Query("SELECT o.status, COUNT(o) FROM ContractCompletionOutbox o GROUP BY o.status")
+    List<Object[]> countByStatus();
+}
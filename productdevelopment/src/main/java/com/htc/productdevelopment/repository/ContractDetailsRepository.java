@@ -1,14 +1,47 @@
 package com.htc.productdevelopment.repository;
 
+import com.htc.productdevelopment.dto.ContractDTO;
 import com.htc.productdevelopment.model.ContractDetails;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface ContractDetailsRepository extends JpaRepository<ContractDetails, Long> {
 
+    // Selects exactly the ContractDTO columns; the attachment TEXT columns are not read and no entities are managed
+    String CONTRACT_DTO_SELECT = """
+        SELECT new com.htc.productdevelopment.dto.ContractDTO(
+            c.id, c.contractType, c.renewalStatus, c.jiraIssueKey,
+            c.nameOfVendor, c.productName,
+            c.requesterName, c.requesterMail, c.requesterDepartment, c.requesterOrganization,
+            c.vendorContractType, c.additionalComment,
+            c.currentLicenseCount, c.currentUsageCount, c.currentUnits,
+            c.newLicenseCount, c.newUsageCount, c.newUnits,
+            c.dueDate, c.renewalDate,
+            c.licenseUpdateType, c.existingContractId, c.billingType, c.contractDuration,
+            c.totalOptimizedCost)
+        FROM ContractDetails c
+        """;
+
+    @Query(CONTRACT_DTO_SELECT + "ORDER BY c.id")
+    List<ContractDTO> findAllContractDTOs();
+
+    @Query(CONTRACT_DTO_SELECT + "WHERE c.renewalStatusKey = LOWER(TRIM(:renewalStatus)) ORDER BY c.id")
+    List<ContractDTO> findContractDTOsByRenewalStatus(@Param("renewalStatus") String renewalStatus);
+
+    @Query(CONTRACT_DTO_SELECT + """
+        WHERE c.renewalStatusKey = LOWER(TRIM(:renewalStatus))
+          AND c.vendorKey = LOWER(TRIM(:vendor))
+          AND c.productKey = LOWER(TRIM(:product))
+        ORDER BY c.id
+        """)
+    List<ContractDTO> findContractDTOsByRenewalStatusAndVendorAndProduct(@Param("renewalStatus") String renewalStatus,
+                                                                         @Param("vendor") String vendor,
+                                                                         @Param("product") String product);
+
     // Filter vendors by department
     @Query("""
         SELECT DISTINCT c.nameOfVendor
@@ -41,13 +74,16 @@ public interface ContractDetailsRepository extends JpaRepository<ContractDetails
 
     List<ContractDetails> findByContractTypeIgnoreCase(String contractType);
 
-    List<ContractDetails> findByNameOfVendorIgnoreCase(String vendorName);
+    // Case-insensitive lookups go through the indexed *_key columns rather than UPPER(column) = UPPER(?)
+    @Query("SELECT c FROM ContractDetails c WHERE c.vendorKey = LOWER(TRIM(:vendorName))")
+    List<ContractDetails> findByNameOfVendorIgnoreCase(@Param("vendorName") String vendorName);
 
     ContractDetails findByNameOfVendorAndProductNameIgnoreCase(String vendorName, String productName);
     
-    List<ContractDetails> findByRenewalStatusIgnoreCase(String renewalStatus);
+    @Query("SELECT c FROM ContractDetails c WHERE c.renewalStatusKey = LOWER(TRIM(:renewalStatus))")
+    List<ContractDetails> findByRenewalStatusIgnoreCase(@Param("renewalStatus") String renewalStatus);
     
-    @Query("SELECT c FROM ContractDetails c WHERE UPPER(c.renewalStatus) = UPPER(?1) AND UPPER(c.nameOfVendor) = UPPER(?2) AND UPPER(c.productName) = UPPER(?3)")
+    @Query("SELECT c FROM ContractDetails c WHERE c.renewalStatusKey = LOWER(TRIM(?1)) AND c.vendorKey = LOWER(TRIM(?2)) AND c.productKey = LOWER(TRIM(?3))")
     List<ContractDetails> findByRenewalStatusAndNameOfVendorAndProductNameAllIgnoreCase(String renewalStatus, String vendorName, String productName);
 
  
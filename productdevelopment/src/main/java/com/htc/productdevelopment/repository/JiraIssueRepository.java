@@ -1,9 +1,15 @@
 package com.htc.productdevelopment.repository;
 
 import com.htc.productdevelopment.model.JiraIssue;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +21,42 @@ public interface JiraIssueRepository extends JpaRepository<JiraIssue, Long> {
     List<JiraIssue> findByReporter(String reporter);
     List<JiraIssue> findByAssignee(String assignee);
     List<JiraIssue> findByStatus(String status);
+    List<JiraIssue> findByKeyIn(Collection<String> keys);
+
+    // Rows not written since the given time; a full sync only removes these, not ones a webhook stored meanwhile
+    @Query("SELECT i.key FROM JiraIssue i WHERE i.projectKey = :projectKey AND (i.syncedAt IS NULL OR i.syncedAt < :syncedBefore)")
+    List<String> findKeysByProjectKeySyncedBefore(@Param("projectKey") String projectKey,
+                                                  @Param("syncedBefore") LocalDateTime syncedBefore);
+
+    // Mirror equivalent of the role-filtered "Request Management" JQL search (null filters are ignored)
+    @Query("""
+        SELECT i FROM JiraIssue i
+        WHERE i.projectKey = :projectKey
+          AND (:organization IS NULL OR LOWER(i.organization) = LOWER(:organization))
+          AND (:department IS NULL OR LOWER(i.department) = LOWER(:department))
+          AND (:requesterEmail IS NULL OR LOWER(i.requesterEmail) = LOWER(:requesterEmail))
+        ORDER BY i.issueNumber DESC
+        """)
+    List<JiraIssue> findMirroredIssues(@Param("projectKey") String projectKey,
+                                       @Param("organization") String organization,
+                                       @Param("department") String department,
+                                       @Param("requesterEmail") String requesterEmail);
+
+    // Keyset chunk of findMirroredIssues: issues numbered below beforeIssueNumber (null for the first chunk);
+    // issue numbers are unique within a project, so they are a complete keyset
+    @Query("""
+        SELECT i FROM JiraIssue i
+        WHERE i.projectKey = :projectKey
+          AND (:organization IS NULL OR LOWER(i.organization) = LOWER(:organization))
+          AND (:department IS NULL OR LOWER(i.department) = LOWER(:department))
+          AND (:requesterEmail IS NULL OR LOWER(i.requesterEmail) = LOWER(:requesterEmail))
+          AND (:beforeIssueNumber IS NULL OR i.issueNumber < :beforeIssueNumber)
+        ORDER BY i.issueNumber DESC
+        """)
+    List<JiraIssue> findMirroredIssuesBefore(@Param("projectKey") String projectKey,
+                                             @Param("organization") String organization,
+                                             @Param("department") String department,
+                                             @Param("requesterEmail") String requesterEmail,
+                                             @Param("beforeIssueNumber") Integer beforeIssueNumber,
+                                             Pageable pageable);
 }
\ No newline at end of file
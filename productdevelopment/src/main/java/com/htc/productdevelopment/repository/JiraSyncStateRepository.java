@@ -0,0 +1,9 @@
+package com.htc.productdevelopment.repository;
+
+import com.htc.productdevelopment.model.JiraSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JiraSyncStateRepository extends JpaRepository<JiraSyncState, String> {
+}
@@ -25,4 +25,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.active = :active")
     long countByActive(@Param("active") boolean active);
+    
+    // Email and org/department ids of every user, without loading the entities
+    @Query("SELECT u.id AS id, u.email AS email, o.id AS organizationId, d.id AS departmentId " +
+           "FROM User u LEFT JOIN u.organization o LEFT JOIN u.department d")
+    List<UserScopeView> findAllScopes();
+    
+    interface UserScopeView {
+        Long getId();
+        String getEmail();
+        Long getOrganizationId();
+        Long getDepartmentId();
+    }
 }
\ No newline at end of file
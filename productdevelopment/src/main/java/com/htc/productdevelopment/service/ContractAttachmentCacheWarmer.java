@@ -0,0 +1,34 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.model.ContractAttachment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on ContractAttachment that downloads the Jira attachment into the disk cache as soon
+ * as its metadata is saved, so the first approver to open it is already served from disk.
+ * Hibernate creates the listener through Spring; the cache is looked up on first use because the
+ * listener is built while the EntityManagerFactory is still starting.
+ */
+@Component
+public class ContractAttachmentCacheWarmer {
+
+    private final ObjectProvider<JiraAttachmentDiskCache> attachmentCache;
+
+    public ContractAttachmentCacheWarmer(ObjectProvider<JiraAttachmentDiskCache> attachmentCache) {
+        this.attachmentCache = attachmentCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void warm(ContractAttachment attachment) {
+        String attachmentId = JiraAttachmentDiskCache.jiraAttachmentId(attachment.getFileUrl());
+        if (attachmentId == null) {
+            return;
+        }
+        long size = attachment.getFileSize() != null && attachment.getFileSize() > 0 ? attachment.getFileSize() : -1;
+        attachmentCache.ifAvailable(cache -> cache.warm(attachmentId, size));
+    }
+}
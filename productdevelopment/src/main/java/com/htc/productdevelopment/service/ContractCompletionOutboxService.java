@@ -0,0 +1,290 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.config.JiraFieldView;
+import com.htc.productdevelopment.model.ContractCompletionOutbox;
+import com.htc.productdevelopment.repository.ContractCompletionOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Outbox for contract completion after a Jira transition or webhook.
+ * The caller only records the issue key; a worker pool later fetches the contract fields once,
+ * saves the contract when the issue is Completed, and retries with exponential backoff on failure.
+ * Entries that run out of attempts stay in the table as FAILED and can be retried from the admin API.
+ */
+@Service
+public class ContractCompletionOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractCompletionOutboxService.class);
+
+    public static final String SOURCE_TRANSITION = "TRANSITION";
+    public static final String SOURCE_WEBHOOK = "WEBHOOK";
+
+    private final ContractCompletionOutboxRepository outboxRepository;
+    private final JiraService jiraService;
+    private final ThreadPoolTaskExecutor executor;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jira.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jira.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${jira.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${jira.outbox.base-backoff-ms:5000}")
+    private long baseBackoffMs;
+
+    @Value("${jira.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${jira.outbox.lock-timeout-ms:120000}")
+    private long lockTimeoutMs;
+
+    public ContractCompletionOutboxService(ContractCompletionOutboxRepository outboxRepository,
+                                           JiraService jiraService,
+                                           @Qualifier("contractCompletionExecutor") ThreadPoolTaskExecutor executor,
+                                           ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.jiraService = jiraService;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Record that an issue may have been completed. The request is never dropped: an entry a worker
+     * is processing right now gets a new generation, and the worker requeues it when it finishes
+     * @param issueKey the Jira issue key
+     * @param source TRANSITION or WEBHOOK
+     * @param fields issue fields from a webhook payload, or null to fetch them when processing
+     */
+    public void enqueue(String issueKey, String source, JsonNode fields) {
+        String fieldsJson = fields != null && !fields.isMissingNode() ? fields.toString() : null;
+        LocalDateTime now = LocalDateTime.now();
+        if (outboxRepository.requestCompletion(List.of(issueKey), source, fieldsJson, now) > 0) {
+            logger.info("Enqueued contract completion for {} ({})", issueKey, source);
+            return;
+        }
+
+        try {
+            outboxRepository.saveAndFlush(newEntry(issueKey, source, fieldsJson, now));
+            logger.info("Enqueued contract completion for {} ({})", issueKey, source);
+        } catch (DataIntegrityViolationException e) {
+            // Another request inserted the row for this issue first; record this request on it
+            outboxRepository.requestCompletion(List.of(issueKey), source, fieldsJson, now);
+            logger.info("Completion for {} was enqueued concurrently", issueKey);
+        }
+    }
+
+    /**
+     * Record several issues that may have been completed, with one lookup and one transaction
+     * @param issueKeys the Jira issue keys
+     * @param source TRANSITION or WEBHOOK
+     * @throws DataIntegrityViolationException if another request inserted one of the entries
+     *         first; nothing is saved and the caller can fall back to enqueue per issue
+     */
+    @Transactional
+    public void enqueueAll(Collection<String> issueKeys, String source) {
+        if (issueKeys.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> keys = new LinkedHashSet<>(issueKeys);
+        Set<String> existing = new HashSet<>(outboxRepository.findExistingIssueKeys(keys));
+        if (!existing.isEmpty()) {
+            outboxRepository.requestCompletion(existing, source, null, now);
+        }
+
+        List<ContractCompletionOutbox> entries = new ArrayList<>();
+        for (String issueKey : keys) {
+            if (!existing.contains(issueKey)) {
+                entries.add(newEntry(issueKey, source, null, now));
+            }
+        }
+        outboxRepository.saveAllAndFlush(entries);
+        logger.info("Enqueued contract completion for {} issues ({}), {} new", keys.size(), source, entries.size());
+    }
+
+    private static ContractCompletionOutbox newEntry(String issueKey, String source, String fieldsJson, LocalDateTime now) {
+        ContractCompletionOutbox entry = new ContractCompletionOutbox();
+        entry.setIssueKey(issueKey);
+        entry.setSource(source);
+        entry.setStatus(ContractCompletionOutbox.STATUS_PENDING);
+        entry.setFieldsJson(fieldsJson);
+        entry.setAttempts(0);
+        entry.setGeneration(0);
+        entry.setNextAttemptAt(now);
+        entry.setCreatedAt(now);
+        entry.setUpdatedAt(now);
+        return entry;
+    }
+
+    /**
+     * Hand due entries to idle workers
+     */
+    @Scheduled(initialDelayString = "${jira.outbox.initial-delay-ms:10000}",
+               fixedDelayString = "${jira.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        if (!enabled) {
+            return;
+        }
+        int idle = executor.getMaxPoolSize() - executor.getActiveCount();
+        if (idle <= 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, Math.min(idle, batchSize)));
+        for (Long id : dueIds) {
+            if (outboxRepository.claim(id, now, now.plus(Duration.ofMillis(lockTimeoutMs))) == 0) {
+                continue;
+            }
+            try {
+                executor.execute(() -> process(id));
+            } catch (TaskRejectedException e) {
+                // The lock expires and the entry is picked up again
+                logger.warn("Contract completion workers busy, entry {} deferred", id);
+                break;
+            }
+        }
+    }
+
+    private void process(Long id) {
+        ContractCompletionOutbox entry = outboxRepository.findById(id).orElse(null);
+        if (entry == null) {
+            return;
+        }
+        String issueKey = entry.getIssueKey();
+
+        // Jira calls from the worker yield to interactive traffic
+        JiraCallPriority previousPriority = JiraCallPriority.enter(JiraCallPriority.BACKGROUND);
+        try {
+            JsonNode fields = entry.getFieldsJson() != null
+                    ? objectMapper.readTree(entry.getFieldsJson())
+                    : jiraService.getIssueByIdOrKey(issueKey, JiraFieldView.CONTRACT_COMPLETION).path("fields");
+
+            String status = fields.path("status").path("name").asText();
+            boolean completed = JiraService.COMPLETED_STATUS.equalsIgnoreCase(status);
+            if (completed) {
+                jiraService.completeContractFromIssue(issueKey, fields);
+            }
+            markDone(entry, completed ? ContractCompletionOutbox.OUTCOME_COMPLETED : ContractCompletionOutbox.OUTCOME_NOT_COMPLETED);
+            logger.info("Contract completion for {} processed (status {}, attempt {})", issueKey, status, entry.getAttempts());
+        } catch (Exception e) {
+            markRetry(entry, e);
+        } finally {
+            JiraCallPriority.restore(previousPriority);
+        }
+    }
+
+    private void markDone(ContractCompletionOutbox entry, String outcome) {
+        LocalDateTime now = LocalDateTime.now();
+        if (outboxRepository.markDone(entry.getId(), entry.getGeneration(), outcome, now) == 0) {
+            requeue(entry, now);
+        }
+    }
+
+    private void markRetry(ContractCompletionOutbox entry, Exception e) {
+        LocalDateTime now = LocalDateTime.now();
+        String status;
+        LocalDateTime nextAttemptAt = entry.getNextAttemptAt();
+        if (entry.getAttempts() >= maxAttempts) {
+            status = ContractCompletionOutbox.STATUS_FAILED;
+            logger.error("Contract completion for {} failed after {} attempts", entry.getIssueKey(), entry.getAttempts(), e);
+        } else {
+            long backoff = backoffMs(entry.getAttempts());
+            status = ContractCompletionOutbox.STATUS_PENDING;
+            nextAttemptAt = now.plus(Duration.ofMillis(backoff));
+            logger.warn("Contract completion for {} failed (attempt {}), retrying in {} ms: {}",
+                    entry.getIssueKey(), entry.getAttempts(), backoff, e.getMessage());
+        }
+        if (outboxRepository.markRetry(entry.getId(), entry.getGeneration(), status, nextAttemptAt, e.getMessage(), now) == 0) {
+            requeue(entry, now);
+        }
+    }
+
+    /**
+     * Exponential backoff with up to 25% jitter
+     * @param attempts attempts made so far (1 after the first failure)
+     */
+    long backoffMs(int attempts) {
+        long backoff = Math.min(maxBackoffMs, baseBackoffMs << Math.min(Math.max(attempts - 1, 0), 20));
+        return backoff + ThreadLocalRandom.current().nextLong(backoff / 4 + 1);
+    }
+
+    /**
+     * The entry was enqueued again while this worker held it, possibly with a newer status or
+     * newer webhook fields than the worker saw; run it again instead of finishing it
+     */
+    private void requeue(ContractCompletionOutbox entry, LocalDateTime now) {
+        outboxRepository.requeue(entry.getId(), now);
+        logger.info("Completion for {} was re-enqueued while processing, queued again", entry.getIssueKey());
+    }
+
+    /**
+     * Put a failed or finished entry back in the queue
+     * @param issueKey the Jira issue key
+     * @return true if an entry existed
+     */
+    public boolean retry(String issueKey) {
+        if (outboxRepository.findByIssueKey(issueKey).isEmpty()) {
+            return false;
+        }
+        enqueue(issueKey, SOURCE_TRANSITION, null);
+        return true;
+    }
+
+    /**
+     * Queue counters and failed entries
+     * @return Map with entry counts per status, worker usage and the failed entries
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : outboxRepository.countByStatus()) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        stats.put("counts", counts);
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("maxWorkers", executor.getMaxPoolSize());
+
+        List<Map<String, Object>> failed = new ArrayList<>();
+        for (ContractCompletionOutbox entry : outboxRepository.findByStatusOrderByUpdatedAtDesc(ContractCompletionOutbox.STATUS_FAILED)) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("issueKey", entry.getIssueKey());
+            item.put("attempts", entry.getAttempts());
+            item.put("lastError", entry.getLastError());
+            item.put("updatedAt", entry.getUpdatedAt());
+            failed.add(item);
+        }
+        stats.put("failed", failed);
+        return stats;
+    }
+}
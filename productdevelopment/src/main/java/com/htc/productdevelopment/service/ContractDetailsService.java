@@ -14,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 @Service
 public class ContractDetailsService {
@@ -24,11 +25,16 @@ public class ContractDetailsService {
     @Lazy
     private final JiraService jiraService;
     private final JiraFieldConfig jiraFieldConfig;
+    private final JiraFieldWriteBuffer jiraFieldWriteBuffer;
+    private final ContractUpsertService contractUpsertService;
 
-    public ContractDetailsService(ContractDetailsRepository contractDetailsRepository, JiraService jiraService, JiraFieldConfig jiraFieldConfig) {
+    public ContractDetailsService(ContractDetailsRepository contractDetailsRepository, JiraService jiraService, JiraFieldConfig jiraFieldConfig,
+                                  JiraFieldWriteBuffer jiraFieldWriteBuffer, ContractUpsertService contractUpsertService) {
         this.contractDetailsRepository = contractDetailsRepository;
         this.jiraService = jiraService;
         this.jiraFieldConfig = jiraFieldConfig;
+        this.jiraFieldWriteBuffer = jiraFieldWriteBuffer;
+        this.contractUpsertService = contractUpsertService;
     }
 
     public List<ContractDetails> getAllContracts() {
@@ -65,45 +71,24 @@ public class ContractDetailsService {
     // ⭐ DTO Conversion based on renewalStatus
     public List<ContractDTO> getContractsByTypeAsDTO(String contractType) {
         logger.info("Fetching contracts by OLD contractType filter: {}", contractType);
-
-        List<ContractDetails> contracts =
-                contractDetailsRepository.findByRenewalStatusIgnoreCase("completed");
-
-        return contracts.stream().map(c -> {
-            ContractDTO dto = new ContractDTO();
-
-            dto.setId(c.getId());
-            dto.setContractType(c.getContractType());
-            dto.setJiraIssueKey(c.getJiraIssueKey());
-            dto.setRenewalStatus(c.getRenewalStatus());
-
-            dto.setNameOfVendor(c.getNameOfVendor());
-            dto.setProductName(c.getProductName());
-            dto.setRequesterName(c.getRequesterName());
-            dto.setRequesterEmail(c.getRequesterMail());
-            dto.setRequesterDepartment(c.getRequesterDepartment());
-            dto.setRequesterOrganization(c.getRequesterOrganization());
-
-            dto.setVendorContractType(c.getVendorContractType());
-            dto.setAdditionalComment(c.getAdditionalComment());
-            dto.setBillingType(c.getBillingType());
-            dto.setLicenseUpdateType(c.getLicenseUpdateType());
-            dto.setExistingContractId(c.getExistingContractId());
-            dto.setContractDuration(c.getContractDuration());
-
-            dto.setCurrentLicenseCount(c.getCurrentLicenseCount());
-            dto.setCurrentUsageCount(c.getCurrentUsageCount());
-            dto.setCurrentUnits(c.getCurrentUnits());
-
-            dto.setNewLicenseCount(c.getNewLicenseCount());
-            dto.setNewUsageCount(c.getNewUsageCount());
-            dto.setNewUnits(c.getNewUnits());
-
-            dto.setDueDate(c.getDueDate() != null ? c.getDueDate().toString() : null);
-            dto.setRenewalDate(c.getRenewalDate() != null ? c.getRenewalDate().toString() : null);
-
-            return dto;
-        }).toList();
+        return getContractDTOs("completed", null, null);
+    }
+    
+    /**
+     * Contract DTOs read with a projection query, without loading ContractDetails entities
+     * @param renewalStatus renewal status to match ignoring case, or null for all contracts
+     * @param vendorName vendor to match ignoring case; used together with productName
+     * @param productName product to match ignoring case; used together with vendorName
+     * @return matching contracts ordered by id
+     */
+    public List<ContractDTO> getContractDTOs(String renewalStatus, String vendorName, String productName) {
+        if (renewalStatus == null) {
+            return contractDetailsRepository.findAllContractDTOs();
+        }
+        if (vendorName != null && productName != null) {
+            return contractDetailsRepository.findContractDTOsByRenewalStatusAndVendorAndProduct(renewalStatus, vendorName, productName);
+        }
+        return contractDetailsRepository.findContractDTOsByRenewalStatus(renewalStatus);
     }
     
     public ContractDetails saveContract(ContractDetails incoming) {
@@ -113,76 +98,9 @@ public class ContractDetailsService {
             throw new RuntimeException("jiraIssueKey cannot be null while saving contract");
         }
 
-        // Duplicate prevention
-        ContractDetails existing = contractDetailsRepository.findByJiraIssueKey(incoming.getJiraIssueKey());
-
-        ContractDetails contract;
-        if (existing != null) {
-            logger.info("Updating existing contract id={}", existing.getId());
-            contract = existing;
-        } else {
-            logger.info("Creating new contract");
-            contract = new ContractDetails();
-            contract.setJiraIssueKey(incoming.getJiraIssueKey());
-        }
-
-        // Copy fields
-        contract.setRenewalStatus("completed");
-
-        contract.setNameOfVendor(incoming.getNameOfVendor());
-        contract.setProductName(incoming.getProductName());
-
-        contract.setRequesterName(incoming.getRequesterName());
-        contract.setRequesterMail(incoming.getRequesterMail());
-        contract.setRequesterDepartment(incoming.getRequesterDepartment());
-        contract.setRequesterOrganization(incoming.getRequesterOrganization());
-
-        contract.setCurrentLicenseCount(incoming.getCurrentLicenseCount());
-        contract.setCurrentUsageCount(incoming.getCurrentUsageCount());
-        contract.setCurrentUnits(incoming.getCurrentUnits());
-
-        contract.setNewLicenseCount(incoming.getNewLicenseCount());
-        contract.setNewUsageCount(incoming.getNewUsageCount());
-        contract.setNewUnits(incoming.getNewUnits());
-
-        contract.setVendorContractType(incoming.getVendorContractType());
-        contract.setLicenseUpdateType(incoming.getLicenseUpdateType());
-        contract.setExistingContractId(incoming.getExistingContractId());
-        contract.setBillingType(incoming.getBillingType());
-        contract.setContractDuration(incoming.getContractDuration());
-
-        contract.setDueDate(incoming.getDueDate());
-        
-        // Calculate renewal date based on completion date + contract duration for completed requests
-        String contractDurationStr = incoming.getContractDuration();
-        if (contractDurationStr != null && !contractDurationStr.isEmpty()) {
-            try {
-                // Parse contract duration
-                int contractDuration = Integer.parseInt(contractDurationStr);
-                
-                // Use current date as completion date for contracts marked as completed through UI
-                java.time.LocalDate completionDate = java.time.LocalDate.now();
-                
-                // Calculate renewal date = completion date + contract duration (in months)
-                java.time.LocalDate calculatedRenewalDate = completionDate.plusMonths(contractDuration);
-                contract.setRenewalDate(calculatedRenewalDate);
-                
-                logger.info("Calculated renewal date: {} based on completion date: {} and contract duration: {} months", 
-                    calculatedRenewalDate, completionDate, contractDuration);
-            } catch (Exception e) {
-                logger.warn("Failed to calculate renewal date based on contract duration: {}", contractDurationStr, e);
-                
-                // Fall back to the renewal date from incoming contract if calculation fails
-                contract.setRenewalDate(incoming.getRenewalDate());
-            }
-        } else {
-            // If no contract duration, fall back to the renewal date from incoming contract
-            contract.setRenewalDate(incoming.getRenewalDate());
-        }
-
-        contract.setAdditionalComment(incoming.getAdditionalComment());
-
-        ContractDetails saved = contractDetailsRepository.save(contract);
+        // Duplicate prevention: one INSERT ... ON CONFLICT creates the contract or updates the issue's existing one
+        ContractDetails saved = contractUpsertService.upsertByJiraIssueKey(
+                incoming.getJiraIssueKey(), completedContractColumns(incoming));
 
         logger.info("✔ Contract saved: {}", saved.getId());
 
@@ -197,21 +115,7 @@ public class ContractDetailsService {
             throw new RuntimeException("jiraIssueKey cannot be null while saving completed contract");
         }
 
-        // 1️⃣ Prevent duplicates by Jira Issue Key
-        ContractDetails existing = contractDetailsRepository.findByJiraIssueKey(incoming.getJiraIssueKey());
-
-        ContractDetails contract;
-
-        if (existing != null) {
-            logger.info("➡ Updating EXISTING contract ID={} for issueKey={}", existing.getId(), existing.getJiraIssueKey());
-            contract = existing;
-        } else {
-            logger.info("➡ Creating NEW contract record for issueKey={}", incoming.getJiraIssueKey());
-            contract = new ContractDetails();
-            contract.setJiraIssueKey(incoming.getJiraIssueKey());
-        }
-
-        // 2️⃣ Required fields validation
+        // 1️⃣ Required fields validation
         if (incoming.getNameOfVendor() == null || incoming.getNameOfVendor().trim().isEmpty()) {
             throw new RuntimeException("Vendor name cannot be null");
         }
@@ -219,35 +123,60 @@ public class ContractDetailsService {
             throw new RuntimeException("Product name cannot be null");
         }
 
-        // 3️⃣ Copy all fields
-        contract.setRenewalStatus("completed");
-        contract.setContractType("existing");
+        // 2️⃣ All completed contract fields, plus the type and the total optimized cost
+        Map<String, Object> columns = completedContractColumns(incoming);
+        columns.put("contract_type", "existing");
+        columns.put("total_profit", incoming.getTotalOptimizedCost());
+
+        // 3️⃣ Insert or update by Jira Issue Key in one statement
+        ContractDetails saved = contractUpsertService.upsertByJiraIssueKey(incoming.getJiraIssueKey(), columns);
+
+        logger.info("✅ Contract saved successfully with ID={} issueKey={}", saved.getId(), saved.getJiraIssueKey());
+
+        return saved;
+    }
+
+    /**
+     * Columns written when a contract is completed; on update, columns not listed keep their stored values
+     */
+    private Map<String, Object> completedContractColumns(ContractDetails incoming) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("renewal_status", "completed");
+
+        columns.put("name_of_vendor", incoming.getNameOfVendor());
+        columns.put("product_name", incoming.getProductName());
 
-        contract.setNameOfVendor(incoming.getNameOfVendor());
-        contract.setProductName(incoming.getProductName());
+        columns.put("requester_name", incoming.getRequesterName());
+        columns.put("requester_mail", incoming.getRequesterMail());
+        columns.put("requester_department", incoming.getRequesterDepartment());
+        columns.put("requester_organization", incoming.getRequesterOrganization());
 
-        contract.setRequesterName(incoming.getRequesterName());
-        contract.setRequesterMail(incoming.getRequesterMail());
-        contract.setRequesterDepartment(incoming.getRequesterDepartment());
-        contract.setRequesterOrganization(incoming.getRequesterOrganization());
+        columns.put("current_license_count", incoming.getCurrentLicenseCount());
+        columns.put("current_usage_count", incoming.getCurrentUsageCount());
+        columns.put("current_units", incoming.getCurrentUnits());
 
-        contract.setCurrentLicenseCount(incoming.getCurrentLicenseCount());
-        contract.setCurrentUsageCount(incoming.getCurrentUsageCount());
-        contract.setCurrentUnits(incoming.getCurrentUnits());
+        columns.put("new_license_count", incoming.getNewLicenseCount());
+        columns.put("new_usage_count", incoming.getNewUsageCount());
+        columns.put("new_units", incoming.getNewUnits());
 
-        contract.setNewLicenseCount(incoming.getNewLicenseCount());
-        contract.setNewUsageCount(incoming.getNewUsageCount());
-        contract.setNewUnits(incoming.getNewUnits());
+        columns.put("vendor_contract_type", incoming.getVendorContractType());
+        columns.put("license_update_type", incoming.getLicenseUpdateType());
+        columns.put("existing_contract_id", incoming.getExistingContractId());
+        columns.put("billing_type", incoming.getBillingType());
+        columns.put("contract_duration", incoming.getContractDuration());
 
-        contract.setVendorContractType(incoming.getVendorContractType());
-        contract.setLicenseUpdateType(incoming.getLicenseUpdateType());
-        contract.setExistingContractId(incoming.getExistingContractId());
-        contract.setBillingType(incoming.getBillingType());
-        contract.setContractDuration(incoming.getContractDuration());
+        columns.put("due_date", incoming.getDueDate());
+        columns.put("renewal_date", completionRenewalDate(incoming));
 
-        contract.setDueDate(incoming.getDueDate());
-        
-        // Calculate renewal date based on completion date + contract duration for completed requests
+        columns.put("additional_comment", incoming.getAdditionalComment());
+        return columns;
+    }
+
+    /**
+     * Renewal date of a contract completed today: completion date + contract duration (in months),
+     * or the incoming renewal date when there is no usable duration
+     */
+    private java.time.LocalDate completionRenewalDate(ContractDetails incoming) {
         String contractDurationStr = incoming.getContractDuration();
         if (contractDurationStr != null && !contractDurationStr.isEmpty()) {
             try {
@@ -259,32 +188,19 @@ public class ContractDetailsService {
                 
                 // Calculate renewal date = completion date + contract duration (in months)
                 java.time.LocalDate calculatedRenewalDate = completionDate.plusMonths(contractDuration);
-                contract.setRenewalDate(calculatedRenewalDate);
                 
                 logger.info("Calculated renewal date: {} based on completion date: {} and contract duration: {} months", 
                     calculatedRenewalDate, completionDate, contractDuration);
+                return calculatedRenewalDate;
             } catch (Exception e) {
                 logger.warn("Failed to calculate renewal date based on contract duration: {}", contractDurationStr, e);
                 
                 // Fall back to the renewal date from incoming contract if calculation fails
-                contract.setRenewalDate(incoming.getRenewalDate());
+                return incoming.getRenewalDate();
             }
-        } else {
-            // If no contract duration, fall back to the renewal date from incoming contract
-            contract.setRenewalDate(incoming.getRenewalDate());
         }
-
-        contract.setAdditionalComment(incoming.getAdditionalComment());
-        
-        // Set the total optimized cost if provided
-        contract.setTotalOptimizedCost(incoming.getTotalOptimizedCost());
-
-        // 4️⃣ Save and return
-        ContractDetails saved = contractDetailsRepository.save(contract);
-
-        logger.info("✅ Contract saved successfully with ID={} issueKey={}", saved.getId(), saved.getJiraIssueKey());
-
-        return saved;
+        // If no contract duration, fall back to the renewal date from incoming contract
+        return incoming.getRenewalDate();
     }
 
 
@@ -295,7 +211,10 @@ public class ContractDetailsService {
     }
     
     /**
-     * Update the license count and total profit for a contract by issue key
+     * Update the license count and total profit for a contract by issue key.
+     * The Jira custom fields are written through the field write buffer: both values go out in one
+     * update, merged with other writes to the issue made within the debounce window.
+     * Call commitJiraFields to send them immediately.
      * @param issueKey The Jira issue key
      * @param newLicenseCount The new license count
      * @param totalProfit The calculated total profit
@@ -313,36 +232,28 @@ public class ContractDetailsService {
             String issueStatus = jiraService.getIssueStatus(issueKey);
             logger.info("Jira issue {} is in status: {}", issueKey, issueStatus);
             
-            boolean isNewlyCreatedContract = false;
+            // Jira custom fields are updated whether or not the contract exists in the DB
+            Map<String, Object> updateFields = new HashMap<>();
+            if (newLicenseCount != null) {
+                updateFields.put(jiraFieldConfig.getNewLicenseCount(), String.valueOf(newLicenseCount));
+            }
+            if (totalProfit != null) {
+                updateFields.put(jiraFieldConfig.getTotaloptimizedcost(), String.valueOf(totalProfit));
+            }
+            if (!updateFields.isEmpty()) {
+                jiraFieldWriteBuffer.write(issueKey, updateFields);
+                logger.info("Queued Jira custom field update {} for issueKey: {}", updateFields.keySet(), issueKey);
+            }
+            
             // If contract doesn't exist but Jira issue is in completed status, we should create the contract
             if (contract == null) {
-                if ("Completed".equalsIgnoreCase(issueStatus) || "completed".equalsIgnoreCase(issueStatus)) {
+                if ("Completed".equalsIgnoreCase(issueStatus)) {
                     logger.info("Contract not found for issueKey: {} but Jira issue is completed. Creating contract.", issueKey);
                     contract = new ContractDetails();
                     contract.setJiraIssueKey(issueKey);
                     contract.setRenewalStatus("completed");
-                    isNewlyCreatedContract = true;
                 } else {
                     logger.warn("Contract not found for issueKey: {} and Jira issue is not completed (status: {}). Only updating Jira custom fields.", issueKey, issueStatus);
-                    // Still update Jira custom fields even if contract doesn't exist in DB
-                    if (newLicenseCount != null || totalProfit != null) {
-                        Map<String, Object> updateFields = new HashMap<>();
-                        if (newLicenseCount != null) {
-                            updateFields.put(jiraFieldConfig.getNewLicenseCount(), String.valueOf(newLicenseCount));
-                        }
-                        if (totalProfit != null) {
-                            updateFields.put(jiraFieldConfig.getTotaloptimizedcost(), String.valueOf(totalProfit));
-                        }
-                        
-                        if (!updateFields.isEmpty()) {
-                            try {
-                                jiraService.updateIssue(issueKey, updateFields);
-                                logger.info("Updated Jira custom fields for issueKey: {}", issueKey);
-                            } catch (Exception e) {
-                                logger.warn("Failed to update Jira custom fields for issueKey: {}", issueKey, e);
-                            }
-                        }
-                    }
                     // Return a temporary contract object for the response
                     ContractDetails tempContract = new ContractDetails();
                     tempContract.setJiraIssueKey(issueKey);
@@ -351,41 +262,13 @@ public class ContractDetailsService {
             }
             
             // Update the license count
-            // Skip Jira update if we already did it for a newly created contract in non-completed status
             if (newLicenseCount != null) {
                 contract.setNewLicenseCount(newLicenseCount);
                 logger.info("Updated newLicenseCount to {} for issueKey: {}", newLicenseCount, issueKey);
-                
-                // Update Jira custom field for license count (skip if already done)
-                if (!isNewlyCreatedContract || "Completed".equalsIgnoreCase(issueStatus) || "completed".equalsIgnoreCase(issueStatus)) {
-                    try {
-                        Map<String, Object> updateFields = new HashMap<>();
-                        updateFields.put(jiraFieldConfig.getNewLicenseCount(), String.valueOf(newLicenseCount));
-                        
-                        jiraService.updateIssue(issueKey, updateFields);
-                        logger.info("Updated newLicenseCount in Jira custom field to {} for issueKey: {}", newLicenseCount, issueKey);
-                    } catch (Exception e) {
-                        logger.warn("Failed to update newLicenseCount in Jira custom field for issueKey: {}", issueKey, e);
-                    }
-                }
             }
             
             // Update the total profit if provided
-            // Skip Jira update if we already did it for a newly created contract in non-completed status
             if (totalProfit != null) {
-                // Store the profit in a custom field (skip if already done)
-                if (!isNewlyCreatedContract || "Completed".equalsIgnoreCase(issueStatus) || "completed".equalsIgnoreCase(issueStatus)) {
-                    try {
-                        Map<String, Object> updateFields = new HashMap<>();
-                        updateFields.put(jiraFieldConfig.getTotaloptimizedcost(), String.valueOf(totalProfit));
-                        
-                        jiraService.updateIssue(issueKey, updateFields);
-                        logger.info("Updated total optimized cost in Jira custom field to {} for issueKey: {}", totalProfit, issueKey);
-                    } catch (Exception e) {
-                        logger.warn("Failed to update total optimized cost in Jira custom field for issueKey: {}", issueKey, e);
-                    }
-                }
-                
                 // Also store the optimized cost in the comment field as a backup
                 String additionalComment = contract.getAdditionalComment();
                 if (additionalComment == null) {
@@ -407,6 +290,17 @@ public class ContractDetailsService {
         }
     }
     
+    /**
+     * Send the buffered Jira custom field updates of an issue now
+     * @param issueKey The Jira issue key
+     * @return The flushed fields and whether Jira accepted them
+     */
+    public JiraFieldWriteBuffer.FlushResult commitJiraFields(String issueKey) {
+        JiraFieldWriteBuffer.FlushResult result = jiraFieldWriteBuffer.commit(issueKey);
+        logger.info("Committed Jira custom fields {} for issueKey: {} (success: {})", result.fields().keySet(), issueKey, result.success());
+        return result;
+    }
+    
     /**
      * Mark a contract as having a submitted final quote
      * @param issueKey The Jira issue key
@@ -416,23 +310,10 @@ public class ContractDetailsService {
         logger.info("Marking final quote as submitted for issueKey={}", issueKey);
         
         try {
-            // Find the contract by issue key
-            ContractDetails contract = contractDetailsRepository.findByJiraIssueKey(issueKey);
-            
-            // If contract doesn't exist, create it
-            if (contract == null) {
-                logger.info("Contract not found for issueKey: {}, creating new contract", issueKey);
-                contract = new ContractDetails();
-                contract.setJiraIssueKey(issueKey);
-            }
-            
-            // Mark as final quote submitted
-            contract.setRenewalStatus("final_quote_submitted");
-            logger.info("Marked contract as final_quote_submitted for issueKey: {}", issueKey);
-            
-            // Save the updated contract
-            ContractDetails saved = contractDetailsRepository.save(contract);
-            logger.info("Successfully updated contract with ID: {} for issueKey: {}", saved.getId(), issueKey);
+            // Mark as final quote submitted, creating the contract if it doesn't exist, in one statement
+            ContractDetails saved = contractUpsertService.upsertByJiraIssueKey(
+                    issueKey, Map.of("renewal_status", "final_quote_submitted"));
+            logger.info("Marked contract ID: {} as final_quote_submitted for issueKey: {}", saved.getId(), issueKey);
             
             return saved;
         } catch (Exception e) {
@@ -0,0 +1,304 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.dto.ContractSummaryDTO;
+import com.htc.productdevelopment.model.ContractDetails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filtered contract listing with keyset (seek) pagination. Each page continues after the sort
+ * key of the last row of the previous page, so a page costs the same whether it is the first or
+ * the hundredth, and rows inserted meanwhile do not shift later pages. Only the listing columns
+ * are selected; the TEXT columns stay in the database.
+ * Renewal date orders list contracts without a renewal date last, ordered by id.
+ */
+@Service
+public class ContractSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractSearchService.class);
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Sort orders; each one matches an index ending in (renewal_date, id) or the primary key
+     */
+    public enum SortOrder {
+        ID_DESC,
+        ID_ASC,
+        RENEWAL_ASC,
+        RENEWAL_DESC;
+
+        /**
+         * Parse a sort request parameter such as "renewal_asc"
+         * @param value the parameter value, possibly null
+         * @return the sort order, ID_DESC (newest first) when the parameter is missing
+         * @throws IllegalArgumentException if the value names no sort order
+         */
+        public static SortOrder fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return ID_DESC;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown sort: " + value + " (use id_desc, id_asc, renewal_asc or renewal_desc)");
+            }
+        }
+
+        boolean byRenewalDate() {
+            return this == RENEWAL_ASC || this == RENEWAL_DESC;
+        }
+
+        boolean ascending() {
+            return this == ID_ASC || this == RENEWAL_ASC;
+        }
+    }
+
+    /**
+     * Contract filters; null values are not applied. Vendor, product and status match ignoring case.
+     */
+    public record Filter(String vendor, String product, String renewalStatus,
+                         Long departmentId, Long organizationId,
+                         LocalDate renewalFrom, LocalDate renewalTo,
+                         LocalDate dueFrom, LocalDate dueTo) {
+
+        boolean limitsRenewalDate() {
+            return renewalFrom != null || renewalTo != null;
+        }
+    }
+
+    /**
+     * One page of contracts
+     * @param contracts the contracts of the page, in sort order
+     * @param nextCursor cursor of the next page, or null on the last page
+     * @param isLast true if there are no more contracts
+     */
+    public record Page(List<ContractSummaryDTO> contracts, String nextCursor, boolean isLast) {
+    }
+
+    /**
+     * Sort key of the last row of a page
+     * @param sort the sort order the cursor was issued for
+     * @param nullRenewal true once a renewal date order has reached the contracts without a renewal date
+     * @param renewalDate renewal date of the last row, for renewal date orders
+     * @param id id of the last row
+     */
+    record Cursor(SortOrder sort, boolean nullRenewal, LocalDate renewalDate, long id) {
+
+        String encode() {
+            String raw = sort.name() + ":" + (nullRenewal ? 1 : 0) + ":" + (renewalDate != null ? renewalDate : "") + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                String[] parts = raw.split(":", -1);
+                LocalDate renewalDate = parts[2].isEmpty() ? null : LocalDate.parse(parts[2]);
+                return new Cursor(SortOrder.valueOf(parts[0]), "1".equals(parts[1]), renewalDate, Long.parseLong(parts[3]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Get one page of contracts
+     * @param filter the filters to apply
+     * @param sort the sort order
+     * @param cursor nextCursor of the previous page; null for the first page
+     * @param pageSize contracts per page, clamped to 1-100
+     * @return the page
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort order
+     */
+    @Transactional(readOnly = true)
+    public Page search(Filter filter, SortOrder sort, String cursor, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        Cursor after = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+        if (after != null && after.sort() != sort) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + after.sort().name().toLowerCase(Locale.ROOT));
+        }
+
+        // One row more than the page tells whether another page follows
+        int limit = size + 1;
+        List<ContractSummaryDTO> rows = new ArrayList<>();
+        if (!sort.byRenewalDate() || after == null || !after.nullRenewal()) {
+            rows.addAll(seek(filter, sort, after, limit, false));
+        }
+        if (sort.byRenewalDate() && rows.size() < limit && !filter.limitsRenewalDate()) {
+            // Contracts with a renewal date are exhausted; continue with those without one
+            Cursor nullAfter = after != null && after.nullRenewal() ? after : null;
+            rows.addAll(seek(filter, sort, nullAfter, limit - rows.size(), true));
+        }
+
+        boolean isLast = rows.size() <= size;
+        List<ContractSummaryDTO> contracts = isLast ? rows : new ArrayList<>(rows.subList(0, size));
+        String nextCursor = null;
+        if (!isLast) {
+            ContractSummaryDTO last = contracts.get(contracts.size() - 1);
+            LocalDate renewalDate = last.getRenewalDate() != null ? LocalDate.parse(last.getRenewalDate()) : null;
+            nextCursor = new Cursor(sort, sort.byRenewalDate() && renewalDate == null, renewalDate, last.getId()).encode();
+        }
+        logger.info("Contract search returned {} contracts (sort {}, last page: {})", contracts.size(), sort, isLast);
+        return new Page(contracts, nextCursor, isLast);
+    }
+
+    /**
+     * Read up to limit contracts following the cursor
+     * @param nullRenewalPhase for renewal date orders, read the contracts without a renewal date
+     */
+    List<ContractSummaryDTO> seek(Filter filter, SortOrder sort, Cursor after, int limit, boolean nullRenewalPhase) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ContractDetails> contract = query.from(ContractDetails.class);
+        Path<Long> id = contract.get("id");
+        Path<LocalDate> renewalDate = contract.get("renewalDate");
+
+        List<Predicate> predicates = filterPredicates(cb, contract, filter);
+        boolean ascending = sort.ascending();
+        if (sort.byRenewalDate() && !nullRenewalPhase) {
+            predicates.add(cb.isNotNull(renewalDate));
+            if (after != null) {
+                LocalDate date = after.renewalDate();
+                // The first condition alone bounds the index range; the second skips ties already returned
+                predicates.add(ascending ? cb.greaterThanOrEqualTo(renewalDate, date) : cb.lessThanOrEqualTo(renewalDate, date));
+                predicates.add(cb.or(
+                        ascending ? cb.greaterThan(renewalDate, date) : cb.lessThan(renewalDate, date),
+                        cb.and(cb.equal(renewalDate, date), ascending ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id()))));
+            }
+            query.orderBy(ascending ? cb.asc(renewalDate) : cb.desc(renewalDate), ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            if (nullRenewalPhase) {
+                predicates.add(cb.isNull(renewalDate));
+            }
+            if (after != null) {
+                predicates.add(ascending ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id()));
+            }
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        query.multiselect(
+                id.alias("id"),
+                contract.get("jiraIssueKey").alias("jiraIssueKey"),
+                contract.get("contractType").alias("contractType"),
+                contract.get("renewalStatus").alias("renewalStatus"),
+                contract.get("nameOfVendor").alias("nameOfVendor"),
+                contract.get("productName").alias("productName"),
+                contract.get("vendorContractType").alias("vendorContractType"),
+                contract.get("billingType").alias("billingType"),
+                contract.get("requesterName").alias("requesterName"),
+                contract.get("requesterMail").alias("requesterMail"),
+                contract.get("requesterDepartment").alias("requesterDepartment"),
+                contract.get("requesterOrganization").alias("requesterOrganization"),
+                contract.get("requesterDepartmentId").alias("requesterDepartmentId"),
+                contract.get("requesterOrganizationId").alias("requesterOrganizationId"),
+                contract.get("currentLicenseCount").alias("currentLicenseCount"),
+                contract.get("newLicenseCount").alias("newLicenseCount"),
+                contract.get("contractStartDate").alias("contractStartDate"),
+                contract.get("contractEndDate").alias("contractEndDate"),
+                contract.get("dueDate").alias("dueDate"),
+                renewalDate.alias("renewalDate"),
+                contract.get("totalOptimizedCost").alias("totalProfit"))
+             .where(predicates.toArray(new Predicate[0]));
+
+        List<Tuple> tuples = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<ContractSummaryDTO> contracts = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            contracts.add(toSummary(tuple));
+        }
+        return contracts;
+    }
+
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<ContractDetails> contract, Filter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.vendor() != null) {
+            predicates.add(cb.equal(contract.get("vendorKey"), lookupKey(cb, filter.vendor())));
+        }
+        if (filter.product() != null) {
+            predicates.add(cb.equal(contract.get("productKey"), lookupKey(cb, filter.product())));
+        }
+        if (filter.renewalStatus() != null) {
+            predicates.add(cb.equal(contract.get("renewalStatusKey"), lookupKey(cb, filter.renewalStatus())));
+        }
+        if (filter.organizationId() != null) {
+            predicates.add(cb.equal(contract.get("requesterOrganizationId"), filter.organizationId()));
+        }
+        if (filter.departmentId() != null) {
+            predicates.add(cb.equal(contract.get("requesterDepartmentId"), filter.departmentId()));
+        }
+        Path<LocalDate> renewalDate = contract.get("renewalDate");
+        if (filter.renewalFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(renewalDate, filter.renewalFrom()));
+        }
+        if (filter.renewalTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(renewalDate, filter.renewalTo()));
+        }
+        Path<LocalDate> dueDate = contract.get("dueDate");
+        if (filter.dueFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(dueDate, filter.dueFrom()));
+        }
+        if (filter.dueTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(dueDate, filter.dueTo()));
+        }
+        return predicates;
+    }
+
+    /**
+     * Normalizes a filter value in the database, with the same LOWER(BTRIM(...)) that generates
+     * the *_key columns, so both sides of the comparison agree for non-ASCII names too
+     */
+    private static Expression<String> lookupKey(CriteriaBuilder cb, String value) {
+        return cb.lower(cb.trim(cb.literal(value)));
+    }
+
+    private static ContractSummaryDTO toSummary(Tuple tuple) {
+        ContractSummaryDTO dto = new ContractSummaryDTO();
+        dto.setId(tuple.get("id", Long.class));
+        dto.setJiraIssueKey(tuple.get("jiraIssueKey", String.class));
+        dto.setContractType(tuple.get("contractType", String.class));
+        dto.setRenewalStatus(tuple.get("renewalStatus", String.class));
+        dto.setNameOfVendor(tuple.get("nameOfVendor", String.class));
+        dto.setProductName(tuple.get("productName", String.class));
+        dto.setVendorContractType(tuple.get("vendorContractType", String.class));
+        dto.setBillingType(tuple.get("billingType", String.class));
+        dto.setRequesterName(tuple.get("requesterName", String.class));
+        dto.setRequesterEmail(tuple.get("requesterMail", String.class));
+        dto.setRequesterDepartment(tuple.get("requesterDepartment", String.class));
+        dto.setRequesterOrganization(tuple.get("requesterOrganization", String.class));
+        dto.setRequesterDepartmentId(tuple.get("requesterDepartmentId", Long.class));
+        dto.setRequesterOrganizationId(tuple.get("requesterOrganizationId", Long.class));
+        dto.setCurrentLicenseCount(tuple.get("currentLicenseCount", Integer.class));
+        dto.setNewLicenseCount(tuple.get("newLicenseCount", Integer.class));
+        dto.setContractStartDate(dateString(tuple.get("contractStartDate", LocalDate.class)));
+        dto.setContractEndDate(dateString(tuple.get("contractEndDate", LocalDate.class)));
+        dto.setDueDate(dateString(tuple.get("dueDate", LocalDate.class)));
+        dto.setRenewalDate(dateString(tuple.get("renewalDate", LocalDate.class)));
+        dto.setTotalProfit(tuple.get("totalProfit", Double.class));
+        return dto;
+    }
+
+    private static String dateString(LocalDate date) {
+        return date != null ? date.toString() : null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.model.ContractDetails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the contract of a Jira issue with a single INSERT ... ON CONFLICT (jira_issue_key) DO UPDATE,
+ * shared by every contract completion writer. The statement returns the stored row, so a write is one
+ * round-trip instead of findByJiraIssueKey + save, and concurrent completions of the same issue update
+ * one row instead of racing to insert two.
+ */
+@Service
+public class ContractUpsertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractUpsertService.class);
+
+    // Columns a writer may set, with the Java type bound for them (nulls are bound with this type too)
+    static final Map<String, Class<?>> COLUMN_TYPES = new LinkedHashMap<>();
+
+    static {
+        COLUMN_TYPES.put("contract_type", String.class);
+        COLUMN_TYPES.put("renewal_status", String.class);
+        COLUMN_TYPES.put("name_of_vendor", String.class);
+        COLUMN_TYPES.put("product_name", String.class);
+        COLUMN_TYPES.put("vendor_contract_type", String.class);
+        COLUMN_TYPES.put("additional_comment", String.class);
+        COLUMN_TYPES.put("requester_name", String.class);
+        COLUMN_TYPES.put("requester_mail", String.class);
+        COLUMN_TYPES.put("requester_department", String.class);
+        COLUMN_TYPES.put("requester_organization", String.class);
+        COLUMN_TYPES.put("requester_department_id", Long.class);
+        COLUMN_TYPES.put("requester_organization_id", Long.class);
+        COLUMN_TYPES.put("current_license_count", Integer.class);
+        COLUMN_TYPES.put("current_usage_count", Integer.class);
+        COLUMN_TYPES.put("current_units", String.class);
+        COLUMN_TYPES.put("new_license_count", Integer.class);
+        COLUMN_TYPES.put("new_usage_count", Integer.class);
+        COLUMN_TYPES.put("new_units", String.class);
+        COLUMN_TYPES.put("due_date", LocalDate.class);
+        COLUMN_TYPES.put("renewal_date", LocalDate.class);
+        COLUMN_TYPES.put("attachments", String.class);
+        COLUMN_TYPES.put("license_update_type", String.class);
+        COLUMN_TYPES.put("existing_contract_id", String.class);
+        COLUMN_TYPES.put("billing_type", String.class);
+        COLUMN_TYPES.put("contract_duration", String.class);
+        COLUMN_TYPES.put("total_profit", Double.class);
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Insert the contract of an issue, or overwrite the given columns of the existing one.
+     * Columns not passed keep their stored values on update.
+     * A contract already loaded in the current persistence context is returned as that instance,
+     * which Hibernate does not refresh from the returned row.
+     * @param issueKey The Jira issue key
+     * @param columns Column name to value, in the order they should be written (see COLUMN_TYPES)
+     * @return The stored contract
+     */
+    @Transactional
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ContractDetails upsertByJiraIssueKey(String issueKey, Map<String, Object> columns) {
+        if (issueKey == null || issueKey.isBlank()) {
+            throw new IllegalArgumentException("jiraIssueKey cannot be null while saving contract");
+        }
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            Class<?> type = COLUMN_TYPES.get(column.getKey());
+            if (type == null) {
+                throw new IllegalArgumentException("Column cannot be upserted: " + column.getKey());
+            }
+            if (column.getValue() != null && !type.isInstance(column.getValue())) {
+                throw new IllegalArgumentException("Column " + column.getKey() + " expects " + type.getSimpleName());
+            }
+        }
+
+        NativeQuery<ContractDetails> query = entityManager.unwrap(Session.class)
+                .createNativeQuery(upsertSql(columns.keySet()), ContractDetails.class);
+        query.setParameter(1, issueKey, String.class);
+        int position = 2;
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            query.setParameter(position++, column.getValue(), (Class) COLUMN_TYPES.get(column.getKey()));
+        }
+
+        ContractDetails contract = query.getSingleResult();
+        logger.info("Upserted contract id={} for issueKey={} ({} columns)", contract.getId(), issueKey, columns.size());
+        return contract;
+    }
+
+    /**
+     * INSERT ... ON CONFLICT (jira_issue_key) DO UPDATE ... RETURNING * for the given columns;
+     * the issue key is parameter 1 and the columns follow in order
+     */
+    static String upsertSql(Collection<String> columns) {
+        List<String> names = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        List<String> updates = new ArrayList<>();
+        names.add("jira_issue_key");
+        values.add("?1");
+        int position = 2;
+        for (String column : columns) {
+            names.add(column);
+            values.add("?" + position++);
+            updates.add(column + " = EXCLUDED." + column);
+        }
+        if (updates.isEmpty()) {
+            // DO NOTHING would return no row for an existing contract
+            updates.add("jira_issue_key = EXCLUDED.jira_issue_key");
+        }
+        return "INSERT INTO contract_details (" + String.join(", ", names) + ")"
+                + " VALUES (" + String.join(", ", values) + ")"
+                + " ON CONFLICT (jira_issue_key) DO UPDATE SET " + String.join(", ", updates)
+                + " RETURNING *";
+    }
+}
@@ -0,0 +1,493 @@
+package com.htc.productdevelopment.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded LRU disk cache for Jira attachment bodies.
+ * Bodies are stored content-addressed under their SHA-256, so the same file attached to several
+ * issues is kept once; an index maps each Jira attachment id to its blob and is evicted in
+ * least-recently-served order until the cache fits its size limit. Jira attachments are immutable,
+ * so entries never go stale; the SHA-256 doubles as a strong ETag.
+ * Blobs are pinned while a response is being served from them; a pinned blob that is evicted
+ * is deleted when the last response using it finishes.
+ * The index lives in memory, so the cache's own files are cleared from the directory on startup.
+ */
+@Component
+public class JiraAttachmentDiskCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraAttachmentDiskCache.class);
+
+    // Attachment id in our content URLs and in Jira's ("/attachments/10001/content", "/attachment/content/10001")
+    private static final Pattern ATTACHMENT_ID = Pattern.compile("/attachments?/(?:content/)?(\\d+)(?:/content)?/?$");
+
+    // Names of the files the cache creates: blobs under their SHA-256 and temp files being written
+    private static final Pattern CACHE_FILE = Pattern.compile("[0-9a-f]{64}|tmp-[0-9a-f-]{36}");
+
+    private final JiraService jiraService;
+    private final ThreadPoolTaskExecutor warmExecutor;
+
+    @Value("${jira.attachment-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jira.attachment-cache.directory:${java.io.tmpdir}/jira-attachment-cache}")
+    private String directory = System.getProperty("java.io.tmpdir") + "/jira-attachment-cache";
+
+    @Value("${jira.attachment-cache.max-size-mb:1024}")
+    private long maxSizeMb = 1024;
+
+    @Value("${jira.attachment-cache.max-file-mb:50}")
+    private long maxFileMb = 50;
+
+    private Path root;
+
+    // Guarded by this; access order makes the first entry the least recently served
+    private final LinkedHashMap<String, CachedAttachment> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Blob> blobs = new HashMap<>();
+    // Evicted blobs still pinned by a response; deleted on the last unpin
+    private final Map<String, Blob> draining = new HashMap<>();
+    private long totalBytes;
+
+    private final Set<String> warming = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong warmFailures = new AtomicLong();
+
+    /**
+     * A cached attachment body
+     * @param attachmentId Jira attachment id
+     * @param sha256 hex SHA-256 of the body
+     * @param file the blob on disk
+     * @param size body length in bytes
+     * @param contentType Content-Type Jira served, possibly null
+     * @param contentDisposition Content-Disposition Jira served, possibly null
+     */
+    public record CachedAttachment(String attachmentId, String sha256, Path file, long size,
+                                   String contentType, String contentDisposition) {
+
+        public String etag() {
+            return "\"" + sha256 + "\"";
+        }
+    }
+
+    private static final class Blob {
+        final Path file;
+        final long size;
+        int references;
+        int pins;
+
+        Blob(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    public JiraAttachmentDiskCache(JiraService jiraService,
+                                   @Qualifier("jiraAttachmentCacheExecutor") ThreadPoolTaskExecutor warmExecutor) {
+        this.jiraService = jiraService;
+        this.warmExecutor = warmExecutor;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(root);
+        // Only files this cache wrote; the directory may be shared with other data
+        try (Stream<Path> leftovers = Files.list(root)) {
+            leftovers.filter(file -> CACHE_FILE.matcher(file.getFileName().toString()).matches())
+                    .filter(Files::isRegularFile)
+                    .forEach(this::deleteQuietly);
+        }
+        logger.info("Jira attachment cache at {} (max {} MB, files up to {} MB)", root, maxSizeMb, maxFileMb);
+    }
+
+    /**
+     * Cached body of an attachment; marks it as recently served
+     * @param attachmentId Jira attachment id
+     * @return the cached attachment, or null on a miss
+     */
+    public synchronized CachedAttachment get(String attachmentId) {
+        if (!enabled) {
+            return null;
+        }
+        CachedAttachment cached = entries.get(attachmentId);
+        if (cached != null && !Files.isRegularFile(cached.file())) {
+            // Removed from disk behind our back
+            remove(attachmentId);
+            cached = null;
+        }
+        (cached != null ? hits : misses).incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * Cached body of an attachment, pinned so that eviction cannot delete the file while it is
+     * being served; marks it as recently served. Close the returned handle when the response is done.
+     * @param attachmentId Jira attachment id
+     * @return the pinned attachment, or null on a miss
+     */
+    public synchronized PinnedAttachment acquire(String attachmentId) {
+        CachedAttachment cached = get(attachmentId);
+        if (cached == null) {
+            return null;
+        }
+        blobs.get(cached.sha256()).pins++;
+        return new PinnedAttachment(this, cached);
+    }
+
+    /**
+     * Whether a body of the given length would be cached
+     * @param length body length in bytes, negative when unknown
+     * @return false when the cache is disabled or the body is known to be too large
+     */
+    public boolean accepts(long length) {
+        return enabled && length <= maxFileMb * 1024 * 1024;
+    }
+
+    /**
+     * Start writing an attachment body into the cache; the caller copies the body into
+     * {@link PendingAttachment#getOutputStream()} and commits, or closes to discard
+     * @param attachmentId Jira attachment id
+     * @param expectedLength Content-Length from Jira, negative when unknown
+     * @return the pending write, or null when the body is not cacheable
+     */
+    public PendingAttachment begin(String attachmentId, long expectedLength) {
+        if (!accepts(expectedLength)) {
+            return null;
+        }
+        try {
+            return new PendingAttachment(attachmentId);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.warn("Could not start caching attachment {}: {}", attachmentId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Download an attachment into the cache in the background, e.g. when its metadata is saved
+     * @param attachmentId Jira attachment id
+     * @param expectedLength known size in bytes, negative when unknown
+     */
+    public void warm(String attachmentId, long expectedLength) {
+        if (!accepts(expectedLength) || attachmentId == null || isCached(attachmentId) || !warming.add(attachmentId)) {
+            return;
+        }
+        try {
+            warmExecutor.execute(() -> {
+                JiraCallPriority previousPriority = JiraCallPriority.enter(JiraCallPriority.BACKGROUND);
+                try {
+                    jiraService.streamAttachmentContent(attachmentId, new HttpHeaders(), response -> {
+                        if (response.getStatusCode().value() != HttpStatus.OK.value()) {
+                            return null;
+                        }
+                        HttpHeaders headers = response.getHeaders();
+                        try (PendingAttachment pending = begin(attachmentId, headers.getContentLength());
+                             InputStream in = response.getBody()) {
+                            if (pending != null) {
+                                in.transferTo(pending.getOutputStream());
+                                pending.commit(headers.getFirst(HttpHeaders.CONTENT_TYPE),
+                                        headers.getFirst(HttpHeaders.CONTENT_DISPOSITION));
+                            }
+                        }
+                        return null;
+                    });
+                } catch (Exception e) {
+                    warmFailures.incrementAndGet();
+                    logger.warn("Could not warm attachment cache for {}: {}", attachmentId, e.getMessage());
+                } finally {
+                    warming.remove(attachmentId);
+                    JiraCallPriority.restore(previousPriority);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            warming.remove(attachmentId);
+            logger.debug("Attachment cache workers busy, {} not warmed", attachmentId);
+        }
+    }
+
+    /**
+     * Drop an attachment from the cache
+     * @param attachmentId Jira attachment id
+     * @return true if it was cached
+     */
+    public synchronized boolean evict(String attachmentId) {
+        return remove(attachmentId);
+    }
+
+    /**
+     * Drop every cached attachment
+     * @return number of attachments removed
+     */
+    public synchronized int clear() {
+        int removed = entries.size();
+        for (String attachmentId : entries.keySet().toArray(new String[0])) {
+            remove(attachmentId);
+        }
+        logger.info("Cleared {} attachments from the disk cache", removed);
+        return removed;
+    }
+
+    /**
+     * Jira attachment id from a stored content URL
+     * @param fileUrl our proxy URL or Jira's content URL
+     * @return the numeric attachment id, or null if the URL does not name one
+     */
+    public static String jiraAttachmentId(String fileUrl) {
+        if (fileUrl == null) {
+            return null;
+        }
+        int query = fileUrl.indexOf('?');
+        Matcher matcher = ATTACHMENT_ID.matcher(query >= 0 ? fileUrl.substring(0, query) : fileUrl);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Entry count, size and hit counters
+     * @return Map with cache statistics
+     */
+    public synchronized Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("directory", root != null ? root.toString() : directory);
+        result.put("attachments", entries.size());
+        result.put("blobs", blobs.size());
+        result.put("drainingBlobs", draining.size());
+        result.put("sizeBytes", totalBytes);
+        result.put("maxSizeBytes", maxSizeMb * 1024 * 1024);
+        result.put("hits", hitCount);
+        result.put("misses", missCount);
+        result.put("hitRatio", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        result.put("stores", stores.get());
+        result.put("evictions", evictions.get());
+        result.put("warming", warming.size());
+        result.put("warmFailures", warmFailures.get());
+        return result;
+    }
+
+    private synchronized boolean isCached(String attachmentId) {
+        return entries.containsKey(attachmentId);
+    }
+
+    private synchronized CachedAttachment store(String attachmentId, String sha256, Path temp, long size,
+                                                String contentType, String contentDisposition) throws IOException {
+        // Release the previous entry first: when it points at the same content (two misses racing, or a warm
+        // racing a download) its blob must not be released after being resolved below
+        remove(attachmentId);
+        Blob blob = blobs.get(sha256);
+        if (blob == null && draining.containsKey(sha256)) {
+            // Evicted but still being served; take it back instead of replacing the file under it
+            blob = draining.remove(sha256);
+            blobs.put(sha256, blob);
+            totalBytes += blob.size;
+            Files.deleteIfExists(temp);
+        } else if (blob == null) {
+            Path file = root.resolve(sha256);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            blob = new Blob(file, size);
+            blobs.put(sha256, blob);
+            totalBytes += size;
+        } else {
+            // Same content is already stored for another attachment
+            Files.deleteIfExists(temp);
+        }
+        blob.references++;
+        CachedAttachment cached = new CachedAttachment(attachmentId, sha256, blob.file, size, contentType, contentDisposition);
+        entries.put(attachmentId, cached);
+        stores.incrementAndGet();
+        evictOverflow();
+        return entries.get(attachmentId);
+    }
+
+    private void evictOverflow() {
+        long maxBytes = maxSizeMb * 1024 * 1024;
+        Iterator<CachedAttachment> eldest = entries.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            CachedAttachment cached = eldest.next();
+            eldest.remove();
+            release(cached.sha256());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private boolean remove(String attachmentId) {
+        CachedAttachment removed = entries.remove(attachmentId);
+        if (removed == null) {
+            return false;
+        }
+        release(removed.sha256());
+        return true;
+    }
+
+    /**
+     * Drop one reference to a blob and delete it once no attachment uses it
+     */
+    private void release(String sha256) {
+        Blob blob = blobs.get(sha256);
+        if (blob == null || --blob.references > 0) {
+            return;
+        }
+        blobs.remove(sha256);
+        totalBytes -= blob.size;
+        if (blob.pins > 0) {
+            // Responses are still reading it; the last unpin deletes it
+            draining.put(sha256, blob);
+            logger.debug("Evicted attachment blob {} ({} bytes), deleting once served", sha256, blob.size);
+            return;
+        }
+        deleteQuietly(blob.file);
+        logger.debug("Evicted attachment blob {} ({} bytes)", sha256, blob.size);
+    }
+
+    /**
+     * Drop a pin taken by acquire and delete the blob if it was evicted meanwhile
+     */
+    synchronized void unpin(String sha256) {
+        Blob blob = blobs.get(sha256);
+        if (blob == null) {
+            blob = draining.get(sha256);
+        }
+        if (blob == null || --blob.pins > 0) {
+            return;
+        }
+        if (draining.remove(sha256) != null) {
+            deleteQuietly(blob.file);
+            logger.debug("Deleted drained attachment blob {}", sha256);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * A cached attachment pinned on disk while a response is served from it
+     */
+    public static final class PinnedAttachment implements Closeable {
+
+        private final JiraAttachmentDiskCache cache;
+        private final CachedAttachment attachment;
+        private boolean closed;
+
+        PinnedAttachment(JiraAttachmentDiskCache cache, CachedAttachment attachment) {
+            this.cache = cache;
+            this.attachment = attachment;
+        }
+
+        public CachedAttachment attachment() {
+            return attachment;
+        }
+
+        /**
+         * Unpin the blob; only the first call counts
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                cache.unpin(attachment.sha256());
+            }
+        }
+    }
+
+    /**
+     * An attachment body being written to a temp file while its SHA-256 is computed
+     */
+    public class PendingAttachment implements Closeable {
+
+        private final String attachmentId;
+        private final Path temp;
+        private final MessageDigest digest;
+        private final DigestOutputStream out;
+        private boolean committed;
+
+        PendingAttachment(String attachmentId) throws IOException, NoSuchAlgorithmException {
+            this.attachmentId = attachmentId;
+            this.temp = root.resolve("tmp-" + UUID.randomUUID());
+            this.digest = MessageDigest.getInstance("SHA-256");
+            this.out = new DigestOutputStream(Files.newOutputStream(temp), digest);
+        }
+
+        public OutputStream getOutputStream() {
+            return out;
+        }
+
+        /**
+         * Move the complete body into the cache
+         * @param contentType Content-Type to serve it with
+         * @param contentDisposition Content-Disposition to serve it with
+         * @return the cached attachment, or null if it ended up larger than the per-file limit
+         * @throws IOException if the temp file cannot be moved into place
+         */
+        public CachedAttachment commit(String contentType, String contentDisposition) throws IOException {
+            out.close();
+            long size = Files.size(temp);
+            if (!accepts(size)) {
+                return null;
+            }
+            CachedAttachment cached = store(attachmentId, HexFormat.of().formatHex(digest.digest()), temp, size,
+                    contentType, contentDisposition);
+            committed = true;
+            logger.info("Cached attachment {} ({} bytes)", attachmentId, size);
+            return cached;
+        }
+
+        /**
+         * Discard the body unless it was committed
+         */
+        @Override
+        public void close() {
+            if (committed) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Deleting the temp file below is all that matters
+            }
+            deleteQuietly(temp);
+        }
+    }
+}
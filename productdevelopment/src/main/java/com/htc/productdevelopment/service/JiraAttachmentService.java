@@ -0,0 +1,499 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.config.JiraConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streams attachments between clients and Jira without holding whole files on the heap.
+ * Downloads are proxied straight to the servlet response.
+ * The body is copied through a small buffer instead of being read into memory, Content-Type,
+ * Content-Length and ETag are passed through, and single byte ranges are supported so PDF
+ * viewers can seek: the Range header is forwarded to Jira, and when Jira answers with the
+ * full body the requested range is cut out of the stream here.
+ * Full downloads are also written to the attachment disk cache as they stream; cached attachments
+ * are pinned and copied from disk with FileChannel.transferTo before the handler returns, so an
+ * eviction cannot delete the file mid-response.
+ * Uploads are read from the spooled multipart part and written to Jira as a chunked multipart body.
+ */
+@Service
+public class JiraAttachmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraAttachmentService.class);
+
+    // Client headers forwarded to Jira
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(
+            HttpHeaders.RANGE, HttpHeaders.IF_RANGE, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+    // Jira response headers passed back to the client
+    private static final List<String> PASSED_RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_RANGE,
+            HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.ACCEPT_RANGES, HttpHeaders.CACHE_CONTROL);
+
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private final JiraService jiraService;
+    private final JiraConfig jiraConfig;
+    private final ObjectMapper objectMapper;
+    private final JiraAttachmentDiskCache attachmentCache;
+    private final List<ClientHttpRequestInterceptor> interceptors;
+    private final HttpComponentsClientHttpRequestFactory streamingRequestFactory;
+    private final FormHttpMessageConverter formConverter = new FormHttpMessageConverter();
+    private final DefaultResponseErrorHandler errorHandler = new DefaultResponseErrorHandler();
+
+    @Value("${jira.attachments.max-upload-mb:50}")
+    private long maxUploadMb = 50;
+
+    public JiraAttachmentService(JiraService jiraService,
+                                 JiraConfig jiraConfig,
+                                 ObjectMapper objectMapper,
+                                 RestTemplate restTemplate,
+                                 CloseableHttpClient jiraHttpClient,
+                                 JiraAttachmentDiskCache attachmentCache) {
+        this.jiraService = jiraService;
+        this.jiraConfig = jiraConfig;
+        this.objectMapper = objectMapper;
+        this.attachmentCache = attachmentCache;
+        // Same interceptors as the RestTemplate, but the RestTemplate buffers request bodies
+        // for them, so uploads go through the pooled client directly
+        this.interceptors = List.copyOf(restTemplate.getInterceptors());
+        this.streamingRequestFactory = new HttpComponentsClientHttpRequestFactory(jiraHttpClient);
+    }
+
+    /**
+     * Upload a file to a Jira issue as a streamed multipart request
+     * @param issueIdOrKey The issue ID or key
+     * @param file The uploaded part; the servlet container has already spooled it to disk
+     * @return JsonNode with Jira's attachment array
+     * @throws MaxUploadSizeExceededException if the file is larger than jira.attachments.max-upload-mb
+     * @throws Exception if the upload to Jira fails
+     */
+    public JsonNode uploadToIssue(String issueIdOrKey, MultipartFile file) throws Exception {
+        long maxBytes = maxUploadMb * 1024 * 1024;
+        if (file.getSize() > maxBytes) {
+            throw new MaxUploadSizeExceededException(maxBytes);
+        }
+
+        URI uri = UriComponentsBuilder.fromUriString(jiraConfig.getBaseUrl())
+                .path("/rest/api/3/issue/{issueIdOrKey}/attachments")
+                .buildAndExpand(issueIdOrKey)
+                .toUri();
+
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        // Reopens the spooled file on every write, so a 429 retry sends the full body again
+        parts.add("file", file.getResource());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", jiraService.getAuthHeader());
+        headers.set("X-Atlassian-Token", "no-check");
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+        logger.info("Streaming {} ({} bytes) to Jira issue {}", file.getOriginalFilename(), file.getSize(), issueIdOrKey);
+        try (ClientHttpResponse response = new StreamingExecution(parts).execute(new UploadRequest(uri, headers), new byte[0])) {
+            if (errorHandler.hasError(response)) {
+                errorHandler.handleError(uri, HttpMethod.POST, response);
+            }
+            String body = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+            return body.isEmpty() ? objectMapper.createArrayNode() : objectMapper.readTree(body);
+        }
+    }
+
+    /**
+     * Runs the RestTemplate interceptors (pool monitor, circuit breaker, rate limiter) in order and
+     * then writes the multipart body straight to the connection instead of from a byte array
+     */
+    private class StreamingExecution implements ClientHttpRequestExecution {
+
+        private final Iterator<ClientHttpRequestInterceptor> remaining = interceptors.iterator();
+        private final MultiValueMap<String, Object> parts;
+
+        StreamingExecution(MultiValueMap<String, Object> parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        public ClientHttpResponse execute(HttpRequest request, byte[] ignored) throws IOException {
+            if (remaining.hasNext()) {
+                return remaining.next().intercept(request, ignored, this);
+            }
+            ClientHttpRequest delegate = streamingRequestFactory.createRequest(request.getURI(), request.getMethod());
+            delegate.getHeaders().putAll(request.getHeaders());
+            // Sets the multipart Content-Type with its boundary and streams the parts on execute
+            formConverter.write(parts, MediaType.MULTIPART_FORM_DATA, delegate);
+            return delegate.execute();
+        }
+    }
+
+    private record UploadRequest(URI uri, HttpHeaders headers, Map<String, Object> attributes) implements HttpRequest {
+
+        UploadRequest(URI uri, HttpHeaders headers) {
+            this(uri, headers, new HashMap<>());
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return HttpMethod.POST;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+
+    /**
+     * Stream an attachment to the client, from the disk cache when it is cached and from Jira otherwise
+     * @param attachmentId The Jira attachment ID
+     * @param request the client request, for Range and conditional headers
+     * @param response the client response the body is written to
+     * @throws Exception if Jira cannot be reached or the copy fails; Jira error statuses are passed through
+     */
+    public void streamToResponse(String attachmentId, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        try (JiraAttachmentDiskCache.PinnedAttachment pinned = attachmentCache.acquire(attachmentId)) {
+            if (pinned != null) {
+                long sent = serveCached(pinned.attachment(), request, response);
+                logger.info("Served {} bytes of attachment {} from the disk cache (range: {})",
+                        sent, attachmentId, request.getHeader(HttpHeaders.RANGE));
+                return;
+            }
+        }
+
+        HttpHeaders forwardHeaders = new HttpHeaders();
+        for (String name : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                forwardHeaders.set(name, value);
+            }
+        }
+        String range = request.getHeader(HttpHeaders.RANGE);
+
+        try {
+            long copied = jiraService.streamAttachmentContent(attachmentId, forwardHeaders,
+                    jiraResponse -> relay(attachmentId, jiraResponse, range, request.getHeader(HttpHeaders.IF_RANGE), response));
+            logger.info("Streamed {} bytes of attachment {} (range: {})", copied, attachmentId, range);
+            if (response.getStatus() == HttpStatus.PARTIAL_CONTENT.value()) {
+                // Only part of the body went through; fetch the whole file for the next request
+                attachmentCache.warm(attachmentId, totalLength(response.getHeader(HttpHeaders.CONTENT_RANGE)));
+            }
+        } catch (HttpStatusCodeException e) {
+            // 404, 416 and similar are answers for the client, not proxy failures
+            if (e.getStatusCode().is5xxServerError() || response.isCommitted()) {
+                throw e;
+            }
+            response.setStatus(e.getStatusCode().value());
+            copyHeader(e.getResponseHeaders(), HttpHeaders.CONTENT_RANGE, response);
+        }
+    }
+
+    private long relay(String attachmentId, ClientHttpResponse jiraResponse, String range, String ifRange, HttpServletResponse response) throws IOException {
+        HttpHeaders headers = jiraResponse.getHeaders();
+        int status = jiraResponse.getStatusCode().value();
+
+        if (status == HttpStatus.NOT_MODIFIED.value()) {
+            response.setStatus(status);
+            copyHeader(headers, HttpHeaders.ETAG, response);
+            return 0;
+        }
+
+        long[] slice = status == HttpStatus.OK.value() && ifRangeMatches(ifRange, headers)
+                ? parseRange(range, headers.getContentLength())
+                : null;
+        if (slice == null) {
+            // Full body, or Jira already applied the range (206)
+            response.setStatus(status);
+            for (String name : PASSED_RESPONSE_HEADERS) {
+                copyHeader(headers, name, response);
+            }
+            if (!headers.containsKey(HttpHeaders.ACCEPT_RANGES)) {
+                response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            }
+            try (InputStream in = jiraResponse.getBody()) {
+                if (status == HttpStatus.OK.value()) {
+                    return copyAndCache(attachmentId, in, headers, response.getOutputStream());
+                }
+                return in.transferTo(response.getOutputStream());
+            }
+        }
+
+        long total = headers.getContentLength();
+        if (slice.length == 0) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + total);
+            return 0;
+        }
+
+        long start = slice[0];
+        long end = slice[1];
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        for (String name : PASSED_RESPONSE_HEADERS) {
+            if (!HttpHeaders.CONTENT_LENGTH.equals(name)) {
+                copyHeader(headers, name, response);
+            }
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + total);
+        response.setContentLengthLong(end - start + 1);
+        try (InputStream in = jiraResponse.getBody()) {
+            OutputStream out = response.getOutputStream();
+            return StreamUtils.copyRange(in, out, start, end);
+        }
+    }
+
+    /**
+     * Copy a full body to the client and into the disk cache at the same time.
+     * Cache write failures only stop the caching; the client download carries on.
+     */
+    private long copyAndCache(String attachmentId, InputStream in, HttpHeaders headers, OutputStream out) throws IOException {
+        try (JiraAttachmentDiskCache.PendingAttachment pending = attachmentCache.begin(attachmentId, headers.getContentLength())) {
+            if (pending == null) {
+                return in.transferTo(out);
+            }
+            OutputStream cacheOut = pending.getOutputStream();
+            boolean caching = true;
+            byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+            long copied = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                if (caching) {
+                    try {
+                        cacheOut.write(buffer, 0, read);
+                    } catch (IOException e) {
+                        logger.warn("Stopped caching attachment {}: {}", attachmentId, e.getMessage());
+                        caching = false;
+                    }
+                }
+                copied += read;
+            }
+            long expected = headers.getContentLength();
+            if (caching && (expected < 0 || expected == copied)) {
+                try {
+                    pending.commit(headers.getFirst(HttpHeaders.CONTENT_TYPE), headers.getFirst(HttpHeaders.CONTENT_DISPOSITION));
+                } catch (IOException e) {
+                    logger.warn("Could not cache attachment {}: {}", attachmentId, e.getMessage());
+                }
+            }
+            return copied;
+        }
+    }
+
+    /**
+     * Serve a cached attachment with the same conditional and Range handling as the proxy path
+     * @return the number of bytes sent
+     */
+    private long serveCached(JiraAttachmentDiskCache.CachedAttachment cached, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        String etag = cached.etag();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return 0;
+        }
+        if (cached.contentType() != null) {
+            response.setHeader(HttpHeaders.CONTENT_TYPE, cached.contentType());
+        }
+        if (cached.contentDisposition() != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, cached.contentDisposition());
+        }
+
+        HttpHeaders validators = new HttpHeaders();
+        validators.setETag(etag);
+        long total = cached.size();
+        long[] slice = ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), validators)
+                ? parseRange(request.getHeader(HttpHeaders.RANGE), total)
+                : null;
+        if (slice != null && slice.length == 0) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + total);
+            return 0;
+        }
+
+        long start = 0;
+        long count = total;
+        if (slice != null) {
+            start = slice[0];
+            count = slice[1] - slice[0] + 1;
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + slice[0] + "-" + slice[1] + "/" + total);
+        } else {
+            response.setStatus(HttpStatus.OK.value());
+        }
+        response.setContentLengthLong(count);
+        return sendFile(cached.file(), start, count, response);
+    }
+
+    /**
+     * Copy part of a file to the response with FileChannel.transferTo. The whole body is written
+     * before returning, while the caller holds the pin; Tomcat's sendfile would open the file only
+     * after the handler returned, when the blob may already be evicted.
+     */
+    private long sendFile(Path file, long start, long count, HttpServletResponse response) throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            return count - remaining;
+        }
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Full length from a Content-Range header ("bytes 0-3/1234")
+     * @return the length, or -1 when it is missing or unknown
+     */
+    private long totalLength(String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+        String total = contentRange.substring(contentRange.lastIndexOf('/') + 1).trim();
+        try {
+            return Long.parseLong(total);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Resolve a single "bytes=" range against the full length.
+     * Multiple ranges and unknown lengths are answered with the full body.
+     * @return {start, end} inclusive, an empty array when unsatisfiable, or null to send everything
+     */
+    static long[] parseRange(String range, long total) {
+        if (range == null || total < 0) {
+            return null;
+        }
+        Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+        if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return null;
+        }
+        long start;
+        long end;
+        if (matcher.group(1).isEmpty()) {
+            // Suffix range: the last N bytes
+            long suffix = parseRangeBound(matcher.group(2));
+            if (suffix == 0) {
+                return new long[0];
+            }
+            start = Math.max(0, total - suffix);
+            end = total - 1;
+        } else {
+            start = parseRangeBound(matcher.group(1));
+            end = matcher.group(2).isEmpty() ? total - 1 : Math.min(parseRangeBound(matcher.group(2)), total - 1);
+        }
+        if (start >= total || start > end) {
+            return new long[0];
+        }
+        return new long[] {start, end};
+    }
+
+    /**
+     * Range positions too long for a long are still valid, just past the end of any body
+     */
+    private static long parseRangeBound(String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * If-Range with a validator that no longer matches means the client gets the whole new body
+     */
+    private boolean ifRangeMatches(String ifRange, HttpHeaders headers) {
+        if (ifRange == null) {
+            return true;
+        }
+        String etag = headers.getETag();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        return ifRange.equals(headers.getFirst(HttpHeaders.LAST_MODIFIED));
+    }
+
+    private void copyHeader(HttpHeaders headers, String name, HttpServletResponse response) {
+        String value = headers != null ? headers.getFirst(name) : null;
+        if (value != null) {
+            response.setHeader(name, value);
+        }
+    }
+}
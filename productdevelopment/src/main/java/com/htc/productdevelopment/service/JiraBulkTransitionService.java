@@ -0,0 +1,140 @@
+package com.htc.productdevelopment.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs many issue transitions at once, e.g. the approvals an approver makes at the end of a
+ * review meeting. Transitions run concurrently; each Jira call still goes through the shared rate
+ * limiter and circuit breaker. The contract completion checks of all successful transitions are
+ * enqueued together in one transaction instead of one per issue.
+ */
+@Service
+public class JiraBulkTransitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraBulkTransitionService.class);
+
+    /**
+     * One requested transition
+     * @param issueKey the Jira issue key
+     * @param transitionKey UI transition key from TRANSITION_MAP, or a numeric Jira transition ID
+     */
+    public record TransitionRequest(String issueKey, String transitionKey) {
+    }
+
+    /**
+     * Outcome of one requested transition
+     * @param issueKey the Jira issue key
+     * @param transitionKey the requested transition key
+     * @param transitionId the resolved Jira transition ID, or null if the key is unknown
+     * @param success true if Jira accepted the transition
+     * @param message error message when the transition was not made, otherwise null
+     */
+    public record TransitionResult(String issueKey, String transitionKey, String transitionId,
+                                   boolean success, String message) {
+    }
+
+    private final JiraService jiraService;
+    private final ContractCompletionOutboxService contractCompletionOutboxService;
+    private final Executor transitionExecutor;
+
+    @Value("${jira.bulk-transition.max-items:100}")
+    private int maxItems = 100;
+
+    public JiraBulkTransitionService(JiraService jiraService,
+                                     ContractCompletionOutboxService contractCompletionOutboxService,
+                                     @Qualifier("jiraBulkTransitionExecutor") Executor transitionExecutor) {
+        this.jiraService = jiraService;
+        this.contractCompletionOutboxService = contractCompletionOutboxService;
+        this.transitionExecutor = transitionExecutor;
+    }
+
+    /**
+     * Transition several issues
+     * @param requests issue key and transition key pairs
+     * @return one result per request, in request order
+     * @throws IllegalArgumentException if more than the configured maximum of transitions is requested
+     */
+    public List<TransitionResult> transition(List<TransitionRequest> requests) {
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " transitions can be made at once, got " + requests.size());
+        }
+
+        // Workers call Jira in the caller's lane, so a UI request is not queued behind background sync
+        JiraCallPriority priority = JiraCallPriority.current();
+        Set<String> seenKeys = new HashSet<>();
+        List<CompletableFuture<TransitionResult>> futures = new ArrayList<>();
+        for (TransitionRequest request : requests) {
+            String issueKey = request.issueKey() == null ? null : request.issueKey().trim();
+            String transitionKey = request.transitionKey();
+            String transitionId = jiraService.resolveTransitionId(transitionKey);
+
+            TransitionResult rejected = null;
+            if (issueKey == null || issueKey.isEmpty()) {
+                rejected = new TransitionResult(issueKey, transitionKey, transitionId, false, "Issue key is required");
+            } else if (transitionId == null) {
+                rejected = new TransitionResult(issueKey, transitionKey, null, false, "Invalid transition key: " + transitionKey);
+            } else if (!seenKeys.add(issueKey)) {
+                // Two transitions of one issue would race; the first one wins
+                rejected = new TransitionResult(issueKey, transitionKey, transitionId, false, "Issue appears more than once in the request");
+            }
+            if (rejected != null) {
+                futures.add(CompletableFuture.completedFuture(rejected));
+                continue;
+            }
+
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                JiraCallPriority previous = JiraCallPriority.enter(priority);
+                try {
+                    boolean success = jiraService.transitionIssue(issueKey, transitionId, false);
+                    return new TransitionResult(issueKey, transitionKey, transitionId, success,
+                            success ? null : "Jira rejected the transition");
+                } finally {
+                    JiraCallPriority.restore(previous);
+                }
+            }, transitionExecutor));
+        }
+
+        List<TransitionResult> results = new ArrayList<>();
+        List<String> transitioned = new ArrayList<>();
+        for (CompletableFuture<TransitionResult> future : futures) {
+            TransitionResult result = future.join();
+            results.add(result);
+            if (result.success()) {
+                transitioned.add(result.issueKey());
+            }
+        }
+        logger.info("Bulk transition finished: {} of {} succeeded", transitioned.size(), results.size());
+
+        if (jiraService.isCompletionEnqueuedOnTransition()) {
+            enqueueCompletions(transitioned);
+        }
+        return results;
+    }
+
+    private void enqueueCompletions(List<String> issueKeys) {
+        try {
+            contractCompletionOutboxService.enqueueAll(issueKeys, ContractCompletionOutboxService.SOURCE_TRANSITION);
+        } catch (Exception e) {
+            // Usually a concurrent enqueue of one of the issues; the per-issue path tolerates that
+            logger.warn("Batched completion enqueue failed, enqueueing one by one: {}", e.getMessage());
+            for (String issueKey : issueKeys) {
+                try {
+                    contractCompletionOutboxService.enqueue(issueKey, ContractCompletionOutboxService.SOURCE_TRANSITION, null);
+                } catch (Exception ex) {
+                    logger.error("Error enqueueing contract completion for issue: {}", issueKey, ex);
+                }
+            }
+        }
+    }
+}
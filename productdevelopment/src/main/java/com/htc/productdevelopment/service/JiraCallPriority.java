@@ -0,0 +1,45 @@
+package com.htc.productdevelopment.service;
+
+/**
+ * Scheduling lane for outgoing Jira requests.
+ * Requests made from UI endpoints run as INTERACTIVE (the default); background sync and
+ * bulk jobs mark their thread as BACKGROUND so the rate limiter serves them last.
+ */
+public enum JiraCallPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<JiraCallPriority> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Priority of the current thread
+     * @return the lane set with enter, or INTERACTIVE
+     */
+    public static JiraCallPriority current() {
+        JiraCallPriority priority = CURRENT.get();
+        return priority != null ? priority : INTERACTIVE;
+    }
+
+    /**
+     * Switch the current thread to a lane; pass the returned value to restore afterwards
+     * @param priority the lane to use
+     * @return the previous lane, possibly null
+     */
+    public static JiraCallPriority enter(JiraCallPriority priority) {
+        JiraCallPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        return previous;
+    }
+
+    /**
+     * Restore the lane returned by enter
+     * @param previous the previous lane, possibly null
+     */
+    public static void restore(JiraCallPriority previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.exception.JiraCircuitOpenException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker for Jira requests sent through the RestTemplate.
+ * Outcomes of the last jira.circuit-breaker.window-size calls are kept in a ring buffer;
+ * when the failure rate or slow-call rate crosses its threshold the breaker opens and
+ * requests fail fast with JiraCircuitOpenException instead of tying up a Tomcat thread
+ * until the read timeout. After the open duration a few probe requests are let through
+ * (half-open) and the breaker closes again once they all succeed.
+ */
+@Component
+public class JiraCircuitBreaker implements ClientHttpRequestInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Value("${jira.circuit-breaker.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jira.circuit-breaker.window-size:50}")
+    private int windowSize = 50;
+
+    @Value("${jira.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls = 10;
+
+    @Value("${jira.circuit-breaker.failure-rate-threshold:50}")
+    private double failureRateThreshold = 50;
+
+    @Value("${jira.circuit-breaker.slow-call-threshold-ms:5000}")
+    private long slowCallThresholdMs = 5000;
+
+    @Value("${jira.circuit-breaker.slow-call-rate-threshold:80}")
+    private double slowCallRateThreshold = 80;
+
+    @Value("${jira.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMs = 30000;
+
+    @Value("${jira.circuit-breaker.half-open-probes:3}")
+    private int halfOpenProbes = 3;
+
+    private final JiraRateLimiter jiraRateLimiter;
+
+    // Breaker state, guarded by this
+    private State state = State.CLOSED;
+    private byte[] outcomes;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private long openUntilMillis;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    private final AtomicLong rejectedCalls = new AtomicLong();
+    private final AtomicLong timesOpened = new AtomicLong();
+    private volatile Instant lastStateChangeAt = Instant.now();
+
+    // Outcome codes stored in the ring buffer
+    private static final byte OK = 0;
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    public JiraCircuitBreaker(JiraRateLimiter jiraRateLimiter) {
+        this.jiraRateLimiter = jiraRateLimiter;
+    }
+
+    @PostConstruct
+    void init() {
+        outcomes = new byte[Math.max(1, windowSize)];
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!enabled) {
+            return execution.execute(request, body);
+        }
+
+        boolean probe = acquirePermission();
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            boolean serverError = response.getStatusCode().is5xxServerError();
+            onResult(probe, elapsedMs(start), serverError);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            onResult(probe, elapsedMs(start), true);
+            throw e;
+        }
+    }
+
+    private long elapsedMs(long start) {
+        // Time spent queued in the rate limiter says nothing about Jira's health
+        long nanos = System.nanoTime() - start - jiraRateLimiter.getWaitNanosOfCurrentRequest();
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+    }
+
+    /**
+     * Let a call through or reject it
+     * @return true when the call is a half-open probe
+     */
+    private synchronized boolean acquirePermission() throws JiraCircuitOpenException {
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN && now >= openUntilMillis) {
+            transitionTo(State.HALF_OPEN);
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && probesInFlight < halfOpenProbes) {
+            probesInFlight++;
+            return true;
+        }
+        rejectedCalls.incrementAndGet();
+        long retryAfter = Math.max(0, openUntilMillis - now);
+        throw new JiraCircuitOpenException("Jira circuit breaker is " + state
+                + ", Jira is temporarily unavailable", retryAfter);
+    }
+
+    private synchronized void onResult(boolean probe, long durationMs, boolean failed) {
+        boolean slow = durationMs >= slowCallThresholdMs;
+
+        if (probe) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            probesInFlight--;
+            if (failed || slow) {
+                logger.warn("Jira circuit breaker probe {} ({} ms), reopening", failed ? "failed" : "was slow", durationMs);
+                open();
+            } else if (++probeSuccesses >= halfOpenProbes) {
+                logger.info("Jira circuit breaker probes succeeded, closing");
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (state != State.CLOSED) {
+            return;
+        }
+        record(failed ? FAILED : (slow ? SLOW : OK));
+        if (recorded < minimumCalls) {
+            return;
+        }
+        double failureRate = failures * 100.0 / recorded;
+        double slowRate = slowCalls * 100.0 / recorded;
+        if (failureRate >= failureRateThreshold || slowRate >= slowCallRateThreshold) {
+            logger.warn("Jira circuit breaker opening: failure rate {}%, slow-call rate {}% over {} calls",
+                    Math.round(failureRate), Math.round(slowRate), recorded);
+            open();
+        }
+    }
+
+    private void record(byte outcome) {
+        if (recorded == outcomes.length) {
+            byte evicted = outcomes[position];
+            if (evicted == FAILED) {
+                failures--;
+            } else if (evicted == SLOW) {
+                slowCalls--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[position] = outcome;
+        position = (position + 1) % outcomes.length;
+        if (outcome == FAILED) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+    }
+
+    private void open() {
+        openUntilMillis = System.currentTimeMillis() + openDurationMs;
+        timesOpened.incrementAndGet();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transitionTo(State next) {
+        if (state != next) {
+            state = next;
+            lastStateChangeAt = Instant.now();
+        }
+    }
+
+    /**
+     * Current breaker state
+     * @return CLOSED, OPEN or HALF_OPEN
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Breaker state and window counters
+     * @return Map with state, failure and slow-call rates and rejection counts
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("state", state.name());
+        stats.put("lastStateChangeAt", lastStateChangeAt.toString());
+        stats.put("windowCalls", recorded);
+        stats.put("failureRate", recorded == 0 ? 0.0 : failures * 100.0 / recorded);
+        stats.put("slowCallRate", recorded == 0 ? 0.0 : slowCalls * 100.0 / recorded);
+        stats.put("failureRateThreshold", failureRateThreshold);
+        stats.put("slowCallRateThreshold", slowCallRateThreshold);
+        stats.put("slowCallThresholdMs", slowCallThresholdMs);
+        stats.put("openForMs", state == State.OPEN ? Math.max(0, openUntilMillis - System.currentTimeMillis()) : 0);
+        stats.put("rejectedCalls", rejectedCalls.get());
+        stats.put("timesOpened", timesOpened.get());
+        return stats;
+    }
+}
@@ -0,0 +1,212 @@
+package com.htc.productdevelopment.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects Jira custom field updates per issue and sends them as one PUT. While a proposal is
+ * negotiated the license count and optimized cost are written several times in a row; writes
+ * to the same issue within the debounce window are merged (later values win) and flushed
+ * together, or immediately when a caller commits. Flushes of one issue never overlap, so
+ * Jira ends up with the values of the last write.
+ */
+@Component
+public class JiraFieldWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraFieldWriteBuffer.class);
+
+    // Flushes of one issue run under the same stripe, in order
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * Outcome of one flushed batch of field updates
+     * @param issueKey the Jira issue key
+     * @param fields the merged fields sent to Jira; empty if nothing was pending
+     * @param success true if Jira accepted the update or nothing was pending
+     * @param message error message when the update failed, otherwise null
+     */
+    public record FlushResult(String issueKey, Map<String, Object> fields, boolean success, String message) {
+    }
+
+    private static final class Pending {
+        private final Map<String, Object> fields = new LinkedHashMap<>();
+        private final CompletableFuture<FlushResult> result = new CompletableFuture<>();
+        private final long firstWriteNanos = System.nanoTime();
+        private int writes;
+        private ScheduledFuture<?> timer;
+    }
+
+    private final JiraService jiraService;
+
+    @Value("${jira.write-buffer.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jira.write-buffer.debounce-ms:750}")
+    private long debounceMs = 750;
+
+    // Upper bound on how long a stream of writes can keep postponing the flush
+    @Value("${jira.write-buffer.max-delay-ms:3000}")
+    private long maxDelayMs = 3000;
+
+    private final ConcurrentMap<String, Pending> pendingByIssue = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    public JiraFieldWriteBuffer(JiraService jiraService) {
+        this.jiraService = jiraService;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "jira-write-buffer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Queue field updates for an issue; they are sent after the debounce window
+     * @param issueKey the Jira issue key
+     * @param fields Jira field IDs and values, as accepted by JiraService.updateIssue
+     * @return completes with the result of the flush that sends these fields
+     */
+    public CompletableFuture<FlushResult> write(String issueKey, Map<String, Object> fields) {
+        writes.incrementAndGet();
+        if (!enabled) {
+            return CompletableFuture.completedFuture(send(issueKey, new LinkedHashMap<>(fields)));
+        }
+        Pending pending = pendingByIssue.compute(issueKey, (key, current) -> {
+            Pending target = current != null ? current : new Pending();
+            target.fields.putAll(fields);
+            target.writes++;
+            if (target.timer != null) {
+                target.timer.cancel(false);
+            }
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - target.firstWriteNanos);
+            long delayMs = Math.max(0, Math.min(debounceMs, maxDelayMs - waitedMs));
+            target.timer = scheduler.schedule(() -> flushQuietly(key), delayMs, TimeUnit.MILLISECONDS);
+            return target;
+        });
+        return pending.result;
+    }
+
+    /**
+     * Queue field updates and send everything pending for the issue now
+     * @param issueKey the Jira issue key
+     * @param fields Jira field IDs and values
+     * @return the result of the flush that sent these fields
+     */
+    public FlushResult writeAndCommit(String issueKey, Map<String, Object> fields) {
+        CompletableFuture<FlushResult> result = write(issueKey, fields);
+        commit(issueKey);
+        // Completed by this commit, or by a timer flush that took the fields first
+        return result.join();
+    }
+
+    /**
+     * Send everything pending for an issue now, e.g. before a contract is finalized
+     * @param issueKey the Jira issue key
+     * @return the result of the flush; successful with no fields if nothing was pending
+     */
+    public FlushResult commit(String issueKey) {
+        FlushResult result = flush(issueKey);
+        return result != null ? result : new FlushResult(issueKey, Map.of(), true, null);
+    }
+
+    /**
+     * Whether updates for an issue are waiting to be sent
+     * @param issueKey the Jira issue key
+     * @return true if a flush is pending
+     */
+    public boolean hasPending(String issueKey) {
+        return pendingByIssue.containsKey(issueKey);
+    }
+
+    private FlushResult flush(String issueKey) {
+        synchronized (locks[Math.floorMod(issueKey.hashCode(), LOCK_STRIPES)]) {
+            Pending pending = pendingByIssue.remove(issueKey);
+            if (pending == null) {
+                return null;
+            }
+            if (pending.timer != null) {
+                pending.timer.cancel(false);
+            }
+            logger.info("Flushing {} buffered write(s) of issue {} as one update: {}", pending.writes, issueKey, pending.fields.keySet());
+            FlushResult result = send(issueKey, pending.fields);
+            pending.result.complete(result);
+            return result;
+        }
+    }
+
+    private void flushQuietly(String issueKey) {
+        try {
+            flush(issueKey);
+        } catch (Exception e) {
+            logger.error("Unexpected error flushing buffered writes of issue {}", issueKey, e);
+        }
+    }
+
+    private FlushResult send(String issueKey, Map<String, Object> fields) {
+        flushes.incrementAndGet();
+        try {
+            jiraService.updateIssue(issueKey, fields);
+            return new FlushResult(issueKey, fields, true, null);
+        } catch (Exception e) {
+            failedFlushes.incrementAndGet();
+            logger.warn("Failed to update Jira fields {} of issue {}: {}", fields.keySet(), issueKey, e.getMessage());
+            return new FlushResult(issueKey, fields, false, e.getMessage());
+        }
+    }
+
+    /**
+     * Send pending writes before the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<String> issueKeys = new ArrayList<>(pendingByIssue.keySet());
+        for (String issueKey : issueKeys) {
+            flushQuietly(issueKey);
+        }
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Write buffer counters
+     * @return Map with pending issues, writes, flushes and failures
+     */
+    public Map<String, Object> getStats() {
+        long writeCount = writes.get();
+        long flushCount = flushes.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("debounceMs", debounceMs);
+        stats.put("pendingIssues", pendingByIssue.size());
+        stats.put("writes", writeCount);
+        stats.put("flushes", flushCount);
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("writesPerFlush", flushCount == 0 ? 0.0 : (double) writeCount / flushCount);
+        return stats;
+    }
+}
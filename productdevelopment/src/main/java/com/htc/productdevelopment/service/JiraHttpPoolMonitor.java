@@ -0,0 +1,93 @@
+package com.htc.productdevelopment.service;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks usage of the Jira connection pool.
+ * Registered as a RestTemplate interceptor so every outgoing Jira request is sampled.
+ */
+@Component
+public class JiraHttpPoolMonitor implements ClientHttpRequestInterceptor {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    // Requests sent through the pool
+    private final AtomicLong totalRequests = new AtomicLong();
+
+    // Requests that found every connection leased or other requests already waiting
+    private final AtomicLong saturatedRequests = new AtomicLong();
+
+    // Highest number of leased connections seen so far
+    private final AtomicInteger peakLeased = new AtomicInteger();
+
+    public JiraHttpPoolMonitor(PoolingHttpClientConnectionManager jiraConnectionManager) {
+        this.connectionManager = jiraConnectionManager;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        totalRequests.incrementAndGet();
+        PoolStats before = connectionManager.getTotalStats();
+        if (before.getPending() > 0 || before.getLeased() >= before.getMax()) {
+            saturatedRequests.incrementAndGet();
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+
+        // The connection stays leased until the body is consumed, so this is the in-flight count
+        int leased = connectionManager.getTotalStats().getLeased();
+        peakLeased.accumulateAndGet(leased, Math::max);
+        return response;
+    }
+
+    /**
+     * Snapshot of the pool state and saturation counters
+     * @return Map with total and per-route pool statistics
+     */
+    public Map<String, Object> getStats() {
+        PoolStats total = connectionManager.getTotalStats();
+        long requests = totalRequests.get();
+        long saturated = saturatedRequests.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leased", total.getLeased());
+        stats.put("pending", total.getPending());
+        stats.put("available", total.getAvailable());
+        stats.put("max", total.getMax());
+        stats.put("maxPerRoute", connectionManager.getDefaultMaxPerRoute());
+        stats.put("peakLeased", peakLeased.get());
+        stats.put("totalRequests", requests);
+        stats.put("saturatedRequests", saturated);
+        stats.put("saturationRatio", requests == 0 ? 0.0 : (double) saturated / requests);
+
+        List<Map<String, Object>> routes = new ArrayList<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            PoolStats routeStats = connectionManager.getStats(route);
+            Map<String, Object> routeMap = new LinkedHashMap<>();
+            routeMap.put("target", route.getTargetHost().toURI());
+            routeMap.put("leased", routeStats.getLeased());
+            routeMap.put("pending", routeStats.getPending());
+            routeMap.put("available", routeStats.getAvailable());
+            routeMap.put("max", routeStats.getMax());
+            routes.add(routeMap);
+        }
+        stats.put("routes", routes);
+        return stats;
+    }
+}
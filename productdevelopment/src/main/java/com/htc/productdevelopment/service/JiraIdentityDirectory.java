@@ -0,0 +1,310 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import com.htc.productdevelopment.model.Department;
+import com.htc.productdevelopment.model.Organization;
+import com.htc.productdevelopment.repository.DepartmentRepository;
+import com.htc.productdevelopment.repository.OrganizationRepository;
+import com.htc.productdevelopment.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory dictionary of organization names, department names and user scopes (email to
+ * user, organization and department ids), used to build the role-filtered JQL for the issue list
+ * and to link saved contracts to their requester without a database round-trip per request.
+ * It is loaded at startup and reloaded on the next read after a User, Organization or Department
+ * is written (see JiraIdentityDirectoryInvalidator), or once it is older than the configured TTL,
+ * which picks up writes made by other instances.
+ */
+@Component
+public class JiraIdentityDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraIdentityDirectory.class);
+
+    private static final String BASE_JQL = "project = \"Request Management\"";
+    private static final String ORDER_BY = " ORDER BY key DESC";
+
+    /**
+     * Ids a user's issue list and contracts are scoped by
+     * @param userId user id
+     * @param email user email, as stored
+     * @param organizationId organization id, or null
+     * @param departmentId department id, or null
+     */
+    public record UserScope(Long userId, String email, Long organizationId, Long departmentId) {
+    }
+
+    /**
+     * Role-filtered JQL plus the filter values behind it, so the same filters can be applied to the local mirror
+     * @param jql the JQL for the issue list
+     * @param organization organization name filter, or null
+     * @param department department name filter, or null
+     * @param requesterEmail requester email filter, or null
+     */
+    public record IssueListQuery(String jql, String organization, String department, String requesterEmail) {
+    }
+
+    private record Snapshot(Map<Long, String> organizations,
+                            Map<Long, String> departments,
+                            Map<String, UserScope> users,
+                            long generation,
+                            long loadedAtNanos) {
+    }
+
+    /**
+     * JQL clauses a role is filtered by, with the field names resolved once
+     */
+    private record RoleTemplate(String organizationClause, String departmentClause,
+                                boolean departmentNeedsOrganization, String requesterEmailClause) {
+
+        IssueListQuery render(String organizationName, String departmentName, String requesterEmail) {
+            StringBuilder jql = new StringBuilder(BASE_JQL);
+            String organization = null;
+            String department = null;
+            String email = null;
+            if (organizationClause != null && organizationName != null) {
+                organization = organizationName;
+                jql.append(organizationClause).append(organizationName).append('"');
+            }
+            if (departmentClause != null && departmentName != null
+                    && (organization != null || !departmentNeedsOrganization)) {
+                department = departmentName;
+                jql.append(departmentClause).append(departmentName).append('"');
+            }
+            if (requesterEmailClause != null && requesterEmail != null) {
+                email = requesterEmail;
+                jql.append(requesterEmailClause).append(requesterEmail).append('"');
+            }
+            return new IssueListQuery(jql.append(ORDER_BY).toString(), organization, department, email);
+        }
+    }
+
+    private final OrganizationRepository organizationRepository;
+    private final DepartmentRepository departmentRepository;
+    private final UserRepository userRepository;
+    private final JiraFieldConfig jiraFieldConfig;
+
+    @Value("${jira.identity-directory.ttl-minutes:10}")
+    private long ttlMinutes = 10;
+
+    private Map<String, RoleTemplate> roleTemplates = Map.of();
+    private RoleTemplate defaultTemplate;
+    private RoleTemplate noRoleTemplate;
+
+    private volatile Snapshot snapshot;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public JiraIdentityDirectory(OrganizationRepository organizationRepository,
+                                 DepartmentRepository departmentRepository,
+                                 UserRepository userRepository,
+                                 JiraFieldConfig jiraFieldConfig) {
+        this.organizationRepository = organizationRepository;
+        this.departmentRepository = departmentRepository;
+        this.userRepository = userRepository;
+        this.jiraFieldConfig = jiraFieldConfig;
+    }
+
+    @PostConstruct
+    void compileTemplates() {
+        String organizationClause = clause(jiraFieldConfig.getOrganizationName());
+        String departmentClause = clause(jiraFieldConfig.getDepartmentName());
+
+        RoleTemplate organizationAndDepartment = new RoleTemplate(organizationClause, departmentClause, false, null);
+        Map<String, RoleTemplate> templates = new HashMap<>();
+        templates.put("SUPER_ADMIN", new RoleTemplate(null, null, false, null));
+        templates.put("ADMIN", organizationAndDepartment);
+        templates.put("APPROVER", organizationAndDepartment);
+        templates.put("REQUESTER", new RoleTemplate(organizationClause, departmentClause, false,
+                clause(jiraFieldConfig.getRequesterEmail())));
+        roleTemplates = Map.copyOf(templates);
+        defaultTemplate = organizationAndDepartment;
+        // Without a role the custom field ids are matched, and the department only together with the organization
+        noRoleTemplate = new RoleTemplate(clause(jiraFieldConfig.getOrganization()),
+                clause(jiraFieldConfig.getDepartment()), true, null);
+    }
+
+    private static String clause(String field) {
+        return " AND \"" + field + "\" = \"";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        current();
+    }
+
+    /**
+     * Build the role-filtered JQL for the "Request Management" issue list
+     * @param userRole role name; null applies the default filtering
+     * @param userOrganizationId the user's organization id, or null
+     * @param userDepartmentId the user's department id, or null
+     * @param userEmail the user's email, used for requesters
+     * @return the JQL and the filters it applies
+     */
+    public IssueListQuery issueListQuery(String userRole, Long userOrganizationId, Long userDepartmentId, String userEmail) {
+        Snapshot identities = current();
+        String organizationName = userOrganizationId != null ? identities.organizations().get(userOrganizationId) : null;
+        String departmentName = userDepartmentId != null ? identities.departments().get(userDepartmentId) : null;
+        if (userOrganizationId != null && organizationName == null) {
+            logger.warn("Organization not found for ID: {}", userOrganizationId);
+        }
+        if (userDepartmentId != null && departmentName == null) {
+            logger.warn("Department not found for ID: {}", userDepartmentId);
+        }
+
+        RoleTemplate template = userRole == null ? noRoleTemplate : roleTemplates.getOrDefault(userRole, defaultTemplate);
+        String requesterEmail = null;
+        if (template.requesterEmailClause() != null && userEmail != null) {
+            UserScope requester = identities.users().get(userEmail);
+            requesterEmail = requester != null ? requester.email() : null;
+        }
+        return template.render(organizationName, departmentName, requesterEmail);
+    }
+
+    /**
+     * Scope of the user with this email
+     * @param email email as stored on the user
+     * @return the user's scope, or null if no user has this email
+     */
+    public UserScope findUser(String email) {
+        return email == null ? null : current().users().get(email);
+    }
+
+    /**
+     * Organization name for an id
+     * @param organizationId organization id
+     * @return the name, or null if unknown
+     */
+    public String organizationName(Long organizationId) {
+        return organizationId == null ? null : current().organizations().get(organizationId);
+    }
+
+    /**
+     * Department name for an id
+     * @param departmentId department id
+     * @return the name, or null if unknown
+     */
+    public String departmentName(Long departmentId) {
+        return departmentId == null ? null : current().departments().get(departmentId);
+    }
+
+    /**
+     * Reload on the next read. Inside a transaction this waits for the commit, so the reload sees the write.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow();
+                }
+            });
+        } else {
+            invalidateNow();
+        }
+    }
+
+    private void invalidateNow() {
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+    }
+
+    private Snapshot current() {
+        Snapshot identities = snapshot;
+        if (isFresh(identities)) {
+            hits.incrementAndGet();
+            return identities;
+        }
+        synchronized (this) {
+            identities = snapshot;
+            if (isFresh(identities)) {
+                hits.incrementAndGet();
+                return identities;
+            }
+            try {
+                snapshot = load();
+                return snapshot;
+            } catch (Exception e) {
+                loadFailures.incrementAndGet();
+                logger.warn("Failed to load the identity directory: {}", e.getMessage());
+                // Keep serving the last directory; without one nothing resolves, as a failed lookup did before
+                return identities != null ? identities
+                        : new Snapshot(Map.of(), Map.of(), Map.of(), -1, System.nanoTime());
+            }
+        }
+    }
+
+    private boolean isFresh(Snapshot identities) {
+        return identities != null
+                && identities.generation() == generation.get()
+                && System.nanoTime() - identities.loadedAtNanos() < TimeUnit.MINUTES.toNanos(ttlMinutes);
+    }
+
+    private Snapshot load() {
+        // Read the generation first so a write committed during the load triggers another one
+        long loadGeneration = generation.get();
+        long start = System.nanoTime();
+
+        Map<Long, String> organizations = new HashMap<>();
+        for (Organization organization : organizationRepository.findAll()) {
+            organizations.put(organization.getId(), organization.getName());
+        }
+        Map<Long, String> departments = new HashMap<>();
+        for (Department department : departmentRepository.findAll()) {
+            departments.put(department.getId(), department.getName());
+        }
+        Map<String, UserScope> users = new HashMap<>();
+        for (UserRepository.UserScopeView user : userRepository.findAllScopes()) {
+            if (user.getEmail() != null) {
+                users.put(user.getEmail(), new UserScope(user.getId(), user.getEmail(),
+                        user.getOrganizationId(), user.getDepartmentId()));
+            }
+        }
+
+        loads.incrementAndGet();
+        logger.info("Loaded identity directory: {} organizations, {} departments, {} users in {} ms",
+                organizations.size(), departments.size(), users.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new Snapshot(Map.copyOf(organizations), Map.copyOf(departments), Map.copyOf(users),
+                loadGeneration, start);
+    }
+
+    /**
+     * Directory sizes and load counters
+     * @return statistics map
+     */
+    public Map<String, Object> getStats() {
+        Snapshot identities = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("organizations", identities != null ? identities.organizations().size() : 0);
+        stats.put("departments", identities != null ? identities.departments().size() : 0);
+        stats.put("users", identities != null ? identities.users().size() : 0);
+        stats.put("ageSeconds", identities != null
+                ? TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - identities.loadedAtNanos()) : null);
+        stats.put("stale", !isFresh(identities));
+        stats.put("hits", hits.get());
+        stats.put("loads", loads.get());
+        stats.put("loadFailures", loadFailures.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("ttlMinutes", ttlMinutes);
+        return stats;
+    }
+}
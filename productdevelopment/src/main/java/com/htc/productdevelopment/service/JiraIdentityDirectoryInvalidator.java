@@ -0,0 +1,30 @@
+package com.htc.productdevelopment.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on User, Organization and Department that invalidates the identity directory on
+ * every write, whether it comes from UserService, OrganizationService or a repository used directly
+ * (Firebase sync, invitations). The directory is looked up on first use because the listener is
+ * built while the EntityManagerFactory is still starting.
+ */
+@Component
+public class JiraIdentityDirectoryInvalidator {
+
+    private final ObjectProvider<JiraIdentityDirectory> identityDirectory;
+
+    public JiraIdentityDirectoryInvalidator(ObjectProvider<JiraIdentityDirectory> identityDirectory) {
+        this.identityDirectory = identityDirectory;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        identityDirectory.ifAvailable(JiraIdentityDirectory::invalidate);
+    }
+}
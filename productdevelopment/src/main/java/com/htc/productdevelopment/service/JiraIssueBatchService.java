@@ -0,0 +1,235 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.htc.productdevelopment.config.JiraFieldProjections;
+import com.htc.productdevelopment.config.JiraFieldView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fetches many issues by key with one "key in (...)" JQL search per chunk instead of one
+ * GET per issue. Chunks follow Jira's page size limit and run in parallel when there is more
+ * than one. Keys Jira rejects are reported per key; the rest of the chunk is searched again.
+ */
+@Service
+public class JiraIssueBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraIssueBatchService.class);
+
+    // Jira returns at most 100 issues per search page when fields other than id/key are requested
+    private static final int MAX_CHUNK_SIZE = 100;
+
+    private static final Pattern ISSUE_KEY = Pattern.compile("[A-Z][A-Z0-9_]*-[1-9][0-9]*");
+
+    // "An issue with key 'RM-999' does not exist for field 'key'."
+    private static final Pattern REJECTED_KEY = Pattern.compile("'([A-Z][A-Z0-9_]*-[1-9][0-9]*)'");
+
+    static final String NOT_FOUND = "Issue does not exist or you do not have permission to see it";
+    static final String INVALID_KEY = "Not a valid issue key";
+
+    /**
+     * Result of a batch fetch
+     * @param issues issues keyed by the requested key, in request order
+     * @param errors error message keyed by the requested key, for keys that could not be fetched
+     */
+    public record BatchResult(Map<String, JsonNode> issues, Map<String, String> errors) {
+    }
+
+    private final JiraService jiraService;
+    private final JiraFieldProjections jiraFieldProjections;
+    private final Executor batchExecutor;
+
+    @Value("${jira.batch.max-keys:200}")
+    private int maxKeys = 200;
+
+    @Value("${jira.batch.chunk-size:100}")
+    private int chunkSize = 100;
+
+    public JiraIssueBatchService(JiraService jiraService,
+                                 JiraFieldProjections jiraFieldProjections,
+                                 @Qualifier("jiraBatchFetchExecutor") Executor batchExecutor) {
+        this.jiraService = jiraService;
+        this.jiraFieldProjections = jiraFieldProjections;
+        this.batchExecutor = batchExecutor;
+    }
+
+    /**
+     * Fetch issues by key
+     * @param issueKeys issue keys; duplicates and case differences are folded
+     * @param view field projection to return for each issue
+     * @return issues and per-key errors, both keyed by the normalized key
+     * @throws IllegalArgumentException if more than the configured maximum of keys is requested
+     */
+    public BatchResult getIssues(Collection<String> issueKeys, JiraFieldView view) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        Set<String> keys = new LinkedHashSet<>();
+        for (String issueKey : issueKeys) {
+            String key = issueKey == null ? "" : issueKey.trim().toUpperCase(Locale.ROOT);
+            if (ISSUE_KEY.matcher(key).matches()) {
+                keys.add(key);
+            } else {
+                errors.put(issueKey == null ? "null" : issueKey, INVALID_KEY);
+            }
+        }
+        if (keys.size() > maxKeys) {
+            throw new IllegalArgumentException("At most " + maxKeys + " issue keys can be fetched at once, got " + keys.size());
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        int size = Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        for (String key : keys) {
+            chunk.add(key);
+            if (chunk.size() == size) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        logger.info("Fetching {} issues in {} chunk(s) (view {})", keys.size(), chunks.size(), view);
+
+        Map<String, JsonNode> found = new LinkedHashMap<>();
+        if (chunks.size() == 1) {
+            fetchChunk(chunks.get(0), view, found, errors);
+        } else if (chunks.size() > 1) {
+            // Workers search in the caller's lane, so a UI batch is not queued behind background sync
+            JiraCallPriority priority = JiraCallPriority.current();
+            List<CompletableFuture<BatchResult>> futures = new ArrayList<>();
+            for (List<String> part : chunks) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    JiraCallPriority previous = JiraCallPriority.enter(priority);
+                    try {
+                        Map<String, JsonNode> partIssues = new LinkedHashMap<>();
+                        Map<String, String> partErrors = new LinkedHashMap<>();
+                        fetchChunk(part, view, partIssues, partErrors);
+                        return new BatchResult(partIssues, partErrors);
+                    } finally {
+                        JiraCallPriority.restore(previous);
+                    }
+                }, batchExecutor));
+            }
+            for (CompletableFuture<BatchResult> future : futures) {
+                BatchResult part = future.join();
+                found.putAll(part.issues());
+                errors.putAll(part.errors());
+            }
+        }
+
+        // Issues in request order
+        Map<String, JsonNode> issues = new LinkedHashMap<>();
+        for (String key : keys) {
+            JsonNode issue = found.get(key);
+            if (issue != null) {
+                issues.put(key, issue);
+            }
+        }
+        return new BatchResult(issues, errors);
+    }
+
+    /**
+     * Search one chunk; keys Jira rejects as unknown are reported and the search is repeated once without them
+     */
+    private void fetchChunk(List<String> keys, JiraFieldView view, Map<String, JsonNode> issues, Map<String, String> errors) {
+        List<String> remaining = new ArrayList<>(keys);
+        for (int attempt = 0; attempt < 2 && !remaining.isEmpty(); attempt++) {
+            try {
+                JsonNode page = jiraService.searchIssues(keyInJql(remaining), jiraFieldProjections.fields(view),
+                        jiraFieldProjections.expandParam(view), remaining.size(), null);
+                for (JsonNode issue : page.path("issues")) {
+                    String key = issue.path("key").asText(null);
+                    if (key != null && remaining.contains(key)) {
+                        issues.put(key, issue);
+                    }
+                }
+                // Keys of moved issues are not returned as requested; a direct GET follows the move
+                for (String key : remaining) {
+                    if (!issues.containsKey(key)) {
+                        fetchOne(key, view, issues, errors);
+                    }
+                }
+                return;
+            } catch (Exception e) {
+                HttpStatusCodeException httpError = httpError(e);
+                List<String> rejected = httpError != null && httpError.getStatusCode().value() == HttpStatus.BAD_REQUEST.value()
+                        ? rejectedKeys(httpError.getResponseBodyAsString(), remaining)
+                        : List.of();
+                if (rejected.isEmpty()) {
+                    logger.warn("Batch search for {} issues failed: {}", remaining.size(), e.getMessage());
+                    for (String key : remaining) {
+                        errors.put(key, e.getMessage());
+                    }
+                    return;
+                }
+                for (String key : rejected) {
+                    errors.put(key, NOT_FOUND);
+                }
+                remaining.removeAll(rejected);
+            }
+        }
+        // Still rejected after dropping the named keys; fall back to one request per key
+        for (String key : remaining) {
+            fetchOne(key, view, issues, errors);
+        }
+    }
+
+    private void fetchOne(String key, JiraFieldView view, Map<String, JsonNode> issues, Map<String, String> errors) {
+        try {
+            issues.put(key, jiraService.getIssueByIdOrKey(key, view));
+        } catch (Exception e) {
+            HttpStatusCodeException httpError = httpError(e);
+            errors.put(key, httpError != null && httpError.getStatusCode().value() == HttpStatus.NOT_FOUND.value()
+                    ? NOT_FOUND : e.getMessage());
+        }
+    }
+
+    private static String keyInJql(List<String> keys) {
+        return "key in (" + String.join(", ", keys) + ")";
+    }
+
+    /**
+     * Keys named in a JQL validation error that are part of the search
+     */
+    static List<String> rejectedKeys(String errorBody, List<String> keys) {
+        List<String> rejected = new ArrayList<>();
+        if (errorBody == null) {
+            return rejected;
+        }
+        Matcher matcher = REJECTED_KEY.matcher(errorBody);
+        while (matcher.find()) {
+            String key = matcher.group(1);
+            if (keys.contains(key) && !rejected.contains(key)) {
+                rejected.add(key);
+            }
+        }
+        return rejected;
+    }
+
+    private static HttpStatusCodeException httpError(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof HttpStatusCodeException httpError) {
+                return httpError;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,215 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import com.htc.productdevelopment.config.JiraFieldView;
+import com.htc.productdevelopment.model.ContractProposal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Everything the request detail page shows, in one response. The Jira calls (issue, comments,
+ * worklogs, attachments, transitions, profit field) run concurrently while the local tables are
+ * read on the request thread, so the bundle takes about as long as the slowest Jira call. Each
+ * section is reported on its own: a section that fails or does not answer within the timeout is
+ * left null and its error is listed, and the rest of the bundle is still returned.
+ */
+@Service
+public class JiraIssueBundleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraIssueBundleService.class);
+
+    static final String ISSUE = "issue";
+    static final String COMMENTS = "comments";
+    static final String WORKLOGS = "worklogs";
+    static final String ATTACHMENTS = "attachments";
+    static final String TRANSITIONS = "transitions";
+    static final String LOCAL_COMMENTS = "localComments";
+    static final String PROPOSALS = "proposals";
+    static final String CONTRACT_ATTACHMENTS = "contractAttachments";
+    static final String PROFIT = "profit";
+
+    /**
+     * Issue detail bundle
+     * @param sections section name to section content, in page order; null for sections in errors
+     * @param errors section name to error message, for sections that failed or timed out
+     */
+    public record IssueBundle(Map<String, Object> sections, Map<String, String> errors) {
+    }
+
+    @FunctionalInterface
+    private interface SectionLoader {
+        Object load() throws Exception;
+    }
+
+    private final JiraService jiraService;
+    private final CommentService commentService;
+    private final ContractProposalService contractProposalService;
+    private final ContractAttachmentService contractAttachmentService;
+    private final JiraFieldConfig jiraFieldConfig;
+    private final Executor bundleExecutor;
+
+    @Value("${jira.bundle.section-timeout-ms:8000}")
+    private long sectionTimeoutMs = 8000;
+
+    public JiraIssueBundleService(JiraService jiraService,
+                                  CommentService commentService,
+                                  ContractProposalService contractProposalService,
+                                  ContractAttachmentService contractAttachmentService,
+                                  JiraFieldConfig jiraFieldConfig,
+                                  @Qualifier("jiraIssueBundleExecutor") Executor bundleExecutor) {
+        this.jiraService = jiraService;
+        this.commentService = commentService;
+        this.contractProposalService = contractProposalService;
+        this.contractAttachmentService = contractAttachmentService;
+        this.jiraFieldConfig = jiraFieldConfig;
+        this.bundleExecutor = bundleExecutor;
+    }
+
+    /**
+     * Load the detail page bundle of an issue
+     * @param issueKey the Jira issue key
+     * @return all sections that could be loaded and an error per section that could not
+     */
+    public IssueBundle getBundle(String issueKey) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+
+        // Jira first, so the calls are in flight while the database is read
+        Map<String, CompletableFuture<Object>> jiraSections = new LinkedHashMap<>();
+        jiraSections.put(ISSUE, submit(() -> jiraService.getIssueByIdOrKey(issueKey, JiraFieldView.DETAIL)));
+        jiraSections.put(COMMENTS, submit(() -> jiraService.getIssueComments(issueKey)));
+        jiraSections.put(WORKLOGS, submit(() -> jiraService.getIssueWorklogs(issueKey)));
+        jiraSections.put(ATTACHMENTS, submit(() -> jiraService.getIssueAttachments(issueKey)));
+        jiraSections.put(TRANSITIONS, submit(() -> jiraService.getIssueTransitions(issueKey)));
+        CompletableFuture<Object> totalProfit = submit(
+                () -> jiraService.getIssueFieldValue(issueKey, jiraFieldConfig.getTotaloptimizedcost()));
+
+        Map<String, Object> sections = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (String section : jiraSections.keySet()) {
+            sections.put(section, null);
+        }
+
+        // Local tables are read on the request thread, inside its persistence context
+        loadLocal(LOCAL_COMMENTS, () -> commentService.getCommentsByIssueKeyAsDto(issueKey), sections, errors);
+        List<ContractProposal> proposals = loadLocal(PROPOSALS,
+                () -> contractProposalService.getProposalsForIssue(issueKey), sections, errors);
+        if (proposals != null) {
+            sections.put(PROPOSALS, proposals.stream().map(JiraIssueBundleService::proposalView).toList());
+        }
+        loadLocal(CONTRACT_ATTACHMENTS, () -> contractAttachmentService.getAttachmentsByIssueKey(issueKey), sections, errors);
+
+        for (Map.Entry<String, CompletableFuture<Object>> entry : jiraSections.entrySet()) {
+            sections.put(entry.getKey(), await(entry.getKey(), entry.getValue(), deadline, errors));
+        }
+        sections.put(PROFIT, profit(issueKey, proposals, await(PROFIT, totalProfit, deadline, errors)));
+
+        logger.info("Bundle for issue {} assembled, {} of {} sections failed", issueKey, errors.size(), sections.size());
+        return new IssueBundle(sections, errors);
+    }
+
+    private CompletableFuture<Object> submit(SectionLoader loader) {
+        // Workers call Jira in the caller's lane, so the detail page is not queued behind background sync
+        JiraCallPriority priority = JiraCallPriority.current();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                JiraCallPriority previous = JiraCallPriority.enter(priority);
+                try {
+                    return loader.load();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                } finally {
+                    JiraCallPriority.restore(previous);
+                }
+            }, bundleExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Too many detail pages are loading, try again shortly", e));
+        }
+    }
+
+    private Object await(String section, CompletableFuture<Object> future, long deadline, Map<String, String> errors) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Bundle section {} timed out after {} ms", section, sectionTimeoutMs);
+            errors.put(section, "Timed out after " + sectionTimeoutMs + " ms");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("Bundle section {} failed: {}", section, cause.getMessage());
+            errors.put(section, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            errors.put(section, "Interrupted");
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T loadLocal(String section, SectionLoader loader, Map<String, Object> sections, Map<String, String> errors) {
+        try {
+            T value = (T) loader.load();
+            sections.put(section, value);
+            return value;
+        } catch (Exception e) {
+            logger.warn("Bundle section {} failed: {}", section, e.getMessage());
+            sections.put(section, null);
+            errors.put(section, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Same content as GET /api/jira/contracts/profit/{issueKey}
+     */
+    private Map<String, Object> profit(String issueKey, List<ContractProposal> proposals, Object totalProfitValue) {
+        Double totalProfit = null;
+        if (totalProfitValue instanceof String value && !value.isEmpty()) {
+            try {
+                totalProfit = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                logger.warn("Failed to parse total optimized cost value '{}' for issueKey: {}", value, issueKey);
+            }
+        }
+        Map<String, Object> profit = new HashMap<>();
+        profit.put("totalProfit", totalProfit);
+        profit.put("hasSubmittedFinalQuote", proposals != null && proposals.stream().anyMatch(ContractProposal::isFinal));
+        profit.put("issueKey", issueKey);
+        return profit;
+    }
+
+    /**
+     * Same fields as GET /api/jira/proposals/issue/{issueKey}
+     */
+    private static Map<String, Object> proposalView(ContractProposal p) {
+        Map<String, Object> proposalMap = new HashMap<>();
+        proposalMap.put("id", p.getId());
+        proposalMap.put("jiraIssueKey", p.getJiraIssueKey());
+        proposalMap.put("proposalNumber", p.getProposalNumber());
+        proposalMap.put("licenseCount", p.getLicenseCount());
+        proposalMap.put("unitCost", p.getUnitCost());
+        proposalMap.put("totalCost", p.getTotalCost());
+        proposalMap.put("comment", p.getComment());
+        proposalMap.put("isFinal", p.isFinal());
+        proposalMap.put("isFinalSubmitted", p.isFinalSubmitted());
+        proposalMap.put("proposalType", p.getProposalType());
+        proposalMap.put("createdAt", p.getCreatedAt() != null ? p.getCreatedAt().toString() : null);
+        return proposalMap;
+    }
+}
@@ -0,0 +1,15 @@
+package com.htc.productdevelopment.service;
+
+/**
+ * Published when a Jira issue is known to have changed (webhook event or a write made by this app),
+ * so caches holding data for the issue can drop it.
+ * @param issueKey the Jira issue key
+ * @param changeType what happened: created, updated, deleted or transitioned
+ */
+public record JiraIssueChangedEvent(String issueKey, String changeType) {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String TRANSITIONED = "transitioned";
+}
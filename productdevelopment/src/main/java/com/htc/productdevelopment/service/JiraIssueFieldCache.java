@@ -0,0 +1,139 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of single issue fields (status, profit custom fields) read on hot paths such
+ * as contract completion and profit lookups. Entries expire after a few seconds and are dropped
+ * as soon as the issue is reported changed by a webhook or by a write made through this app,
+ * so the TTL only bounds staleness for changes made elsewhere without a webhook.
+ * Cached values are shared between callers and must not be modified.
+ */
+@Component
+public class JiraIssueFieldCache {
+
+    @Value("${jira.field-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jira.field-cache.ttl-seconds:30}")
+    private long ttlSeconds = 30;
+
+    @Value("${jira.field-cache.max-issues:5000}")
+    private int maxIssues = 5000;
+
+    private record Entry(JsonNode value, long expiresAtNanos) {
+    }
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Entry>> fieldsByIssue = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation, so a read that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Cached value of a field
+     * @param issueKey the Jira issue key
+     * @param fieldId the field id, e.g. status or customfield_10471
+     * @return the field value (a missing node when Jira returned no value), or null when not cached
+     */
+    public JsonNode get(String issueKey, String fieldId) {
+        if (!enabled) {
+            return null;
+        }
+        Map<String, Entry> fields = fieldsByIssue.get(issueKey);
+        Entry entry = fields != null ? fields.get(fieldId) : null;
+        if (entry == null || entry.expiresAtNanos() - System.nanoTime() <= 0) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value();
+    }
+
+    /**
+     * Take before reading a field from Jira and pass to put
+     * @return the current invalidation generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cache a field value read from Jira, unless an issue was invalidated while it was being read
+     * @param issueKey the Jira issue key
+     * @param fieldId the field id
+     * @param value the field value; a missing or null node caches "no value"
+     * @param readGeneration the generation taken before the read
+     */
+    public void put(String issueKey, String fieldId, JsonNode value, long readGeneration) {
+        if (!enabled || generation.get() != readGeneration) {
+            return;
+        }
+        if (fieldsByIssue.size() >= maxIssues && !fieldsByIssue.containsKey(issueKey)) {
+            evictExpired();
+            if (fieldsByIssue.size() >= maxIssues) {
+                // Entries live for seconds; starting over costs one request per hot issue
+                fieldsByIssue.clear();
+            }
+        }
+        long expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds);
+        fieldsByIssue.computeIfAbsent(issueKey, key -> new ConcurrentHashMap<>()).put(fieldId, new Entry(value, expiresAt));
+    }
+
+    /**
+     * Drop the cached fields of an issue
+     * @param issueKey the Jira issue key
+     */
+    public void invalidate(String issueKey) {
+        generation.incrementAndGet();
+        if (issueKey != null && fieldsByIssue.remove(issueKey) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop the fields of an issue reported changed by a webhook, transition or update
+     * @param event issue change notification
+     */
+    @EventListener
+    public void onIssueChanged(JiraIssueChangedEvent event) {
+        invalidate(event.issueKey());
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        fieldsByIssue.values().forEach(fields -> fields.values().removeIf(entry -> entry.expiresAtNanos() - now <= 0));
+        fieldsByIssue.values().removeIf(Map::isEmpty);
+    }
+
+    /**
+     * Field cache counters
+     * @return Map with cached issue count, hits, misses and invalidations
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("issues", fieldsByIssue.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+}
@@ -0,0 +1,59 @@
+package com.htc.productdevelopment.service;
+
+/**
+ * Compact, immutable view of one issue from a Jira search, decoded by JiraSearchResultParser.
+ * Holds the system fields shown in issue rows and the contract custom fields mirrored into
+ * jira_issues, all as the text getTextValue would return; everything else in the response is skipped.
+ * @param id Jira issue id
+ * @param key issue key, e.g. RM-42
+ * @param summary summary text
+ * @param description description as JSON (Atlassian document format), or null
+ * @param issueType issue type name
+ * @param projectKey project key
+ * @param reporter reporter display name
+ * @param assignee assignee display name
+ * @param status workflow status name
+ * @param priority priority name
+ * @param dueDate Jira due date (yyyy-MM-dd)
+ * @param created creation timestamp as sent by Jira
+ * @param updated last update timestamp as sent by Jira
+ * @param vendorName vendor name custom field
+ * @param productName product name custom field
+ * @param contractType contract type custom field
+ * @param billingType billing type custom field
+ * @param licenseUpdateType license update type custom field
+ * @param requesterName requester name custom field
+ * @param requesterEmail requester email custom field
+ * @param organization organization custom field
+ * @param department department custom field
+ * @param contractDueDate contract due date custom field
+ * @param renewalDate renewal date custom field
+ * @param rawJson the full issue JSON when it was requested, otherwise null
+ */
+public record JiraIssueRecord(
+        String id,
+        String key,
+        String summary,
+        String description,
+        String issueType,
+        String projectKey,
+        String reporter,
+        String assignee,
+        String status,
+        String priority,
+        String dueDate,
+        String created,
+        String updated,
+        String vendorName,
+        String productName,
+        String contractType,
+        String billingType,
+        String licenseUpdateType,
+        String requesterName,
+        String requesterEmail,
+        String organization,
+        String department,
+        String contractDueDate,
+        String renewalDate,
+        String rawJson) {
+}
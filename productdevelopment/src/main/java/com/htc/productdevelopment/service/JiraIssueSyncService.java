@@ -0,0 +1,498 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.htc.productdevelopment.config.JiraFieldView;
+import com.htc.productdevelopment.model.JiraIssue;
+import com.htc.productdevelopment.model.JiraSyncState;
+import com.htc.productdevelopment.repository.JiraIssueRepository;
+import com.htc.productdevelopment.repository.JiraSyncStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.function.ThrowingConsumer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mirrors the contract request project from Jira into the jira_issues table.
+ * Runs incrementally in the background using an "updated >= watermark" JQL search,
+ * so the issue list can be answered locally instead of with a live Jira search.
+ */
+@Service
+public class JiraIssueSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraIssueSyncService.class);
+
+    // Timestamp format used by Jira in issue fields, e.g. 2024-01-15T10:30:00.000+0000
+    private static final DateTimeFormatter JIRA_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+
+    // Date format accepted by JQL date comparisons
+    private static final DateTimeFormatter JQL_DATE = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
+
+    private static final String STATUS_SUCCESS = "SUCCESS";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private final JiraService jiraService;
+    private final JiraSearchResultParser jiraSearchResultParser;
+    private final JiraIssueRepository jiraIssueRepository;
+    private final JiraSyncStateRepository jiraSyncStateRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jira.sync.enabled:true}")
+    private boolean syncEnabled;
+
+    @Value("${jira.sync.project-key:${jira.contract.project-key}}")
+    private String projectKey;
+
+    @Value("${jira.sync.page-size:100}")
+    private int pageSize;
+
+    @Value("${jira.sync.overlap-minutes:2}")
+    private long overlapMinutes;
+
+    @Value("${jira.sync.full-resync-hours:24}")
+    private long fullResyncHours;
+
+    @Value("${jira.mirror.read-enabled:true}")
+    private boolean mirrorReadEnabled;
+
+    @Value("${jira.mirror.max-staleness-minutes:30}")
+    private long maxStalenessMinutes;
+
+    @Value("${jira.mirror.stream-chunk-size:200}")
+    private int streamChunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Time zone of the Jira account; JQL dates are interpreted in it
+    private volatile ZoneId jiraZone;
+
+    public JiraIssueSyncService(JiraService jiraService,
+                                JiraSearchResultParser jiraSearchResultParser,
+                                JiraIssueRepository jiraIssueRepository,
+                                JiraSyncStateRepository jiraSyncStateRepository,
+                                ObjectMapper objectMapper) {
+        this.jiraService = jiraService;
+        this.jiraSearchResultParser = jiraSearchResultParser;
+        this.jiraIssueRepository = jiraIssueRepository;
+        this.jiraSyncStateRepository = jiraSyncStateRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Periodic sync. Falls back to a full resync once per jira.sync.full-resync-hours
+     * so issues deleted in Jira are also removed from the mirror.
+     */
+    @Scheduled(initialDelayString = "${jira.sync.initial-delay-ms:15000}",
+               fixedDelayString = "${jira.sync.interval-ms:120000}")
+    public void scheduledSync() {
+        if (!syncEnabled) {
+            return;
+        }
+        JiraSyncState state = jiraSyncStateRepository.findById(projectKey).orElse(null);
+        boolean fullDue = state == null
+                || state.getLastFullSyncAt() == null
+                || state.getLastFullSyncAt().isBefore(LocalDateTime.now().minusHours(fullResyncHours));
+        runSync(fullDue);
+    }
+
+    /**
+     * Run one sync pass
+     * @param full true to ignore the watermark and reconcile the whole project
+     * @return Map summarising the run
+     */
+    public Map<String, Object> runSync(boolean full) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("projectKey", projectKey);
+        result.put("full", full);
+
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Jira issue sync already running, skipping");
+            result.put("status", "ALREADY_RUNNING");
+            return result;
+        }
+        // Sync traffic yields to interactive requests in the rate limiter
+        JiraCallPriority previousPriority = JiraCallPriority.enter(JiraCallPriority.BACKGROUND);
+
+        JiraSyncState state = jiraSyncStateRepository.findById(projectKey).orElseGet(() -> {
+            JiraSyncState fresh = new JiraSyncState();
+            fresh.setProjectKey(projectKey);
+            return fresh;
+        });
+        LocalDateTime runStartedAt = LocalDateTime.now();
+        state.setLastRunStartedAt(runStartedAt);
+
+        try {
+            OffsetDateTime watermark = full ? null : state.getWatermark();
+            String jql = buildSyncJql(watermark);
+            logger.info("Starting {} Jira issue sync for {}: {}", full ? "full" : "incremental", projectKey, jql);
+
+            Set<String> seenKeys = new HashSet<>();
+            OffsetDateTime newestUpdated = state.getWatermark();
+            String nextPageToken = null;
+            int pages = 0;
+
+            do {
+                // The mirror stores the list projection, which is what getAllIssues serves back;
+                // pages are decoded as they stream in rather than as JsonNode trees
+                JiraSearchResultParser.SearchPage page =
+                        jiraService.searchIssueRecords(jql, JiraFieldView.LIST, pageSize, nextPageToken, true);
+                List<JiraIssueRecord> issues = page.issues();
+                OffsetDateTime pageNewest = upsertPage(issues, seenKeys);
+                if (pageNewest != null && (newestUpdated == null || pageNewest.isAfter(newestUpdated))) {
+                    newestUpdated = pageNewest;
+                }
+                pages++;
+
+                nextPageToken = page.nextPageToken();
+                if (page.isLast() || issues.isEmpty()) {
+                    nextPageToken = null;
+                }
+            } while (nextPageToken != null);
+
+            int removed = 0;
+            if (full) {
+                removed = removeIssuesNotSeen(seenKeys, runStartedAt);
+                state.setLastFullSyncAt(LocalDateTime.now());
+            }
+
+            state.setWatermark(newestUpdated);
+            state.setLastSuccessAt(LocalDateTime.now());
+            state.setLastStatus(STATUS_SUCCESS);
+            state.setLastError(null);
+            state.setLastIssueCount(seenKeys.size());
+            jiraSyncStateRepository.save(state);
+
+            logger.info("Jira issue sync finished: {} issues upserted, {} removed, {} pages, watermark {}",
+                    seenKeys.size(), removed, pages, newestUpdated);
+
+            result.put("status", STATUS_SUCCESS);
+            result.put("upserted", seenKeys.size());
+            result.put("removed", removed);
+            result.put("pages", pages);
+            result.put("watermark", newestUpdated != null ? newestUpdated.toString() : null);
+            return result;
+        } catch (Exception e) {
+            logger.error("Jira issue sync failed for project {}", projectKey, e);
+            state.setLastStatus(STATUS_FAILED);
+            state.setLastError(e.getMessage());
+            jiraSyncStateRepository.save(state);
+
+            result.put("status", STATUS_FAILED);
+            result.put("error", e.getMessage());
+            return result;
+        } finally {
+            JiraCallPriority.restore(previousPriority);
+            running.set(false);
+        }
+    }
+
+    /**
+     * Whether getAllIssues can be answered from the mirror: reads are enabled and the
+     * last successful sync is recent enough.
+     */
+    public boolean isMirrorReady() {
+        if (!mirrorReadEnabled) {
+            return false;
+        }
+        return jiraSyncStateRepository.findById(projectKey)
+                .map(JiraSyncState::getLastSuccessAt)
+                .map(lastSuccess -> lastSuccess.isAfter(LocalDateTime.now().minusMinutes(maxStalenessMinutes)))
+                .orElse(false);
+    }
+
+    /**
+     * Answer the issue list from the mirror using the same filters as the JQL search
+     * @param organization organization name filter, or null
+     * @param department department name filter, or null
+     * @param requesterEmail requester email filter, or null
+     * @return JsonNode shaped like a Jira search response ({"issues": [...]})
+     */
+    public JsonNode findMirroredIssues(String organization, String department, String requesterEmail) throws Exception {
+        List<JiraIssue> issues = jiraIssueRepository.findMirroredIssues(projectKey, organization, department, requesterEmail);
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode issuesNode = response.putArray("issues");
+        for (JiraIssue issue : issues) {
+            if (issue.getRawJson() != null) {
+                issuesNode.add(objectMapper.readTree(issue.getRawJson()));
+            }
+        }
+        response.put("total", issuesNode.size());
+        response.put("isLast", true);
+        response.put("source", "mirror");
+        return response;
+    }
+
+    /**
+     * Walk the mirrored issue list in keyset chunks, in the same order as findMirroredIssues,
+     * so only one chunk of rows is loaded at a time
+     * @param organization organization name filter, or null
+     * @param department department name filter, or null
+     * @param requesterEmail requester email filter, or null
+     * @param chunkConsumer receives each chunk as an array of issue JSON
+     * @throws Exception if the read fails or the consumer throws
+     */
+    public void streamMirroredIssues(String organization, String department, String requesterEmail,
+                                     ThrowingConsumer<JsonNode> chunkConsumer) throws Exception {
+        Integer beforeIssueNumber = null;
+        while (true) {
+            List<JiraIssue> chunk = jiraIssueRepository.findMirroredIssuesBefore(projectKey, organization, department,
+                    requesterEmail, beforeIssueNumber, PageRequest.of(0, streamChunkSize));
+            ArrayNode issuesNode = objectMapper.createArrayNode();
+            for (JiraIssue issue : chunk) {
+                if (issue.getRawJson() != null) {
+                    issuesNode.add(objectMapper.readTree(issue.getRawJson()));
+                }
+            }
+            if (!issuesNode.isEmpty()) {
+                chunkConsumer.acceptWithException(issuesNode);
+            }
+
+            Integer lastIssueNumber = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1).getIssueNumber();
+            if (chunk.size() < streamChunkSize || lastIssueNumber == null) {
+                return;
+            }
+            beforeIssueNumber = lastIssueNumber;
+        }
+    }
+
+    /**
+     * Key of the project mirrored into jira_issues
+     * @return the Jira project key
+     */
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    /**
+     * Current sync state for diagnostics
+     * @return Map with watermark, last run details and mirrored issue count
+     */
+    public Map<String, Object> getSyncStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("projectKey", projectKey);
+        status.put("enabled", syncEnabled);
+        status.put("running", running.get());
+        status.put("mirrorReadEnabled", mirrorReadEnabled);
+        status.put("mirrorReady", isMirrorReady());
+        jiraSyncStateRepository.findById(projectKey).ifPresent(state -> {
+            status.put("watermark", state.getWatermark() != null ? state.getWatermark().toString() : null);
+            status.put("lastRunStartedAt", state.getLastRunStartedAt());
+            status.put("lastSuccessAt", state.getLastSuccessAt());
+            status.put("lastFullSyncAt", state.getLastFullSyncAt());
+            status.put("lastStatus", state.getLastStatus());
+            status.put("lastError", state.getLastError());
+            status.put("lastIssueCount", state.getLastIssueCount());
+        });
+        return status;
+    }
+
+    private String buildSyncJql(OffsetDateTime watermark) throws Exception {
+        StringBuilder jql = new StringBuilder("project = \"").append(projectKey).append("\"");
+        if (watermark != null) {
+            // JQL has minute precision and uses the account time zone; step back a little so nothing is missed
+            String since = watermark.minus(Duration.ofMinutes(overlapMinutes))
+                    .atZoneSameInstant(getJiraZone())
+                    .format(JQL_DATE);
+            jql.append(" AND updated >= \"").append(since).append("\"");
+        }
+        jql.append(" ORDER BY updated ASC");
+        return jql.toString();
+    }
+
+    private ZoneId getJiraZone() throws Exception {
+        if (jiraZone == null) {
+            String timeZone = jiraService.getCurrentUser().path("timeZone").asText(null);
+            try {
+                jiraZone = timeZone != null ? ZoneId.of(timeZone) : ZoneOffset.UTC;
+            } catch (Exception e) {
+                logger.warn("Unknown Jira time zone '{}', using UTC", timeZone);
+                jiraZone = ZoneOffset.UTC;
+            }
+        }
+        return jiraZone;
+    }
+
+    /**
+     * Insert or update one page of issues
+     * @return newest "updated" timestamp in the page
+     */
+    private OffsetDateTime upsertPage(List<JiraIssueRecord> issues, Set<String> seenKeys) {
+        if (issues == null || issues.isEmpty()) {
+            return null;
+        }
+
+        List<String> keys = new ArrayList<>();
+        for (JiraIssueRecord record : issues) {
+            keys.add(record.key());
+        }
+        Map<String, JiraIssue> existing = jiraIssueRepository.findByKeyIn(keys).stream()
+                .collect(Collectors.toMap(JiraIssue::getKey, Function.identity()));
+
+        OffsetDateTime newest = null;
+        List<JiraIssue> toSave = new ArrayList<>();
+        for (JiraIssueRecord record : issues) {
+            String key = record.key();
+            JiraIssue issue = existing.getOrDefault(key, new JiraIssue());
+            seenKeys.add(key);
+            if (isOlderThanStored(issue, record)) {
+                // A webhook stored a newer version while this page was being fetched
+                continue;
+            }
+            applyIssueRecord(issue, record);
+            toSave.add(issue);
+
+            if (issue.getUpdated() != null && (newest == null || issue.getUpdated().isAfter(newest))) {
+                newest = issue.getUpdated();
+            }
+        }
+        jiraIssueRepository.saveAll(toSave);
+        return newest;
+    }
+
+    /**
+     * Upsert a single issue from its Jira JSON (search result or webhook payload).
+     * Webhooks can arrive out of order, so a version older than the stored one is not written.
+     * @param issueNode issue JSON with "key" and "fields"
+     * @return the stored issue, unchanged when the incoming version was older
+     */
+    public JiraIssue upsertIssue(JsonNode issueNode) {
+        JiraIssueRecord record = jiraSearchResultParser.parseIssue(issueNode);
+        JiraIssue issue = jiraIssueRepository.findByKey(record.key()).orElseGet(JiraIssue::new);
+        if (isOlderThanStored(issue, record)) {
+            logger.info("Skipping out-of-order update of {}: updated {} is older than stored {}",
+                    record.key(), record.updated(), issue.getUpdated());
+            return issue;
+        }
+        applyIssueRecord(issue, record);
+        return jiraIssueRepository.save(issue);
+    }
+
+    /**
+     * Whether the incoming "updated" timestamp is before the stored one; versions without
+     * a timestamp on either side are written
+     */
+    private boolean isOlderThanStored(JiraIssue stored, JiraIssueRecord record) {
+        OffsetDateTime incoming = parseTimestamp(record.updated());
+        return incoming != null && stored.getUpdated() != null && incoming.isBefore(stored.getUpdated());
+    }
+
+    private void applyIssueRecord(JiraIssue issue, JiraIssueRecord record) {
+        String key = record.key();
+
+        issue.setIssueId(record.id());
+        issue.setKey(key);
+        issue.setIssueNumber(parseIssueNumber(key));
+        issue.setSummary(record.summary());
+        issue.setDescription(record.description());
+        issue.setIssueType(record.issueType());
+        issue.setProjectKey(record.projectKey() != null ? record.projectKey() : projectKey);
+        issue.setReporter(record.reporter());
+        issue.setAssignee(record.assignee());
+        issue.setStatus(record.status());
+        issue.setPriority(record.priority());
+        issue.setDueDate(parseDate(record.dueDate()));
+        issue.setCreated(parseTimestamp(record.created()));
+        issue.setUpdated(parseTimestamp(record.updated()));
+
+        issue.setVendorName(record.vendorName());
+        issue.setProductName(record.productName());
+        issue.setContractType(record.contractType());
+        issue.setBillingType(record.billingType());
+        issue.setLicenseUpdateType(record.licenseUpdateType());
+        issue.setRequesterName(record.requesterName());
+        issue.setRequesterEmail(record.requesterEmail());
+        issue.setOrganization(record.organization());
+        issue.setDepartment(record.department());
+        issue.setContractDueDate(record.contractDueDate());
+        issue.setRenewalDate(record.renewalDate());
+
+        issue.setRawJson(record.rawJson());
+        issue.setSyncedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Delete mirrored issues the full sync did not return. Issues written since the run started
+     * (by a webhook, while the search was paging) are kept even if the search missed them.
+     */
+    private int removeIssuesNotSeen(Set<String> seenKeys, LocalDateTime runStartedAt) {
+        List<String> stale = jiraIssueRepository.findKeysByProjectKeySyncedBefore(projectKey, runStartedAt).stream()
+                .filter(key -> !seenKeys.contains(key))
+                .collect(Collectors.toList());
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        List<JiraIssue> staleIssues = jiraIssueRepository.findByKeyIn(stale).stream()
+                .filter(issue -> issue.getSyncedAt() == null || issue.getSyncedAt().isBefore(runStartedAt))
+                .collect(Collectors.toList());
+        jiraIssueRepository.deleteAllInBatch(staleIssues);
+        logger.info("Removed {} issues no longer present in Jira: {}", staleIssues.size(), stale);
+        return staleIssues.size();
+    }
+
+    /**
+     * Remove a single issue from the mirror
+     * @param issueKey the Jira issue key
+     */
+    public void deleteIssue(String issueKey) {
+        jiraIssueRepository.findByKey(issueKey).ifPresent(jiraIssueRepository::delete);
+    }
+
+    private Integer parseIssueNumber(String key) {
+        int dash = key != null ? key.lastIndexOf('-') : -1;
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(key.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private OffsetDateTime parseTimestamp(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value, JIRA_TIMESTAMP);
+        } catch (DateTimeParseException e) {
+            logger.warn("Could not parse Jira timestamp: {}", value);
+            return null;
+        }
+    }
+
+    private LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.htc.productdevelopment.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TTL cache for Jira metadata that rarely changes (fields, issue types, create metadata, projects,
+ * assignable users). Each cache name has its own TTL; once an entry is past the refresh-ahead point
+ * it is still served while a background worker reloads it, so callers only wait on Jira for the
+ * very first load or after an entry has fully expired.
+ * Cached values are shared between callers and must not be modified.
+ */
+@Component
+public class JiraMetadataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraMetadataCache.class);
+
+    public static final String FIELDS = "fields";
+    public static final String ISSUE_TYPES = "issue-types";
+    public static final String CREATE_META = "create-meta";
+    public static final String PROJECTS = "projects";
+    public static final String RECENT_PROJECTS = "recent-projects";
+    public static final String REQUEST_MANAGEMENT_PROJECT = "request-management-project";
+    public static final String ASSIGNABLE_USERS = "assignable-users";
+
+    private final ThreadPoolTaskExecutor refreshExecutor;
+
+    @Value("${jira.metadata-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jira.metadata-cache.refresh-ahead-ratio:0.8}")
+    private double refreshAheadRatio = 0.8;
+
+    @Value("${jira.metadata-cache.ttl.fields-minutes:60}")
+    private long fieldsTtlMinutes = 60;
+
+    @Value("${jira.metadata-cache.ttl.issue-types-minutes:60}")
+    private long issueTypesTtlMinutes = 60;
+
+    @Value("${jira.metadata-cache.ttl.create-meta-minutes:30}")
+    private long createMetaTtlMinutes = 30;
+
+    @Value("${jira.metadata-cache.ttl.projects-minutes:15}")
+    private long projectsTtlMinutes = 15;
+
+    @Value("${jira.metadata-cache.ttl.recent-projects-minutes:5}")
+    private long recentProjectsTtlMinutes = 5;
+
+    @Value("${jira.metadata-cache.ttl.request-management-project-minutes:60}")
+    private long requestManagementProjectTtlMinutes = 60;
+
+    @Value("${jira.metadata-cache.ttl.assignable-users-minutes:10}")
+    private long assignableUsersTtlMinutes = 10;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CacheStats> stats = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        final Object value;
+        final long loadedAtNanos;
+        final long ttlNanos;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(Object value, long ttlNanos) {
+            this.value = value;
+            this.loadedAtNanos = System.nanoTime();
+            this.ttlNanos = ttlNanos;
+        }
+
+        long ageNanos() {
+            return System.nanoTime() - loadedAtNanos;
+        }
+    }
+
+    private static final class CacheStats {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong refreshes = new AtomicLong();
+        final AtomicLong refreshFailures = new AtomicLong();
+        final AtomicLong loadNanos = new AtomicLong();
+        final AtomicLong loads = new AtomicLong();
+    }
+
+    public JiraMetadataCache(@Qualifier("jiraMetadataRefreshExecutor") ThreadPoolTaskExecutor refreshExecutor) {
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Cached value for a key, loading it on a miss and refreshing it in the background once it is
+     * past the refresh-ahead point
+     * @param cacheName one of the cache name constants; selects the TTL
+     * @param key key within the cache, e.g. a project key
+     * @param loader fetches the value from Jira; failures are not cached
+     * @return the cached or freshly loaded value
+     * @throws Exception if the value is not cached and the loader fails
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, String key, Callable<T> loader) throws Exception {
+        if (!enabled) {
+            return loader.call();
+        }
+        String entryKey = entryKey(cacheName, key);
+        CacheStats cacheStats = statsFor(cacheName);
+        Entry entry = entries.get(entryKey);
+
+        if (entry != null && entry.ageNanos() < entry.ttlNanos) {
+            cacheStats.hits.incrementAndGet();
+            if (entry.ageNanos() >= (long) (entry.ttlNanos * refreshAheadRatio)) {
+                refreshAsync(cacheName, entryKey, entry, loader);
+            }
+            return (T) entry.value;
+        }
+
+        cacheStats.misses.incrementAndGet();
+        return (T) load(cacheName, entryKey, loader);
+    }
+
+    /**
+     * Load a value in the background if it is not cached yet, e.g. on startup
+     * @param cacheName one of the cache name constants
+     * @param key key within the cache
+     * @param loader fetches the value from Jira
+     */
+    public void warm(String cacheName, String key, Callable<?> loader) {
+        if (!enabled || entries.containsKey(entryKey(cacheName, key))) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                JiraCallPriority previousPriority = JiraCallPriority.enter(JiraCallPriority.BACKGROUND);
+                try {
+                    load(cacheName, entryKey(cacheName, key), loader);
+                    logger.info("Warmed Jira metadata cache {}", entryKey(cacheName, key));
+                } catch (Exception e) {
+                    logger.warn("Could not warm Jira metadata cache {}: {}", entryKey(cacheName, key), e.getMessage());
+                } finally {
+                    JiraCallPriority.restore(previousPriority);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            logger.warn("Metadata refresh workers busy, {} not warmed", entryKey(cacheName, key));
+        }
+    }
+
+    /**
+     * Single-flight load: concurrent misses for the same key share one Jira call
+     */
+    private Object load(String cacheName, String entryKey, Callable<?> loader) throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(entryKey, future);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object value = loader.call();
+            if (value != null) {
+                entries.put(entryKey, new Entry(value, ttlFor(cacheName).toNanos()));
+            }
+            CacheStats cacheStats = statsFor(cacheName);
+            cacheStats.loads.incrementAndGet();
+            cacheStats.loadNanos.addAndGet(System.nanoTime() - start);
+            future.complete(value);
+            return value;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(entryKey, future);
+        }
+    }
+
+    private void refreshAsync(String cacheName, String entryKey, Entry entry, Callable<?> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                JiraCallPriority previousPriority = JiraCallPriority.enter(JiraCallPriority.BACKGROUND);
+                try {
+                    load(cacheName, entryKey, loader);
+                    statsFor(cacheName).refreshes.incrementAndGet();
+                } catch (Exception e) {
+                    // Keep serving the current value until it expires; the next hit tries again
+                    statsFor(cacheName).refreshFailures.incrementAndGet();
+                    logger.warn("Refresh-ahead of {} failed: {}", entryKey, e.getMessage());
+                } finally {
+                    entry.refreshing.set(false);
+                    JiraCallPriority.restore(previousPriority);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Drop cached entries
+     * @param cacheName cache to clear, or null for all caches
+     * @param key single key within the cache, or null for the whole cache
+     * @return number of entries removed
+     */
+    public int invalidate(String cacheName, String key) {
+        int before = entries.size();
+        if (cacheName == null) {
+            entries.clear();
+        } else if (key == null) {
+            String prefix = cacheName + ":";
+            entries.keySet().removeIf(entryKey -> entryKey.startsWith(prefix));
+        } else {
+            entries.remove(entryKey(cacheName, key));
+        }
+        int removed = Math.max(0, before - entries.size());
+        logger.info("Invalidated {} Jira metadata cache entries (cache={}, key={})", removed, cacheName, key);
+        return removed;
+    }
+
+    private Duration ttlFor(String cacheName) {
+        long minutes = switch (cacheName) {
+            case FIELDS -> fieldsTtlMinutes;
+            case ISSUE_TYPES -> issueTypesTtlMinutes;
+            case CREATE_META -> createMetaTtlMinutes;
+            case PROJECTS -> projectsTtlMinutes;
+            case RECENT_PROJECTS -> recentProjectsTtlMinutes;
+            case REQUEST_MANAGEMENT_PROJECT -> requestManagementProjectTtlMinutes;
+            case ASSIGNABLE_USERS -> assignableUsersTtlMinutes;
+            default -> throw new IllegalArgumentException("Unknown metadata cache: " + cacheName);
+        };
+        return Duration.ofMinutes(minutes);
+    }
+
+    private CacheStats statsFor(String cacheName) {
+        return stats.computeIfAbsent(cacheName, name -> new CacheStats());
+    }
+
+    private String entryKey(String cacheName, String key) {
+        return cacheName + ":" + (key != null ? key : "");
+    }
+
+    /**
+     * Hit ratio, refresh and load counters per cache
+     * @return Map with totals and per-cache statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("refreshAheadRatio", refreshAheadRatio);
+        result.put("entries", entries.size());
+
+        long totalHits = 0;
+        long totalMisses = 0;
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String cacheName : new String[] {FIELDS, ISSUE_TYPES, CREATE_META, PROJECTS, RECENT_PROJECTS,
+                REQUEST_MANAGEMENT_PROJECT, ASSIGNABLE_USERS}) {
+            CacheStats cacheStats = statsFor(cacheName);
+            long hits = cacheStats.hits.get();
+            long misses = cacheStats.misses.get();
+            long loads = cacheStats.loads.get();
+            totalHits += hits;
+            totalMisses += misses;
+
+            String prefix = cacheName + ":";
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("ttlMinutes", ttlFor(cacheName).toMinutes());
+            item.put("entries", entries.keySet().stream().filter(entryKey -> entryKey.startsWith(prefix)).count());
+            item.put("hits", hits);
+            item.put("misses", misses);
+            item.put("hitRatio", hitRatio(hits, misses));
+            item.put("refreshes", cacheStats.refreshes.get());
+            item.put("refreshFailures", cacheStats.refreshFailures.get());
+            item.put("avgLoadMs", loads > 0 ? cacheStats.loadNanos.get() / loads / 1_000_000 : 0);
+            caches.put(cacheName, item);
+        }
+        result.put("hits", totalHits);
+        result.put("misses", totalMisses);
+        result.put("hitRatio", hitRatio(totalHits, totalMisses));
+        result.put("caches", caches);
+        return result;
+    }
+
+    private double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total > 0 ? Math.round(hits * 10000.0 / total) / 10000.0 : 0.0;
+    }
+}
@@ -0,0 +1,333 @@
+package com.htc.productdevelopment.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client-side rate limiter for every Jira request sent through the RestTemplate.
+ * A token bucket sized to our Jira quota admits requests; INTERACTIVE callers are always
+ * served before BACKGROUND ones, and background work cannot dip into the tokens reserved
+ * for interactive requests. Retry-After and X-RateLimit-* response headers pause the
+ * bucket, and 429 responses are retried after the pause.
+ */
+@Component
+public class JiraRateLimiter implements ClientHttpRequestInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraRateLimiter.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    @Value("${jira.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jira.rate-limit.permits-per-second:10}")
+    private double permitsPerSecond = 10;
+
+    @Value("${jira.rate-limit.burst:20}")
+    private int burst = 20;
+
+    @Value("${jira.rate-limit.interactive-reserve:5}")
+    private int interactiveReserve = 5;
+
+    @Value("${jira.rate-limit.max-wait-ms:30000}")
+    private long maxWaitMs = 30000;
+
+    @Value("${jira.rate-limit.max-retries:3}")
+    private int maxRetries = 3;
+
+    @Value("${jira.rate-limit.default-backoff-ms:2000}")
+    private long defaultBackoffMs = 2000;
+
+    @Value("${jira.rate-limit.max-backoff-ms:60000}")
+    private long maxBackoffMs = 60000;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitsChanged = lock.newCondition();
+
+    // Bucket state, guarded by lock
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    private final Map<JiraCallPriority, LaneStats> lanes = new EnumMap<>(JiraCallPriority.class);
+
+    // Time the current thread's request spent waiting for tokens, including retries
+    private final ThreadLocal<long[]> currentWaitNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final AtomicLong throttleEvents = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private volatile Integer lastRateLimitRemaining;
+    private volatile Instant lastThrottleAt;
+
+    public JiraRateLimiter() {
+        for (JiraCallPriority priority : JiraCallPriority.values()) {
+            lanes.put(priority, new LaneStats());
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        tokens = burst;
+        lastRefillNanos = System.nanoTime();
+        // Background work must always be able to get a token from a full bucket
+        interactiveReserve = Math.max(0, Math.min(interactiveReserve, burst - 1));
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        currentWaitNanos.get()[0] = 0;
+        if (!enabled) {
+            return execution.execute(request, body);
+        }
+
+        JiraCallPriority priority = JiraCallPriority.current();
+        int attempt = 0;
+        while (true) {
+            acquire(priority);
+            ClientHttpResponse response = execution.execute(request, body);
+            int status = response.getStatusCode().value();
+            observe(response.getHeaders(), status, attempt);
+
+            if (status != TOO_MANY_REQUESTS || attempt >= maxRetries) {
+                return response;
+            }
+            response.close();
+            attempt++;
+            retries.incrementAndGet();
+            logger.warn("Jira returned 429 for {} {}, retry {}/{} after backoff",
+                    request.getMethod(), request.getURI().getPath(), attempt, maxRetries);
+        }
+    }
+
+    /**
+     * Wait for a token in the given lane
+     */
+    private void acquire(JiraCallPriority priority) throws IOException {
+        LaneStats lane = lanes.get(priority);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        lock.lock();
+        lane.waiting.incrementAndGet();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                refill(now);
+
+                long waitNanos;
+                if (pausedUntilNanos > now) {
+                    waitNanos = pausedUntilNanos - now;
+                } else {
+                    boolean background = priority == JiraCallPriority.BACKGROUND;
+                    boolean interactiveQueued = background && lanes.get(JiraCallPriority.INTERACTIVE).waiting.get() > 0;
+                    double needed = background ? 1 + interactiveReserve : 1;
+                    if (!interactiveQueued && tokens >= needed) {
+                        tokens -= 1;
+                        // Let lower-priority waiters re-check once an interactive request is through
+                        permitsChanged.signalAll();
+                        break;
+                    }
+                    double missing = interactiveQueued ? 1 : needed - tokens;
+                    waitNanos = (long) (missing / permitsPerSecond * 1_000_000_000L);
+                }
+
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    lane.timeouts.incrementAndGet();
+                    throw new IOException("Timed out after " + maxWaitMs + " ms waiting for Jira rate limit ("
+                            + priority + " lane)");
+                }
+                permitsChanged.awaitNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1), Math.min(waitNanos, remaining)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Jira rate limit");
+        } finally {
+            lane.waiting.decrementAndGet();
+            lock.unlock();
+        }
+
+        long waited = System.nanoTime() - start;
+        currentWaitNanos.get()[0] += waited;
+        lane.acquired.incrementAndGet();
+        lane.totalWaitNanos.addAndGet(waited);
+        lane.maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    private void refill(long now) {
+        double added = (now - lastRefillNanos) / 1_000_000_000.0 * permitsPerSecond;
+        tokens = Math.min(burst, tokens + added);
+        lastRefillNanos = now;
+    }
+
+    /**
+     * Apply Retry-After and X-RateLimit-* headers from a Jira response to the bucket
+     */
+    private void observe(HttpHeaders headers, int status, int attempt) {
+        Integer remaining = parseInteger(headers.getFirst("X-RateLimit-Remaining"));
+        if (remaining != null) {
+            lastRateLimitRemaining = remaining;
+        }
+
+        Long pauseMs = null;
+        if (status == TOO_MANY_REQUESTS || status == SERVICE_UNAVAILABLE) {
+            pauseMs = parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER));
+        }
+        if (pauseMs == null && (status == TOO_MANY_REQUESTS || (remaining != null && remaining <= 0))) {
+            pauseMs = parseReset(headers.getFirst("X-RateLimit-Reset"));
+        }
+        if (pauseMs == null && status == TOO_MANY_REQUESTS) {
+            // No hint from Jira: exponential backoff with jitter
+            long backoff = defaultBackoffMs << Math.min(attempt, 10);
+            pauseMs = backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        }
+
+        if (status == TOO_MANY_REQUESTS) {
+            throttleEvents.incrementAndGet();
+            lastThrottleAt = Instant.now();
+        }
+
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (pauseMs != null && pauseMs > 0) {
+                long until = now + TimeUnit.MILLISECONDS.toNanos(Math.min(pauseMs, maxBackoffMs));
+                pausedUntilNanos = Math.max(pausedUntilNanos, until);
+                tokens = 0;
+                logger.warn("Jira rate limit hit (status {}), pausing Jira calls for {} ms", status, Math.min(pauseMs, maxBackoffMs));
+            } else if (remaining != null && remaining < tokens) {
+                // Jira knows our quota better than the local bucket
+                refill(now);
+                tokens = Math.min(tokens, remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Long parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, at.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ex) {
+                logger.debug("Unparseable Retry-After header: {}", value);
+                return null;
+            }
+        }
+    }
+
+    private Long parseReset(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            Instant reset = OffsetDateTime.parse(value.trim()).toInstant();
+            return Math.max(0, reset.toEpochMilli() - System.currentTimeMillis());
+        } catch (DateTimeParseException e) {
+            logger.debug("Unparseable X-RateLimit-Reset header: {}", value);
+            return null;
+        }
+    }
+
+    private Integer parseInteger(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Time the request last sent from this thread spent queued for tokens
+     * @return wait time in nanoseconds
+     */
+    public long getWaitNanosOfCurrentRequest() {
+        return currentWaitNanos.get()[0];
+    }
+
+    /**
+     * Bucket state, per-lane queue depth and wait times, and throttle counters
+     * @return Map with limiter statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("permitsPerSecond", permitsPerSecond);
+        stats.put("burst", burst);
+        stats.put("interactiveReserve", interactiveReserve);
+
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            stats.put("availableTokens", tokens);
+            stats.put("pausedForMs", Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntilNanos - now)));
+        } finally {
+            lock.unlock();
+        }
+
+        stats.put("throttleEvents", throttleEvents.get());
+        stats.put("retries", retries.get());
+        stats.put("lastThrottleAt", lastThrottleAt != null ? lastThrottleAt.toString() : null);
+        stats.put("lastRateLimitRemaining", lastRateLimitRemaining);
+
+        Map<String, Object> laneStats = new LinkedHashMap<>();
+        for (Map.Entry<JiraCallPriority, LaneStats> entry : lanes.entrySet()) {
+            LaneStats lane = entry.getValue();
+            long acquired = lane.acquired.get();
+            Map<String, Object> laneMap = new LinkedHashMap<>();
+            laneMap.put("queueDepth", lane.waiting.get());
+            laneMap.put("acquired", acquired);
+            laneMap.put("avgWaitMs", acquired == 0 ? 0.0 : lane.totalWaitNanos.get() / 1_000_000.0 / acquired);
+            laneMap.put("maxWaitMs", lane.maxWaitNanos.get() / 1_000_000.0);
+            laneMap.put("timeouts", lane.timeouts.get());
+            laneStats.put(entry.getKey().name(), laneMap);
+        }
+        stats.put("lanes", laneStats);
+        return stats;
+    }
+
+    private static class LaneStats {
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicLong acquired = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+    }
+}
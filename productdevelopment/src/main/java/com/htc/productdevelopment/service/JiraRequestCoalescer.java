@@ -0,0 +1,197 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight coalescing for identical Jira reads.
+ * While a read is in flight, callers asking for the same method, URL and body wait for it
+ * and share its parsed result instead of sending their own request.
+ * Calls are only shared within one JiraCallPriority lane, so an interactive caller never
+ * waits behind a background call that the rate limiter serves last.
+ */
+@Component
+public class JiraRequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraRequestCoalescer.class);
+
+    // Bucket used once the per-key stats map is full
+    private static final String OTHER_KEYS = "(other)";
+
+    @Value("${jira.coalescing.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jira.coalescing.max-tracked-keys:500}")
+    private int maxTrackedKeys = 500;
+
+    private final ObjectWriter keyWriter;
+
+    private final Map<String, CompletableFuture<JsonNode>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, KeyStats> statsByKey = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalCalls = new AtomicLong();
+    private final AtomicLong totalCoalesced = new AtomicLong();
+
+    public JiraRequestCoalescer(ObjectMapper objectMapper) {
+        // Sorted map keys so Map.of bodies with the same entries always produce the same key
+        this.keyWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    /**
+     * Whether a request is a read that can be shared between callers
+     * @param url the request URL
+     * @param method the HTTP method
+     * @param body the request body, or null
+     * @return true for GETs and JQL searches
+     */
+    public boolean isCoalescible(String url, HttpMethod method, Object body) {
+        if (!enabled || body instanceof MultiValueMap) {
+            return false;
+        }
+        return HttpMethod.GET.equals(method)
+                || (HttpMethod.POST.equals(method) && url.contains("/search/jql"));
+    }
+
+    /**
+     * Run a read, joining an identical one from the same priority lane that is already in flight
+     * @param url the request URL
+     * @param method the HTTP method
+     * @param body the request body, or null
+     * @param call performs the Jira request when this caller is the first for the key
+     * @return the parsed response; callers that joined receive their own copy
+     * @throws Exception the failure of the shared call
+     */
+    public JsonNode execute(String url, HttpMethod method, Object body, Callable<JsonNode> call) throws Exception {
+        String key = JiraCallPriority.current() + " " + requestKey(url, method, body);
+        KeyStats stats = statsFor(key);
+        totalCalls.incrementAndGet();
+        stats.calls.incrementAndGet();
+
+        CompletableFuture<JsonNode> mine = new CompletableFuture<>();
+        CompletableFuture<JsonNode> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            totalCoalesced.incrementAndGet();
+            stats.coalesced.incrementAndGet();
+            logger.debug("Joining in-flight Jira request: {} {}", method, url);
+            try {
+                // Copy so one caller modifying its response cannot affect another
+                return existing.get().deepCopy();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            JsonNode result = call.call();
+            mine.complete(result);
+            return result;
+        } catch (Exception e) {
+            stats.failures.incrementAndGet();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Normalized identity of a request: method, URL and body with sorted map keys
+     * @param url the request URL
+     * @param method the HTTP method
+     * @param body the request body, or null
+     * @return key shared by identical requests
+     */
+    public String requestKey(String url, HttpMethod method, Object body) {
+        if (body == null) {
+            return method + " " + url;
+        }
+        try {
+            return method + " " + url + " " + keyWriter.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            return method + " " + url + " " + body;
+        }
+    }
+
+    private KeyStats statsFor(String key) {
+        KeyStats stats = statsByKey.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (statsByKey.size() >= maxTrackedKeys) {
+            return statsByKey.computeIfAbsent(OTHER_KEYS, k -> new KeyStats());
+        }
+        return statsByKey.computeIfAbsent(key, k -> new KeyStats());
+    }
+
+    /**
+     * Coalescing counters, overall and for the busiest keys
+     * @return Map with totals and per-key calls/coalesced/failures, most coalesced first
+     */
+    public Map<String, Object> getStats() {
+        long calls = totalCalls.get();
+        long coalesced = totalCoalesced.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("inFlight", inFlight.size());
+        stats.put("totalCalls", calls);
+        stats.put("upstreamCalls", calls - coalesced);
+        stats.put("coalesced", coalesced);
+        stats.put("coalesceRatio", calls == 0 ? 0.0 : (double) coalesced / calls);
+
+        List<Map.Entry<String, KeyStats>> entries = new ArrayList<>(statsByKey.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, KeyStats> e) -> e.getValue().coalesced.get()).reversed());
+
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (Map.Entry<String, KeyStats> entry : entries) {
+            Map<String, Object> keyMap = new LinkedHashMap<>();
+            keyMap.put("key", entry.getKey());
+            keyMap.put("calls", entry.getValue().calls.get());
+            keyMap.put("coalesced", entry.getValue().coalesced.get());
+            keyMap.put("failures", entry.getValue().failures.get());
+            keys.add(keyMap);
+        }
+        stats.put("keys", keys);
+        return stats;
+    }
+
+    /**
+     * Clear the per-key counters
+     */
+    public void resetStats() {
+        statsByKey.clear();
+        totalCalls.set(0);
+        totalCoalesced.set(0);
+    }
+
+    private static class KeyStats {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+    }
+}
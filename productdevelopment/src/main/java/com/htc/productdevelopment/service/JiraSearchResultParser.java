@@ -0,0 +1,309 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming decoder for Jira search responses ("/rest/api/3/search/jql").
+ * Reads the response body token by token and builds one JiraIssueRecord per issue instead of
+ * materialising the body as a String and then as a JsonNode tree. Only the fields that
+ * JiraIssueRecord holds are extracted; all other fields are skipped without being decoded.
+ * The custom field ids are resolved from JiraFieldConfig once at startup.
+ */
+@Component
+public class JiraSearchResultParser {
+
+    /**
+     * One page of a search
+     * @param issues decoded issues in response order
+     * @param nextPageToken token for the next page, or null
+     * @param isLast true when Jira reported the last page
+     */
+    public record SearchPage(List<JiraIssueRecord> issues, String nextPageToken, boolean isLast) {
+    }
+
+    // Record components filled from the issue JSON, in JiraIssueRecord order
+    private enum Slot {
+        SUMMARY, DESCRIPTION, ISSUE_TYPE, PROJECT_KEY, REPORTER, ASSIGNEE, STATUS, PRIORITY,
+        DUE_DATE, CREATED, UPDATED,
+        VENDOR_NAME, PRODUCT_NAME, CONTRACT_TYPE, BILLING_TYPE, LICENSE_UPDATE_TYPE,
+        REQUESTER_NAME, REQUESTER_EMAIL, ORGANIZATION, DEPARTMENT, CONTRACT_DUE_DATE, RENEWAL_DATE
+    }
+
+    private static final Slot[] SLOTS = Slot.values();
+
+    private final ObjectMapper objectMapper;
+    private final JiraFieldConfig jiraFieldConfig;
+
+    private Map<String, Slot> customFieldSlots = Map.of();
+
+    public JiraSearchResultParser(ObjectMapper objectMapper, JiraFieldConfig jiraFieldConfig) {
+        this.objectMapper = objectMapper;
+        this.jiraFieldConfig = jiraFieldConfig;
+    }
+
+    @PostConstruct
+    void compile() {
+        Map<String, Slot> slots = new HashMap<>();
+        putSlot(slots, jiraFieldConfig.getVendorName(), Slot.VENDOR_NAME);
+        putSlot(slots, jiraFieldConfig.getProductName(), Slot.PRODUCT_NAME);
+        putSlot(slots, jiraFieldConfig.getContractType(), Slot.CONTRACT_TYPE);
+        putSlot(slots, jiraFieldConfig.getBillingType(), Slot.BILLING_TYPE);
+        putSlot(slots, jiraFieldConfig.getLicenseUpdateType(), Slot.LICENSE_UPDATE_TYPE);
+        putSlot(slots, jiraFieldConfig.getRequesterName(), Slot.REQUESTER_NAME);
+        putSlot(slots, jiraFieldConfig.getRequesterEmail(), Slot.REQUESTER_EMAIL);
+        putSlot(slots, jiraFieldConfig.getOrganization(), Slot.ORGANIZATION);
+        putSlot(slots, jiraFieldConfig.getDepartment(), Slot.DEPARTMENT);
+        putSlot(slots, jiraFieldConfig.getDueDate(), Slot.CONTRACT_DUE_DATE);
+        putSlot(slots, jiraFieldConfig.getRenewalDate(), Slot.RENEWAL_DATE);
+        customFieldSlots = Collections.unmodifiableMap(slots);
+    }
+
+    private void putSlot(Map<String, Slot> slots, String fieldId, Slot slot) {
+        if (fieldId != null && !fieldId.isBlank()) {
+            slots.put(fieldId, slot);
+        }
+    }
+
+    /**
+     * Decode a search response body
+     * @param body the response stream; closed once the page has been read
+     * @param keepRawJson true to also keep each issue's JSON text (needed by the local mirror)
+     * @return the decoded page
+     * @throws IOException if the body is not a valid search response
+     */
+    public SearchPage parse(InputStream body, boolean keepRawJson) throws IOException {
+        List<JiraIssueRecord> issues = new ArrayList<>();
+        String nextPageToken = null;
+        boolean isLast = false;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Jira search response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "issues" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                issues.add(keepRawJson ? readIssueKeepingJson(parser) : readIssue(parser, null));
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "nextPageToken" -> nextPageToken = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    case "isLast" -> isLast = parser.getValueAsBoolean();
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return new SearchPage(Collections.unmodifiableList(issues), nextPageToken, isLast);
+    }
+
+    /**
+     * Decode a single issue that is already a tree, e.g. from a webhook payload
+     * @param issueNode issue JSON with "id", "key" and "fields"
+     * @return the decoded issue, with rawJson set to the node's JSON text
+     * @throws IllegalArgumentException if the node is not an issue object
+     */
+    public JiraIssueRecord parseIssue(JsonNode issueNode) {
+        if (issueNode == null || !issueNode.isObject()) {
+            throw new IllegalArgumentException("Jira issue is not a JSON object");
+        }
+        try (JsonParser parser = objectMapper.treeAsTokens(issueNode)) {
+            parser.nextToken();
+            return readIssue(parser, issueNode.toString());
+        } catch (IOException e) {
+            // Reading an in-memory tree does no I/O
+            throw new IllegalArgumentException("Could not read Jira issue: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Buffer the issue's tokens once, then write them out as the raw JSON and decode them
+     */
+    private JiraIssueRecord readIssueKeepingJson(JsonParser parser) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.copyCurrentStructure(parser);
+
+        StringWriter rawJson = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(rawJson)) {
+            buffer.serialize(generator);
+        }
+        try (JsonParser issueParser = buffer.asParser(objectMapper)) {
+            issueParser.nextToken();
+            return readIssue(issueParser, rawJson.toString());
+        }
+    }
+
+    /**
+     * Read one issue object; the parser is on its START_OBJECT and is left on its END_OBJECT
+     */
+    private JiraIssueRecord readIssue(JsonParser parser, String rawJson) throws IOException {
+        String id = null;
+        String key = null;
+        String[] values = new String[SLOTS.length];
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "id" -> id = scalar(parser, value);
+                case "key" -> key = scalar(parser, value);
+                case "fields" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        readFields(parser, values);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        return new JiraIssueRecord(id, key,
+                values[Slot.SUMMARY.ordinal()],
+                values[Slot.DESCRIPTION.ordinal()],
+                values[Slot.ISSUE_TYPE.ordinal()],
+                values[Slot.PROJECT_KEY.ordinal()],
+                values[Slot.REPORTER.ordinal()],
+                values[Slot.ASSIGNEE.ordinal()],
+                values[Slot.STATUS.ordinal()],
+                values[Slot.PRIORITY.ordinal()],
+                values[Slot.DUE_DATE.ordinal()],
+                values[Slot.CREATED.ordinal()],
+                values[Slot.UPDATED.ordinal()],
+                values[Slot.VENDOR_NAME.ordinal()],
+                values[Slot.PRODUCT_NAME.ordinal()],
+                values[Slot.CONTRACT_TYPE.ordinal()],
+                values[Slot.BILLING_TYPE.ordinal()],
+                values[Slot.LICENSE_UPDATE_TYPE.ordinal()],
+                values[Slot.REQUESTER_NAME.ordinal()],
+                values[Slot.REQUESTER_EMAIL.ordinal()],
+                values[Slot.ORGANIZATION.ordinal()],
+                values[Slot.DEPARTMENT.ordinal()],
+                values[Slot.CONTRACT_DUE_DATE.ordinal()],
+                values[Slot.RENEWAL_DATE.ordinal()],
+                rawJson);
+    }
+
+    private void readFields(JsonParser parser, String[] values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "summary" -> values[Slot.SUMMARY.ordinal()] = scalar(parser, value);
+                case "description" -> values[Slot.DESCRIPTION.ordinal()] = json(parser, value);
+                case "issuetype" -> values[Slot.ISSUE_TYPE.ordinal()] = property(parser, value, "name");
+                case "project" -> values[Slot.PROJECT_KEY.ordinal()] = property(parser, value, "key");
+                case "reporter" -> values[Slot.REPORTER.ordinal()] = property(parser, value, "displayName");
+                case "assignee" -> values[Slot.ASSIGNEE.ordinal()] = property(parser, value, "displayName");
+                case "status" -> values[Slot.STATUS.ordinal()] = property(parser, value, "name");
+                case "priority" -> values[Slot.PRIORITY.ordinal()] = property(parser, value, "name");
+                case "duedate" -> values[Slot.DUE_DATE.ordinal()] = scalar(parser, value);
+                case "created" -> values[Slot.CREATED.ordinal()] = scalar(parser, value);
+                case "updated" -> values[Slot.UPDATED.ordinal()] = scalar(parser, value);
+                default -> {
+                    Slot slot = customFieldSlots.get(name);
+                    if (slot != null) {
+                        values[slot.ordinal()] = textValue(parser, value);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Text of a scalar value; objects and arrays are skipped and read as null
+     */
+    private String scalar(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    /**
+     * One scalar property of an object value, e.g. status.name; everything else in the object is skipped
+     */
+    private String property(JsonParser parser, JsonToken value, String property) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            return scalar(parser, value);
+        }
+        String result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken child = parser.nextToken();
+            if (property.equals(name)) {
+                result = scalar(parser, child);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A value copied out as JSON text without building a tree
+     */
+    private String json(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Same rules as JiraService.getTextValue: strings and numbers as text, select options by
+     * "value", users by "displayName", anything else as its JSON
+     */
+    private String textValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        // Custom field objects are small (an option or a user), so a tree is fine here
+        JsonNode field = parser.readValueAsTree();
+        if (field.isNumber()) {
+            return field.asText();
+        }
+        if (field.has("value")) {
+            return field.get("value").asText();
+        }
+        if (field.has("displayName")) {
+            return field.get("displayName").asText();
+        }
+        return field.toString();
+    }
+}
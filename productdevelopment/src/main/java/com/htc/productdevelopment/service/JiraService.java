@@ -3,16 +3,14 @@ package com.htc.productdevelopment.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.htc.productdevelopment.config.JiraConfig;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.context.annotation.Lazy;
 import com.htc.productdevelopment.model.ContractDetails;
 import com.htc.productdevelopment.model.JiraProject;
-import com.htc.productdevelopment.model.Organization;
-import com.htc.productdevelopment.model.Department;
 import com.htc.productdevelopment.repository.ContractDetailsRepository;
-import com.htc.productdevelopment.repository.DepartmentRepository;
 import com.htc.productdevelopment.service.ContractDetailsService;
-import com.htc.productdevelopment.service.OrganizationService;
-import com.htc.productdevelopment.model.User;
 import com.htc.productdevelopment.repository.UserRepository;
 
 import org.slf4j.Logger;
@@ -21,13 +19,20 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.util.UriComponentsBuilder;
 import com.htc.productdevelopment.config.JiraFieldConfig;
+import com.htc.productdevelopment.config.JiraFieldProjections;
+import com.htc.productdevelopment.config.JiraFieldView;
 import com.htc.productdevelopment.dto.ContractDTO;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.function.ThrowingConsumer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
@@ -40,16 +45,8 @@ import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
-import org.apache.http.HttpResponse;
-import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpPut;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
 //import org.json.JSONArray;
 //import org.json.JSONObject;
  
@@ -87,14 +84,51 @@ public class JiraService {
     private JiraFieldConfig jiraFieldConfig;
     
     @Autowired
-    private OrganizationService organizationService;
+    private JiraFieldProjections jiraFieldProjections;
     
     @Autowired
-    private DepartmentRepository departmentRepository;
+    private JiraIdentityDirectory jiraIdentityDirectory;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    @Lazy
+    private JiraIssueSyncService jiraIssueSyncService;
+    
+    @Autowired
+    private JiraRequestCoalescer jiraRequestCoalescer;
+    
+    @Autowired
+    private JiraStaleResponseCache jiraStaleResponseCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JiraMetadataCache jiraMetadataCache;
+    
+    @Autowired
+    private JiraSearchResultParser jiraSearchResultParser;
+    
+    @Autowired
+    private JiraIssueFieldCache jiraIssueFieldCache;
+    
+    @Autowired
+    @Lazy
+    private ContractCompletionOutboxService contractCompletionOutboxService;
+    
+    // Jira status name of a finished contract request
+    static final String COMPLETED_STATUS = "Completed";
+    
+    // When true the Jira webhook saves completed contracts and transitionIssue skips the status check
+    @Value("${jira.webhook.handles-completion:false}")
+    private boolean webhookHandlesCompletion;
+    
+    // Page size used when walking search results with nextPageToken
+    @Value("${jira.search.page-size:100}")
+    private int searchPageSize = 100;
+    
     // JSON parser for handling API responses
     private final ObjectMapper objectMapper;
 
@@ -128,55 +162,63 @@ public class JiraService {
      */
     public List<JiraProject> getRecentProjects() {
         try {
-            logger.info("Fetching recent Jira projects");
-            
-            // Build the API URL for getting projects with a limit of 3
-            String url = jiraConfig.getBaseUrl() + "/rest/api/3/project/recent?maxResults=3";
-            
-            // Make the API call
-            JsonNode response = makeJiraApiCall(url, HttpMethod.GET, null);
-            
-            // Parse the response and create project objects
-            List<JiraProject> projects = parseProjectsResponse(response);
-            
-            // Ensure we don't return more than 3 projects
-            if (projects.size() > 3) {
-                projects = projects.subList(0, 3);
-            }
-            
-            logger.info("Successfully fetched {} recent projects", projects.size());
-            return projects;
+            return jiraMetadataCache.get(JiraMetadataCache.RECENT_PROJECTS, null, this::fetchRecentProjects);
         } catch (Exception e) {
             logger.error("Error fetching recent Jira projects", e);
             return List.of(); // Return empty list on error
         }
     }
 
+    private List<JiraProject> fetchRecentProjects() throws Exception {
+        logger.info("Fetching recent Jira projects");
+        
+        // Build the API URL for getting projects with a limit of 3
+        String url = jiraConfig.getBaseUrl() + "/rest/api/3/project/recent?maxResults=3";
+        
+        // Make the API call
+        JsonNode response = makeJiraApiCall(url, HttpMethod.GET, null);
+        
+        // Parse the response and create project objects
+        List<JiraProject> projects = parseProjectsResponse(response);
+        
+        // Ensure we don't return more than 3 projects
+        if (projects.size() > 3) {
+            projects = projects.subList(0, 3);
+        }
+        
+        logger.info("Successfully fetched {} recent projects", projects.size());
+        return List.copyOf(projects);
+    }
+
     /**
      * Get all Jira projects
      * @return List of all Jira projects
      */
     public List<JiraProject> getAllProjects() {
         try {
-            logger.info("Fetching all Jira projects");
-            
-            // Build the API URL for getting projects
-            String url = jiraConfig.getBaseUrl() + "/rest/api/3/project";
-            
-            // Make the API call
-            JsonNode response = makeJiraApiCall(url, HttpMethod.GET, null);
-            
-            // Parse the response and create project objects
-            List<JiraProject> projects = parseProjectsResponse(response);
-            
-            logger.info("Successfully fetched {} projects", projects.size());
-            return projects;
+            return jiraMetadataCache.get(JiraMetadataCache.PROJECTS, null, this::fetchAllProjects);
         } catch (Exception e) {
             logger.error("Error fetching all Jira projects", e);
             return List.of(); // Return empty list on error
         }
     }
 
+    private List<JiraProject> fetchAllProjects() throws Exception {
+        logger.info("Fetching all Jira projects");
+        
+        // Build the API URL for getting projects
+        String url = jiraConfig.getBaseUrl() + "/rest/api/3/project";
+        
+        // Make the API call
+        JsonNode response = makeJiraApiCall(url, HttpMethod.GET, null);
+        
+        // Parse the response and create project objects
+        List<JiraProject> projects = parseProjectsResponse(response);
+        
+        logger.info("Successfully fetched {} projects", projects.size());
+        return List.copyOf(projects);
+    }
+
     /**
      * Parse projects response from Jira API
      * @param response The JSON response from Jira API
@@ -219,6 +261,17 @@ public class JiraService {
     }
     
     public JsonNode getRequestManagementProject() {
+        try {
+            return jiraMetadataCache.get(JiraMetadataCache.REQUEST_MANAGEMENT_PROJECT, jiraConfig.getContractProjectKey(),
+                    this::fetchRequestManagementProject);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch Request Management project details", e);
+        }
+    }
+
+    private JsonNode fetchRequestManagementProject() {
         String projectKey = jiraConfig.getContractProjectKey(); // We’ll create getter
         String url = jiraConfig.getBaseUrl() + "/rest/api/3/project/" + projectKey;
 
@@ -294,191 +347,44 @@ public class JiraService {
     }
 
     /**
-     * Get all issues across all projects
+     * Get all issues across all projects using the list projection
      * @return JsonNode containing all issues
      * @throws Exception if the API call fails
      */
     public JsonNode getAllIssues(String userRole, Long userOrganizationId, Long userDepartmentId, String userEmail)
  throws Exception {
+        return getAllIssues(userRole, userOrganizationId, userDepartmentId, userEmail, JiraFieldView.LIST);
+    }
+    
+    /**
+     * Get all issues across all projects
+     * Follows nextPageToken so the full result set is returned, not just the first page
+     * @param view Field projection to request for each issue
+     * @return JsonNode containing all issues
+     * @throws Exception if the API call fails
+     */
+    public JsonNode getAllIssues(String userRole, Long userOrganizationId, Long userDepartmentId, String userEmail,
+                                 JiraFieldView view) throws Exception {
         try {
             logger.info("Fetching all issues across all projects with user context - Role: {}, Organization ID: {}, Department ID: {}", 
                 userRole, userOrganizationId, userDepartmentId);
             
-            // Add detailed logging for debugging
-            logger.info("=== DEBUG INFO ===");
-            logger.info("User Role: {}", userRole);
-            logger.info("User Organization ID: {}", userOrganizationId);
-            logger.info("User Department ID: {}", userDepartmentId);
-            
-            // Build the API URL for searching all issues using the new JQL endpoint
-            String url = jiraConfig.getBaseUrl() + "/rest/api/3/search/jql";
-            
-            // Create the base JQL query
-            StringBuilder jqlBuilder = new StringBuilder("project = \"Request Management\"");
-            
-            // Convert organization and department IDs to names if they exist
-            String organizationName = null;
-            String departmentName = null;
-            
-            if (userOrganizationId != null) {
-                try {
-                    Organization org = organizationService.getOrganizationById(userOrganizationId)
-                            .orElse(null);
-                    if (org != null) {
-                        organizationName = org.getName();
-                        logger.info("Resolved organization ID {} to name: {}", userOrganizationId, organizationName);
-                    } else {
-                        logger.warn("Organization not found for ID: {}", userOrganizationId);
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to resolve organization ID {}: {}", userOrganizationId, e.getMessage());
-                }
-            }
-            
-            if (userDepartmentId != null) {
-                try {
-                    Department dept = departmentRepository.findById(userDepartmentId)
-                            .orElse(null);
-                    if (dept != null) {
-                        departmentName = dept.getName();
-                        logger.info("Resolved department ID {} to name: {}", userDepartmentId, departmentName);
-                    } else {
-                        logger.warn("Department not found for ID: {}", userDepartmentId);
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to resolve department ID {}: {}", userDepartmentId, e.getMessage());
-                }
-            }
-            
-            logger.info("Organization Name: {}", organizationName);
-            logger.info("Department Name: {}", departmentName);
-            
-            // Apply filtering based on user role
-         // Apply filtering based on user role
-            if (userRole != null) {
-
-                String orgField = jiraFieldConfig.getOrganizationName();   // "Organization"
-                String deptField = jiraFieldConfig.getDepartmentName();    // "Department"
-
-                switch (userRole) {
-
-                    case "SUPER_ADMIN":
-                        logger.info("SUPER_ADMIN → No filtering");
-                        break;
-
-                    case "ADMIN":
-                    case "APPROVER":
-                        logger.info("ADMIN/APPROVER → Filter by org + dept");
-
-                        if (organizationName != null)
-                            jqlBuilder.append(" AND \"").append(orgField).append("\" = \"").append(organizationName).append("\"");
-
-                        if (departmentName != null)
-                            jqlBuilder.append(" AND \"").append(deptField).append("\" = \"").append(departmentName).append("\"");
-
-                        break;
-
-                    case "REQUESTER":
-                        logger.info("REQUESTER → Filter by Org + Dept + Requester Email");
-
-                        if (organizationName != null)
-                            jqlBuilder.append(" AND \"").append(orgField).append("\" = \"").append(organizationName).append("\"");
-
-                        if (departmentName != null)
-                            jqlBuilder.append(" AND \"").append(deptField).append("\" = \"").append(departmentName).append("\"");
-
-                        // 🔥 Add requester email filter (mandatory for requester role)
-                        String requesterEmailField = jiraFieldConfig.getRequesterEmail();
-
-                        User requesterUser = null;
-                        if (userEmail != null) {
-                            requesterUser = userRepository.findByEmail(userEmail).orElse(null);
-                        }
-
-                        if (requesterUser != null && requesterUser.getEmail() != null) {
-                            jqlBuilder.append(" AND \"")
-                                      .append(requesterEmailField)
-                                      .append("\" = \"")
-                                      .append(requesterUser.getEmail())
-                                      .append("\"");
-                        }
-
-
-
-                    default:
-                        logger.warn("Unknown role → basic filtering");
-                        if (organizationName != null)
-                            jqlBuilder.append(" AND \"").append(orgField).append("\" = \"").append(organizationName).append("\"");
-                        if (departmentName != null)
-                            jqlBuilder.append(" AND \"").append(deptField).append("\" = \"").append(departmentName).append("\"");
-                }
+            JiraIdentityDirectory.IssueListQuery query = buildIssueListQuery(userRole, userOrganizationId, userDepartmentId, userEmail);
             
-        
-            } else {
-                logger.warn("User role is null, applying default filtering");
-                // If no user role, apply basic filtering if org/dept are available
-                if (organizationName != null && departmentName != null) {
-                    jqlBuilder.append(" AND \"").append(jiraFieldConfig.getOrganization()).append("\" = \"").append(organizationName).append("\"");
-                    jqlBuilder.append(" AND \"").append(jiraFieldConfig.getDepartment()).append("\" = \"").append(departmentName).append("\"");
-                } else if (organizationName != null) {
-                    jqlBuilder.append(" AND \"").append(jiraFieldConfig.getOrganization()).append("\" = \"").append(organizationName).append("\"");
-                }
+            // Answer from the local mirror (which stores the list projection) when the background sync is up to date
+            if (view == JiraFieldView.LIST && jiraIssueSyncService.isMirrorReady()) {
+                logger.info("Serving issues from local mirror (org={}, dept={}, requester={})",
+                    query.organization(), query.department(), query.requesterEmail());
+                return jiraIssueSyncService.findMirroredIssues(query.organization(), query.department(), query.requesterEmail());
             }
             
-            jqlBuilder.append(" ORDER BY key DESC");
-            
-            logger.info("Final JQL query: {}", jqlBuilder.toString());
-            
-            // Create the request body with JQL and fields
-            Map<String, Object> requestBody = Map.of(
-                "jql", jqlBuilder.toString(),
-                "maxResults", 1000,
-                "fields", List.of(
-                    "*all",
-
-                    "summary",
-                    "project",
-                    "assignee",
-                    "issuetype",
-                    "status",
-                    "priority",
-                    "created",
-                    "updated",
-                    "reporter",
-                    "description",
-                    "duedate",
-
-                    // --- Contract custom fields ---
-                    jiraFieldConfig.getVendorName(),
-                    jiraFieldConfig.getProductName(),
-                    jiraFieldConfig.getBillingType(),
-                    jiraFieldConfig.getContractType(),
-                    jiraFieldConfig.getRequesterName(),
-                    jiraFieldConfig.getRequesterEmail(),
-                    jiraFieldConfig.getDepartment(),
-                    jiraFieldConfig.getAdditionalComment(),
-                    jiraFieldConfig.getDueDate(),
-                    jiraFieldConfig.getRenewalDate(),
-
-                    jiraFieldConfig.getCurrentLicenseCount(),
-                    jiraFieldConfig.getCurrentUsageCount(),
-                    jiraFieldConfig.getCurrentUnit(),
-
-                    jiraFieldConfig.getNewLicenseCount(),
-                    jiraFieldConfig.getNewUsageCount(),
-                    jiraFieldConfig.getNewUnit(),
-
-                    jiraFieldConfig.getLicenseUpdateType(),
-                    jiraFieldConfig.getExistingContractId(),
-                    jiraFieldConfig.getOrganization() // Include organization field
-                )
-
-            );
-            
-            // Make the API call with POST method
-            JsonNode response = makeJiraApiCall(url, HttpMethod.POST, requestBody);
+            ObjectNode response = objectMapper.createObjectNode();
+            ArrayNode allIssues = response.putArray("issues");
+            forEachIssuePage(query.jql(), view, issues -> issues.forEach(allIssues::add));
+            response.put("total", allIssues.size());
+            response.put("isLast", true);
             
-            logger.info("Successfully fetched all issues");
+            logger.info("Successfully fetched all {} issues", allIssues.size());
             return response;
         } catch (Exception e) {
             logger.error("Error fetching all issues", e);
@@ -486,10 +392,160 @@ public class JiraService {
         }
     }
     
+    /**
+     * Get one page of the role-filtered issue list
+     * @param cursor Opaque cursor from the previous page (Jira's nextPageToken), or null for the first page
+     * @param pageSize Number of issues per page
+     * @param view Field projection to request for each issue
+     * @return JsonNode with "issues", "nextCursor" (null on the last page) and "isLast"
+     * @throws Exception if the API call fails
+     */
+    public JsonNode getIssuesPage(String userRole, Long userOrganizationId, Long userDepartmentId, String userEmail,
+                                  String cursor, int pageSize, JiraFieldView view) throws Exception {
+        JiraIdentityDirectory.IssueListQuery query = buildIssueListQuery(userRole, userOrganizationId, userDepartmentId, userEmail);
+        JsonNode page = searchIssues(query.jql(), view, pageSize, cursor);
+        
+        String nextToken = page.path("isLast").asBoolean(false) ? null : page.path("nextPageToken").asText(null);
+        
+        ObjectNode response = objectMapper.createObjectNode();
+        response.set("issues", page.path("issues").isArray() ? page.get("issues") : objectMapper.createArrayNode());
+        if (nextToken != null) {
+            response.put("nextCursor", nextToken);
+        } else {
+            response.putNull("nextCursor");
+        }
+        response.put("isLast", nextToken == null);
+        return response;
+    }
+    
+    /**
+     * Walk the role-filtered issue list page by page without holding it all in memory
+     * @param view Field projection to request for each issue
+     * @param pageConsumer Receives the "issues" array of each page as it arrives
+     * @throws Exception if the API call fails or the consumer throws
+     */
+    public void streamIssues(String userRole, Long userOrganizationId, Long userDepartmentId, String userEmail,
+                             JiraFieldView view, ThrowingConsumer<JsonNode> pageConsumer) throws Exception {
+        JiraIdentityDirectory.IssueListQuery query = buildIssueListQuery(userRole, userOrganizationId, userDepartmentId, userEmail);
+        
+        if (view == JiraFieldView.LIST && jiraIssueSyncService.isMirrorReady()) {
+            jiraIssueSyncService.streamMirroredIssues(query.organization(), query.department(), query.requesterEmail(), pageConsumer);
+            return;
+        }
+        
+        forEachIssuePage(query.jql(), view, pageConsumer);
+    }
+    
+    /**
+     * Run a JQL search over every page, following nextPageToken until Jira reports the last page
+     */
+    private void forEachIssuePage(String jql, JiraFieldView view, ThrowingConsumer<JsonNode> pageConsumer) throws Exception {
+        String nextPageToken = null;
+        do {
+            JsonNode page = searchIssues(jql, view, searchPageSize, nextPageToken);
+            JsonNode issues = page.path("issues");
+            if (issues.isArray() && issues.size() > 0) {
+                pageConsumer.acceptWithException(issues);
+            }
+            
+            nextPageToken = page.path("nextPageToken").asText(null);
+            if (page.path("isLast").asBoolean(false) || issues.size() == 0) {
+                nextPageToken = null;
+            }
+        } while (nextPageToken != null);
+    }
+    
+    /**
+     * Build the role-filtered JQL for the "Request Management" issue list from the identity directory
+     */
+    private JiraIdentityDirectory.IssueListQuery buildIssueListQuery(String userRole, Long userOrganizationId, Long userDepartmentId, String userEmail) {
+        JiraIdentityDirectory.IssueListQuery query = jiraIdentityDirectory.issueListQuery(userRole, userOrganizationId, userDepartmentId, userEmail);
+        logger.info("Issue list JQL for role {} (organization ID {}, department ID {}): {}",
+                userRole, userOrganizationId, userDepartmentId, query.jql());
+        return query;
+    }
+    
     // Keep the original method for backward compatibility
     public JsonNode getAllIssues() throws Exception {
         return getAllIssues(null, null, null, null);
     }
+    
+    /**
+     * Run one page of a JQL search
+     * @param jql The JQL query
+     * @param view Field projection to return for each issue
+     * @param maxResults Page size
+     * @param nextPageToken Token from the previous page, or null for the first page
+     * @return JsonNode with "issues", "nextPageToken" and "isLast"
+     * @throws Exception if the API call fails
+     */
+    public JsonNode searchIssues(String jql, JiraFieldView view, int maxResults, String nextPageToken) throws Exception {
+        return searchIssues(jql, jiraFieldProjections.fields(view), maxResults, nextPageToken);
+    }
+    
+    /**
+     * Run one page of a JQL search with an explicit field list
+     * @see #searchIssues(String, JiraFieldView, int, String)
+     */
+    public JsonNode searchIssues(String jql, List<String> fields, int maxResults, String nextPageToken) throws Exception {
+        return searchIssues(jql, fields, null, maxResults, nextPageToken);
+    }
+    
+    /**
+     * Run one page of a JQL search with an explicit field list and expand parameter
+     * @param expand comma-separated expand values (e.g. renderedFields), or null
+     * @see #searchIssues(String, JiraFieldView, int, String)
+     */
+    public JsonNode searchIssues(String jql, List<String> fields, String expand, int maxResults, String nextPageToken) throws Exception {
+        String url = jiraConfig.getBaseUrl() + "/rest/api/3/search/jql";
+        
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("jql", jql);
+        requestBody.put("maxResults", maxResults);
+        requestBody.put("fields", fields);
+        if (expand != null) {
+            requestBody.put("expand", expand);
+        }
+        if (nextPageToken != null && !nextPageToken.isEmpty()) {
+            requestBody.put("nextPageToken", nextPageToken);
+        }
+        
+        return makeJiraApiCall(url, HttpMethod.POST, requestBody);
+    }
+    
+    /**
+     * Run one page of a JQL search and decode the response as it streams in, straight into
+     * JiraIssueRecords, without reading the body into a String or a JsonNode tree.
+     * Goes through the RestTemplate interceptors (rate limiter, circuit breaker) but not the
+     * coalescer or the stale response cache, which hold JsonNode responses.
+     * @param jql The JQL query
+     * @param view Field projection to request for each issue
+     * @param maxResults Page size
+     * @param nextPageToken Token from the previous page, or null for the first page
+     * @param keepRawJson true to keep each issue's JSON text on its record
+     * @return the decoded page
+     * @throws Exception if the API call fails
+     */
+    public JiraSearchResultParser.SearchPage searchIssueRecords(String jql, JiraFieldView view, int maxResults,
+                                                                String nextPageToken, boolean keepRawJson) throws Exception {
+        URI uri = UriComponentsBuilder.fromUriString(jiraConfig.getBaseUrl() + "/rest/api/3/search/jql").build().toUri();
+        
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("jql", jql);
+        requestBody.put("maxResults", maxResults);
+        requestBody.put("fields", jiraFieldProjections.fields(view));
+        if (nextPageToken != null && !nextPageToken.isEmpty()) {
+            requestBody.put("nextPageToken", nextPageToken);
+        }
+        
+        logger.info("Streaming Jira search (maxResults={}): {}", maxResults, jql);
+        return restTemplate.execute(uri, HttpMethod.POST, request -> {
+            request.getHeaders().set("Authorization", getAuthHeader());
+            request.getHeaders().set("Accept", "application/json");
+            request.getHeaders().set("Content-Type", "application/json");
+            request.getBody().write(objectMapper.writeValueAsBytes(requestBody));
+        }, response -> jiraSearchResultParser.parse(response.getBody(), keepRawJson));
+    }
 
     /**
      * Get recent issues across all projects (max 3)
@@ -497,44 +553,22 @@ public class JiraService {
      * @throws Exception if the API call fails
      */
     public JsonNode getRecentIssues() throws Exception {
+        return getRecentIssues(JiraFieldView.LIST);
+    }
+    
+    /**
+     * Get recent issues across all projects (max 3)
+     * @param view Field projection to request for each issue
+     * @return JsonNode containing recent issues
+     * @throws Exception if the API call fails
+     */
+    public JsonNode getRecentIssues(JiraFieldView view) throws Exception {
         try {
             logger.info("Fetching recent issues across all projects");
             
-            // Build the API URL for searching recent issues using the new JQL endpoint
-            String url = jiraConfig.getBaseUrl() + "/rest/api/3/search/jql";
-            
-            // Create the JQL query to get recent issues with a limit of 3
             // Using "project is not EMPTY" as a search restriction to avoid unbounded queries
             // Order by created date descending to get the most recent issues
-            // Include all the fields we need for the frontend, including custom fields
-            Map<String, Object> requestBody = Map.of(
-                "jql", "project is not EMPTY ORDER BY created DESC",
-                "maxResults", 3,
-                "fields", List.of(
-                    "summary", 
-                    "project", 
-                    "assignee", 
-                    "issuetype", 
-                    "status", 
-                    "priority", 
-                    "created", 
-                    "updated", 
-                    "reporter",
-                    "description",
-                    "customfield_10200", 
-                    "customfield_10201",
-                    "labels",
-                    "components",
-                    "versions",
-                    "fixVersions",
-                    "environment",
-                    "duedate",
-                    "timetracking"
-                )
-            );
-            
-            // Make the API call with POST method
-            JsonNode response = makeJiraApiCall(url, HttpMethod.POST, requestBody);
+            JsonNode response = searchIssues("project is not EMPTY ORDER BY created DESC", view, 3, null);
             
             logger.info("Successfully fetched recent issues");
             return response;
@@ -551,63 +585,27 @@ public class JiraService {
      * @throws Exception if the API call fails
      */
     public JsonNode getIssuesForProject(String projectKey) throws Exception {
+        return getIssuesForProject(projectKey, JiraFieldView.LIST);
+    }
+    
+    /**
+     * Get issues for a specific Jira project, following nextPageToken across all pages
+     * @param projectKey The project key
+     * @param view Field projection to request for each issue
+     * @return JsonNode containing the issues
+     * @throws Exception if the API call fails
+     */
+    public JsonNode getIssuesForProject(String projectKey, JiraFieldView view) throws Exception {
         try {
             logger.info("Fetching issues for project key: {}", projectKey);
             
-            // Build the API URL for searching issues in a specific project using the new JQL endpoint
-            String url = jiraConfig.getBaseUrl() + "/rest/api/3/search/jql";
-            
-            // Create the JQL query with proper formatting
-            Map<String, Object> requestBody = Map.of(
-                "jql", "project = \"" + projectKey + "\"",
-                "maxResults", 1000,
-                "fields", List.of(
-                	    "*all",
-
-                	    "summary",
-                	    "project",
-                	    "assignee",
-                	    "issuetype",
-                	    "status",
-                	    "priority",
-                	    "created",
-                	    "updated",
-                	    "reporter",
-                	    "description",
-                	    "duedate",
-
-                	    // --- Contract custom fields ---
-                	    jiraFieldConfig.getVendorName(),
-                	    jiraFieldConfig.getProductName(),
-                	    jiraFieldConfig.getBillingType(),
-                	    jiraFieldConfig.getContractType(),
-                	    jiraFieldConfig.getRequesterName(),
-                	    jiraFieldConfig.getRequesterEmail(),
-                	    jiraFieldConfig.getDepartment(),
-                	    jiraFieldConfig.getAdditionalComment(),
-                	    jiraFieldConfig.getDueDate(),
-                	    jiraFieldConfig.getRenewalDate(),
-
-                	    jiraFieldConfig.getCurrentLicenseCount(),
-                	    jiraFieldConfig.getCurrentUsageCount(),
-                	    jiraFieldConfig.getCurrentUnit(),
-
-                	    jiraFieldConfig.getNewLicenseCount(),
-                	    jiraFieldConfig.getNewUsageCount(),
-                	    jiraFieldConfig.getNewUnit(),
-
-                	    jiraFieldConfig.getLicenseUpdateType(),
-                	    jiraFieldConfig.getExistingContractId(),
-                	    jiraFieldConfig.getOrganization(),
-                	    jiraFieldConfig.getDepartment()
-                	    
-)
-            );
+            ObjectNode response = objectMapper.createObjectNode();
+            ArrayNode issues = response.putArray("issues");
+            forEachIssuePage("project = \"" + projectKey + "\"", view, page -> page.forEach(issues::add));
+            response.put("total", issues.size());
+            response.put("isLast", true);
             
-            // Make the API call with POST method
-            JsonNode response = makeJiraApiCall(url, HttpMethod.POST, requestBody);
-            
-            logger.info("Successfully fetched issues for project: {}", projectKey);
+            logger.info("Successfully fetched {} issues for project: {}", issues.size(), projectKey);
             return response;
         } catch (Exception e) {
             logger.error("Error fetching issues for project: {}", projectKey, e);
@@ -621,6 +619,10 @@ public class JiraService {
      * @throws Exception if the API call fails
      */
     public JsonNode getFields() throws Exception {
+        return jiraMetadataCache.get(JiraMetadataCache.FIELDS, null, this::fetchFields);
+    }
+
+    private JsonNode fetchFields() throws Exception {
         try {
             logger.info("Fetching fields from Jira");
             
@@ -670,6 +672,10 @@ public class JiraService {
      * @throws Exception if the API call fails
      */
     public JsonNode getIssueTypes() throws Exception {
+        return jiraMetadataCache.get(JiraMetadataCache.ISSUE_TYPES, null, this::fetchIssueTypes);
+    }
+
+    private JsonNode fetchIssueTypes() throws Exception {
         try {
             logger.info("Fetching issue types from Jira");
             
@@ -695,6 +701,10 @@ public class JiraService {
      * @throws Exception if the API call fails
      */
     public JsonNode getAssignableUsers(String projectKey) throws Exception {
+        return jiraMetadataCache.get(JiraMetadataCache.ASSIGNABLE_USERS, projectKey, () -> fetchAssignableUsers(projectKey));
+    }
+
+    private JsonNode fetchAssignableUsers(String projectKey) throws Exception {
         try {
             logger.info("Fetching assignable users for project: {}", projectKey);
             
@@ -895,6 +905,9 @@ public class JiraService {
             JsonNode response = makeJiraApiCall(url, HttpMethod.PUT, requestBody);
             logger.info("Issue updated successfully: {}", issueKey);
             
+            // Drop cached field values of the issue; the webhook for this update may come later
+            eventPublisher.publishEvent(new JiraIssueChangedEvent(issueKey, JiraIssueChangedEvent.UPDATED));
+            
             return response;
         } catch (Exception e) {
             logger.error("Error updating Jira issue: {}", issueKey, e);
@@ -939,6 +952,29 @@ public class JiraService {
     }
 
 
+    /**
+     * Project lists and create metadata change when a project is created or deleted
+     */
+    private void invalidateProjectMetadata() {
+        jiraMetadataCache.invalidate(JiraMetadataCache.PROJECTS, null);
+        jiraMetadataCache.invalidate(JiraMetadataCache.RECENT_PROJECTS, null);
+        jiraMetadataCache.invalidate(JiraMetadataCache.CREATE_META, null);
+    }
+
+    /**
+     * Warm the metadata the request form needs, so its first load does not wait on Jira
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmMetadataCache() {
+        String projectKey = jiraConfig.getContractProjectKey();
+        jiraMetadataCache.warm(JiraMetadataCache.FIELDS, null, this::fetchFields);
+        jiraMetadataCache.warm(JiraMetadataCache.ISSUE_TYPES, null, this::fetchIssueTypes);
+        jiraMetadataCache.warm(JiraMetadataCache.PROJECTS, null, this::fetchAllProjects);
+        jiraMetadataCache.warm(JiraMetadataCache.REQUEST_MANAGEMENT_PROJECT, projectKey, this::fetchRequestManagementProject);
+        jiraMetadataCache.warm(JiraMetadataCache.CREATE_META, projectKey, () -> fetchCreateMeta(projectKey));
+        jiraMetadataCache.warm(JiraMetadataCache.ASSIGNABLE_USERS, projectKey, () -> fetchAssignableUsers(projectKey));
+    }
+
     /**
      * Create a new Jira project
      * @param projectData The project data to create
@@ -955,6 +991,7 @@ public class JiraService {
             // Make the API call
             JsonNode response = makeJiraApiCall(url, HttpMethod.POST, projectData);
             logger.info("Project created successfully");
+            invalidateProjectMetadata();
             
             return response;
         } catch (Exception e) {
@@ -965,6 +1002,8 @@ public class JiraService {
 
     /**
      * Make a Jira API call with proper authentication and timeout configuration
+     * Identical concurrent reads share one upstream request through the coalescer, and reads
+     * fall back to the last good response while Jira is unavailable (see JiraStaleResponseCache)
      * @param url The API endpoint URL
      * @param method The HTTP method to use
      * @param body The request body (for POST/PUT requests)
@@ -972,6 +1011,33 @@ public class JiraService {
      * @throws Exception if the API call fails
      */
     private JsonNode makeJiraApiCall(String url, HttpMethod method, Object body) throws Exception {
+        if (!jiraStaleResponseCache.isCacheable(url, method, body)) {
+            if (jiraRequestCoalescer.isCoalescible(url, method, body)) {
+                return jiraRequestCoalescer.execute(url, method, body, () -> executeJiraApiCall(url, method, body));
+            }
+            return executeJiraApiCall(url, method, body);
+        }
+        
+        String key = jiraRequestCoalescer.requestKey(url, method, body);
+        Callable<JsonNode> call = () -> {
+            JsonNode response = executeJiraApiCall(url, method, body);
+            jiraStaleResponseCache.put(key, response);
+            return response;
+        };
+        try {
+            return jiraRequestCoalescer.isCoalescible(url, method, body)
+                    ? jiraRequestCoalescer.execute(url, method, body, call)
+                    : call.call();
+        } catch (Exception e) {
+            JsonNode stale = jiraStaleResponseCache.getFallback(key, e);
+            if (stale != null) {
+                return stale;
+            }
+            throw e;
+        }
+    }
+    
+    private JsonNode executeJiraApiCall(String url, HttpMethod method, Object body) throws Exception {
         // Create authorization header using email and API token
         String credentials = jiraConfig.getEmail() + ":" + jiraConfig.getApiToken();
         String encodedCredentials = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
@@ -1039,8 +1105,6 @@ public class JiraService {
                 return objectMapper.readTree("{}");
             }
             
-            logger.info("Response body: {}", responseBody);
-            
             // Parse and return the response
             return objectMapper.readTree(responseBody);
         } catch (Exception e) {
@@ -1052,6 +1116,8 @@ public class JiraService {
                 throw new Exception("Authentication failed: Please check your Jira email and API token in the configuration.", e);
             } else if (e.getMessage() != null && e.getMessage().contains("403")) {
                 throw new Exception("Access forbidden: Please check your Jira permissions and API token.", e);
+            } else if (e.getMessage() != null && (e.getMessage().contains("429") || e.getMessage().contains("Jira rate limit"))) {
+                throw new Exception("Rate limited by Jira: too many requests, please try again shortly.", e);
             } else {
                 throw new Exception("Failed to connect to Jira API: " + e.getMessage(), e);
             }
@@ -1074,6 +1140,7 @@ public class JiraService {
             // Make the API call
             JsonNode response = makeJiraApiCall(url, HttpMethod.DELETE, null);
             logger.info("Project deleted successfully: {}", projectKey);
+            invalidateProjectMetadata();
             
             return response;
         } catch (Exception e) {
@@ -1107,17 +1174,33 @@ public class JiraService {
     }
     
     /**
-     * Get a specific Jira issue by ID or key with all details
+     * Get a specific Jira issue by ID or key with the detail projection
      * @param issueIdOrKey The issue ID or key
      * @return JsonNode containing the issue details
      * @throws Exception if the API call fails
      */
     public JsonNode getIssueByIdOrKey(String issueIdOrKey) throws Exception {
+        return getIssueByIdOrKey(issueIdOrKey, JiraFieldView.DETAIL);
+    }
+    
+    /**
+     * Get a specific Jira issue by ID or key
+     * @param issueIdOrKey The issue ID or key
+     * @param view Field projection to request
+     * @return JsonNode containing the issue details
+     * @throws Exception if the API call fails
+     */
+    public JsonNode getIssueByIdOrKey(String issueIdOrKey, JiraFieldView view) throws Exception {
         try {
-            logger.info("Fetching Jira issue with ID/Key: {}", issueIdOrKey);
-            
-            // Build the API URL for getting a specific issue with all expandable fields and explicitly request all fields including attachment
-            String url = jiraConfig.getBaseUrl() + "/rest/api/3/issue/" + issueIdOrKey + "?expand=renderedFields,names,schema,transitions,operations,editmeta,changelog&fields=*all";
+            logger.info("Fetching Jira issue with ID/Key: {} (view {})", issueIdOrKey, view);
+            
+            // Build the API URL requesting only the fields of the view
+            String url = jiraConfig.getBaseUrl() + "/rest/api/3/issue/" + issueIdOrKey
+                    + "?fields=" + jiraFieldProjections.fieldsParam(view);
+            String expand = jiraFieldProjections.expandParam(view);
+            if (expand != null) {
+                url += "&expand=" + expand;
+            }
             
             // Make the API call
             JsonNode response = makeJiraApiCall(url, HttpMethod.GET, null);
@@ -1131,7 +1214,7 @@ public class JiraService {
     }
     
     /**
-     * Get a specific field value from a Jira issue
+     * Get a specific field value from a Jira issue, requesting only that field
      * @param issueIdOrKey The issue ID or key
      * @param fieldId The field ID (e.g., customfield_10405)
      * @return The field value as a string, or null if not found
@@ -1139,35 +1222,61 @@ public class JiraService {
      */
     public String getIssueFieldValue(String issueIdOrKey, String fieldId) throws Exception {
         try {
-            logger.info("Fetching field value {} for issue: {}", fieldId, issueIdOrKey);
-            
-            // Get the full issue details
-            JsonNode issue = getIssueByIdOrKey(issueIdOrKey);
-            
-            logger.info("Successfully fetched issue details for: {}", issueIdOrKey);
-            
-            // Extract the field value from the fields
-            JsonNode fields = issue.path("fields");
-            JsonNode fieldValue = fields.path(fieldId);
-            
-            logger.info("Checking field value for fieldId: {} in issue: {}", fieldId, issueIdOrKey);
-            
+            JsonNode fieldValue = getIssueField(issueIdOrKey, fieldId);
             if (fieldValue.isMissingNode() || fieldValue.isNull()) {
                 logger.info("Field {} not found or is null for issue: {}", fieldId, issueIdOrKey);
                 return null;
             }
-            
-            String value = fieldValue.asText();
-            logger.info("Found field value for {} in issue {}: {}", fieldId, issueIdOrKey, value);
-            
-            return value;
+            return fieldValue.asText();
         } catch (Exception e) {
             logger.error("Error fetching field value {} for issue: {}", fieldId, issueIdOrKey, e);
-            logger.error("Exception details: {}", e.getMessage(), e);
             throw new Exception("Failed to fetch field value " + fieldId + " for issue " + issueIdOrKey + ": " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Get one field of an issue, served from the short-lived field cache when possible.
+     * Only reads by issue key are cached: change events carry the key, so a value cached
+     * under a numeric issue id would never be invalidated.
+     * @param issueIdOrKey The issue ID or key
+     * @param fieldId The field ID, e.g. status or customfield_10405
+     * @return The field value, or a missing node if the issue has no value for it
+     * @throws Exception if the API call fails
+     */
+    JsonNode getIssueField(String issueIdOrKey, String fieldId) throws Exception {
+        if (isNumericIssueId(issueIdOrKey)) {
+            return fetchIssueField(issueIdOrKey, fieldId);
+        }
+        JsonNode cached = jiraIssueFieldCache.get(issueIdOrKey, fieldId);
+        if (cached != null) {
+            logger.debug("Field {} of issue {} served from cache", fieldId, issueIdOrKey);
+            return cached;
+        }
+        // Taken before the read, so a change reported while Jira answers is not cached over
+        long generation = jiraIssueFieldCache.generation();
+        JsonNode fieldValue = fetchIssueField(issueIdOrKey, fieldId);
+        jiraIssueFieldCache.put(issueIdOrKey, fieldId, fieldValue, generation);
+        return fieldValue;
+    }
+    
+    private static boolean isNumericIssueId(String issueIdOrKey) {
+        return !issueIdOrKey.isEmpty() && issueIdOrKey.chars().allMatch(Character::isDigit);
+    }
+    
+    /**
+     * Fetch one field of an issue from Jira with ?fields=fieldId
+     * @param issueIdOrKey The issue ID or key
+     * @param fieldId The field ID
+     * @return The field value, or a missing node if the issue has no value for it
+     * @throws Exception if the API call fails
+     */
+    JsonNode fetchIssueField(String issueIdOrKey, String fieldId) throws Exception {
+        logger.info("Fetching field {} of issue: {}", fieldId, issueIdOrKey);
+        String url = jiraConfig.getBaseUrl() + "/rest/api/3/issue/" + issueIdOrKey + "?fields=" + fieldId;
+        JsonNode issue = makeJiraApiCall(url, HttpMethod.GET, null);
+        return issue.path("fields").path(fieldId);
+    }
+    
     /**
      * Get comments for a specific Jira issue
      * @param issueIdOrKey The issue ID or key
@@ -1216,65 +1325,6 @@ public class JiraService {
         }
     }
 
-    /**
- * Add an attachment to a Jira issue
- * @param issueIdOrKey The issue ID or key
- * @param fileContent The file content as bytes
- * @param fileName The name of the file
- * @return JsonNode containing the response
- * @throws Exception if the API call fails
- */
-public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, String fileName) throws Exception {
-    try {
-        logger.info("Adding attachment to Jira issue: {}", issueIdOrKey);
-
-        // Build the API URL for adding an attachment
-        String url = jiraConfig.getBaseUrl() + "/rest/api/3/issue/" + issueIdOrKey + "/attachments";
-
-        // Authorization header
-        String credentials = jiraConfig.getEmail() + ":" + jiraConfig.getApiToken();
-        String encodedCredentials = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
-
-        // Build URI
-        URI uri = UriComponentsBuilder.fromUriString(url).build().toUri();
-
-        // Headers
-        org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-        headers.set("Authorization", "Basic " + encodedCredentials);
-        headers.set("X-Atlassian-Token", "no-check");
-        headers.setContentType(org.springframework.http.MediaType.MULTIPART_FORM_DATA);
-
-        // File body
-        org.springframework.util.LinkedMultiValueMap<String, Object> body = new org.springframework.util.LinkedMultiValueMap<>();
-        org.springframework.core.io.ByteArrayResource fileResource = new org.springframework.core.io.ByteArrayResource(fileContent) {
-            @Override
-            public String getFilename() {
-                return fileName;
-            }
-        };
-        body.add("file", fileResource);
-
-        // Request
-        RequestEntity<org.springframework.util.MultiValueMap<String, Object>> requestEntity =
-                RequestEntity.post(uri).headers(headers).body(body);
-
-        // Execute
-        ResponseEntity<String> response = restTemplate.exchange(requestEntity, String.class);
-        logger.info("Response from Jira: {}", response.getBody());
-
-        // Parse JSON
-        String responseBody = response.getBody();
-        return responseBody != null && !responseBody.isEmpty()
-                ? objectMapper.readTree(responseBody)
-                : objectMapper.readTree("[]");
-
-    } catch (Exception e) {
-        logger.error("Error adding attachment to Jira issue: {}", issueIdOrKey, e);
-        throw new Exception("Failed to add attachment to issue " + issueIdOrKey + ": " + e.getMessage(), e);
-    }
-}
-
-    
     /**
      * Get attachments for a Jira issue
      * @param issueIdOrKey The issue ID or key
@@ -1315,43 +1365,26 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
     }
     
     /**
-     * Get attachment content by ID
+     * Stream attachment content from Jira without buffering it.
+     * The extractor receives Jira's response with its status, headers and open body stream;
+     * the connection is released when the extractor returns.
      * @param attachmentId The attachment ID
-     * @return byte array containing the attachment content
-     * @throws Exception if the API call fails
+     * @param forwardHeaders Client headers to pass on to Jira (Range, If-Range, If-None-Match, ...)
+     * @param extractor Consumer of the live response
+     * @return the value returned by the extractor
+     * @throws Exception if the API call fails; error statuses surface as HttpStatusCodeException
      */
-    public byte[] getAttachmentContent(String attachmentId) throws Exception {
-        try {
-            logger.info("Fetching attachment content for ID: {}", attachmentId);
-            
-            // Build the API URL for getting attachment content
-            String url = jiraConfig.getBaseUrl() + "/rest/api/3/attachment/content/" + attachmentId;
-            
-            // Create authorization header using email and API token
-            String credentials = jiraConfig.getEmail() + ":" + jiraConfig.getApiToken();
-            String encodedCredentials = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
-            
-            // Build the URI
-            URI uri = UriComponentsBuilder.fromUriString(url).build().toUri();
-            
-            // Create headers for the request
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.set("Authorization", "Basic " + encodedCredentials);
-            headers.set("Accept", "*/*"); // Accept any content type for binary data
-            
-            // Create request entity
-            RequestEntity<?> requestEntity = new RequestEntity<>(headers, HttpMethod.GET, uri);
-            
-            // Make the API call
-            ResponseEntity<byte[]> response = restTemplate.exchange(requestEntity, byte[].class);
-            
-            logger.info("Attachment content fetched successfully for ID: {}", attachmentId);
-            
-            return response.getBody();
-        } catch (Exception e) {
-            logger.error("Error fetching attachment content for ID: {}", attachmentId, e);
-            throw new Exception("Failed to fetch attachment content for ID " + attachmentId + ": " + e.getMessage(), e);
-        }
+    public <T> T streamAttachmentContent(String attachmentId, HttpHeaders forwardHeaders,
+                                         ResponseExtractor<T> extractor) throws Exception {
+        String url = jiraConfig.getBaseUrl() + "/rest/api/3/attachment/content/" + attachmentId;
+        URI uri = UriComponentsBuilder.fromUriString(url).build().toUri();
+        logger.info("Streaming attachment content for ID: {}", attachmentId);
+
+        return restTemplate.execute(uri, HttpMethod.GET, request -> {
+            request.getHeaders().addAll(forwardHeaders);
+            request.getHeaders().set("Authorization", getAuthHeader());
+            request.getHeaders().set("Accept", "*/*");
+        }, extractor);
     }
     
     /**
@@ -1421,94 +1454,58 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
      * @return JsonNode containing the response
      * @throws Exception if the API call fails
      */
-    private static String encodeCredentials(String username, String apiToken) {
-        String credentials = username + ":" + apiToken;
-        return Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
-    }
-
     public boolean transitionIssue(String issueKey, String transitionId) {
+        return transitionIssue(issueKey, transitionId, true);
+    }
+    
+    /**
+     * Transition a Jira issue to a new status
+     * @param issueKey The issue key
+     * @param transitionId The ID of the transition to execute
+     * @param enqueueCompletion false when the caller enqueues the contract completion check itself
+     * @return true if Jira accepted the transition
+     */
+    public boolean transitionIssue(String issueKey, String transitionId, boolean enqueueCompletion) {
         try {
-            String user = jiraConfig.getEmail();
-            String apiToken = jiraConfig.getApiToken();
             String url = jiraConfig.getBaseUrl() 
                     + "/rest/api/3/issue/" + issueKey + "/transitions";
 
-            HttpClient httpClient = HttpClients.createDefault();
-            HttpPost httpPost = new HttpPost(url);
-
-            httpPost.setHeader("Authorization", "Basic " + encodeCredentials(user, apiToken));
-            httpPost.setHeader("Accept", "application/json");
-            httpPost.setHeader("Content-Type", "application/json");
-
             // 🔥 Using Jackson to build JSON
-            ObjectMapper mapper = new ObjectMapper();
-            ObjectNode root = mapper.createObjectNode();
-            ObjectNode transitionObj = mapper.createObjectNode();
+            ObjectNode root = objectMapper.createObjectNode();
+            ObjectNode transitionObj = objectMapper.createObjectNode();
             transitionObj.put("id", transitionId);
             root.set("transition", transitionObj);
 
-            httpPost.setEntity(new StringEntity(mapper.writeValueAsString(root)));
-
-            HttpResponse response = httpClient.execute(httpPost);
-            int status = response.getStatusLine().getStatusCode();
-            String responseBody = EntityUtils.toString(response.getEntity());
+            // Sent through the shared pooled RestTemplate so the connection is reused
+            HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(root), createAuthHeaders());
+            int status;
+            String responseBody;
+            try {
+                ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
+                status = response.getStatusCode().value();
+                responseBody = response.getBody();
+            } catch (HttpStatusCodeException e) {
+                status = e.getStatusCode().value();
+                responseBody = e.getResponseBodyAsString();
+            }
 
             logger.info("➡️ TRANSITION CALL → {}", url);
-            logger.info("➡️ PAYLOAD → {}", mapper.writeValueAsString(root));
+            logger.info("➡️ PAYLOAD → {}", objectMapper.writeValueAsString(root));
             logger.info("⬅️ STATUS = {}", status);
             logger.info("⬅️ RESPONSE = {}", responseBody);
 
             if (status == 204 || status == 201) {
                 logger.info("✅ Jira transition SUCCESS → {} -> {}", issueKey, transitionId);
+                eventPublisher.publishEvent(new JiraIssueChangedEvent(issueKey, JiraIssueChangedEvent.TRANSITIONED));
                 
-                // Check if the issue status is now "Completed" and save contract details if so
-                try {
-                    String currentStatus = getIssueStatus(issueKey);
-                    logger.info("Current status after transition: {}", currentStatus);
-                    
-                    if ("Completed".equalsIgnoreCase(currentStatus)) {
-                        logger.info("Issue {} is now completed, checking for contract details to save", issueKey);
-                        
-                        // Get the issue details to extract vendor details
-                        JsonNode issue = getIssueByIdOrKey(issueKey);
-                        JsonNode fields = issue.path("fields");
-                        
-                        // Extract vendor details from custom fields
-                        Map<String, Object> vendorDetails = new HashMap<>();
-                        
-                        // Extract basic information
-                        vendorDetails.put("vendorName", getTextValue(fields, jiraFieldConfig.getVendorName()));
-                        vendorDetails.put("productName", getTextValue(fields, jiraFieldConfig.getProductName()));
-                        vendorDetails.put("vendorContractType", getTextValue(fields, jiraFieldConfig.getBillingType()));
-                        vendorDetails.put("billingType", getTextValue(fields, jiraFieldConfig.getBillingType()));
-                        vendorDetails.put("contractMode", getTextValue(fields, jiraFieldConfig.getContractType()));
-                        vendorDetails.put("requesterName", getTextValue(fields, jiraFieldConfig.getRequesterName()));
-                        vendorDetails.put("requesterMail", getTextValue(fields, jiraFieldConfig.getRequesterEmail()));
-                        vendorDetails.put("department", getTextValue(fields, jiraFieldConfig.getDepartment()));
-                        vendorDetails.put("organization", getTextValue(fields, jiraFieldConfig.getOrganization()));
-                        vendorDetails.put("additionalComment", getTextValue(fields, jiraFieldConfig.getAdditionalComment()));
-                        vendorDetails.put("dueDate", getTextValue(fields, jiraFieldConfig.getDueDate()));
-                        vendorDetails.put("renewalDate", getTextValue(fields, jiraFieldConfig.getRenewalDate()));
-                        vendorDetails.put("currentLicenseCount", getTextValue(fields, jiraFieldConfig.getCurrentLicenseCount()));
-                        vendorDetails.put("currentUsageCount", getTextValue(fields, jiraFieldConfig.getCurrentUsageCount()));
-                        vendorDetails.put("currentUnits", getTextValue(fields, jiraFieldConfig.getCurrentUnit()));
-                        vendorDetails.put("newLicenseCount", getTextValue(fields, jiraFieldConfig.getNewLicenseCount()));
-                        vendorDetails.put("newUsageCount", getTextValue(fields, jiraFieldConfig.getNewUsageCount()));
-                        vendorDetails.put("newUnits", getTextValue(fields, jiraFieldConfig.getNewUnit()));
-                        // Additional fields for RequestSplitView
-                        vendorDetails.put("licenseUpdateType", getTextValue(fields, jiraFieldConfig.getLicenseUpdateType()));
-                        vendorDetails.put("existingContractId", getTextValue(fields, jiraFieldConfig.getExistingContractId()));
-                        vendorDetails.put("contractDuration", getTextValue(fields, jiraFieldConfig.getContractDuration()));
-                        
-                        // Extract issue updated date for completion date calculation
-                        String updatedDate = issue.path("updated").asText();
-                        vendorDetails.put("completionDate", updatedDate);
-
-                        logger.info("Saving contract details for completed issue: {}", issueKey);
-                        saveContractDetailsForCompletedIssue(vendorDetails);
+                // With Jira webhooks registered, completion is driven by the issue_updated event instead
+                if (enqueueCompletion && !webhookHandlesCompletion) {
+                    // The outbox worker checks for "Completed" and saves the contract off the request thread
+                    try {
+                        contractCompletionOutboxService.enqueue(issueKey, ContractCompletionOutboxService.SOURCE_TRANSITION, null);
+                    } catch (Exception e) {
+                        logger.error("Error enqueueing contract completion for issue: {}", issueKey, e);
                     }
-                } catch (Exception e) {
-                    logger.error("Error checking status or saving contract details for issue: {}", issueKey, e);
                 }
                 
                 return true;
@@ -1525,23 +1522,90 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
     }
 
     
+    /**
+     * Save the completed contract for an issue from its Jira fields
+     * Called by the completion outbox worker with the fetched fields or the webhook payload fields
+     * @param issueKey The issue key
+     * @param fields The "fields" node of the issue (contract completion projection or webhook payload)
+     * @throws Exception if the contract cannot be saved, so the outbox retries
+     */
+    public void completeContractFromIssue(String issueKey, JsonNode fields) throws Exception {
+        logger.info("Saving contract details for completed issue: {}", issueKey);
+        saveContractDetailsForCompletedIssue(buildCompletionDetails(issueKey, fields));
+    }
+    
+    /**
+     * Extract the vendor details saved for a completed contract
+     */
+    private Map<String, Object> buildCompletionDetails(String issueKey, JsonNode fields) {
+        // Extract vendor details from custom fields
+        Map<String, Object> vendorDetails = new HashMap<>();
+        vendorDetails.put("issueKey", issueKey);
+        
+        // Extract basic information
+        vendorDetails.put("vendorName", getTextValue(fields, jiraFieldConfig.getVendorName()));
+        vendorDetails.put("productName", getTextValue(fields, jiraFieldConfig.getProductName()));
+        vendorDetails.put("vendorContractType", getTextValue(fields, jiraFieldConfig.getBillingType()));
+        vendorDetails.put("billingType", getTextValue(fields, jiraFieldConfig.getBillingType()));
+        vendorDetails.put("contractMode", getTextValue(fields, jiraFieldConfig.getContractType()));
+        vendorDetails.put("requesterName", getTextValue(fields, jiraFieldConfig.getRequesterName()));
+        vendorDetails.put("requesterMail", getTextValue(fields, jiraFieldConfig.getRequesterEmail()));
+        vendorDetails.put("department", getTextValue(fields, jiraFieldConfig.getDepartment()));
+        vendorDetails.put("organization", getTextValue(fields, jiraFieldConfig.getOrganization()));
+        vendorDetails.put("additionalComment", getTextValue(fields, jiraFieldConfig.getAdditionalComment()));
+        vendorDetails.put("dueDate", getTextValue(fields, jiraFieldConfig.getDueDate()));
+        vendorDetails.put("renewalDate", getTextValue(fields, jiraFieldConfig.getRenewalDate()));
+        vendorDetails.put("currentLicenseCount", getTextValue(fields, jiraFieldConfig.getCurrentLicenseCount()));
+        vendorDetails.put("currentUsageCount", getTextValue(fields, jiraFieldConfig.getCurrentUsageCount()));
+        vendorDetails.put("currentUnits", getTextValue(fields, jiraFieldConfig.getCurrentUnit()));
+        vendorDetails.put("newLicenseCount", getTextValue(fields, jiraFieldConfig.getNewLicenseCount()));
+        vendorDetails.put("newUsageCount", getTextValue(fields, jiraFieldConfig.getNewUsageCount()));
+        vendorDetails.put("newUnits", getTextValue(fields, jiraFieldConfig.getNewUnit()));
+        // Additional fields for RequestSplitView
+        vendorDetails.put("licenseUpdateType", getTextValue(fields, jiraFieldConfig.getLicenseUpdateType()));
+        vendorDetails.put("existingContractId", getTextValue(fields, jiraFieldConfig.getExistingContractId()));
+        vendorDetails.put("contractDuration", getTextValue(fields, jiraFieldConfig.getContractDuration()));
+        
+        // Extract issue updated date for completion date calculation
+        String updatedDate = fields.path("updated").asText();
+        vendorDetails.put("completionDate", updatedDate);
+
+        return vendorDetails;
+    }
+    
     public boolean transitionIssueByKey(String issueKey, String transitionKey) throws Exception {
         logger.info("Received UI transition key: {}", transitionKey);
 
-        String transitionId = TRANSITION_MAP.get(transitionKey);
-        
-        // If not found in map, check if it's a direct transition ID
+        String transitionId = resolveTransitionId(transitionKey);
         if (transitionId == null) {
-            // Check if transitionKey is a numeric ID
-            if (transitionKey != null && transitionKey.matches("\\d+")) {
-                transitionId = transitionKey;
-            } else {
-                throw new Exception("Invalid transition key: " + transitionKey);
-            }
+            throw new Exception("Invalid transition key: " + transitionKey);
         }
 
         return transitionIssue(issueKey, transitionId);
     }
+    
+    /**
+     * Resolve a UI transition key through TRANSITION_MAP
+     * @param transitionKey UI key such as approve-pre-approval, or a numeric Jira transition ID
+     * @return the Jira transition ID, or null if the key is unknown
+     */
+    public String resolveTransitionId(String transitionKey) {
+        String transitionId = TRANSITION_MAP.get(transitionKey);
+        
+        // If not found in map, check if it's a direct transition ID
+        if (transitionId == null && transitionKey != null && transitionKey.matches("\\d+")) {
+            transitionId = transitionKey;
+        }
+        return transitionId;
+    }
+    
+    /**
+     * Whether transitions should enqueue the contract completion check, or the Jira webhook does it
+     * @return true when transitionIssue enqueues completion checks
+     */
+    public boolean isCompletionEnqueuedOnTransition() {
+        return !webhookHandlesCompletion;
+    }
 
 
 
@@ -1576,6 +1640,10 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
      * @throws Exception if the API call fails
      */
     public JsonNode getCreateMeta(String projectKey) throws Exception {
+        return jiraMetadataCache.get(JiraMetadataCache.CREATE_META, projectKey, () -> fetchCreateMeta(projectKey));
+    }
+
+    private JsonNode fetchCreateMeta(String projectKey) throws Exception {
         try {
             logger.info("Fetching create metadata for project: {}", projectKey);
             
@@ -1777,16 +1845,12 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
             try {
                 String email = clean(vendorDetails.get("requesterMail"));
                 if (email != null) {
-                    User requester = userRepository.findByEmail(email).orElse(null);
+                    JiraIdentityDirectory.UserScope requester = jiraIdentityDirectory.findUser(email);
                     if (requester != null) {
-                        contract.setRequester(requester);
-                        if (requester.getDepartment() != null) {
-                            contract.setRequesterDepartmentId(requester.getDepartment().getId());
-                        }
-
-                        if (requester.getOrganization() != null) {
-                            contract.setRequesterOrganizationId(requester.getOrganization().getId());
-                        }
+                        // A reference is enough to set the foreign key; the user is not loaded
+                        contract.setRequester(userRepository.getReferenceById(requester.userId()));
+                        contract.setRequesterDepartmentId(requester.departmentId());
+                        contract.setRequesterOrganizationId(requester.organizationId());
                     }
                 }
             } catch (Exception e) {
@@ -1938,7 +2002,7 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
      * Save contract details for a completed issue to the database
      * @param vendorDetails The vendor details map from the frontend
      */
-    private void saveContractDetailsForCompletedIssue(Map<String, Object> vendorDetails) {
+    private void saveContractDetailsForCompletedIssue(Map<String, Object> vendorDetails) throws Exception {
         try {
             logger.info("Saving contract details for completed issue to database: {}", vendorDetails);
             
@@ -1948,6 +2012,7 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
             }
             
             ContractDetails contract = new ContractDetails();
+            contract.setJiraIssueKey(clean(vendorDetails.get("issueKey")));
             
             // Set renewal status to "completed" for completed issues
             contract.setRenewalStatus("completed");
@@ -1973,16 +2038,12 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
             try {
                 String email = clean(vendorDetails.get("requesterMail"));
                 if (email != null) {
-                    User requester = userRepository.findByEmail(email).orElse(null);
+                    JiraIdentityDirectory.UserScope requester = jiraIdentityDirectory.findUser(email);
                     if (requester != null) {
-                        contract.setRequester(requester);
-                        if (requester.getDepartment() != null) {
-                            contract.setRequesterDepartmentId(requester.getDepartment().getId());
-                        }
-                        
-                        if (requester.getOrganization() != null) {
-                            contract.setRequesterOrganizationId(requester.getOrganization().getId());
-                        }
+                        // A reference is enough to set the foreign key; the user is not loaded
+                        contract.setRequester(userRepository.getReferenceById(requester.userId()));
+                        contract.setRequesterDepartmentId(requester.departmentId());
+                        contract.setRequesterOrganizationId(requester.organizationId());
                     }
                 }
             } catch (Exception e) {
@@ -2122,70 +2183,8 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
             logger.info("Contract for completed issue saved successfully with ID: {}", savedContract.getId());
         } catch (Exception e) {
             logger.error("Error saving contract details for completed issue to database", e);
-            // Don't throw exception as we don't want to break the Jira issue creation if DB save fails
-        }
-    }
-    
-    /**
-     * Add an attachment to a Jira issue with the required X-Atlassian-Token header
-     * @param issueKey The issue key
-     * @param fileContent The file content as bytes
-     * @param fileName The name of the file
-     * @return JsonNode containing the response
-     * @throws Exception if the API call fails
-     */
-    public JsonNode addAttachmentToIssueJira(String issueKey, byte[] fileContent, String fileName) throws Exception {
-        try {
-            logger.info("Adding attachment to Jira issue with X-Atlassian-Token header: {}", issueKey);
-            
-            // Build the API URL for adding an attachment
-            String url = jiraConfig.getBaseUrl() + "/rest/api/3/issue/" + issueKey + "/attachments";
-            
-            // Create authorization header using email and API token
-            String credentials = jiraConfig.getEmail() + ":" + jiraConfig.getApiToken();
-            String encodedCredentials = Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
-            
-            // Build the URI
-            URI uri = UriComponentsBuilder.fromUriString(url).build().toUri();
-            
-            // Create headers for the request (different from regular API calls)
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.set("Authorization", "Basic " + encodedCredentials);
-            headers.set("X-Atlassian-Token", "no-check"); // Required for Jira Cloud
-            // Do not set Content-Type manually for multipart requests - let Spring handle it
-            
-            // Create multipart request
-            org.springframework.util.LinkedMultiValueMap<String, Object> body = new org.springframework.util.LinkedMultiValueMap<>();
-            
-            // Create a ByteArrayResource for the file content
-            org.springframework.core.io.ByteArrayResource fileResource = new org.springframework.core.io.ByteArrayResource(fileContent) {
-                @Override
-                public String getFilename() {
-                    return fileName;
-                }
-            };
-            
-            body.add("file", fileResource);
-            
-            // Create request entity
-            RequestEntity<org.springframework.util.MultiValueMap<String, Object>> requestEntity = 
-                RequestEntity.post(uri).headers(headers).body(body);
-            
-            // Make the API call
-            ResponseEntity<String> response = restTemplate.exchange(requestEntity, String.class);
-            
-            // Handle empty responses
-            String responseBody = response.getBody();
-            if (responseBody == null || responseBody.isEmpty()) {
-                // Return an empty JSON array for empty responses (Jira returns an array of attachment objects)
-                return objectMapper.readTree("[]");
-            }
-            
-            // Parse and return the response
-            return objectMapper.readTree(responseBody);
-        } catch (Exception e) {
-            logger.error("Error adding attachment to Jira issue: {}", issueKey, e);
-            throw new Exception("Failed to add attachment to issue " + issueKey + ": " + e.getMessage(), e);
+            // Rethrow so the completion outbox retries the save
+            throw e;
         }
     }
     
@@ -2272,12 +2271,8 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
         try {
             logger.info("Fetching current status for issue: {}", issueIdOrKey);
             
-            // Get the full issue details
-            JsonNode issue = getIssueByIdOrKey(issueIdOrKey);
-            
-            // Extract the status from the fields
-            JsonNode fields = issue.path("fields");
-            JsonNode status = fields.path("status");
+            // Only the status field is needed, usually from the field cache
+            JsonNode status = getIssueField(issueIdOrKey, "status");
             JsonNode statusName = status.path("name");
             
             String statusValue = statusName.asText();
@@ -2296,7 +2291,7 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
      * @param fieldId The field ID to extract
      * @return The field value as a string, or null if not found
      */
-    private String getTextValue(JsonNode fields, String fieldId) {
+    String getTextValue(JsonNode fields, String fieldId) {
         if (fields == null || fieldId == null) {
             return null;
         }
@@ -2331,32 +2326,8 @@ public JsonNode addAttachmentToIssue(String issueIdOrKey, byte[] fileContent, St
     }
 
     
-    public List<ContractDTO> getAllContractsDTO() {        return contractDetailsRepository.findAll().stream().map(c -> {
-            ContractDTO dto = new ContractDTO();
-
-            dto.setId(c.getId());
-            dto.setNameOfVendor(c.getNameOfVendor());
-            dto.setProductName(c.getProductName());
-            dto.setRequesterName(c.getRequesterName());
-            dto.setRequesterEmail(c.getRequesterMail());
-            dto.setRequesterDepartment(c.getRequesterDepartment());
-            dto.setVendorContractType(c.getVendorContractType());
-            dto.setAdditionalComment(c.getAdditionalComment());
-            
-            dto.setCurrentLicenseCount(c.getCurrentLicenseCount());
-            dto.setCurrentUsageCount(c.getCurrentUsageCount());
-            dto.setCurrentUnits(c.getCurrentUnits());
-
-            dto.setNewLicenseCount(c.getNewLicenseCount());
-            dto.setNewUsageCount(c.getNewUsageCount());
-            dto.setNewUnits(c.getNewUnits());
-
-            dto.setDueDate(c.getDueDate() != null ? c.getDueDate().toString() : null);
-            dto.setRenewalDate(c.getRenewalDate() != null ? c.getRenewalDate().toString() : null);
-
-
-            return dto;
-        }).collect(java.util.stream.Collectors.toList());
+    public List<ContractDTO> getAllContractsDTO() {
+        return contractDetailsService.getContractDTOs(null, null, null);
     }
 
 }
\ No newline at end of file
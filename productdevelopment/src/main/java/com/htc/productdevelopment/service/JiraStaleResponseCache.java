@@ -0,0 +1,173 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.htc.productdevelopment.exception.JiraCircuitOpenException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last good response of each Jira read, used as a stale-while-revalidate fallback.
+ * When Jira is unavailable (breaker open, I/O error or 5xx) a read is answered from here
+ * and the HTTP response is marked with X-Jira-Stale / X-Jira-Stale-Age headers; the next
+ * successful call replaces the entry.
+ */
+@Component
+public class JiraStaleResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraStaleResponseCache.class);
+
+    public static final String STALE_HEADER = "X-Jira-Stale";
+    public static final String STALE_AGE_HEADER = "X-Jira-Stale-Age";
+
+    @Value("${jira.circuit-breaker.stale-fallback-enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jira.circuit-breaker.stale-cache-max-entries:500}")
+    private int maxEntries = 500;
+
+    @Value("${jira.circuit-breaker.stale-max-age-minutes:1440}")
+    private long maxAgeMinutes = 1440;
+
+    // Access-ordered so the least recently used entry is evicted first
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong staleMisses = new AtomicLong();
+
+    private record Entry(JsonNode response, Instant storedAt) {}
+
+    /**
+     * Whether a request is a read whose response can be served stale
+     * @param url the request URL
+     * @param method the HTTP method
+     * @param body the request body, or null
+     * @return true for GETs and JQL searches
+     */
+    public boolean isCacheable(String url, HttpMethod method, Object body) {
+        if (!enabled || body instanceof MultiValueMap) {
+            return false;
+        }
+        return HttpMethod.GET.equals(method)
+                || (HttpMethod.POST.equals(method) && url.contains("/search/jql"));
+    }
+
+    /**
+     * Remember the last good response for a request.
+     * Responses from makeJiraApiCall are not modified by callers, so the node is kept as is.
+     * @param key request key from JiraRequestCoalescer.requestKey
+     * @param response the parsed response
+     */
+    public void put(String key, JsonNode response) {
+        synchronized (entries) {
+            entries.put(key, new Entry(response, Instant.now()));
+        }
+    }
+
+    /**
+     * Stale response to serve for a failed read, if the failure means Jira is unavailable
+     * @param key request key from JiraRequestCoalescer.requestKey
+     * @param failure the exception raised by the call
+     * @return a copy of the last good response, or null when none should be served
+     */
+    public JsonNode getFallback(String key, Exception failure) {
+        // Background work (sync, outbox) must see real failures and retry, never act on stale data
+        if (JiraCallPriority.current() == JiraCallPriority.BACKGROUND || !isUnavailable(failure)) {
+            return null;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        Duration age = entry != null ? Duration.between(entry.storedAt(), Instant.now()) : null;
+        if (entry == null || age.toMinutes() >= maxAgeMinutes) {
+            staleMisses.incrementAndGet();
+            return null;
+        }
+
+        staleServed.incrementAndGet();
+        logger.warn("Jira unavailable ({}), serving response cached {} s ago", failure.getMessage(), age.toSeconds());
+        markResponseStale(age);
+        return entry.response().deepCopy();
+    }
+
+    /**
+     * Drop the fallback responses of a deleted issue so it is never served again
+     * @param event issue change notification
+     */
+    @EventListener
+    public void onIssueChanged(JiraIssueChangedEvent event) {
+        if (!JiraIssueChangedEvent.DELETED.equals(event.changeType())) {
+            return;
+        }
+        String issuePath = "/issue/" + event.issueKey();
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.contains(issuePath + "?") || key.contains(issuePath + "/")
+                    || key.endsWith(issuePath));
+        }
+    }
+
+    /**
+     * Open breaker, transport errors and 5xx responses mean Jira is unavailable;
+     * 4xx responses are real answers and must not be masked by stale data
+     */
+    private boolean isUnavailable(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof JiraCircuitOpenException
+                    || t instanceof ResourceAccessException
+                    || t instanceof HttpServerErrorException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markResponseStale(Duration age) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletResponse response = servletAttributes.getResponse();
+            if (response != null && !response.isCommitted()) {
+                response.setHeader(STALE_HEADER, "true");
+                response.setHeader(STALE_AGE_HEADER, String.valueOf(age.toSeconds()));
+                response.setHeader("Warning", "110 - \"Response is Stale\"");
+            }
+        }
+    }
+
+    /**
+     * Fallback cache counters
+     * @return Map with entry count and stale hits/misses
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("staleServed", staleServed.get());
+        stats.put("staleMisses", staleMisses.get());
+        return stats;
+    }
+}
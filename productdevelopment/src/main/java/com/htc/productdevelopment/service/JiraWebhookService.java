@@ -0,0 +1,186 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.htc.productdevelopment.config.JiraFieldProjections;
+import com.htc.productdevelopment.config.JiraFieldView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Handles Jira issue webhooks (jira:issue_created, jira:issue_updated, jira:issue_deleted).
+ * Keeps the local mirror current, notifies caches, and enqueues contract completion when an
+ * issue moves to Completed, all from the event payload without calling back into Jira.
+ */
+@Service
+public class JiraWebhookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JiraWebhookService.class);
+
+    public static final String ISSUE_CREATED = "jira:issue_created";
+    public static final String ISSUE_UPDATED = "jira:issue_updated";
+    public static final String ISSUE_DELETED = "jira:issue_deleted";
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+
+    private final ContractCompletionOutboxService contractCompletionOutboxService;
+    private final JiraIssueSyncService jiraIssueSyncService;
+    private final JiraFieldProjections jiraFieldProjections;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jira.webhook.secret:}")
+    private String secret;
+
+    public JiraWebhookService(ContractCompletionOutboxService contractCompletionOutboxService,
+                              JiraIssueSyncService jiraIssueSyncService,
+                              JiraFieldProjections jiraFieldProjections,
+                              ApplicationEventPublisher eventPublisher,
+                              ObjectMapper objectMapper) {
+        this.contractCompletionOutboxService = contractCompletionOutboxService;
+        this.jiraIssueSyncService = jiraIssueSyncService;
+        this.jiraFieldProjections = jiraFieldProjections;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Check the shared secret of a webhook call.
+     * Accepts either an HMAC signature of the body (X-Hub-Signature: sha256=...) or the secret
+     * itself in a header or query parameter, for Jira setups that can only append it to the URL.
+     * @param rawBody the request body exactly as received
+     * @param signature value of the X-Hub-Signature header, or null
+     * @param providedSecret secret from the X-Jira-Webhook-Secret header or ?secret=, or null
+     * @return true when the call is authentic
+     */
+    public boolean isAuthentic(String rawBody, String signature, String providedSecret) {
+        if (secret == null || secret.isBlank()) {
+            logger.warn("Rejecting Jira webhook: jira.webhook.secret is not configured");
+            return false;
+        }
+        try {
+            if (signature != null && signature.startsWith(SIGNATURE_PREFIX)) {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+                String expected = HexFormat.of().formatHex(mac.doFinal(rawBody.getBytes(StandardCharsets.UTF_8)));
+                return constantTimeEquals(expected, signature.substring(SIGNATURE_PREFIX.length()).toLowerCase());
+            }
+            return providedSecret != null && constantTimeEquals(secret, providedSecret);
+        } catch (Exception e) {
+            logger.error("Error verifying Jira webhook signature", e);
+            return false;
+        }
+    }
+
+    private boolean constantTimeEquals(String a, String b) {
+        return MessageDigest.isEqual(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Apply one webhook event
+     * @param payload the parsed webhook body
+     * @return Map describing what was done with the event
+     */
+    public Map<String, Object> handleEvent(JsonNode payload) {
+        String eventType = payload.path("webhookEvent").asText("");
+        JsonNode issue = payload.path("issue");
+        String issueKey = issue.path("key").asText(null);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("event", eventType);
+        result.put("issueKey", issueKey);
+
+        if (issueKey == null) {
+            result.put("status", "IGNORED");
+            result.put("reason", "no issue in payload");
+            return result;
+        }
+
+        switch (eventType) {
+            case ISSUE_CREATED, ISSUE_UPDATED -> {
+                boolean mirrored = isMirroredProject(issue);
+                if (mirrored) {
+                    jiraIssueSyncService.upsertIssue(project(issue, JiraFieldView.LIST));
+                }
+                eventPublisher.publishEvent(new JiraIssueChangedEvent(issueKey,
+                        ISSUE_CREATED.equals(eventType) ? JiraIssueChangedEvent.CREATED : JiraIssueChangedEvent.UPDATED));
+
+                boolean completed = movedToCompleted(payload, issue);
+                if (completed) {
+                    logger.info("Webhook: issue {} moved to {}, enqueueing contract completion", issueKey, JiraService.COMPLETED_STATUS);
+                    contractCompletionOutboxService.enqueue(issueKey, ContractCompletionOutboxService.SOURCE_WEBHOOK,
+                            project(issue, JiraFieldView.CONTRACT_COMPLETION).path("fields"));
+                }
+                result.put("mirrored", mirrored);
+                result.put("completionEnqueued", completed);
+            }
+            case ISSUE_DELETED -> {
+                jiraIssueSyncService.deleteIssue(issueKey);
+                eventPublisher.publishEvent(new JiraIssueChangedEvent(issueKey, JiraIssueChangedEvent.DELETED));
+            }
+            default -> {
+                result.put("status", "IGNORED");
+                result.put("reason", "unsupported event type");
+                return result;
+            }
+        }
+
+        logger.info("Processed Jira webhook {} for {}", eventType, issueKey);
+        result.put("status", "PROCESSED");
+        return result;
+    }
+
+    private boolean isMirroredProject(JsonNode issue) {
+        String projectKey = issue.path("fields").path("project").path("key").asText(null);
+        if (projectKey == null) {
+            // Fall back to the key prefix, e.g. RM-123
+            String key = issue.path("key").asText("");
+            int dash = key.lastIndexOf('-');
+            projectKey = dash > 0 ? key.substring(0, dash) : null;
+        }
+        return jiraIssueSyncService.getProjectKey().equalsIgnoreCase(projectKey);
+    }
+
+    /**
+     * A status change to Completed in the changelog; for created events the current status is used
+     */
+    private boolean movedToCompleted(JsonNode payload, JsonNode issue) {
+        for (JsonNode item : payload.path("changelog").path("items")) {
+            if ("status".equalsIgnoreCase(item.path("field").asText())) {
+                return JiraService.COMPLETED_STATUS.equalsIgnoreCase(item.path("toString").asText());
+            }
+        }
+        return ISSUE_CREATED.equals(payload.path("webhookEvent").asText())
+                && JiraService.COMPLETED_STATUS.equalsIgnoreCase(issue.path("fields").path("status").path("name").asText());
+    }
+
+    /**
+     * Webhooks carry every field of the issue; keep only the fields of a projection
+     */
+    private JsonNode project(JsonNode issue, JiraFieldView view) {
+        ObjectNode trimmed = objectMapper.createObjectNode();
+        trimmed.set("id", issue.get("id"));
+        trimmed.set("key", issue.get("key"));
+        trimmed.set("self", issue.get("self"));
+        ObjectNode fields = trimmed.putObject("fields");
+        JsonNode source = issue.path("fields");
+        for (String field : jiraFieldProjections.fields(view)) {
+            if (source.has(field)) {
+                fields.set(field, source.get(field));
+            }
+        }
+        return trimmed;
+    }
+}
@@ -51,7 +51,7 @@ public class ManualSyncUtil {
         
         try {
             // Use FirebaseSyncService to sync a single user
-            User user = firebaseSyncService.syncFirebaseUserToDB(uid);
+            User user = firebaseSyncService.autoSyncUser(uid);
             logger.info("Successfully synced user to database: {} ({})", user.getEmail(), user.getUid());
             return true;
         } catch (Exception e) {
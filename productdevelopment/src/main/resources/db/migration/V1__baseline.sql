@@ -0,0 +1,291 @@
+-- Baseline schema, replacing schema.sql and Hibernate ddl-auto=update.
+-- Every statement is idempotent: on a fresh database it creates the schema the entities map,
+-- on a database built by the old startup scripts it only adds what is missing
+-- (Flyway baselines existing databases at version 0, so this script runs there too).
+
+-- -------------------------
+-- Organizations & users
+-- -------------------------
+CREATE TABLE IF NOT EXISTS departments (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS organizations (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    parent_id BIGINT REFERENCES organizations(id),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGSERIAL PRIMARY KEY,
+    uid VARCHAR(255) UNIQUE,
+    email VARCHAR(255) UNIQUE,
+    name VARCHAR(255),
+    department_id BIGINT REFERENCES departments(id),
+    avatar TEXT,
+    role VARCHAR(255),
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    organization_id BIGINT REFERENCES organizations(id),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_uid ON users(uid);
+CREATE INDEX IF NOT EXISTS idx_user_email ON users(email);
+CREATE INDEX IF NOT EXISTS idx_user_role ON users(role);
+CREATE INDEX IF NOT EXISTS idx_user_active ON users(active);
+
+CREATE TABLE IF NOT EXISTS user_departments (
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    department_id INTEGER NOT NULL REFERENCES departments(id),
+    PRIMARY KEY (department_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS invitations (
+    id BIGSERIAL PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    department_id BIGINT,
+    organization_id BIGINT,
+    invited_by VARCHAR(255),
+    token VARCHAR(255) NOT NULL UNIQUE,
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    used BOOLEAN NOT NULL DEFAULT FALSE,
+    sent BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+-- -------------------------
+-- Vendors & products
+-- -------------------------
+CREATE TABLE IF NOT EXISTS vendor_details (
+    id BIGSERIAL PRIMARY KEY,
+    name_of_vendor VARCHAR(500),
+    product_name VARCHAR(500),
+    product_link VARCHAR(500),
+    product_type VARCHAR(500),
+    vendor_owner VARCHAR(500),
+    department VARCHAR(500)
+);
+
+CREATE INDEX IF NOT EXISTS idx_vendor_details_product_type ON vendor_details(product_type);
+
+CREATE TABLE IF NOT EXISTS products (
+    product_id BIGSERIAL PRIMARY KEY,
+    product_name VARCHAR(500),
+    product_type VARCHAR(500)
+);
+
+CREATE TABLE IF NOT EXISTS vendor_profiles (
+    vendor_id BIGSERIAL PRIMARY KEY,
+    vendor_name VARCHAR(500),
+    vendor_owner VARCHAR(500),
+    department VARCHAR(500),
+    product_id BIGINT REFERENCES products(product_id)
+);
+
+-- -------------------------
+-- Contracts
+-- -------------------------
+CREATE TABLE IF NOT EXISTS contract_details (
+    id BIGSERIAL PRIMARY KEY,
+    contract_type VARCHAR(20),
+    renewal_status VARCHAR(50),
+    jira_issue_key VARCHAR(255),
+    name_of_vendor VARCHAR(500) NOT NULL,
+    product_name VARCHAR(500) NOT NULL,
+    contract_start_date DATE,
+    contract_end_date DATE,
+    quantity INTEGER,
+    unit VARCHAR(50),
+    vendor_contract_type VARCHAR(50),
+    additional_comment TEXT,
+    requester_name VARCHAR(255),
+    requester_mail VARCHAR(255),
+    requester_id BIGINT REFERENCES users(id),
+    requester_department VARCHAR(255),
+    requester_organization VARCHAR(255),
+    requester_department_id BIGINT,
+    requester_organization_id BIGINT,
+    current_license_count INTEGER,
+    current_usage_count INTEGER,
+    current_units VARCHAR(255),
+    new_license_count INTEGER,
+    new_usage_count INTEGER,
+    new_units VARCHAR(255),
+    due_date DATE,
+    renewal_date DATE,
+    attachments TEXT,
+    attachment_metadata TEXT,
+    license_update_type VARCHAR(255),
+    existing_contract_id VARCHAR(255),
+    billing_type VARCHAR(255),
+    contract_duration VARCHAR(255),
+    total_profit DOUBLE PRECISION
+);
+
+-- Case-insensitive lookup keys, kept up to date by the database on every insert and update
+ALTER TABLE contract_details ADD COLUMN IF NOT EXISTS vendor_key TEXT GENERATED ALWAYS AS (LOWER(BTRIM(name_of_vendor))) STORED;
+ALTER TABLE contract_details ADD COLUMN IF NOT EXISTS product_key TEXT GENERATED ALWAYS AS (LOWER(BTRIM(product_name))) STORED;
+ALTER TABLE contract_details ADD COLUMN IF NOT EXISTS renewal_status_key TEXT GENERATED ALWAYS AS (LOWER(BTRIM(renewal_status))) STORED;
+
+-- Left behind by earlier startup scripts; replaced by the key column indexes below
+DROP INDEX IF EXISTS idx_contract_details_vendor_product_renewal;
+DROP INDEX IF EXISTS idx_contract_details_status_renewal;
+
+CREATE INDEX IF NOT EXISTS idx_contract_details_contract_type ON contract_details(contract_type);
+-- Contract lookups by issue key (completion, final submit, duplicate checks)
+CREATE INDEX IF NOT EXISTS idx_contract_details_jira_issue_key ON contract_details(jira_issue_key);
+-- Vendor/product/status lookups and the contract search (/api/contracts/search):
+-- each filter leads, followed by the (renewal_date, id) seek key.
+-- idx_contract_details_status_key is the renewal status index: status lookups compare renewal_status_key
+CREATE INDEX IF NOT EXISTS idx_contract_details_renewal_date_id ON contract_details(renewal_date, id);
+CREATE INDEX IF NOT EXISTS idx_contract_details_vendor_key_product_key ON contract_details(vendor_key, product_key, renewal_date, id);
+CREATE INDEX IF NOT EXISTS idx_contract_details_status_key ON contract_details(renewal_status_key, renewal_date, id);
+CREATE INDEX IF NOT EXISTS idx_contract_details_org_dept_renewal ON contract_details(requester_organization_id, requester_department_id, renewal_date, id);
+CREATE INDEX IF NOT EXISTS idx_contract_details_dept_renewal ON contract_details(requester_department_id, renewal_date, id);
+CREATE INDEX IF NOT EXISTS idx_contract_details_due_date_id ON contract_details(due_date, id);
+
+CREATE TABLE IF NOT EXISTS contract_proposals (
+    id BIGSERIAL PRIMARY KEY,
+    contract_id BIGINT REFERENCES contract_details(id),
+    jira_issue_key VARCHAR(255),
+    proposal_number INTEGER,
+    proposal_type VARCHAR(255),
+    license_count INTEGER,
+    unit_cost DOUBLE PRECISION,
+    total_cost DOUBLE PRECISION,
+    comment TEXT,
+    created_at TIMESTAMP(6),
+    is_final BOOLEAN,
+    is_final_submitted BOOLEAN
+);
+
+-- Proposal lookups are derived *IgnoreCase queries: UPPER(jira_issue_key) = UPPER(?) ORDER BY proposal_number
+CREATE INDEX IF NOT EXISTS idx_contract_proposals_issue_key_number ON contract_proposals(UPPER(jira_issue_key), proposal_number);
+
+CREATE TABLE IF NOT EXISTS contract_attachments (
+    id BIGSERIAL PRIMARY KEY,
+    contract_id BIGINT REFERENCES contract_details(id),
+    jira_issue_key VARCHAR(255),
+    file_name VARCHAR(255),
+    file_url VARCHAR(255),
+    file_size BIGINT,
+    uploaded_by VARCHAR(255),
+    stage VARCHAR(255),
+    uploaded_at TIMESTAMP(6),
+    proposal_id BIGINT REFERENCES contract_proposals(id),
+    mime_type VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS proposals (
+    id BIGSERIAL PRIMARY KEY,
+    proposal_type VARCHAR(20) NOT NULL,
+    license_count VARCHAR(255),
+    unit_cost VARCHAR(255),
+    total_cost VARCHAR(255),
+    attachment_ids TEXT,
+    issue_key VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_proposals_issue_key ON proposals(issue_key);
+
+CREATE TABLE IF NOT EXISTS contract_completion_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    issue_key VARCHAR(50) NOT NULL CONSTRAINT uk_completion_outbox_issue_key UNIQUE,
+    source VARCHAR(20),
+    status VARCHAR(20) NOT NULL,
+    outcome VARCHAR(20),
+    fields_json TEXT,
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6),
+    locked_until TIMESTAMP(6),
+    last_error TEXT,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    completed_at TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_completion_outbox_status_next ON contract_completion_outbox(status, next_attempt_at);
+
+-- -------------------------
+-- Comments
+-- -------------------------
+CREATE TABLE IF NOT EXISTS comments (
+    id BIGSERIAL PRIMARY KEY,
+    issue_key VARCHAR(255) NOT NULL,
+    user_id BIGINT NOT NULL,
+    user_name VARCHAR(255) NOT NULL,
+    comment_text TEXT NOT NULL,
+    parent_comment_id BIGINT REFERENCES comments(id),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_comment_issue_key ON comments(issue_key);
+CREATE INDEX IF NOT EXISTS idx_comment_user_id ON comments(user_id);
+CREATE INDEX IF NOT EXISTS idx_comment_created_at ON comments(created_at);
+
+-- -------------------------
+-- Local Jira mirror
+-- -------------------------
+CREATE TABLE IF NOT EXISTS jira_projects (
+    id BIGSERIAL PRIMARY KEY,
+    project_id VARCHAR(255) UNIQUE,
+    key VARCHAR(255) UNIQUE,
+    name VARCHAR(255),
+    description TEXT,
+    project_type_key VARCHAR(255),
+    lead VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS jira_issues (
+    id BIGSERIAL PRIMARY KEY,
+    issue_id VARCHAR(255) UNIQUE,
+    key VARCHAR(255) UNIQUE,
+    summary VARCHAR(255),
+    description TEXT,
+    issue_type VARCHAR(255),
+    project_key VARCHAR(255),
+    reporter VARCHAR(255),
+    assignee VARCHAR(255),
+    status VARCHAR(255),
+    priority VARCHAR(255),
+    due_date DATE,
+    issue_number INTEGER,
+    jira_created TIMESTAMP(6) WITH TIME ZONE,
+    jira_updated TIMESTAMP(6) WITH TIME ZONE,
+    vendor_name VARCHAR(255),
+    product_name VARCHAR(255),
+    contract_type VARCHAR(255),
+    billing_type VARCHAR(255),
+    license_update_type VARCHAR(255),
+    requester_name VARCHAR(255),
+    requester_email VARCHAR(255),
+    organization VARCHAR(255),
+    department VARCHAR(255),
+    contract_due_date VARCHAR(255),
+    renewal_date VARCHAR(255),
+    raw_json TEXT,
+    synced_at TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_jira_issues_project_number ON jira_issues(project_key, issue_number);
+CREATE INDEX IF NOT EXISTS idx_jira_issues_org_dept ON jira_issues(organization, department);
+CREATE INDEX IF NOT EXISTS idx_jira_issues_requester_email ON jira_issues(requester_email);
+CREATE INDEX IF NOT EXISTS idx_jira_issues_updated ON jira_issues(jira_updated);
+
+CREATE TABLE IF NOT EXISTS jira_sync_state (
+    project_key VARCHAR(50) PRIMARY KEY,
+    watermark TIMESTAMP(6) WITH TIME ZONE,
+    last_run_started_at TIMESTAMP(6),
+    last_success_at TIMESTAMP(6),
+    last_full_sync_at TIMESTAMP(6),
+    last_status VARCHAR(255),
+    last_error TEXT,
+    last_issue_count INTEGER
+);
@@ -1,3 +1,5 @@
+-- Sample vendor catalogue, formerly data.sql (run on every startup); now applied once
+
 -- Update existing vendor details with product types
 -- For Microsoft products
 UPDATE vendor_details SET product_type = 'license' WHERE name_of_vendor = 'Microsoft' AND product_name = 'Office 365';
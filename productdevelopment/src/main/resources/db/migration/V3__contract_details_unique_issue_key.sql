@@ -0,0 +1,24 @@
+-- Contract writers upsert by issue key (INSERT ... ON CONFLICT (jira_issue_key)), which needs a unique index.
+-- Merge duplicate contracts first: keep the newest row per issue key and move its proposals and attachments onto it.
+UPDATE contract_proposals p
+SET contract_id = keep.id
+FROM contract_details dup
+JOIN (SELECT jira_issue_key, MAX(id) AS id FROM contract_details WHERE jira_issue_key IS NOT NULL GROUP BY jira_issue_key) keep
+  ON keep.jira_issue_key = dup.jira_issue_key
+WHERE p.contract_id = dup.id AND dup.id <> keep.id;
+
+UPDATE contract_attachments a
+SET contract_id = keep.id
+FROM contract_details dup
+JOIN (SELECT jira_issue_key, MAX(id) AS id FROM contract_details WHERE jira_issue_key IS NOT NULL GROUP BY jira_issue_key) keep
+  ON keep.jira_issue_key = dup.jira_issue_key
+WHERE a.contract_id = dup.id AND dup.id <> keep.id;
+
+DELETE FROM contract_details older
+USING contract_details newer
+WHERE older.jira_issue_key = newer.jira_issue_key AND older.id < newer.id;
+
+-- Databases created by the old schema.sql carry an unnamed UNIQUE constraint; replace it and the plain index with one named unique index
+ALTER TABLE contract_details DROP CONSTRAINT IF EXISTS contract_details_jira_issue_key_key;
+DROP INDEX IF EXISTS idx_contract_details_jira_issue_key;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_contract_details_jira_issue_key ON contract_details(jira_issue_key);
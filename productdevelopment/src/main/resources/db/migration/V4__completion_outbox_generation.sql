@@ -0,0 +1,3 @@
+-- Completion requests that arrive while a worker holds the entry bump the generation;
+-- the worker then requeues the entry instead of marking it DONE
+ALTER TABLE contract_completion_outbox ADD COLUMN IF NOT EXISTS generation BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,137 @@
+package com.htc.productdevelopment.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import com.htc.productdevelopment.config.JiraFieldView;
+import com.htc.productdevelopment.service.ContractDetailsService;
+import com.htc.productdevelopment.service.ContractProposalService;
+import com.htc.productdevelopment.service.JiraAttachmentService;
+import com.htc.productdevelopment.service.JiraService;
+import com.htc.productdevelopment.service.VendorDetailsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.function.ThrowingConsumer;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraControllerTest {
+
+    @Mock
+    private JiraService jiraService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JiraController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        controller = new JiraController(jiraService, mock(ContractDetailsService.class), mock(VendorDetailsService.class),
+                mock(ContractProposalService.class), mock(JiraFieldConfig.class));
+    }
+
+    private ArrayNode issues(String... keys) {
+        ArrayNode issues = objectMapper.createArrayNode();
+        for (String key : keys) {
+            issues.addObject().put("key", key);
+        }
+        return issues;
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testIssuesAreStreamedAsOneJsonLinePerIssue() throws Exception {
+        doAnswer(invocation -> {
+            ThrowingConsumer<JsonNode> pageConsumer = invocation.getArgument(5);
+            pageConsumer.accept(issues("RM-3", "RM-2"));
+            pageConsumer.accept(issues("RM-1"));
+            return null;
+        }).when(jiraService).streamIssues(eq("USER"), eq(1L), isNull(), isNull(), eq(JiraFieldView.LIST), any());
+
+        ResponseEntity<StreamingResponseBody> response = controller.streamAllIssues("USER", 1L, null, null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        String[] lines = body(response).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("RM-3", objectMapper.readTree(lines[0]).path("key").asText());
+        assertEquals("RM-1", objectMapper.readTree(lines[2]).path("key").asText());
+    }
+
+    @Test
+    void testFailureAfterFirstPageEndsWithErrorLine() throws Exception {
+        doAnswer(invocation -> {
+            ThrowingConsumer<JsonNode> pageConsumer = invocation.getArgument(5);
+            pageConsumer.accept(issues("RM-2"));
+            throw new IllegalStateException("Jira unavailable");
+        }).when(jiraService).streamIssues(any(), any(), any(), any(), any(), any());
+
+        String[] lines = body(controller.streamAllIssues("USER", 1L, null, null, "list")).split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals("RM-2", objectMapper.readTree(lines[0]).path("key").asText());
+        assertTrue(objectMapper.readTree(lines[1]).path("error").asText().contains("Jira unavailable"));
+    }
+
+    @Test
+    void testUnknownViewIsRejectedBeforeStreaming() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = controller.streamAllIssues("USER", 1L, null, null, "everything");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(objectMapper.readTree(body(response)).path("error").asText().startsWith("Unknown view"));
+        verifyNoInteractions(jiraService);
+    }
+
+    @Test
+    void testIssuesPageUsesCursorAndClampsPageSize() throws Exception {
+        JsonNode page = objectMapper.createObjectNode().put("isLast", true);
+        when(jiraService.getIssuesPage("USER", 1L, null, null, "token-2", 100, JiraFieldView.LIST)).thenReturn(page);
+
+        ResponseEntity<?> response = controller.getIssuesPage("USER", 1L, null, null, "token-2", 500, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void testIssuesPageRejectsUnknownView() throws Exception {
+        ResponseEntity<?> response = controller.getIssuesPage("USER", 1L, null, null, null, 50, "everything");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(((Map<?, ?>) response.getBody()).get("message").toString().startsWith("Unknown view"));
+        verifyNoInteractions(jiraService);
+    }
+
+    @Test
+    void testOversizeUploadIsAnsweredWith413() throws Exception {
+        JiraAttachmentService attachmentService = mock(JiraAttachmentService.class);
+        ReflectionTestUtils.setField(controller, "jiraAttachmentService", attachmentService);
+        MockMultipartFile file = new MockMultipartFile("file", "contract.pdf", "application/pdf", new byte[16]);
+        when(attachmentService.uploadToIssue("RM-1", file)).thenThrow(new MaxUploadSizeExceededException(8));
+
+        ResponseEntity<?> response = controller.uploadAttachment("RM-1", file);
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+        assertTrue(((Map<?, ?>) response.getBody()).get("error").toString().contains("8 bytes"));
+    }
+}
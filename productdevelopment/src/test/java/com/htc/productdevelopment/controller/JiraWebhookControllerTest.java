@@ -0,0 +1,63 @@
+package com.htc.productdevelopment.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.service.JiraWebhookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraWebhookControllerTest {
+
+    private static final String BODY = "{\"webhookEvent\":\"jira:issue_deleted\",\"issue\":{\"key\":\"RM-1\"}}";
+
+    @Mock
+    private JiraWebhookService jiraWebhookService;
+
+    private JiraWebhookController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        controller = new JiraWebhookController(jiraWebhookService, new ObjectMapper());
+        when(jiraWebhookService.handleEvent(any())).thenReturn(Map.of("status", "PROCESSED"));
+    }
+
+    @Test
+    void testHeaderSecretIsPassedToService() {
+        when(jiraWebhookService.isAuthentic(BODY, null, "from-header")).thenReturn(true);
+
+        ResponseEntity<?> response = controller.receiveWebhook(BODY, null, "from-header", "from-query");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(jiraWebhookService).isAuthentic(BODY, null, "from-header");
+    }
+
+    @Test
+    void testQuerySecretIsUsedWithoutHeader() {
+        when(jiraWebhookService.isAuthentic(BODY, null, "from-query")).thenReturn(true);
+
+        ResponseEntity<?> response = controller.receiveWebhook(BODY, null, null, "from-query");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(jiraWebhookService).handleEvent(any());
+    }
+
+    @Test
+    void testUnauthenticCallIsRejectedWithoutProcessing() {
+        when(jiraWebhookService.isAuthentic(anyString(), any(), any())).thenReturn(false);
+
+        ResponseEntity<?> response = controller.receiveWebhook(BODY, "sha256=00", null, null);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(jiraWebhookService, never()).handleEvent(any());
+    }
+}
@@ -0,0 +1,176 @@
+package com.htc.productdevelopment.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the case-insensitive contract lookups on PostgreSQL: the old
+ * UPPER(column) = UPPER(?) predicates that Spring Data derives for *IgnoreCase methods,
+ * which no index can serve, against the indexed vendor_key / product_key /
+ * renewal_status_key columns that ContractDetailsRepository now queries.
+ * The contract table is rebuilt as a temporary table with the same generated key columns
+ * and indexes as the V1 baseline migration, so nothing outside the benchmark session is touched.
+ * Not a unit test; point it at a scratch database and run it with
+ * BENCHMARK_JDBC_URL=jdbc:postgresql://localhost:5432/bench BENCHMARK_JDBC_USER=... BENCHMARK_JDBC_PASSWORD=...
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.htc.productdevelopment.repository.ContractLookupBenchmark
+ * The query plans for both forms are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContractLookupBenchmark {
+
+    private static final String UPPER_BY_VENDOR =
+            "SELECT id FROM contract_details_bench WHERE UPPER(name_of_vendor) = UPPER(?)";
+    private static final String KEY_BY_VENDOR =
+            "SELECT id FROM contract_details_bench WHERE vendor_key = LOWER(BTRIM(?))";
+    private static final String UPPER_BY_STATUS_VENDOR_PRODUCT =
+            "SELECT id FROM contract_details_bench WHERE UPPER(renewal_status) = UPPER(?)"
+            + " AND UPPER(name_of_vendor) = UPPER(?) AND UPPER(product_name) = UPPER(?)";
+    private static final String KEY_BY_STATUS_VENDOR_PRODUCT =
+            "SELECT id FROM contract_details_bench WHERE renewal_status_key = LOWER(BTRIM(?))"
+            + " AND vendor_key = LOWER(BTRIM(?)) AND product_key = LOWER(BTRIM(?))";
+
+    @Param({"100000"})
+    int contractCount;
+
+    private Connection connection;
+    private PreparedStatement upperByVendor;
+    private PreparedStatement keyByVendor;
+    private PreparedStatement upperByStatusVendorProduct;
+    private PreparedStatement keyByStatusVendorProduct;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String url = System.getenv("BENCHMARK_JDBC_URL");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("Set BENCHMARK_JDBC_URL (and BENCHMARK_JDBC_USER / BENCHMARK_JDBC_PASSWORD) to a scratch PostgreSQL database");
+        }
+        connection = DriverManager.getConnection(url, System.getenv("BENCHMARK_JDBC_USER"), System.getenv("BENCHMARK_JDBC_PASSWORD"));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TEMPORARY TABLE contract_details_bench (
+                    id BIGSERIAL PRIMARY KEY,
+                    name_of_vendor VARCHAR(255) NOT NULL,
+                    product_name VARCHAR(255) NOT NULL,
+                    renewal_status VARCHAR(50),
+                    renewal_date DATE,
+                    vendor_key TEXT GENERATED ALWAYS AS (LOWER(BTRIM(name_of_vendor))) STORED,
+                    product_key TEXT GENERATED ALWAYS AS (LOWER(BTRIM(product_name))) STORED,
+                    renewal_status_key TEXT GENERATED ALWAYS AS (LOWER(BTRIM(renewal_status))) STORED
+                )
+                """);
+            // ~50 contracts per vendor, vendor and status names in mixed case as users type them
+            statement.execute("""
+                INSERT INTO contract_details_bench (name_of_vendor, product_name, renewal_status, renewal_date)
+                SELECT CASE WHEN i % 3 = 0 THEN UPPER('Vendor ' || (i % 2000)) ELSE 'Vendor ' || (i % 2000) END,
+                       'Product ' || (i % 5000),
+                       (ARRAY['completed', 'Completed', 'Negotiation', 'In Progress'])[1 + (i / 7) % 4],
+                       DATE '2026-01-01' + (i % 730)
+                FROM generate_series(1, %d) AS i
+                """.formatted(contractCount));
+            statement.execute("CREATE INDEX ON contract_details_bench(vendor_key, product_key, renewal_date, id)");
+            statement.execute("CREATE INDEX ON contract_details_bench(renewal_status_key, renewal_date, id)");
+            statement.execute("ANALYZE contract_details_bench");
+        }
+
+        upperByVendor = prepare(UPPER_BY_VENDOR, "vendor 42");
+        keyByVendor = prepare(KEY_BY_VENDOR, "vendor 42");
+        upperByStatusVendorProduct = prepare(UPPER_BY_STATUS_VENDOR_PRODUCT, "COMPLETED", "vendor 42", "product 42");
+        keyByStatusVendorProduct = prepare(KEY_BY_STATUS_VENDOR_PRODUCT, "COMPLETED", "vendor 42", "product 42");
+
+        explain(UPPER_BY_VENDOR, "vendor 42");
+        explain(KEY_BY_VENDOR, "vendor 42");
+        explain(UPPER_BY_STATUS_VENDOR_PRODUCT, "COMPLETED", "vendor 42", "product 42");
+        explain(KEY_BY_STATUS_VENDOR_PRODUCT, "COMPLETED", "vendor 42", "product 42");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            // Closing the session drops the temporary table
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int vendorUpperScan() throws SQLException {
+        return countRows(upperByVendor);
+    }
+
+    @Benchmark
+    public int vendorKeyIndex() throws SQLException {
+        return countRows(keyByVendor);
+    }
+
+    @Benchmark
+    public int statusVendorProductUpperScan() throws SQLException {
+        return countRows(upperByStatusVendorProduct);
+    }
+
+    @Benchmark
+    public int statusVendorProductKeyIndex() throws SQLException {
+        return countRows(keyByStatusVendorProduct);
+    }
+
+    private PreparedStatement prepare(String sql, String... values) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < values.length; i++) {
+            statement.setString(i + 1, values[i]);
+        }
+        return statement;
+    }
+
+    private void explain(String sql, String... values) throws SQLException {
+        try (PreparedStatement statement = prepare("EXPLAIN (ANALYZE, BUFFERS) " + sql, values);
+             ResultSet plan = statement.executeQuery()) {
+            System.out.println(sql);
+            while (plan.next()) {
+                System.out.println("    " + plan.getString(1));
+            }
+        }
+    }
+
+    private static int countRows(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ContractLookupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,240 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.config.JiraFieldView;
+import com.htc.productdevelopment.model.ContractCompletionOutbox;
+import com.htc.productdevelopment.repository.ContractCompletionOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContractCompletionOutboxServiceTest {
+
+    @Mock
+    private ContractCompletionOutboxRepository outboxRepository;
+
+    @Mock
+    private JiraService jiraService;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ContractCompletionOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxService = new ContractCompletionOutboxService(outboxRepository, jiraService, executor, objectMapper);
+        ReflectionTestUtils.setField(outboxService, "enabled", true);
+        ReflectionTestUtils.setField(outboxService, "batchSize", 20);
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outboxService, "baseBackoffMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "maxBackoffMs", 60000L);
+        ReflectionTestUtils.setField(outboxService, "lockTimeoutMs", 120000L);
+
+        // Run workers inline so drain() processes the claimed entries before returning
+        when(executor.getMaxPoolSize()).thenReturn(4);
+        when(executor.getActiveCount()).thenReturn(0);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+    }
+
+    private ContractCompletionOutbox entry(Long id, String issueKey, int attempts, long generation) {
+        ContractCompletionOutbox entry = new ContractCompletionOutbox();
+        entry.setId(id);
+        entry.setIssueKey(issueKey);
+        entry.setSource(ContractCompletionOutboxService.SOURCE_TRANSITION);
+        entry.setStatus(ContractCompletionOutbox.STATUS_PROCESSING);
+        entry.setAttempts(attempts);
+        entry.setGeneration(generation);
+        when(outboxRepository.findById(id)).thenReturn(Optional.of(entry));
+        return entry;
+    }
+
+    private JsonNode issue(String status) {
+        return objectMapper.createObjectNode().set("fields",
+                objectMapper.createObjectNode().set("status", objectMapper.createObjectNode().put("name", status)));
+    }
+
+    private void due(Long... ids) {
+        when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(ids));
+    }
+
+    @Test
+    void testDrainProcessesClaimedEntriesAndSkipsLostClaims() throws Exception {
+        entry(1L, "RM-1", 1, 0);
+        entry(2L, "RM-2", 1, 0);
+        due(1L, 2L);
+        when(outboxRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        when(outboxRepository.claim(eq(2L), any(), any())).thenReturn(0);
+        when(jiraService.getIssueByIdOrKey("RM-1", JiraFieldView.CONTRACT_COMPLETION)).thenReturn(issue("Completed"));
+        when(outboxRepository.markDone(eq(1L), eq(0L), anyString(), any())).thenReturn(1);
+
+        outboxService.drain();
+
+        verify(jiraService).completeContractFromIssue(eq("RM-1"), any(JsonNode.class));
+        verify(outboxRepository).markDone(eq(1L), eq(0L), eq(ContractCompletionOutbox.OUTCOME_COMPLETED), any());
+        verify(outboxRepository, never()).findById(2L);
+        verify(outboxRepository, never()).requeue(anyLong(), any());
+    }
+
+    @Test
+    void testIssueNotCompletedIsDoneWithoutSavingContract() throws Exception {
+        entry(1L, "RM-1", 1, 0);
+        due(1L);
+        when(outboxRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        when(jiraService.getIssueByIdOrKey("RM-1", JiraFieldView.CONTRACT_COMPLETION)).thenReturn(issue("Negotiation"));
+        when(outboxRepository.markDone(anyLong(), anyLong(), anyString(), any())).thenReturn(1);
+
+        outboxService.drain();
+
+        verify(jiraService, never()).completeContractFromIssue(anyString(), any());
+        verify(outboxRepository).markDone(eq(1L), eq(0L), eq(ContractCompletionOutbox.OUTCOME_NOT_COMPLETED), any());
+    }
+
+    @Test
+    void testFailureIsRetriedWithExponentialBackoff() throws Exception {
+        entry(1L, "RM-1", 2, 0);
+        due(1L);
+        when(outboxRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        when(jiraService.getIssueByIdOrKey("RM-1", JiraFieldView.CONTRACT_COMPLETION)).thenThrow(new RuntimeException("Jira down"));
+        when(outboxRepository.markRetry(anyLong(), anyLong(), anyString(), any(), anyString(), any())).thenReturn(1);
+
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.drain();
+
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).markRetry(eq(1L), eq(0L), eq(ContractCompletionOutbox.STATUS_PENDING),
+                nextAttemptAt.capture(), eq("Jira down"), any());
+        // Second attempt: base << 1 = 2000 ms, plus up to 25% jitter
+        Duration delay = Duration.between(before, nextAttemptAt.getValue());
+        assertTrue(delay.toMillis() >= 2000, "delay " + delay);
+        assertTrue(delay.toMillis() <= 2500 + 1000, "delay " + delay);
+        verify(outboxRepository, never()).markDone(anyLong(), anyLong(), anyString(), any());
+    }
+
+    @Test
+    void testBackoffIsCappedAtMaximum() {
+        for (int attempts = 1; attempts < 40; attempts++) {
+            long backoff = outboxService.backoffMs(attempts);
+            assertTrue(backoff >= Math.min(60000L, 1000L << Math.min(attempts - 1, 20)));
+            assertTrue(backoff <= 75000L);
+        }
+    }
+
+    @Test
+    void testEntryFailsAfterMaxAttempts() throws Exception {
+        entry(1L, "RM-1", 3, 0);
+        due(1L);
+        when(outboxRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        when(jiraService.getIssueByIdOrKey("RM-1", JiraFieldView.CONTRACT_COMPLETION)).thenThrow(new RuntimeException("Jira down"));
+        when(outboxRepository.markRetry(anyLong(), anyLong(), anyString(), any(), anyString(), any())).thenReturn(1);
+
+        outboxService.drain();
+
+        verify(outboxRepository).markRetry(eq(1L), eq(0L), eq(ContractCompletionOutbox.STATUS_FAILED), any(), eq("Jira down"), any());
+        verify(outboxRepository, never()).requeue(anyLong(), any());
+    }
+
+    @Test
+    void testEnqueueWhileProcessingRequeuesInsteadOfFinishing() throws Exception {
+        // The stored generation, bumped by requestCompletion and checked by markDone like the real queries
+        AtomicLong generation = new AtomicLong(0);
+        entry(1L, "RM-1", 1, 0);
+        due(1L);
+        when(outboxRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        when(outboxRepository.requestCompletion(eq(List.of("RM-1")), anyString(), any(), any())).thenAnswer(invocation -> {
+            generation.incrementAndGet();
+            return 1;
+        });
+        when(outboxRepository.markDone(eq(1L), anyLong(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Long>getArgument(1) == generation.get() ? 1 : 0);
+        // The worker reads the issue before the transition to Completed lands and is enqueued again
+        when(jiraService.getIssueByIdOrKey("RM-1", JiraFieldView.CONTRACT_COMPLETION)).thenAnswer(invocation -> {
+            outboxService.enqueue("RM-1", ContractCompletionOutboxService.SOURCE_TRANSITION, null);
+            return issue("Negotiation");
+        });
+
+        outboxService.drain();
+
+        verify(outboxRepository).requestCompletion(eq(List.of("RM-1")), eq(ContractCompletionOutboxService.SOURCE_TRANSITION), isNull(), any());
+        verify(outboxRepository, never()).saveAndFlush(any());
+        verify(outboxRepository).markDone(eq(1L), eq(0L), eq(ContractCompletionOutbox.OUTCOME_NOT_COMPLETED), any());
+        verify(outboxRepository).requeue(eq(1L), any());
+    }
+
+    @Test
+    void testEnqueueWhileRetryingRequeuesInsteadOfBackingOff() throws Exception {
+        entry(1L, "RM-1", 3, 0);
+        due(1L);
+        when(outboxRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        when(jiraService.getIssueByIdOrKey("RM-1", JiraFieldView.CONTRACT_COMPLETION)).thenThrow(new RuntimeException("Jira down"));
+        // A webhook bumped the generation while the worker held the entry
+        when(outboxRepository.markRetry(anyLong(), anyLong(), anyString(), any(), anyString(), any())).thenReturn(0);
+
+        outboxService.drain();
+
+        verify(outboxRepository).requeue(eq(1L), any());
+    }
+
+    @Test
+    void testEnqueueInsertsNewEntry() {
+        when(outboxRepository.requestCompletion(anyCollection(), anyString(), any(), any())).thenReturn(0);
+        JsonNode fields = issue("Completed").path("fields");
+
+        outboxService.enqueue("RM-9", ContractCompletionOutboxService.SOURCE_WEBHOOK, fields);
+
+        ArgumentCaptor<ContractCompletionOutbox> saved = ArgumentCaptor.forClass(ContractCompletionOutbox.class);
+        verify(outboxRepository).saveAndFlush(saved.capture());
+        assertEquals("RM-9", saved.getValue().getIssueKey());
+        assertEquals(ContractCompletionOutbox.STATUS_PENDING, saved.getValue().getStatus());
+        assertEquals(fields.toString(), saved.getValue().getFieldsJson());
+        assertEquals(0, saved.getValue().getGeneration());
+    }
+
+    @Test
+    void testConcurrentInsertRecordsRequestOnExistingEntry() {
+        when(outboxRepository.requestCompletion(anyCollection(), anyString(), any(), any())).thenReturn(0, 1);
+        when(outboxRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        outboxService.enqueue("RM-9", ContractCompletionOutboxService.SOURCE_TRANSITION, null);
+
+        verify(outboxRepository, times(2)).requestCompletion(eq(List.of("RM-9")), anyString(), isNull(), any());
+    }
+
+    @Test
+    void testEnqueueAllRecordsExistingAndInsertsNew() {
+        when(outboxRepository.findExistingIssueKeys(anyCollection())).thenReturn(List.of("RM-1"));
+
+        outboxService.enqueueAll(List.of("RM-1", "RM-2", "RM-2"), ContractCompletionOutboxService.SOURCE_TRANSITION);
+
+        verify(outboxRepository).requestCompletion(eq(Set.of("RM-1")), eq(ContractCompletionOutboxService.SOURCE_TRANSITION), isNull(), any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ContractCompletionOutbox>> saved = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAllAndFlush(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals("RM-2", saved.getValue().get(0).getIssueKey());
+    }
+}
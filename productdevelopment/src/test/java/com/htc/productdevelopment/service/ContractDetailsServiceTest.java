@@ -0,0 +1,118 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import com.htc.productdevelopment.dto.ContractDTO;
+import com.htc.productdevelopment.model.ContractDetails;
+import com.htc.productdevelopment.repository.ContractDetailsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContractDetailsServiceTest {
+
+    @Mock
+    private ContractDetailsRepository contractDetailsRepository;
+
+    @Mock
+    private JiraService jiraService;
+
+    @Mock
+    private JiraFieldConfig jiraFieldConfig;
+
+    @Mock
+    private JiraFieldWriteBuffer jiraFieldWriteBuffer;
+
+    @Mock
+    private ContractUpsertService contractUpsertService;
+
+    private ContractDetailsService contractDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        contractDetailsService = new ContractDetailsService(contractDetailsRepository, jiraService, jiraFieldConfig, jiraFieldWriteBuffer,
+                contractUpsertService);
+    }
+
+    @Test
+    void testContractDTOsComeFromProjectionQueries() {
+        ContractDTO dto = new ContractDTO(1L, "new", "completed", "RM-1", "Microsoft", "Office 365",
+                "Jane", "jane@example.com", "IT", "HTC", "License", null,
+                10, null, "users", 12, null, "users",
+                LocalDate.of(2026, 2, 1), LocalDate.of(2027, 1, 31),
+                "upgrade", null, "annual", "12", 1500.0);
+        when(contractDetailsRepository.findContractDTOsByRenewalStatus("completed")).thenReturn(List.of(dto));
+        when(contractDetailsRepository.findContractDTOsByRenewalStatusAndVendorAndProduct("completed", "Microsoft", "Office 365"))
+                .thenReturn(List.of(dto));
+
+        assertEquals(List.of(dto), contractDetailsService.getContractsByTypeAsDTO("existing"));
+        assertEquals(List.of(dto), contractDetailsService.getContractDTOs("completed", "Microsoft", "Office 365"));
+        contractDetailsService.getContractDTOs(null, null, null);
+
+        assertEquals("2027-01-31", dto.getRenewalDate());
+        verify(contractDetailsRepository).findAllContractDTOs();
+        verify(contractDetailsRepository, never()).findAll();
+        verify(contractDetailsRepository, never()).findByRenewalStatusIgnoreCase(anyString());
+    }
+
+    @Test
+    void testLicenseCountAndProfitAreQueuedAsOneJiraWrite() throws Exception {
+        when(jiraFieldConfig.getNewLicenseCount()).thenReturn("customfield_10296");
+        when(jiraFieldConfig.getTotaloptimizedcost()).thenReturn("customfield_10471");
+        when(jiraService.getIssueStatus("RM-2")).thenReturn("Negotiation");
+
+        contractDetailsService.updateLicenseCountAndProfit("RM-2", 25, 900.0);
+
+        verify(jiraFieldWriteBuffer, times(1)).write("RM-2", Map.of("customfield_10296", "25", "customfield_10471", "900.0"));
+        verify(jiraService, never()).updateIssue(anyString(), anyMap());
+    }
+
+    @Test
+    void testCompletedContractIsSavedWithOneUpsert() {
+        ContractDetails incoming = new ContractDetails();
+        incoming.setJiraIssueKey("RM-3");
+        incoming.setNameOfVendor("Microsoft");
+        incoming.setProductName("Office 365");
+        incoming.setNewLicenseCount(12);
+        incoming.setTotalOptimizedCost(1500.0);
+        incoming.setRenewalDate(LocalDate.of(2027, 1, 31));
+        ContractDetails stored = new ContractDetails();
+        stored.setId(7L);
+        stored.setJiraIssueKey("RM-3");
+        when(contractUpsertService.upsertByJiraIssueKey(eq("RM-3"), anyMap())).thenReturn(stored);
+
+        ContractDetails saved = contractDetailsService.saveCompletedContract(incoming);
+
+        assertSame(stored, saved);
+        verify(contractUpsertService).upsertByJiraIssueKey(eq("RM-3"), argThat(columns ->
+                "completed".equals(columns.get("renewal_status"))
+                && "existing".equals(columns.get("contract_type"))
+                && "Microsoft".equals(columns.get("name_of_vendor"))
+                && Integer.valueOf(12).equals(columns.get("new_license_count"))
+                && Double.valueOf(1500.0).equals(columns.get("total_profit"))
+                && LocalDate.of(2027, 1, 31).equals(columns.get("renewal_date"))));
+        verify(contractDetailsRepository, never()).findByJiraIssueKey(anyString());
+        verify(contractDetailsRepository, never()).save(any());
+    }
+
+    @Test
+    void testFinalQuoteSubmittedOnlyWritesStatus() {
+        ContractDetails stored = new ContractDetails();
+        stored.setId(8L);
+        when(contractUpsertService.upsertByJiraIssueKey(eq("RM-4"), anyMap())).thenReturn(stored);
+
+        assertEquals(8L, contractDetailsService.markFinalQuoteSubmitted("RM-4").getId());
+
+        verify(contractUpsertService).upsertByJiraIssueKey("RM-4", Map.of("renewal_status", "final_quote_submitted"));
+        verify(contractDetailsRepository, never()).findByJiraIssueKey(anyString());
+    }
+}
@@ -0,0 +1,118 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.dto.ContractSummaryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ContractSearchServiceTest {
+
+    private static final ContractSearchService.Filter NO_FILTER =
+            new ContractSearchService.Filter(null, null, null, null, null, null, null, null, null);
+
+    private ContractSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        // The database query is stubbed; these tests cover paging and cursors
+        searchService = spy(new ContractSearchService());
+    }
+
+    private static ContractSummaryDTO contract(long id, String renewalDate) {
+        ContractSummaryDTO dto = new ContractSummaryDTO();
+        dto.setId(id);
+        dto.setRenewalDate(renewalDate);
+        return dto;
+    }
+
+    private static List<ContractSummaryDTO> contracts(ContractSummaryDTO... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    @Test
+    void testFullPageReturnsCursorAfterLastRow() {
+        doReturn(contracts(contract(30, null), contract(29, null), contract(28, null)))
+                .when(searchService).seek(eq(NO_FILTER), eq(ContractSearchService.SortOrder.ID_DESC), isNull(), eq(3), eq(false));
+
+        ContractSearchService.Page page = searchService.search(NO_FILTER, ContractSearchService.SortOrder.ID_DESC, null, 2);
+
+        assertEquals(2, page.contracts().size());
+        assertFalse(page.isLast());
+        ContractSearchService.Cursor cursor = ContractSearchService.Cursor.decode(page.nextCursor());
+        assertEquals(29L, cursor.id());
+        assertEquals(ContractSearchService.SortOrder.ID_DESC, cursor.sort());
+    }
+
+    @Test
+    void testNextPageSeeksAfterCursor() {
+        String cursor = new ContractSearchService.Cursor(ContractSearchService.SortOrder.ID_DESC, false, null, 29).encode();
+        doReturn(contracts(contract(28, null))).when(searchService).seek(any(), any(), any(), anyInt(), anyBoolean());
+
+        ContractSearchService.Page page = searchService.search(NO_FILTER, ContractSearchService.SortOrder.ID_DESC, cursor, 2);
+
+        assertTrue(page.isLast());
+        assertNull(page.nextCursor());
+        verify(searchService).seek(eq(NO_FILTER), eq(ContractSearchService.SortOrder.ID_DESC),
+                argThat(after -> after.id() == 29L), eq(3), eq(false));
+    }
+
+    @Test
+    void testRenewalOrderContinuesWithContractsWithoutRenewalDate() {
+        ContractSearchService.SortOrder sort = ContractSearchService.SortOrder.RENEWAL_ASC;
+        doReturn(contracts(contract(7, "2026-01-31"))).when(searchService).seek(eq(NO_FILTER), eq(sort), isNull(), eq(3), eq(false));
+        doReturn(contracts(contract(2, null), contract(5, null))).when(searchService).seek(eq(NO_FILTER), eq(sort), isNull(), eq(2), eq(true));
+
+        ContractSearchService.Page page = searchService.search(NO_FILTER, sort, null, 2);
+
+        assertEquals(List.of(7L, 2L), page.contracts().stream().map(ContractSummaryDTO::getId).toList());
+        ContractSearchService.Cursor cursor = ContractSearchService.Cursor.decode(page.nextCursor());
+        assertTrue(cursor.nullRenewal());
+        assertEquals(2L, cursor.id());
+
+        // The next page only reads contracts without a renewal date
+        doReturn(contracts(contract(5, null))).when(searchService).seek(eq(NO_FILTER), eq(sort), eq(cursor), eq(3), eq(true));
+        ContractSearchService.Page next = searchService.search(NO_FILTER, sort, page.nextCursor(), 2);
+
+        assertTrue(next.isLast());
+        verify(searchService, never()).seek(any(), any(), eq(cursor), anyInt(), eq(false));
+    }
+
+    @Test
+    void testRenewalDateRangeSkipsContractsWithoutRenewalDate() {
+        ContractSearchService.Filter filter = new ContractSearchService.Filter(null, null, null, null, null,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 31), null, null);
+        doReturn(contracts(contract(7, "2026-01-31"))).when(searchService).seek(any(), any(), any(), anyInt(), eq(false));
+
+        ContractSearchService.Page page = searchService.search(filter, ContractSearchService.SortOrder.RENEWAL_DESC, null, 10);
+
+        assertTrue(page.isLast());
+        verify(searchService, never()).seek(any(), any(), any(), anyInt(), eq(true));
+    }
+
+    @Test
+    void testCursorRoundTripKeepsRenewalDate() {
+        ContractSearchService.Cursor cursor = new ContractSearchService.Cursor(
+                ContractSearchService.SortOrder.RENEWAL_DESC, false, LocalDate.of(2026, 5, 1), 42);
+
+        assertEquals(cursor, ContractSearchService.Cursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testInvalidCursorAndSortAreRejected() {
+        String idCursor = new ContractSearchService.Cursor(ContractSearchService.SortOrder.ID_DESC, false, null, 5).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(NO_FILTER, ContractSearchService.SortOrder.RENEWAL_ASC, idCursor, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(NO_FILTER, ContractSearchService.SortOrder.ID_DESC, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> ContractSearchService.SortOrder.fromParam("vendor"));
+        assertEquals(ContractSearchService.SortOrder.RENEWAL_ASC, ContractSearchService.SortOrder.fromParam("renewal_asc"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.htc.productdevelopment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractUpsertServiceTest {
+
+    private final ContractUpsertService upsertService = new ContractUpsertService();
+
+    @Test
+    void testUpsertSqlUpdatesOnlyGivenColumns() {
+        String sql = ContractUpsertService.upsertSql(List.of("renewal_status", "total_profit"));
+
+        assertEquals("INSERT INTO contract_details (jira_issue_key, renewal_status, total_profit) VALUES (?1, ?2, ?3)"
+                + " ON CONFLICT (jira_issue_key) DO UPDATE SET renewal_status = EXCLUDED.renewal_status,"
+                + " total_profit = EXCLUDED.total_profit RETURNING *", sql);
+    }
+
+    @Test
+    void testUpsertSqlWithoutColumnsStillReturnsExistingRow() {
+        String sql = ContractUpsertService.upsertSql(List.of());
+
+        assertTrue(sql.endsWith("ON CONFLICT (jira_issue_key) DO UPDATE SET jira_issue_key = EXCLUDED.jira_issue_key RETURNING *"));
+    }
+
+    @Test
+    void testUnknownColumnsAndValueTypesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> upsertService.upsertByJiraIssueKey("RM-1", Map.of("id", 5L)));
+        assertThrows(IllegalArgumentException.class,
+                () -> upsertService.upsertByJiraIssueKey("RM-1", Map.of("new_license_count", "12")));
+        assertThrows(IllegalArgumentException.class,
+                () -> upsertService.upsertByJiraIssueKey(" ", Map.of("renewal_status", "completed")));
+    }
+}
@@ -0,0 +1,242 @@
+package com.htc.productdevelopment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraAttachmentDiskCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Mock
+    private JiraService jiraService;
+
+    @Mock
+    private ThreadPoolTaskExecutor warmExecutor;
+
+    private JiraAttachmentDiskCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        cache = new JiraAttachmentDiskCache(jiraService, warmExecutor);
+        ReflectionTestUtils.setField(cache, "directory", cacheDir.toString());
+        cache.init();
+    }
+
+    private JiraAttachmentDiskCache.CachedAttachment put(String attachmentId, String body) throws Exception {
+        try (JiraAttachmentDiskCache.PendingAttachment pending = cache.begin(attachmentId, body.length())) {
+            pending.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            return pending.commit("application/pdf", null);
+        }
+    }
+
+    @Test
+    void testCommittedBodyIsStoredUnderItsHash() throws Exception {
+        JiraAttachmentDiskCache.CachedAttachment stored = put("10001", "contract");
+
+        JiraAttachmentDiskCache.CachedAttachment cached = cache.get("10001");
+        assertNotNull(cached);
+        assertEquals(stored.sha256(), cached.sha256());
+        assertEquals(cached.sha256(), cached.file().getFileName().toString());
+        assertEquals("contract", Files.readString(cached.file()));
+        assertEquals(8, cached.size());
+        assertEquals("application/pdf", cached.contentType());
+    }
+
+    @Test
+    void testDiscardedBodyLeavesNothingBehind() throws Exception {
+        try (JiraAttachmentDiskCache.PendingAttachment pending = cache.begin("10001", 8)) {
+            pending.getOutputStream().write("contr".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertNull(cache.get("10001"));
+        try (var files = Files.list(cacheDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testSameContentIsStoredOnce() throws Exception {
+        JiraAttachmentDiskCache.CachedAttachment first = put("10001", "same pdf");
+        JiraAttachmentDiskCache.CachedAttachment second = put("10002", "same pdf");
+
+        assertEquals(first.file(), second.file());
+        assertEquals(1, cache.getStats().get("blobs"));
+        assertEquals(8L, cache.getStats().get("sizeBytes"));
+
+        // The blob stays until no attachment uses it
+        cache.evict("10001");
+        assertTrue(Files.exists(second.file()));
+        cache.evict("10002");
+        assertFalse(Files.exists(second.file()));
+    }
+
+    @Test
+    void testSameAttachmentStoredTwiceKeepsItsBlob() throws Exception {
+        // Two misses for one attachment racing, or a warm racing a download
+        put("10001", "contract");
+        put("10001", "contract");
+
+        try (JiraAttachmentDiskCache.PinnedAttachment pinned = cache.acquire("10001")) {
+            assertNotNull(pinned);
+            assertEquals("contract", Files.readString(pinned.attachment().file()));
+        }
+        assertEquals(1, cache.getStats().get("blobs"));
+        assertEquals(8L, cache.getStats().get("sizeBytes"));
+
+        // Still one reference: evicting the attachment deletes the blob
+        Path blob = cache.get("10001").file();
+        cache.evict("10001");
+        assertFalse(Files.exists(blob));
+        assertEquals(0L, cache.getStats().get("sizeBytes"));
+    }
+
+    @Test
+    void testSameAttachmentStoredTwiceWhileServedKeepsItsBlob() throws Exception {
+        put("10001", "contract");
+        try (JiraAttachmentDiskCache.PinnedAttachment pinned = cache.acquire("10001")) {
+            put("10001", "contract");
+        }
+
+        assertEquals("contract", Files.readString(cache.get("10001").file()));
+        assertEquals(1, cache.getStats().get("blobs"));
+        assertEquals(0, cache.getStats().get("drainingBlobs"));
+    }
+
+    @Test
+    void testLeastRecentlyServedIsEvictedFirst() throws Exception {
+        // 1 MB limit, bodies just under 400 KB: the third one pushes the total over
+        ReflectionTestUtils.setField(cache, "maxSizeMb", 1L);
+        String body = "x".repeat(400 * 1024 - 10);
+        put("10001", body + "a");
+        put("10002", body + "b");
+        cache.get("10001");
+        put("10003", body + "c");
+
+        assertNotNull(cache.get("10001"));
+        assertNull(cache.get("10002"));
+        assertNotNull(cache.get("10003"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    void testOversizedBodiesAreNotCached() throws Exception {
+        ReflectionTestUtils.setField(cache, "maxFileMb", 0L);
+
+        assertNull(cache.begin("10001", 10));
+        assertFalse(cache.accepts(10));
+
+        // Unknown length is accepted up front and rejected on commit
+        try (JiraAttachmentDiskCache.PendingAttachment pending = cache.begin("10001", -1)) {
+            pending.getOutputStream().write("contract".getBytes(StandardCharsets.UTF_8));
+            assertNull(pending.commit("application/pdf", null));
+        }
+        assertNull(cache.get("10001"));
+    }
+
+    @Test
+    void testWarmDownloadsIntoTheCacheInTheBackground() throws Exception {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentLength(8);
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/pdf");
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream("contract".getBytes(StandardCharsets.UTF_8)));
+        when(jiraService.streamAttachmentContent(eq("10001"), any(HttpHeaders.class), any()))
+                .thenAnswer(invocation -> invocation.<ResponseExtractor<?>>getArgument(2).extractData(response));
+
+        cache.warm("10001", 8);
+        // A second warm-up while the first is queued is dropped
+        cache.warm("10001", 8);
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(warmExecutor).execute(task.capture());
+        task.getValue().run();
+
+        assertEquals("contract", Files.readString(cache.get("10001").file()));
+        // Already cached, nothing to do
+        cache.warm("10001", 8);
+        verifyNoMoreInteractions(warmExecutor);
+    }
+
+    @Test
+    void testPinnedBlobIsDeletedOnlyAfterTheLastUnpin() throws Exception {
+        put("10001", "contract");
+        JiraAttachmentDiskCache.PinnedAttachment first = cache.acquire("10001");
+        JiraAttachmentDiskCache.PinnedAttachment second = cache.acquire("10001");
+        Path blob = first.attachment().file();
+
+        cache.clear();
+        assertNull(cache.get("10001"));
+        assertTrue(Files.exists(blob));
+        assertEquals(1, cache.getStats().get("drainingBlobs"));
+
+        first.close();
+        // Closing twice does not release the other response's pin
+        first.close();
+        assertTrue(Files.exists(blob));
+        second.close();
+        assertFalse(Files.exists(blob));
+        assertEquals(0, cache.getStats().get("drainingBlobs"));
+    }
+
+    @Test
+    void testSameBodyStoredWhileDrainingReusesTheBlob() throws Exception {
+        put("10001", "contract");
+        JiraAttachmentDiskCache.PinnedAttachment pinned = cache.acquire("10001");
+        cache.evict("10001");
+
+        put("10002", "contract");
+        pinned.close();
+
+        assertEquals("contract", Files.readString(cache.get("10002").file()));
+        assertEquals(8L, cache.getStats().get("sizeBytes"));
+    }
+
+    @Test
+    void testStartupRemovesOnlyCacheFiles() throws Exception {
+        Path blob = Files.writeString(cacheDir.resolve("a".repeat(64)), "old");
+        Path temp = Files.writeString(cacheDir.resolve("tmp-" + UUID.randomUUID()), "partial");
+        Path other = Files.writeString(cacheDir.resolve("notes.txt"), "keep");
+        Path subdirectory = Files.createDirectory(cacheDir.resolve("b".repeat(64)));
+
+        cache.init();
+
+        assertFalse(Files.exists(blob));
+        assertFalse(Files.exists(temp));
+        assertTrue(Files.exists(other));
+        assertTrue(Files.isDirectory(subdirectory));
+    }
+
+    @Test
+    void testAttachmentIdIsReadFromContentUrls() {
+        assertEquals("10001", JiraAttachmentDiskCache.jiraAttachmentId("/api/jira/contracts/attachments/10001/content"));
+        assertEquals("10001", JiraAttachmentDiskCache.jiraAttachmentId("http://localhost:8080/api/jira/attachment/content/10001"));
+        assertEquals("10001", JiraAttachmentDiskCache.jiraAttachmentId("https://example.atlassian.net/rest/api/3/attachment/content/10001?redirect=false"));
+        assertNull(JiraAttachmentDiskCache.jiraAttachmentId("https://files.example.com/contract.pdf"));
+        assertNull(JiraAttachmentDiskCache.jiraAttachmentId(""));
+        assertNull(JiraAttachmentDiskCache.jiraAttachmentId(null));
+    }
+}
@@ -0,0 +1,476 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.config.JiraConfig;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraAttachmentServiceTest {
+
+    private static final byte[] BODY = "%PDF-1.7 signed contract body".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private JiraService jiraService;
+
+    @Mock
+    private JiraAttachmentDiskCache attachmentCache;
+
+    private JiraAttachmentService attachmentService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        attachmentService = new JiraAttachmentService(jiraService, mock(JiraConfig.class), new ObjectMapper(),
+                mock(RestTemplate.class), mock(CloseableHttpClient.class), attachmentCache);
+    }
+
+    @Test
+    void fullBodyIsPassedThrough() throws Exception {
+        HttpHeaders headers = withLength(BODY.length);
+        headers.setETag("\"v1\"");
+        answerWith(HttpStatus.OK, new ByteArrayInputStream(BODY), headers);
+
+        MockHttpServletResponse response = download(new MockHttpServletRequest());
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+        assertEquals(MediaType.APPLICATION_PDF_VALUE, response.getHeader(HttpHeaders.CONTENT_TYPE));
+        assertEquals("\"v1\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+    }
+
+    @Test
+    void rangeAndConditionalHeadersAreForwarded() throws Exception {
+        answerWith(HttpStatus.PARTIAL_CONTENT, new ByteArrayInputStream(BODY, 0, 4));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer client-token");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("%PDF", response.getContentAsString());
+        verify(jiraService).streamAttachmentContent(eq("10001"), argThat(forwarded ->
+                "bytes=0-3".equals(forwarded.getFirst(HttpHeaders.RANGE))
+                        && "\"v1\"".equals(forwarded.getFirst(HttpHeaders.IF_NONE_MATCH))
+                        && !forwarded.containsKey(HttpHeaders.AUTHORIZATION)), any());
+    }
+
+    @Test
+    void notModifiedIsPassedThrough() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        answerWith(HttpStatus.NOT_MODIFIED, InputStream.nullInputStream(), headers);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals("\"v1\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void jiraClientErrorIsPassedThrough() throws Exception {
+        when(jiraService.streamAttachmentContent(anyString(), any(HttpHeaders.class), any()))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), null, null));
+
+        MockHttpServletResponse response = download(new MockHttpServletRequest());
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    void rangeIgnoredByJiraIsAppliedByTheProxy() throws Exception {
+        answerWith(HttpStatus.OK, new ByteArrayInputStream(BODY), withLength(BODY.length));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=1-3");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 1-3/" + BODY.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("PDF", response.getContentAsString());
+        assertEquals(3, response.getContentLengthLong());
+    }
+
+    @Test
+    void unsatisfiableRangeIsAnswered416() throws Exception {
+        answerWith(HttpStatus.OK, new ByteArrayInputStream(BODY), withLength(BODY.length));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=" + BODY.length + "-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + BODY.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void rangeStartTooLongForALongIsAnswered416() throws Exception {
+        answerWith(HttpStatus.OK, new ByteArrayInputStream(BODY), withLength(BODY.length));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=" + "9".repeat(40) + "-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + BODY.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void staleIfRangeGetsTheWholeBody() throws Exception {
+        HttpHeaders headers = withLength(BODY.length);
+        headers.setETag("\"v2\"");
+        answerWith(HttpStatus.OK, new ByteArrayInputStream(BODY), headers);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=1-3");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"v1\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void matchingIfRangeGetsTheRange() throws Exception {
+        HttpHeaders headers = withLength(BODY.length);
+        headers.setETag("\"v1\"");
+        answerWith(HttpStatus.OK, new ByteArrayInputStream(BODY), headers);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=-4");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"v1\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("body", response.getContentAsString());
+    }
+
+    @Test
+    void fullBodyIsWrittenToTheCacheWhileStreaming(@TempDir Path cacheDir) throws Exception {
+        JiraAttachmentDiskCache realCache = diskCache(cacheDir);
+        attachmentService = new JiraAttachmentService(jiraService, mock(JiraConfig.class), new ObjectMapper(),
+                mock(RestTemplate.class), mock(CloseableHttpClient.class), realCache);
+        answerWith(HttpStatus.OK, new ByteArrayInputStream(BODY), withLength(BODY.length));
+
+        MockHttpServletResponse response = download(new MockHttpServletRequest());
+
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+        JiraAttachmentDiskCache.CachedAttachment cached = realCache.get("10001");
+        assertNotNull(cached);
+        assertArrayEquals(BODY, Files.readAllBytes(cached.file()));
+        assertEquals(MediaType.APPLICATION_PDF_VALUE, cached.contentType());
+    }
+
+    @Test
+    void cachedAttachmentIsServedWithoutCallingJira(@TempDir Path cacheDir) throws Exception {
+        when(attachmentCache.acquire("10001")).thenReturn(pinned(cacheDir));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=1-3");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("PDF", response.getContentAsString());
+        assertEquals("bytes 1-3/" + BODY.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("\"abc123\"", response.getHeader(HttpHeaders.ETAG));
+        verifyNoInteractions(jiraService);
+    }
+
+    @Test
+    void cachedAttachmentAnswersNotModified(@TempDir Path cacheDir) throws Exception {
+        when(attachmentCache.acquire("10001")).thenReturn(pinned(cacheDir));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc123\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void cachedAttachmentIsWrittenBeforeTheHandlerReturnsAndThenUnpinned(@TempDir Path cacheDir) throws Exception {
+        when(attachmentCache.acquire("10001")).thenReturn(pinned(cacheDir));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        // Even where the connector offers sendfile, the body is not left for it to read later
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(BODY.length, response.getContentLengthLong());
+        assertArrayEquals(BODY, response.getContentAsByteArray());
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        verify(attachmentCache).unpin("abc123");
+    }
+
+    @Test
+    void attachmentEvictedWhileServedIsDeletedAfterTheResponse(@TempDir Path cacheDir) throws Exception {
+        JiraAttachmentDiskCache realCache = diskCache(cacheDir);
+        attachmentService = new JiraAttachmentService(jiraService, mock(JiraConfig.class), new ObjectMapper(),
+                mock(RestTemplate.class), mock(CloseableHttpClient.class), realCache);
+        answerWith(HttpStatus.OK, new ByteArrayInputStream(BODY), withLength(BODY.length));
+        download(new MockHttpServletRequest());
+        Path blob = realCache.get("10001").file();
+
+        try (JiraAttachmentDiskCache.PinnedAttachment pinned = realCache.acquire("10001")) {
+            // An eviction during the response leaves the file in place
+            assertTrue(realCache.evict("10001"));
+            assertArrayEquals(BODY, Files.readAllBytes(pinned.attachment().file()));
+        }
+        assertFalse(Files.exists(blob));
+    }
+
+    @Test
+    void partialDownloadWarmsTheCache() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes 0-3/" + BODY.length);
+        answerWith(HttpStatus.PARTIAL_CONTENT, new ByteArrayInputStream(BODY, 0, 4), headers);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+
+        download(request);
+
+        verify(attachmentCache).warm("10001", BODY.length);
+    }
+
+    @Test
+    void parseRangeResolvesSingleRanges() {
+        assertArrayEquals(new long[] {0, 3}, JiraAttachmentService.parseRange("bytes=0-3", 10));
+        assertArrayEquals(new long[] {5, 9}, JiraAttachmentService.parseRange("bytes=5-", 10));
+        assertArrayEquals(new long[] {6, 9}, JiraAttachmentService.parseRange("bytes=-4", 10));
+        // End past the body and suffix longer than the body are clamped
+        assertArrayEquals(new long[] {8, 9}, JiraAttachmentService.parseRange("bytes=8-100", 10));
+        assertArrayEquals(new long[] {0, 9}, JiraAttachmentService.parseRange("bytes=-50", 10));
+    }
+
+    @Test
+    void parseRangeRejectsUnsatisfiableRanges() {
+        assertArrayEquals(new long[0], JiraAttachmentService.parseRange("bytes=10-", 10));
+        assertArrayEquals(new long[0], JiraAttachmentService.parseRange("bytes=5-2", 10));
+        assertArrayEquals(new long[0], JiraAttachmentService.parseRange("bytes=-0", 10));
+        assertArrayEquals(new long[0], JiraAttachmentService.parseRange("bytes=0-", 0));
+    }
+
+    @Test
+    void parseRangeHandlesPositionsTooLongForALong() {
+        String huge = "9".repeat(40);
+        // Start past any body is unsatisfiable; end and suffix are clamped like any other overlong value
+        assertArrayEquals(new long[0], JiraAttachmentService.parseRange("bytes=" + huge + "-", 10));
+        assertArrayEquals(new long[] {2, 9}, JiraAttachmentService.parseRange("bytes=2-" + huge, 10));
+        assertArrayEquals(new long[] {0, 9}, JiraAttachmentService.parseRange("bytes=-" + huge, 10));
+    }
+
+    @Test
+    void parseRangeSendsEverythingForRangesItDoesNotHandle() {
+        assertNull(JiraAttachmentService.parseRange(null, 10));
+        assertNull(JiraAttachmentService.parseRange("bytes=0-3", -1));
+        assertNull(JiraAttachmentService.parseRange("bytes=0-1,4-5", 10));
+        assertNull(JiraAttachmentService.parseRange("bytes=-", 10));
+        assertNull(JiraAttachmentService.parseRange("items=0-3", 10));
+    }
+
+    /**
+     * Local stand-in for Jira's attachment endpoint: records every request and answers
+     * with the given statuses in turn
+     */
+    private static final class FakeJira implements AutoCloseable {
+
+        final HttpServer server;
+        final List<Headers> requestHeaders = new CopyOnWriteArrayList<>();
+        final List<byte[]> requestBodies = new CopyOnWriteArrayList<>();
+
+        FakeJira(int... statuses) throws IOException {
+            AtomicInteger calls = new AtomicInteger();
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/rest/api/3/issue/", exchange -> {
+                requestHeaders.add(exchange.getRequestHeaders());
+                requestBodies.add(exchange.getRequestBody().readAllBytes());
+                int status = statuses[Math.min(calls.getAndIncrement(), statuses.length - 1)];
+                if (status == 429) {
+                    exchange.getResponseHeaders().add(HttpHeaders.RETRY_AFTER, "0");
+                    exchange.sendResponseHeaders(status, -1);
+                } else {
+                    byte[] body = "[{\"id\":\"10001\",\"filename\":\"contract.pdf\"}]".getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                    exchange.sendResponseHeaders(status, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                exchange.close();
+            });
+            server.start();
+        }
+
+        String baseUrl() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Upload service talking to the fake Jira through a real pooled client and the given interceptors
+     */
+    private JiraAttachmentService uploadService(FakeJira jira, ClientHttpRequestInterceptor... interceptors) {
+        JiraConfig jiraConfig = mock(JiraConfig.class);
+        when(jiraConfig.getBaseUrl()).thenReturn(jira.baseUrl());
+        when(jiraService.getAuthHeader()).thenReturn("Basic dGVzdA==");
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.getInterceptors()).thenReturn(List.of(interceptors));
+        return new JiraAttachmentService(jiraService, jiraConfig, new ObjectMapper(), restTemplate,
+                HttpClients.createDefault(), attachmentCache);
+    }
+
+    /**
+     * Multipart part backed by a spooled file, like the servlet container hands it over
+     */
+    private static MultipartFile spooledPart(Path file) throws IOException {
+        MultipartFile part = mock(MultipartFile.class);
+        when(part.getSize()).thenReturn(Files.size(file));
+        when(part.getOriginalFilename()).thenReturn(file.getFileName().toString());
+        when(part.getResource()).thenReturn(new FileSystemResource(file));
+        return part;
+    }
+
+    @Test
+    void uploadStreamsTheMultipartBodyToJira(@TempDir Path dir) throws Exception {
+        Path file = Files.write(dir.resolve("contract.pdf"), BODY);
+        try (FakeJira jira = new FakeJira(200)) {
+            JsonNode result = uploadService(jira).uploadToIssue("RM-1", spooledPart(file));
+
+            assertEquals("10001", result.get(0).path("id").asText());
+            assertEquals(1, jira.requestBodies.size());
+            Headers headers = jira.requestHeaders.get(0);
+            // Written as it is read instead of from a buffered byte array with a known length
+            assertEquals("chunked", headers.getFirst(HttpHeaders.TRANSFER_ENCODING));
+            assertNull(headers.getFirst(HttpHeaders.CONTENT_LENGTH));
+            assertTrue(headers.getFirst(HttpHeaders.CONTENT_TYPE).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE));
+            assertEquals("no-check", headers.getFirst("X-Atlassian-Token"));
+            assertEquals("Basic dGVzdA==", headers.getFirst(HttpHeaders.AUTHORIZATION));
+            String body = new String(jira.requestBodies.get(0), StandardCharsets.UTF_8);
+            assertTrue(body.contains("filename=\"contract.pdf\""));
+            assertTrue(body.contains(new String(BODY, StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    void uploadRetriedAfter429SendsTheWholePartAgain(@TempDir Path dir) throws Exception {
+        Path file = Files.write(dir.resolve("contract.pdf"), BODY);
+        JiraRateLimiter rateLimiter = new JiraRateLimiter();
+        rateLimiter.init();
+        try (FakeJira jira = new FakeJira(429, 200)) {
+            JsonNode result = uploadService(jira, rateLimiter).uploadToIssue("RM-1", spooledPart(file));
+
+            assertEquals("10001", result.get(0).path("id").asText());
+            assertEquals(2, jira.requestBodies.size());
+            // The retry reopens the spooled file instead of sending an already consumed stream
+            String content = new String(BODY, StandardCharsets.UTF_8);
+            assertTrue(new String(jira.requestBodies.get(0), StandardCharsets.UTF_8).contains(content));
+            assertTrue(new String(jira.requestBodies.get(1), StandardCharsets.UTF_8).contains(content));
+        }
+    }
+
+    @Test
+    void uploadOverTheSizeLimitIsRejectedWithoutCallingJira(@TempDir Path dir) throws Exception {
+        Path file = Files.write(dir.resolve("contract.pdf"), BODY);
+        try (FakeJira jira = new FakeJira(200)) {
+            JiraAttachmentService service = uploadService(jira);
+            ReflectionTestUtils.setField(service, "maxUploadMb", 0L);
+
+            MaxUploadSizeExceededException e = assertThrows(MaxUploadSizeExceededException.class,
+                    () -> service.uploadToIssue("RM-1", spooledPart(file)));
+
+            assertEquals(0L, e.getMaxUploadSize());
+            assertTrue(jira.requestBodies.isEmpty());
+        }
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        attachmentService.streamToResponse("10001", request, response);
+        return response;
+    }
+
+    private void answerWith(HttpStatus status, InputStream body) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        answerWith(status, body, headers);
+    }
+
+    private void answerWith(HttpStatus status, InputStream body, HttpHeaders headers) throws Exception {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(status);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getBody()).thenReturn(body);
+        when(jiraService.streamAttachmentContent(anyString(), any(HttpHeaders.class), any()))
+                .thenAnswer(invocation -> invocation.<ResponseExtractor<?>>getArgument(2).extractData(response));
+    }
+
+    private JiraAttachmentDiskCache.PinnedAttachment pinned(Path dir) throws Exception {
+        Path file = Files.write(dir.resolve("abc123"), BODY);
+        return new JiraAttachmentDiskCache.PinnedAttachment(attachmentCache, new JiraAttachmentDiskCache.CachedAttachment(
+                "10001", "abc123", file, BODY.length, MediaType.APPLICATION_PDF_VALUE, null));
+    }
+
+    private JiraAttachmentDiskCache diskCache(Path dir) throws Exception {
+        JiraAttachmentDiskCache cache = new JiraAttachmentDiskCache(jiraService, mock(ThreadPoolTaskExecutor.class));
+        ReflectionTestUtils.setField(cache, "directory", dir.toString());
+        cache.init();
+        return cache;
+    }
+
+    private HttpHeaders withLength(long length) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentLength(length);
+        return headers;
+    }
+}
@@ -0,0 +1,111 @@
+package com.htc.productdevelopment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraBulkTransitionServiceTest {
+
+    @Mock
+    private JiraService jiraService;
+
+    @Mock
+    private ContractCompletionOutboxService contractCompletionOutboxService;
+
+    private JiraBulkTransitionService bulkTransitionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jiraService.resolveTransitionId("approve-post-approval")).thenReturn("7");
+        when(jiraService.resolveTransitionId("decline-post-approval")).thenReturn("6");
+        when(jiraService.isCompletionEnqueuedOnTransition()).thenReturn(true);
+        bulkTransitionService = new JiraBulkTransitionService(jiraService, contractCompletionOutboxService, Runnable::run);
+    }
+
+    private static JiraBulkTransitionService.TransitionRequest request(String issueKey, String transitionKey) {
+        return new JiraBulkTransitionService.TransitionRequest(issueKey, transitionKey);
+    }
+
+    @Test
+    void testEachTransitionIsReportedAndCompletionsAreEnqueuedTogether() {
+        when(jiraService.transitionIssue("RM-1", "7", false)).thenReturn(true);
+        when(jiraService.transitionIssue("RM-2", "6", false)).thenReturn(false);
+        when(jiraService.transitionIssue("RM-3", "7", false)).thenReturn(true);
+
+        List<JiraBulkTransitionService.TransitionResult> results = bulkTransitionService.transition(List.of(
+                request("RM-1", "approve-post-approval"),
+                request("RM-2", "decline-post-approval"),
+                request("RM-3", "approve-post-approval")));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).success());
+        assertEquals("7", results.get(0).transitionId());
+        assertFalse(results.get(1).success());
+        assertNotNull(results.get(1).message());
+        assertTrue(results.get(2).success());
+        verify(contractCompletionOutboxService).enqueueAll(List.of("RM-1", "RM-3"), ContractCompletionOutboxService.SOURCE_TRANSITION);
+        verify(contractCompletionOutboxService, never()).enqueue(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testInvalidItemsAreRejectedWithoutCallingJira() {
+        when(jiraService.transitionIssue("RM-1", "7", false)).thenReturn(true);
+
+        List<JiraBulkTransitionService.TransitionResult> results = bulkTransitionService.transition(List.of(
+                request("RM-1", "approve-post-approval"),
+                request("RM-1", "decline-post-approval"),
+                request("RM-2", "approve-everything"),
+                request(" ", "approve-post-approval")));
+
+        assertTrue(results.get(0).success());
+        assertFalse(results.get(1).success());
+        assertEquals("Invalid transition key: approve-everything", results.get(2).message());
+        assertNull(results.get(2).transitionId());
+        assertFalse(results.get(3).success());
+        verify(jiraService, times(1)).transitionIssue(anyString(), anyString(), anyBoolean());
+    }
+
+    @Test
+    void testConflictingEnqueueFallsBackToOneByOne() {
+        when(jiraService.transitionIssue(anyString(), eq("7"), eq(false))).thenReturn(true);
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(contractCompletionOutboxService).enqueueAll(anyCollection(), anyString());
+
+        bulkTransitionService.transition(List.of(
+                request("RM-1", "approve-post-approval"),
+                request("RM-2", "approve-post-approval")));
+
+        verify(contractCompletionOutboxService).enqueue("RM-1", ContractCompletionOutboxService.SOURCE_TRANSITION, null);
+        verify(contractCompletionOutboxService).enqueue("RM-2", ContractCompletionOutboxService.SOURCE_TRANSITION, null);
+    }
+
+    @Test
+    void testNothingIsEnqueuedWhenWebhooksHandleCompletion() {
+        when(jiraService.isCompletionEnqueuedOnTransition()).thenReturn(false);
+        when(jiraService.transitionIssue("RM-1", "7", false)).thenReturn(true);
+
+        bulkTransitionService.transition(List.of(request("RM-1", "approve-post-approval")));
+
+        verifyNoInteractions(contractCompletionOutboxService);
+    }
+
+    @Test
+    void testTooManyTransitionsAreRejected() {
+        ReflectionTestUtils.setField(bulkTransitionService, "maxItems", 1);
+
+        assertThrows(IllegalArgumentException.class, () -> bulkTransitionService.transition(List.of(
+                request("RM-1", "approve-post-approval"),
+                request("RM-2", "approve-post-approval"))));
+        verifyNoInteractions(contractCompletionOutboxService);
+    }
+}
@@ -0,0 +1,196 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.exception.JiraCircuitOpenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraCircuitBreakerTest {
+
+    private static final byte[] NO_BODY = new byte[0];
+    private static final long OPEN_DURATION_MS = 50;
+
+    @Mock
+    private JiraRateLimiter jiraRateLimiter;
+
+    @Mock
+    private HttpRequest request;
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    private ClientHttpResponse ok;
+    private ClientHttpResponse serverError;
+    private JiraCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        ok = response(HttpStatus.OK);
+        serverError = response(HttpStatus.BAD_GATEWAY);
+        circuitBreaker = new JiraCircuitBreaker(jiraRateLimiter);
+        ReflectionTestUtils.setField(circuitBreaker, "windowSize", 4);
+        ReflectionTestUtils.setField(circuitBreaker, "minimumCalls", 4);
+        ReflectionTestUtils.setField(circuitBreaker, "failureRateThreshold", 50.0);
+        ReflectionTestUtils.setField(circuitBreaker, "slowCallThresholdMs", 20L);
+        ReflectionTestUtils.setField(circuitBreaker, "slowCallRateThreshold", 75.0);
+        ReflectionTestUtils.setField(circuitBreaker, "openDurationMs", OPEN_DURATION_MS);
+        ReflectionTestUtils.setField(circuitBreaker, "halfOpenProbes", 2);
+        circuitBreaker.init();
+    }
+
+    @Test
+    void staysClosedUntilTheMinimumNumberOfCalls() throws IOException {
+        when(execution.execute(any(), any())).thenReturn(serverError);
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(serverError, circuitBreaker.intercept(request, NO_BODY, execution));
+        }
+
+        assertEquals(JiraCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void opensAtTheFailureRateAndFailsFast() throws IOException {
+        when(execution.execute(any(), any())).thenReturn(serverError, ok, serverError, ok);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.intercept(request, NO_BODY, execution);
+        }
+
+        assertEquals(JiraCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        JiraCircuitOpenException rejected = assertThrows(JiraCircuitOpenException.class,
+                () -> circuitBreaker.intercept(request, NO_BODY, execution));
+        assertTrue(rejected.getRetryAfterMs() <= OPEN_DURATION_MS);
+        verify(execution, times(4)).execute(any(), any());
+        assertEquals(1L, circuitBreaker.getStats().get("rejectedCalls"));
+    }
+
+    @Test
+    void transportErrorsCountAsFailuresAndAreRethrown() throws IOException {
+        when(execution.execute(any(), any())).thenThrow(new SocketTimeoutException("Read timed out"));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(SocketTimeoutException.class, () -> circuitBreaker.intercept(request, NO_BODY, execution));
+        }
+
+        assertEquals(JiraCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void failuresThatLeaveTheWindowNoLongerCount() throws IOException {
+        // Three failures in seven calls would stay under 50%, but only the last four calls count
+        when(execution.execute(any(), any())).thenReturn(serverError, ok, ok, ok, ok, serverError);
+        for (int i = 0; i < 6; i++) {
+            circuitBreaker.intercept(request, NO_BODY, execution);
+        }
+        assertEquals(JiraCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(25.0, circuitBreaker.getStats().get("failureRate"));
+
+        circuitBreaker.intercept(request, NO_BODY, execution);
+
+        assertEquals(JiraCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void slowCallsOpenTheBreaker() throws IOException {
+        when(execution.execute(any(), any())).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(30);
+            return ok;
+        });
+
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.intercept(request, NO_BODY, execution);
+        }
+
+        assertEquals(JiraCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void timeQueuedInTheRateLimiterIsNotSlow() throws IOException {
+        when(jiraRateLimiter.getWaitNanosOfCurrentRequest()).thenReturn(TimeUnit.MILLISECONDS.toNanos(30));
+        when(execution.execute(any(), any())).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(30);
+            return ok;
+        });
+
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.intercept(request, NO_BODY, execution);
+        }
+
+        assertEquals(JiraCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void closesOnceTheHalfOpenProbesSucceed() throws Exception {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION_MS + 10);
+        when(execution.execute(any(), any())).thenReturn(ok);
+
+        circuitBreaker.intercept(request, NO_BODY, execution);
+        assertEquals(JiraCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.intercept(request, NO_BODY, execution);
+
+        assertEquals(JiraCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getStats().get("windowCalls"));
+    }
+
+    @Test
+    void failedProbeReopens() throws Exception {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION_MS + 10);
+        when(execution.execute(any(), any())).thenReturn(serverError);
+
+        circuitBreaker.intercept(request, NO_BODY, execution);
+
+        assertEquals(JiraCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(2L, circuitBreaker.getStats().get("timesOpened"));
+        assertThrows(JiraCircuitOpenException.class, () -> circuitBreaker.intercept(request, NO_BODY, execution));
+    }
+
+    @Test
+    void onlyTheConfiguredNumberOfProbesIsLetThrough() throws Exception {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION_MS + 10);
+        ClientHttpRequestExecution second = mock(ClientHttpRequestExecution.class);
+        ClientHttpRequestExecution third = mock(ClientHttpRequestExecution.class);
+        // A second request arrives while the first probe is in flight, and a third while both are
+        when(execution.execute(any(), any())).thenAnswer(invocation -> circuitBreaker.intercept(request, NO_BODY, second));
+        when(second.execute(any(), any())).thenAnswer(invocation -> {
+            assertThrows(JiraCircuitOpenException.class, () -> circuitBreaker.intercept(request, NO_BODY, third));
+            return ok;
+        });
+
+        circuitBreaker.intercept(request, NO_BODY, execution);
+
+        verify(third, never()).execute(any(), any());
+        assertEquals(JiraCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private void open() throws IOException {
+        when(execution.execute(any(), any())).thenReturn(serverError);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.intercept(request, NO_BODY, execution);
+        }
+        assertEquals(JiraCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private ClientHttpResponse response(HttpStatus status) throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(status);
+        return response;
+    }
+}
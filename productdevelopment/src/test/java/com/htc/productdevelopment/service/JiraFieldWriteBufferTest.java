@@ -0,0 +1,102 @@
+package com.htc.productdevelopment.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraFieldWriteBufferTest {
+
+    @Mock
+    private JiraService jiraService;
+
+    private JiraFieldWriteBuffer writeBuffer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        writeBuffer = new JiraFieldWriteBuffer(jiraService);
+        // Long enough that only commit flushes, unless a test shortens it
+        ReflectionTestUtils.setField(writeBuffer, "debounceMs", 60_000L);
+        ReflectionTestUtils.setField(writeBuffer, "maxDelayMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBuffer.shutdown();
+    }
+
+    @Test
+    void testWritesToOneIssueAreMergedIntoOneUpdate() throws Exception {
+        CompletableFuture<JiraFieldWriteBuffer.FlushResult> first =
+                writeBuffer.write("RM-1", Map.of("customfield_10296", "10", "customfield_10471", "100.0"));
+        CompletableFuture<JiraFieldWriteBuffer.FlushResult> second =
+                writeBuffer.write("RM-1", Map.of("customfield_10471", "250.0"));
+
+        assertTrue(writeBuffer.hasPending("RM-1"));
+        verify(jiraService, never()).updateIssue(anyString(), anyMap());
+
+        JiraFieldWriteBuffer.FlushResult result = writeBuffer.commit("RM-1");
+
+        Map<String, Object> expected = Map.of("customfield_10296", "10", "customfield_10471", "250.0");
+        verify(jiraService, times(1)).updateIssue("RM-1", expected);
+        assertTrue(result.success());
+        assertEquals(expected, result.fields());
+        assertSame(result, first.getNow(null));
+        assertSame(result, second.getNow(null));
+        assertFalse(writeBuffer.hasPending("RM-1"));
+    }
+
+    @Test
+    void testPendingWritesAreFlushedAfterTheDebounce() throws Exception {
+        ReflectionTestUtils.setField(writeBuffer, "debounceMs", 20L);
+
+        JiraFieldWriteBuffer.FlushResult result = writeBuffer.write("RM-2", Map.of("customfield_10471", "75.5"))
+                .get(5, TimeUnit.SECONDS);
+
+        assertTrue(result.success());
+        verify(jiraService).updateIssue("RM-2", Map.of("customfield_10471", "75.5"));
+    }
+
+    @Test
+    void testFailedUpdateIsReportedToCallers() throws Exception {
+        when(jiraService.updateIssue(eq("RM-3"), anyMap())).thenThrow(new Exception("Field 'customfield_10471' cannot be set"));
+
+        JiraFieldWriteBuffer.FlushResult result = writeBuffer.writeAndCommit("RM-3", Map.of("customfield_10471", "1.0"));
+
+        assertFalse(result.success());
+        assertEquals("Field 'customfield_10471' cannot be set", result.message());
+        assertEquals(1L, writeBuffer.getStats().get("failedFlushes"));
+    }
+
+    @Test
+    void testCommitWithNothingPendingSendsNothing() throws Exception {
+        JiraFieldWriteBuffer.FlushResult result = writeBuffer.commit("RM-4");
+
+        assertTrue(result.success());
+        assertTrue(result.fields().isEmpty());
+        verifyNoInteractions(jiraService);
+    }
+
+    @Test
+    void testIssuesAreFlushedSeparately() throws Exception {
+        writeBuffer.write("RM-5", Map.of("customfield_10296", "3"));
+        writeBuffer.write("RM-6", Map.of("customfield_10296", "4"));
+
+        writeBuffer.commit("RM-5");
+
+        verify(jiraService).updateIssue("RM-5", Map.of("customfield_10296", "3"));
+        verify(jiraService, never()).updateIssue(eq("RM-6"), anyMap());
+        assertTrue(writeBuffer.hasPending("RM-6"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.htc.productdevelopment.service;
+
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import com.htc.productdevelopment.model.Department;
+import com.htc.productdevelopment.model.Organization;
+import com.htc.productdevelopment.repository.DepartmentRepository;
+import com.htc.productdevelopment.repository.OrganizationRepository;
+import com.htc.productdevelopment.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JiraIdentityDirectoryTest {
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JiraFieldConfig jiraFieldConfig;
+
+    private JiraIdentityDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jiraFieldConfig.getOrganizationName()).thenReturn("Organization");
+        when(jiraFieldConfig.getDepartmentName()).thenReturn("Department");
+        when(jiraFieldConfig.getOrganization()).thenReturn("customfield_10337");
+        when(jiraFieldConfig.getDepartment()).thenReturn("customfield_10244");
+        when(jiraFieldConfig.getRequesterEmail()).thenReturn("customfield_10246");
+
+        Organization htc = new Organization();
+        htc.setId(1L);
+        htc.setName("HTC");
+        Department engineering = new Department();
+        engineering.setId(2L);
+        engineering.setName("Engineering");
+        UserRepository.UserScopeView requester = mock(UserRepository.UserScopeView.class);
+        when(requester.getId()).thenReturn(7L);
+        when(requester.getEmail()).thenReturn("asha@htc.com");
+        when(requester.getOrganizationId()).thenReturn(1L);
+        when(requester.getDepartmentId()).thenReturn(2L);
+
+        when(organizationRepository.findAll()).thenReturn(List.of(htc));
+        when(departmentRepository.findAll()).thenReturn(List.of(engineering));
+        when(userRepository.findAllScopes()).thenReturn(List.of(requester));
+
+        directory = new JiraIdentityDirectory(organizationRepository, departmentRepository, userRepository, jiraFieldConfig);
+        directory.compileTemplates();
+    }
+
+    @Test
+    void testSuperAdminIsNotFiltered() {
+        JiraIdentityDirectory.IssueListQuery query = directory.issueListQuery("SUPER_ADMIN", 1L, 2L, "asha@htc.com");
+
+        assertEquals("project = \"Request Management\" ORDER BY key DESC", query.jql());
+        assertNull(query.organization());
+        assertNull(query.department());
+        assertNull(query.requesterEmail());
+    }
+
+    @Test
+    void testAdminIsFilteredByOrganizationAndDepartment() {
+        JiraIdentityDirectory.IssueListQuery query = directory.issueListQuery("ADMIN", 1L, 2L, "asha@htc.com");
+
+        assertEquals("project = \"Request Management\" AND \"Organization\" = \"HTC\""
+                + " AND \"Department\" = \"Engineering\" ORDER BY key DESC", query.jql());
+        assertEquals("HTC", query.organization());
+        assertEquals("Engineering", query.department());
+        assertNull(query.requesterEmail());
+    }
+
+    @Test
+    void testRequesterIsAlsoFilteredByEmail() {
+        JiraIdentityDirectory.IssueListQuery query = directory.issueListQuery("REQUESTER", 1L, 2L, "asha@htc.com");
+
+        assertEquals("project = \"Request Management\" AND \"Organization\" = \"HTC\""
+                + " AND \"Department\" = \"Engineering\" AND \"customfield_10246\" = \"asha@htc.com\""
+                + " ORDER BY key DESC", query.jql());
+        assertEquals("asha@htc.com", query.requesterEmail());
+
+        // An email with no user behind it is not filtered on
+        assertNull(directory.issueListQuery("REQUESTER", 1L, 2L, "nobody@htc.com").requesterEmail());
+    }
+
+    @Test
+    void testWithoutRoleDepartmentNeedsOrganization() {
+        assertEquals("project = \"Request Management\" AND \"customfield_10337\" = \"HTC\""
+                        + " AND \"customfield_10244\" = \"Engineering\" ORDER BY key DESC",
+                directory.issueListQuery(null, 1L, 2L, null).jql());
+        assertEquals("project = \"Request Management\" ORDER BY key DESC",
+                directory.issueListQuery(null, null, 2L, null).jql());
+    }
+
+    @Test
+    void testUnknownIdsAreNotFiltered() {
+        JiraIdentityDirectory.IssueListQuery query = directory.issueListQuery("APPROVER", 99L, null, null);
+
+        assertEquals("project = \"Request Management\" ORDER BY key DESC", query.jql());
+        assertNull(query.organization());
+    }
+
+    @Test
+    void testDirectoryIsLoadedOnceAndReloadedAfterInvalidation() {
+        directory.issueListQuery("ADMIN", 1L, 2L, null);
+        directory.issueListQuery("REQUESTER", 1L, 2L, "asha@htc.com");
+        JiraIdentityDirectory.UserScope user = directory.findUser("asha@htc.com");
+
+        assertEquals(new JiraIdentityDirectory.UserScope(7L, "asha@htc.com", 1L, 2L), user);
+        verify(organizationRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findAllScopes();
+        verify(userRepository, never()).findByEmail(any());
+
+        // No transaction is active here, so the invalidation applies immediately
+        directory.invalidate();
+        assertEquals("HTC", directory.organizationName(1L));
+        verify(organizationRepository, times(2)).findAll();
+        assertEquals(1L, directory.getStats().get("invalidations"));
+    }
+
+    @Test
+    void testLastDirectoryIsKeptWhenReloadFails() {
+        assertEquals("Engineering", directory.departmentName(2L));
+        when(departmentRepository.findAll()).thenThrow(new RuntimeException("connection refused"));
+
+        directory.invalidate();
+
+        assertEquals("Engineering", directory.departmentName(2L));
+        assertEquals(1L, directory.getStats().get("loadFailures"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.htc.productdevelopment.config.JiraFieldProjections;
+import com.htc.productdevelopment.config.JiraFieldView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraIssueBatchServiceTest {
+
+    @Mock
+    private JiraService jiraService;
+
+    @Mock
+    private JiraFieldProjections jiraFieldProjections;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JiraIssueBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jiraFieldProjections.fields(JiraFieldView.DETAIL)).thenReturn(List.of("summary", "status"));
+        when(jiraFieldProjections.expandParam(JiraFieldView.DETAIL)).thenReturn("names,renderedFields");
+        batchService = new JiraIssueBatchService(jiraService, jiraFieldProjections, Runnable::run);
+    }
+
+    private JsonNode page(String... keys) {
+        ObjectNode page = objectMapper.createObjectNode();
+        ArrayNode issues = page.putArray("issues");
+        for (String key : keys) {
+            issues.addObject().put("key", key).putObject("fields").put("summary", "Issue " + key);
+        }
+        return page.put("isLast", true);
+    }
+
+    private Exception jiraError(HttpStatus status, String body) {
+        HttpClientErrorException cause = HttpClientErrorException.create(status, status.getReasonPhrase(),
+                HttpHeaders.EMPTY, body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        return new Exception("Failed to connect to Jira API: " + cause.getMessage(), cause);
+    }
+
+    @Test
+    void testKeysAreFetchedWithOneSearch() throws Exception {
+        when(jiraService.searchIssues(eq("key in (RM-1, RM-2)"), anyList(), eq("names,renderedFields"), eq(2), isNull()))
+                .thenReturn(page("RM-2", "RM-1"));
+
+        JiraIssueBatchService.BatchResult result = batchService.getIssues(
+                List.of("RM-1", " rm-2 ", "RM-1", "not a key"), JiraFieldView.DETAIL);
+
+        assertEquals(List.of("RM-1", "RM-2"), List.copyOf(result.issues().keySet()));
+        assertEquals("Issue RM-2", result.issues().get("RM-2").path("fields").path("summary").asText());
+        assertEquals(JiraIssueBatchService.INVALID_KEY, result.errors().get("not a key"));
+        verify(jiraService, never()).getIssueByIdOrKey(anyString(), any(JiraFieldView.class));
+    }
+
+    @Test
+    void testLargeBatchesAreSplitIntoChunks() throws Exception {
+        ReflectionTestUtils.setField(batchService, "chunkSize", 2);
+        when(jiraService.searchIssues(eq("key in (RM-1, RM-2)"), anyList(), any(), eq(2), isNull())).thenReturn(page("RM-1", "RM-2"));
+        when(jiraService.searchIssues(eq("key in (RM-3, RM-4)"), anyList(), any(), eq(2), isNull())).thenReturn(page("RM-3", "RM-4"));
+        when(jiraService.searchIssues(eq("key in (RM-5)"), anyList(), any(), eq(1), isNull())).thenReturn(page("RM-5"));
+
+        JiraIssueBatchService.BatchResult result = batchService.getIssues(
+                List.of("RM-1", "RM-2", "RM-3", "RM-4", "RM-5"), JiraFieldView.DETAIL);
+
+        assertEquals(List.of("RM-1", "RM-2", "RM-3", "RM-4", "RM-5"), List.copyOf(result.issues().keySet()));
+        assertTrue(result.errors().isEmpty());
+        verify(jiraService, times(3)).searchIssues(anyString(), anyList(), any(), anyInt(), isNull());
+    }
+
+    @Test
+    void testKeysRejectedByJiraAreReportedAndTheRestIsSearchedAgain() throws Exception {
+        when(jiraService.searchIssues(eq("key in (RM-1, RM-999)"), anyList(), any(), eq(2), isNull()))
+                .thenThrow(jiraError(HttpStatus.BAD_REQUEST,
+                        "{\"errorMessages\":[\"An issue with key 'RM-999' does not exist for field 'key'.\"]}"));
+        when(jiraService.searchIssues(eq("key in (RM-1)"), anyList(), any(), eq(1), isNull())).thenReturn(page("RM-1"));
+
+        JiraIssueBatchService.BatchResult result = batchService.getIssues(List.of("RM-1", "RM-999"), JiraFieldView.DETAIL);
+
+        assertTrue(result.issues().containsKey("RM-1"));
+        assertEquals(JiraIssueBatchService.NOT_FOUND, result.errors().get("RM-999"));
+    }
+
+    @Test
+    void testMovedIssueIsFetchedDirectly() throws Exception {
+        // RM-7 was moved to OPS-3; the search returns it under its new key
+        when(jiraService.searchIssues(eq("key in (RM-6, RM-7)"), anyList(), any(), eq(2), isNull()))
+                .thenReturn(page("RM-6", "OPS-3"));
+        JsonNode moved = page("OPS-3").path("issues").get(0);
+        when(jiraService.getIssueByIdOrKey("RM-7", JiraFieldView.DETAIL)).thenReturn(moved);
+
+        JiraIssueBatchService.BatchResult result = batchService.getIssues(List.of("RM-6", "RM-7"), JiraFieldView.DETAIL);
+
+        assertEquals(List.of("RM-6", "RM-7"), List.copyOf(result.issues().keySet()));
+        assertSame(moved, result.issues().get("RM-7"));
+        assertFalse(result.issues().containsKey("OPS-3"));
+    }
+
+    @Test
+    void testSearchFailureIsReportedForEveryKey() throws Exception {
+        when(jiraService.searchIssues(anyString(), anyList(), any(), anyInt(), isNull()))
+                .thenThrow(new Exception("Rate limited by Jira: too many requests, please try again shortly."));
+
+        JiraIssueBatchService.BatchResult result = batchService.getIssues(List.of("RM-1", "RM-2"), JiraFieldView.DETAIL);
+
+        assertTrue(result.issues().isEmpty());
+        assertEquals(2, result.errors().size());
+        assertTrue(result.errors().get("RM-2").startsWith("Rate limited"));
+    }
+
+    @Test
+    void testTooManyKeysAreRejected() {
+        ReflectionTestUtils.setField(batchService, "maxKeys", 2);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> batchService.getIssues(List.of("RM-1", "RM-2", "RM-3"), JiraFieldView.DETAIL));
+    }
+}
@@ -0,0 +1,137 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import com.htc.productdevelopment.config.JiraFieldView;
+import com.htc.productdevelopment.model.ContractProposal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraIssueBundleServiceTest {
+
+    @Mock
+    private JiraService jiraService;
+
+    @Mock
+    private CommentService commentService;
+
+    @Mock
+    private ContractProposalService contractProposalService;
+
+    @Mock
+    private ContractAttachmentService contractAttachmentService;
+
+    @Mock
+    private JiraFieldConfig jiraFieldConfig;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+    private JiraIssueBundleService bundleService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newFixedThreadPool(6);
+        bundleService = new JiraIssueBundleService(jiraService, commentService, contractProposalService,
+                contractAttachmentService, jiraFieldConfig, executor);
+
+        when(jiraFieldConfig.getTotaloptimizedcost()).thenReturn("customfield_10471");
+        when(jiraService.getIssueByIdOrKey("RM-1", JiraFieldView.DETAIL)).thenReturn(objectMapper.readTree("{\"key\":\"RM-1\"}"));
+        when(jiraService.getIssueComments("RM-1")).thenReturn(objectMapper.readTree("{\"comments\":[]}"));
+        when(jiraService.getIssueWorklogs("RM-1")).thenReturn(objectMapper.readTree("{\"worklogs\":[]}"));
+        when(jiraService.getIssueAttachments("RM-1")).thenReturn(objectMapper.readTree("[]"));
+        when(jiraService.getIssueTransitions("RM-1")).thenReturn(objectMapper.readTree("[{\"id\":\"7\"}]"));
+        when(jiraService.getIssueFieldValue("RM-1", "customfield_10471")).thenReturn("1500.0");
+        when(commentService.getCommentsByIssueKeyAsDto("RM-1")).thenReturn(List.of());
+        when(contractAttachmentService.getAttachmentsByIssueKey("RM-1")).thenReturn(List.of());
+
+        ContractProposal proposal = new ContractProposal();
+        proposal.setId(3L);
+        proposal.setJiraIssueKey("RM-1");
+        proposal.setFinal(true);
+        when(contractProposalService.getProposalsForIssue("RM-1")).thenReturn(List.of(proposal));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testAllSectionsAreReturned() {
+        JiraIssueBundleService.IssueBundle bundle = bundleService.getBundle("RM-1");
+
+        assertTrue(bundle.errors().isEmpty());
+        assertEquals(List.of("issue", "comments", "worklogs", "attachments", "transitions",
+                "localComments", "proposals", "contractAttachments", "profit"), List.copyOf(bundle.sections().keySet()));
+        assertEquals("RM-1", ((JsonNode) bundle.sections().get("issue")).path("key").asText());
+
+        List<?> proposals = (List<?>) bundle.sections().get("proposals");
+        assertEquals(3L, ((Map<?, ?>) proposals.get(0)).get("id"));
+
+        Map<?, ?> profit = (Map<?, ?>) bundle.sections().get("profit");
+        assertEquals(1500.0, profit.get("totalProfit"));
+        assertEquals(true, profit.get("hasSubmittedFinalQuote"));
+    }
+
+    @Test
+    void testFailedSectionIsReportedAndTheRestIsReturned() throws Exception {
+        when(jiraService.getIssueWorklogs("RM-1")).thenThrow(new Exception("Failed to fetch worklogs: 403 Forbidden"));
+        when(contractAttachmentService.getAttachmentsByIssueKey("RM-1")).thenThrow(new IllegalStateException("database unavailable"));
+
+        JiraIssueBundleService.IssueBundle bundle = bundleService.getBundle("RM-1");
+
+        assertEquals("Failed to fetch worklogs: 403 Forbidden", bundle.errors().get("worklogs"));
+        assertEquals("database unavailable", bundle.errors().get("contractAttachments"));
+        assertNull(bundle.sections().get("worklogs"));
+        assertNotNull(bundle.sections().get("issue"));
+        assertNotNull(bundle.sections().get("transitions"));
+        assertEquals(2, bundle.errors().size());
+    }
+
+    @Test
+    void testSlowSectionTimesOutWithoutHoldingTheBundle() throws Exception {
+        ReflectionTestUtils.setField(bundleService, "sectionTimeoutMs", 200L);
+        when(jiraService.getIssueComments("RM-1")).thenAnswer(invocation -> {
+            release.await();
+            return objectMapper.readTree("{\"comments\":[]}");
+        });
+
+        long start = System.nanoTime();
+        JiraIssueBundleService.IssueBundle bundle = bundleService.getBundle("RM-1");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(bundle.errors().get("comments").startsWith("Timed out"));
+        assertNull(bundle.sections().get("comments"));
+        assertNotNull(bundle.sections().get("issue"));
+        assertTrue(elapsedMs < 5000, "bundle waited " + elapsedMs + " ms");
+    }
+
+    @Test
+    void testProfitWithoutJiraValueKeepsFinalQuoteFlag() throws Exception {
+        when(jiraService.getIssueFieldValue("RM-1", "customfield_10471")).thenReturn(null);
+
+        Map<?, ?> profit = (Map<?, ?>) bundleService.getBundle("RM-1").sections().get("profit");
+
+        assertNull(profit.get("totalProfit"));
+        assertEquals(true, profit.get("hasSubmittedFinalQuote"));
+        assertEquals("RM-1", profit.get("issueKey"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JiraIssueFieldCacheTest {
+
+    private JiraIssueFieldCache fieldCache;
+
+    @BeforeEach
+    void setUp() {
+        fieldCache = new JiraIssueFieldCache();
+    }
+
+    @Test
+    void testCachedFieldIsReturnedUntilIssueChanges() {
+        JsonNode status = TextNode.valueOf("In Progress");
+        fieldCache.put("RM-1", "status", status, fieldCache.generation());
+        fieldCache.put("RM-2", "status", status, fieldCache.generation());
+
+        assertSame(status, fieldCache.get("RM-1", "status"));
+        assertNull(fieldCache.get("RM-1", "customfield_10471"));
+
+        fieldCache.onIssueChanged(new JiraIssueChangedEvent("RM-1", JiraIssueChangedEvent.TRANSITIONED));
+
+        assertNull(fieldCache.get("RM-1", "status"));
+        assertSame(status, fieldCache.get("RM-2", "status"));
+        assertEquals(1L, fieldCache.getStats().get("invalidations"));
+    }
+
+    @Test
+    void testMissingValueIsCached() {
+        fieldCache.put("RM-1", "customfield_10471", MissingNode.getInstance(), fieldCache.generation());
+
+        JsonNode cached = fieldCache.get("RM-1", "customfield_10471");
+
+        assertNotNull(cached);
+        assertTrue(cached.isMissingNode());
+    }
+
+    @Test
+    void testReadRacingWithInvalidationIsNotCached() {
+        long generation = fieldCache.generation();
+        // A webhook reports the issue changed while the old value is on its way back from Jira
+        fieldCache.invalidate("RM-1");
+        fieldCache.put("RM-1", "status", TextNode.valueOf("To Do"), generation);
+
+        assertNull(fieldCache.get("RM-1", "status"));
+    }
+
+    @Test
+    void testExpiredFieldIsNotReturned() {
+        ReflectionTestUtils.setField(fieldCache, "ttlSeconds", 0L);
+        fieldCache.put("RM-1", "status", TextNode.valueOf("Completed"), fieldCache.generation());
+
+        assertNull(fieldCache.get("RM-1", "status"));
+    }
+
+    @Test
+    void testFullCacheStartsOver() {
+        ReflectionTestUtils.setField(fieldCache, "maxIssues", 2);
+        fieldCache.put("RM-1", "status", TextNode.valueOf("To Do"), fieldCache.generation());
+        fieldCache.put("RM-2", "status", TextNode.valueOf("To Do"), fieldCache.generation());
+        fieldCache.put("RM-3", "status", TextNode.valueOf("To Do"), fieldCache.generation());
+
+        assertEquals(1, fieldCache.getStats().get("issues"));
+        assertNotNull(fieldCache.get("RM-3", "status"));
+    }
+
+    @Test
+    void testDisabledCacheStoresNothing() {
+        ReflectionTestUtils.setField(fieldCache, "enabled", false);
+        fieldCache.put("RM-1", "status", TextNode.valueOf("To Do"), fieldCache.generation());
+
+        assertNull(fieldCache.get("RM-1", "status"));
+    }
+}
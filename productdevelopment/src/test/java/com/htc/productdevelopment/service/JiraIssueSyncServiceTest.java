@@ -0,0 +1,367 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import com.htc.productdevelopment.config.JiraFieldView;
+import com.htc.productdevelopment.model.JiraIssue;
+import com.htc.productdevelopment.model.JiraSyncState;
+import com.htc.productdevelopment.repository.JiraIssueRepository;
+import com.htc.productdevelopment.repository.JiraSyncStateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraIssueSyncServiceTest {
+
+    @Mock
+    private JiraService jiraService;
+
+    @Mock
+    private JiraIssueRepository jiraIssueRepository;
+
+    @Mock
+    private JiraSyncStateRepository jiraSyncStateRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JiraIssueSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        JiraSearchResultParser parser = new JiraSearchResultParser(objectMapper, mock(JiraFieldConfig.class));
+        parser.compile();
+        syncService = new JiraIssueSyncService(jiraService, parser, jiraIssueRepository, jiraSyncStateRepository, objectMapper);
+        ReflectionTestUtils.setField(syncService, "projectKey", "RM");
+        ReflectionTestUtils.setField(syncService, "pageSize", 2);
+        ReflectionTestUtils.setField(syncService, "overlapMinutes", 2L);
+        ReflectionTestUtils.setField(syncService, "mirrorReadEnabled", true);
+        ReflectionTestUtils.setField(syncService, "maxStalenessMinutes", 30L);
+        when(jiraSyncStateRepository.findById("RM")).thenReturn(Optional.empty());
+        when(jiraIssueRepository.save(any(JiraIssue.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private ObjectNode issueNode(String key, String updated, String summary) {
+        ObjectNode issue = objectMapper.createObjectNode();
+        issue.put("id", "1" + key.substring(key.indexOf('-') + 1));
+        issue.put("key", key);
+        ObjectNode fields = issue.putObject("fields");
+        fields.put("summary", summary);
+        fields.put("updated", updated);
+        fields.putObject("status").put("name", "Negotiation");
+        return issue;
+    }
+
+    static JiraIssueRecord record(String key, String updated) {
+        return new JiraIssueRecord("1" + key.substring(key.indexOf('-') + 1), key, "Summary " + key, null, "Task", "RM",
+                null, null, "Negotiation", null, null, "2026-01-01T09:00:00.000+0000", updated,
+                null, null, null, null, null, null, null, null, null, null, null, "{\"key\":\"" + key + "\"}");
+    }
+
+    static JiraIssue stored(String key, String updated) {
+        JiraIssue issue = new JiraIssue();
+        issue.setKey(key);
+        issue.setSummary("Stored " + key);
+        issue.setUpdated(OffsetDateTime.parse(updated.replace("+0000", "Z")));
+        return issue;
+    }
+
+    @Test
+    void testWebhookOlderThanStoredVersionIsNotWritten() {
+        JiraIssue newer = stored("RM-1", "2026-03-01T10:05:00.000+0000");
+        when(jiraIssueRepository.findByKey("RM-1")).thenReturn(Optional.of(newer));
+
+        JiraIssue result = syncService.upsertIssue(issueNode("RM-1", "2026-03-01T10:00:00.000+0000", "Old summary"));
+
+        assertSame(newer, result);
+        assertEquals("Stored RM-1", result.getSummary());
+        verify(jiraIssueRepository, never()).save(any());
+    }
+
+    @Test
+    void testWebhookNewerThanStoredVersionIsWritten() {
+        when(jiraIssueRepository.findByKey("RM-1")).thenReturn(Optional.of(stored("RM-1", "2026-03-01T10:00:00.000+0000")));
+
+        JiraIssue result = syncService.upsertIssue(issueNode("RM-1", "2026-03-01T10:05:00.000+0000", "New summary"));
+
+        assertEquals("New summary", result.getSummary());
+        assertEquals(OffsetDateTime.parse("2026-03-01T10:05:00Z"), result.getUpdated());
+        verify(jiraIssueRepository).save(result);
+    }
+
+    @Test
+    void testWebhookForUnknownIssueIsInserted() {
+        when(jiraIssueRepository.findByKey("RM-7")).thenReturn(Optional.empty());
+
+        JiraIssue result = syncService.upsertIssue(issueNode("RM-7", "2026-03-01T10:00:00.000+0000", "Created"));
+
+        assertEquals("RM-7", result.getKey());
+        assertEquals(7, result.getIssueNumber());
+        assertEquals("RM", result.getProjectKey());
+        assertNotNull(result.getRawJson());
+        verify(jiraIssueRepository).save(result);
+    }
+
+    @Test
+    void testSyncPageDoesNotOverwriteNewerWebhookVersion() throws Exception {
+        when(jiraService.searchIssueRecords(anyString(), eq(JiraFieldView.LIST), anyInt(), isNull(), eq(true)))
+                .thenReturn(new JiraSearchResultParser.SearchPage(List.of(
+                        record("RM-1", "2026-03-01T10:00:00.000+0000"),
+                        record("RM-2", "2026-03-01T10:01:00.000+0000")), null, true));
+        JiraIssue newer = stored("RM-1", "2026-03-01T10:05:00.000+0000");
+        when(jiraIssueRepository.findByKeyIn(anyCollection())).thenReturn(List.of(newer));
+
+        syncService.runSync(false);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<JiraIssue>> saved = ArgumentCaptor.forClass(List.class);
+        verify(jiraIssueRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals("RM-2", saved.getValue().get(0).getKey());
+        assertEquals("Stored RM-1", newer.getSummary());
+    }
+
+    private static JiraSyncState syncState(String watermark, LocalDateTime lastSuccessAt) {
+        JiraSyncState state = new JiraSyncState();
+        state.setProjectKey("RM");
+        state.setWatermark(watermark != null ? OffsetDateTime.parse(watermark) : null);
+        state.setLastSuccessAt(lastSuccessAt);
+        return state;
+    }
+
+    private static JiraSearchResultParser.SearchPage page(String nextPageToken, boolean isLast, JiraIssueRecord... records) {
+        return new JiraSearchResultParser.SearchPage(List.of(records), nextPageToken, isLast);
+    }
+
+    @Test
+    void testIncrementalSyncSearchesFromWatermarkAndAdvancesIt() throws Exception {
+        ReflectionTestUtils.setField(syncService, "jiraZone", ZoneOffset.UTC);
+        JiraSyncState state = syncState("2026-03-01T10:00:00Z", null);
+        when(jiraSyncStateRepository.findById("RM")).thenReturn(Optional.of(state));
+        when(jiraService.searchIssueRecords(anyString(), eq(JiraFieldView.LIST), eq(2), isNull(), eq(true)))
+                .thenReturn(page(null, true,
+                        record("RM-1", "2026-03-01T10:01:00.000+0000"),
+                        record("RM-2", "2026-03-01T10:03:00.000+0000")));
+
+        Map<String, Object> result = syncService.runSync(false);
+
+        // Minute precision, stepped back by the overlap
+        verify(jiraService).searchIssueRecords(
+                "project = \"RM\" AND updated >= \"2026/03/01 09:58\" ORDER BY updated ASC",
+                JiraFieldView.LIST, 2, null, true);
+        ArgumentCaptor<JiraSyncState> saved = ArgumentCaptor.forClass(JiraSyncState.class);
+        verify(jiraSyncStateRepository).save(saved.capture());
+        assertEquals(OffsetDateTime.parse("2026-03-01T10:03:00Z"), saved.getValue().getWatermark());
+        assertEquals("SUCCESS", saved.getValue().getLastStatus());
+        assertNotNull(saved.getValue().getLastSuccessAt());
+        assertEquals(2, saved.getValue().getLastIssueCount());
+        assertEquals("SUCCESS", result.get("status"));
+    }
+
+    @Test
+    void testWatermarkIsFormattedInJiraAccountTimeZone() throws Exception {
+        when(jiraService.getCurrentUser()).thenReturn(objectMapper.createObjectNode().put("timeZone", "Europe/Berlin"));
+        when(jiraSyncStateRepository.findById("RM")).thenReturn(Optional.of(syncState("2026-03-01T10:00:00Z", null)));
+        when(jiraService.searchIssueRecords(anyString(), any(), anyInt(), any(), anyBoolean())).thenReturn(page(null, true));
+
+        syncService.runSync(false);
+
+        verify(jiraService).searchIssueRecords(contains("updated >= \"2026/03/01 10:58\""), any(), anyInt(), any(), anyBoolean());
+    }
+
+    @Test
+    void testWatermarkIsKeptWhenNothingChanged() throws Exception {
+        ReflectionTestUtils.setField(syncService, "jiraZone", ZoneOffset.UTC);
+        when(jiraSyncStateRepository.findById("RM")).thenReturn(Optional.of(syncState("2026-03-01T10:00:00Z", null)));
+        when(jiraService.searchIssueRecords(anyString(), any(), anyInt(), any(), anyBoolean())).thenReturn(page(null, true));
+
+        syncService.runSync(false);
+
+        ArgumentCaptor<JiraSyncState> saved = ArgumentCaptor.forClass(JiraSyncState.class);
+        verify(jiraSyncStateRepository).save(saved.capture());
+        assertEquals(OffsetDateTime.parse("2026-03-01T10:00:00Z"), saved.getValue().getWatermark());
+    }
+
+    @Test
+    void testFullSyncIgnoresWatermark() throws Exception {
+        when(jiraSyncStateRepository.findById("RM")).thenReturn(Optional.of(syncState("2026-03-01T10:00:00Z", null)));
+        when(jiraService.searchIssueRecords(anyString(), any(), anyInt(), any(), anyBoolean())).thenReturn(page(null, true));
+
+        syncService.runSync(true);
+
+        verify(jiraService).searchIssueRecords("project = \"RM\" ORDER BY updated ASC", JiraFieldView.LIST, 2, null, true);
+        verify(jiraService, never()).getCurrentUser();
+    }
+
+    @Test
+    void testFullSyncRemovesOnlyIssuesNotWrittenDuringTheRun() throws Exception {
+        when(jiraService.searchIssueRecords(anyString(), any(), anyInt(), any(), anyBoolean()))
+                .thenReturn(page(null, true, record("RM-1", "2026-03-01T10:00:00.000+0000")));
+        when(jiraIssueRepository.findKeysByProjectKeySyncedBefore(eq("RM"), any(LocalDateTime.class)))
+                .thenReturn(List.of("RM-1", "RM-8", "RM-9"));
+        JiraIssue deletedInJira = stored("RM-8", "2026-02-01T10:00:00.000+0000");
+        deletedInJira.setSyncedAt(LocalDateTime.now().minusDays(1));
+        // Created by a webhook after the search had already paged past it
+        JiraIssue createdByWebhook = stored("RM-9", "2026-03-01T10:07:00.000+0000");
+        createdByWebhook.setSyncedAt(LocalDateTime.now().plusSeconds(1));
+        when(jiraIssueRepository.findByKeyIn(List.of("RM-8", "RM-9"))).thenReturn(List.of(deletedInJira, createdByWebhook));
+
+        Map<String, Object> result = syncService.runSync(true);
+
+        ArgumentCaptor<LocalDateTime> syncedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jiraIssueRepository).findKeysByProjectKeySyncedBefore(eq("RM"), syncedBefore.capture());
+        assertFalse(syncedBefore.getValue().isAfter(LocalDateTime.now()));
+        verify(jiraIssueRepository).deleteAllInBatch(List.of(deletedInJira));
+        assertEquals(1, result.get("removed"));
+    }
+
+    @Test
+    void testSyncFollowsPagesUntilLast() throws Exception {
+        when(jiraService.searchIssueRecords(anyString(), eq(JiraFieldView.LIST), eq(2), isNull(), eq(true)))
+                .thenReturn(page("token-2", false,
+                        record("RM-1", "2026-03-01T10:00:00.000+0000"),
+                        record("RM-2", "2026-03-01T10:01:00.000+0000")));
+        when(jiraService.searchIssueRecords(anyString(), eq(JiraFieldView.LIST), eq(2), eq("token-2"), eq(true)))
+                .thenReturn(page("token-3", false,
+                        record("RM-3", "2026-03-01T10:02:00.000+0000"),
+                        record("RM-4", "2026-03-01T10:04:00.000+0000")));
+        // A token next to isLast=true is not followed
+        when(jiraService.searchIssueRecords(anyString(), eq(JiraFieldView.LIST), eq(2), eq("token-3"), eq(true)))
+                .thenReturn(page("token-4", true, record("RM-5", "2026-03-01T10:03:00.000+0000")));
+
+        Map<String, Object> result = syncService.runSync(false);
+
+        assertEquals(3, result.get("pages"));
+        assertEquals(5, result.get("upserted"));
+        verify(jiraService, never()).searchIssueRecords(anyString(), any(), anyInt(), eq("token-4"), anyBoolean());
+        verify(jiraIssueRepository, times(3)).saveAll(anyList());
+        // Newest across all pages, not the last page's
+        ArgumentCaptor<JiraSyncState> saved = ArgumentCaptor.forClass(JiraSyncState.class);
+        verify(jiraSyncStateRepository).save(saved.capture());
+        assertEquals(OffsetDateTime.parse("2026-03-01T10:04:00Z"), saved.getValue().getWatermark());
+    }
+
+    @Test
+    void testSyncPageUpdatesExistingIssueAndInsertsNewOne() throws Exception {
+        when(jiraService.searchIssueRecords(anyString(), any(), anyInt(), any(), anyBoolean()))
+                .thenReturn(page(null, true,
+                        record("RM-1", "2026-03-01T10:05:00.000+0000"),
+                        record("RM-2", "2026-03-01T10:06:00.000+0000")));
+        JiraIssue existing = stored("RM-1", "2026-03-01T10:00:00.000+0000");
+        existing.setId(41L);
+        when(jiraIssueRepository.findByKeyIn(anyCollection())).thenReturn(List.of(existing));
+
+        syncService.runSync(false);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<JiraIssue>> saved = ArgumentCaptor.forClass(List.class);
+        verify(jiraIssueRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        // The stored entity is updated in place, so saveAll issues an UPDATE for it
+        assertSame(existing, saved.getValue().get(0));
+        assertEquals(41L, existing.getId());
+        assertEquals("Summary RM-1", existing.getSummary());
+        assertEquals(OffsetDateTime.parse("2026-03-01T10:05:00Z"), existing.getUpdated());
+        JiraIssue inserted = saved.getValue().get(1);
+        assertNull(inserted.getId());
+        assertEquals("RM-2", inserted.getKey());
+        assertEquals(2, inserted.getIssueNumber());
+    }
+
+    @Test
+    void testFailedSyncKeepsWatermark() throws Exception {
+        ReflectionTestUtils.setField(syncService, "jiraZone", ZoneOffset.UTC);
+        when(jiraSyncStateRepository.findById("RM")).thenReturn(Optional.of(syncState("2026-03-01T10:00:00Z", null)));
+        when(jiraService.searchIssueRecords(anyString(), any(), anyInt(), isNull(), anyBoolean()))
+                .thenReturn(page("token-2", false, record("RM-1", "2026-03-01T10:05:00.000+0000")));
+        when(jiraService.searchIssueRecords(anyString(), any(), anyInt(), eq("token-2"), anyBoolean()))
+                .thenThrow(new IllegalStateException("Jira unavailable"));
+
+        Map<String, Object> result = syncService.runSync(false);
+
+        assertEquals("FAILED", result.get("status"));
+        ArgumentCaptor<JiraSyncState> saved = ArgumentCaptor.forClass(JiraSyncState.class);
+        verify(jiraSyncStateRepository).save(saved.capture());
+        // The next run starts from the old watermark again
+        assertEquals(OffsetDateTime.parse("2026-03-01T10:00:00Z"), saved.getValue().getWatermark());
+        assertEquals("Jira unavailable", saved.getValue().getLastError());
+    }
+
+    @Test
+    void testMirrorIsReadyOnlyAfterRecentSuccessfulSync() {
+        assertFalse(syncService.isMirrorReady());
+
+        when(jiraSyncStateRepository.findById("RM")).thenReturn(Optional.of(syncState(null, LocalDateTime.now().minusMinutes(5))));
+        assertTrue(syncService.isMirrorReady());
+
+        when(jiraSyncStateRepository.findById("RM")).thenReturn(Optional.of(syncState(null, LocalDateTime.now().minusMinutes(31))));
+        assertFalse(syncService.isMirrorReady());
+    }
+
+    @Test
+    void testMirrorIsNotReadyWhenReadsAreDisabled() {
+        ReflectionTestUtils.setField(syncService, "mirrorReadEnabled", false);
+        when(jiraSyncStateRepository.findById("RM")).thenReturn(Optional.of(syncState(null, LocalDateTime.now())));
+
+        assertFalse(syncService.isMirrorReady());
+    }
+
+    private static JiraIssue mirrored(int issueNumber) {
+        JiraIssue issue = new JiraIssue();
+        issue.setKey("RM-" + issueNumber);
+        issue.setIssueNumber(issueNumber);
+        issue.setRawJson("{\"key\":\"RM-" + issueNumber + "\"}");
+        return issue;
+    }
+
+    @Test
+    void testMirrorIsStreamedInKeysetChunks() throws Exception {
+        ReflectionTestUtils.setField(syncService, "streamChunkSize", 2);
+        when(jiraIssueRepository.findMirroredIssuesBefore(eq("RM"), eq("Acme"), isNull(), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(mirrored(5), mirrored(4)));
+        when(jiraIssueRepository.findMirroredIssuesBefore(eq("RM"), eq("Acme"), isNull(), isNull(), eq(4), any(Pageable.class)))
+                .thenReturn(List.of(mirrored(2)));
+
+        List<List<String>> chunks = new ArrayList<>();
+        syncService.streamMirroredIssues("Acme", null, null, issues -> {
+            List<String> keys = new ArrayList<>();
+            issues.forEach(issue -> keys.add(issue.path("key").asText()));
+            chunks.add(keys);
+        });
+
+        assertEquals(List.of(List.of("RM-5", "RM-4"), List.of("RM-2")), chunks);
+        verify(jiraIssueRepository, times(2)).findMirroredIssuesBefore(anyString(), any(), any(), any(), any(), any(Pageable.class));
+        verify(jiraIssueRepository, never()).findMirroredIssues(any(), any(), any(), any());
+    }
+
+    @Test
+    void testMirrorStreamStopsAfterFullLastChunk() throws Exception {
+        ReflectionTestUtils.setField(syncService, "streamChunkSize", 2);
+        when(jiraIssueRepository.findMirroredIssuesBefore(eq("RM"), any(), any(), any(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(mirrored(2), mirrored(1)));
+        when(jiraIssueRepository.findMirroredIssuesBefore(eq("RM"), any(), any(), any(), eq(1), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        syncService.streamMirroredIssues(null, null, null, issues -> chunkSizes.add(issues.size()));
+
+        // The empty chunk after the full one is not passed on
+        assertEquals(List.of(2), chunkSizes);
+    }
+}
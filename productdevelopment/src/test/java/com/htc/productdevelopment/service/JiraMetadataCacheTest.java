@@ -0,0 +1,212 @@
+package com.htc.productdevelopment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraMetadataCacheTest {
+
+    @Mock
+    private ThreadPoolTaskExecutor refreshExecutor;
+
+    private JiraMetadataCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new JiraMetadataCache(refreshExecutor);
+    }
+
+    private String load() {
+        return "value-" + loads.incrementAndGet();
+    }
+
+    private Runnable capturedTask() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(refreshExecutor).execute(task.capture());
+        return task.getValue();
+    }
+
+    @Test
+    void testFreshEntryIsServedFromCache() throws Exception {
+        assertEquals("value-1", cache.get(JiraMetadataCache.FIELDS, null, this::load));
+        assertEquals("value-1", cache.get(JiraMetadataCache.FIELDS, null, this::load));
+
+        assertEquals(1, loads.get());
+        verifyNoInteractions(refreshExecutor);
+    }
+
+    @Test
+    void testKeysAndCachesAreSeparate() throws Exception {
+        cache.get(JiraMetadataCache.ASSIGNABLE_USERS, "RM", this::load);
+        cache.get(JiraMetadataCache.ASSIGNABLE_USERS, "OPS", this::load);
+        cache.get(JiraMetadataCache.PROJECTS, "RM", this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testExpiredEntryIsReloadedSynchronously() throws Exception {
+        // A zero TTL means every entry is already expired
+        ReflectionTestUtils.setField(cache, "fieldsTtlMinutes", 0L);
+
+        assertEquals("value-1", cache.get(JiraMetadataCache.FIELDS, null, this::load));
+        assertEquals("value-2", cache.get(JiraMetadataCache.FIELDS, null, this::load));
+
+        verifyNoInteractions(refreshExecutor);
+    }
+
+    @Test
+    void testRefreshAheadServesCurrentValueAndReloadsInBackground() throws Exception {
+        // A zero ratio puts every entry past the refresh-ahead point
+        ReflectionTestUtils.setField(cache, "refreshAheadRatio", 0.0);
+        cache.get(JiraMetadataCache.ISSUE_TYPES, null, this::load);
+
+        assertEquals("value-1", cache.get(JiraMetadataCache.ISSUE_TYPES, null, this::load));
+        assertEquals(1, loads.get());
+
+        capturedTask().run();
+
+        assertEquals(2, loads.get());
+        assertEquals("value-2", cache.get(JiraMetadataCache.ISSUE_TYPES, null, () -> "unused"));
+    }
+
+    @Test
+    void testOnlyOneRefreshPerEntryIsInFlight() throws Exception {
+        ReflectionTestUtils.setField(cache, "refreshAheadRatio", 0.0);
+        cache.get(JiraMetadataCache.ISSUE_TYPES, null, this::load);
+
+        cache.get(JiraMetadataCache.ISSUE_TYPES, null, this::load);
+        cache.get(JiraMetadataCache.ISSUE_TYPES, null, this::load);
+        cache.get(JiraMetadataCache.ISSUE_TYPES, null, this::load);
+
+        verify(refreshExecutor, times(1)).execute(any(Runnable.class));
+    }
+
+    @Test
+    void testFailedRefreshKeepsServingCurrentValue() throws Exception {
+        ReflectionTestUtils.setField(cache, "refreshAheadRatio", 0.0);
+        cache.get(JiraMetadataCache.PROJECTS, null, this::load);
+
+        cache.get(JiraMetadataCache.PROJECTS, null, () -> {
+            throw new IllegalStateException("Jira down");
+        });
+        capturedTask().run();
+
+        assertEquals("value-1", cache.get(JiraMetadataCache.PROJECTS, null, this::load));
+        Map<?, ?> projects = (Map<?, ?>) ((Map<?, ?>) cache.getStats().get("caches")).get(JiraMetadataCache.PROJECTS);
+        assertEquals(1L, projects.get("refreshFailures"));
+    }
+
+    @Test
+    void testRejectedRefreshCanBeRetried() throws Exception {
+        ReflectionTestUtils.setField(cache, "refreshAheadRatio", 0.0);
+        cache.get(JiraMetadataCache.PROJECTS, null, this::load);
+        doThrow(new TaskRejectedException("busy")).doNothing().when(refreshExecutor).execute(any(Runnable.class));
+
+        cache.get(JiraMetadataCache.PROJECTS, null, this::load);
+        cache.get(JiraMetadataCache.PROJECTS, null, this::load);
+
+        verify(refreshExecutor, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    void testLoaderFailureIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(JiraMetadataCache.FIELDS, null, () -> {
+            throw new IllegalStateException("Jira down");
+        }));
+
+        assertDoesNotThrow(() -> assertEquals("value-1", cache.get(JiraMetadataCache.FIELDS, null, this::load)));
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = pool.submit(() -> cache.get(JiraMetadataCache.CREATE_META, "RM", () -> {
+                loaderStarted.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return load();
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Future<String> second = pool.submit(() -> cache.get(JiraMetadataCache.CREATE_META, "RM", this::load));
+
+            // Give the second caller time to join the in-flight load
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals("value-1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("value-1", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDisabledCacheAlwaysCallsLoader() throws Exception {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+
+        cache.get(JiraMetadataCache.FIELDS, null, this::load);
+        cache.get(JiraMetadataCache.FIELDS, null, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testInvalidateByCacheAndKey() throws Exception {
+        cache.get(JiraMetadataCache.ASSIGNABLE_USERS, "RM", this::load);
+        cache.get(JiraMetadataCache.ASSIGNABLE_USERS, "OPS", this::load);
+        cache.get(JiraMetadataCache.FIELDS, null, this::load);
+
+        assertEquals(1, cache.invalidate(JiraMetadataCache.ASSIGNABLE_USERS, "RM"));
+        assertEquals(1, cache.invalidate(JiraMetadataCache.ASSIGNABLE_USERS, null));
+        assertEquals(1, cache.invalidate(null, null));
+    }
+
+    @Test
+    void testWarmLoadsOnlyMissingEntries() throws Exception {
+        cache.warm(JiraMetadataCache.REQUEST_MANAGEMENT_PROJECT, null, this::load);
+        capturedTask().run();
+        assertEquals(1, loads.get());
+
+        cache.warm(JiraMetadataCache.REQUEST_MANAGEMENT_PROJECT, null, this::load);
+
+        verify(refreshExecutor, times(1)).execute(any(Runnable.class));
+        assertEquals("value-1", cache.get(JiraMetadataCache.REQUEST_MANAGEMENT_PROJECT, null, this::load));
+    }
+
+    @Test
+    void testStatsReportHitRatio() throws Exception {
+        cache.get(JiraMetadataCache.FIELDS, null, this::load);
+        cache.get(JiraMetadataCache.FIELDS, null, this::load);
+        cache.get(JiraMetadataCache.FIELDS, null, this::load);
+        cache.get(JiraMetadataCache.FIELDS, null, this::load);
+
+        Map<String, Object> stats = cache.getStats();
+
+        assertEquals(3L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(0.75, stats.get("hitRatio"));
+    }
+}
@@ -0,0 +1,198 @@
+package com.htc.productdevelopment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraRateLimiterTest {
+
+    private static final byte[] NO_BODY = new byte[0];
+
+    @Mock
+    private HttpRequest request;
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    private JiraRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        when(request.getMethod()).thenReturn(HttpMethod.GET);
+        when(request.getURI()).thenReturn(URI.create("https://jira.example.com/rest/api/3/issue/RM-1"));
+        ClientHttpResponse ok = response(HttpStatus.OK, new HttpHeaders());
+        when(execution.execute(any(), any())).thenReturn(ok);
+        rateLimiter = new JiraRateLimiter();
+    }
+
+    @Test
+    void burstIsServedAtOnceAndThenRefilledAtTheConfiguredRate() throws IOException {
+        configure(10, 2, 0);
+
+        long start = System.nanoTime();
+        rateLimiter.intercept(request, NO_BODY, execution);
+        rateLimiter.intercept(request, NO_BODY, execution);
+        assertTrue(elapsedMs(start) < 50, "burst tokens waited " + elapsedMs(start) + " ms");
+
+        start = System.nanoTime();
+        rateLimiter.intercept(request, NO_BODY, execution);
+        // One token every 100 ms
+        assertTrue(elapsedMs(start) >= 50, "refill token waited only " + elapsedMs(start) + " ms");
+        verify(execution, times(3)).execute(request, NO_BODY);
+    }
+
+    @Test
+    void backgroundRequestsCannotUseTheInteractiveReserve() throws IOException {
+        configure(1, 3, 2);
+        ReflectionTestUtils.setField(rateLimiter, "maxWaitMs", 50L);
+
+        JiraCallPriority previous = JiraCallPriority.enter(JiraCallPriority.BACKGROUND);
+        try {
+            rateLimiter.intercept(request, NO_BODY, execution);
+            // Two tokens left, both reserved for interactive requests
+            assertThrows(IOException.class, () -> rateLimiter.intercept(request, NO_BODY, execution));
+        } finally {
+            JiraCallPriority.restore(previous);
+        }
+
+        rateLimiter.intercept(request, NO_BODY, execution);
+        rateLimiter.intercept(request, NO_BODY, execution);
+        verify(execution, times(3)).execute(request, NO_BODY);
+    }
+
+    @Test
+    void interactiveRequestIsServedBeforeAWaitingBackgroundRequest() throws Exception {
+        configure(5, 1, 0);
+        rateLimiter.intercept(request, NO_BODY, execution);
+
+        List<JiraCallPriority> served = new CopyOnWriteArrayList<>();
+        when(execution.execute(any(), any())).thenAnswer(invocation -> {
+            served.add(JiraCallPriority.current());
+            return response(HttpStatus.OK, new HttpHeaders());
+        });
+
+        Thread background = new Thread(() -> {
+            JiraCallPriority.enter(JiraCallPriority.BACKGROUND);
+            send();
+        });
+        background.start();
+        TimeUnit.MILLISECONDS.sleep(50);
+        Thread interactive = new Thread(this::send);
+        interactive.start();
+        background.join(5000);
+        interactive.join(5000);
+
+        assertEquals(List.of(JiraCallPriority.INTERACTIVE, JiraCallPriority.BACKGROUND), served);
+    }
+
+    @Test
+    void tooManyRequestsIsRetriedAfterRetryAfter() throws IOException {
+        configure(100, 5, 0);
+        ReflectionTestUtils.setField(rateLimiter, "maxBackoffMs", 100L);
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.set(HttpHeaders.RETRY_AFTER, "1");
+        ClientHttpResponse throttled = response(HttpStatus.TOO_MANY_REQUESTS, retryAfter);
+        ClientHttpResponse ok = response(HttpStatus.OK, new HttpHeaders());
+        when(execution.execute(any(), any())).thenReturn(throttled, ok);
+
+        long start = System.nanoTime();
+        ClientHttpResponse result = rateLimiter.intercept(request, NO_BODY, execution);
+
+        assertSame(ok, result);
+        verify(throttled).close();
+        // Retry-After of 1 s, capped by max-backoff-ms
+        assertTrue(elapsedMs(start) >= 80, "retry waited only " + elapsedMs(start) + " ms");
+        assertEquals(1L, rateLimiter.getStats().get("retries"));
+        assertEquals(1L, rateLimiter.getStats().get("throttleEvents"));
+    }
+
+    @Test
+    void tooManyRequestsIsReturnedOnceRetriesAreUsedUp() throws IOException {
+        configure(100, 5, 0);
+        ReflectionTestUtils.setField(rateLimiter, "maxRetries", 1);
+        HttpHeaders retryNow = new HttpHeaders();
+        retryNow.set(HttpHeaders.RETRY_AFTER, "0");
+        ClientHttpResponse throttled = response(HttpStatus.TOO_MANY_REQUESTS, retryNow);
+        when(execution.execute(any(), any())).thenReturn(throttled);
+
+        ClientHttpResponse result = rateLimiter.intercept(request, NO_BODY, execution);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, result.getStatusCode());
+        verify(execution, times(2)).execute(request, NO_BODY);
+    }
+
+    @Test
+    void remainingQuotaFromJiraDrainsTheBucket() throws IOException {
+        configure(1, 10, 0);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Remaining", "3");
+        ClientHttpResponse response = response(HttpStatus.OK, headers);
+        when(execution.execute(any(), any())).thenReturn(response);
+
+        rateLimiter.intercept(request, NO_BODY, execution);
+
+        double available = (double) rateLimiter.getStats().get("availableTokens");
+        assertTrue(available < 3.5, "bucket still has " + available + " tokens");
+        assertEquals(3, rateLimiter.getStats().get("lastRateLimitRemaining"));
+    }
+
+    @Test
+    void disabledLimiterPassesRequestsStraightThrough() throws IOException {
+        configure(1, 1, 0);
+        ReflectionTestUtils.setField(rateLimiter, "enabled", false);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.intercept(request, NO_BODY, execution);
+        }
+
+        // A one-token bucket refilled once a second would take four seconds
+        assertTrue(elapsedMs(start) < 500, "disabled limiter waited " + elapsedMs(start) + " ms");
+        verify(execution, times(5)).execute(request, NO_BODY);
+    }
+
+    private void configure(double permitsPerSecond, int burst, int interactiveReserve) {
+        ReflectionTestUtils.setField(rateLimiter, "permitsPerSecond", permitsPerSecond);
+        ReflectionTestUtils.setField(rateLimiter, "burst", burst);
+        ReflectionTestUtils.setField(rateLimiter, "interactiveReserve", interactiveReserve);
+        rateLimiter.init();
+    }
+
+    private void send() {
+        try {
+            rateLimiter.intercept(request, NO_BODY, execution);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private ClientHttpResponse response(HttpStatus status, HttpHeaders headers) throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(status);
+        when(response.getHeaders()).thenReturn(headers);
+        return response;
+    }
+}
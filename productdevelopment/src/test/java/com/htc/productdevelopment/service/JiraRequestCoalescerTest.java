@@ -0,0 +1,204 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JiraRequestCoalescerTest {
+
+    private static final String ISSUE_URL = "https://jira.example.com/rest/api/3/issue/RM-1";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private JiraRequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new JiraRequestCoalescer(objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void identicalReadsInFlightShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Callable<JsonNode> call = () -> {
+            upstreamCalls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return objectMapper.readTree("{\"key\":\"RM-1\"}");
+        };
+
+        Future<JsonNode> first = callers.submit(() -> coalescer.execute(ISSUE_URL, HttpMethod.GET, null, call));
+        awaitInFlight();
+        Future<JsonNode> second = callers.submit(() -> coalescer.execute(ISSUE_URL, HttpMethod.GET, null, call));
+        awaitCoalesced(1);
+        release.countDown();
+
+        JsonNode leader = first.get(5, TimeUnit.SECONDS);
+        JsonNode joined = second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(leader, joined);
+        // The joined caller gets its own copy
+        assertNotSame(leader, joined);
+        ((ObjectNode) joined).put("key", "changed");
+        assertEquals("RM-1", leader.path("key").asText());
+        assertEquals(1L, coalescer.getStats().get("upstreamCalls"));
+    }
+
+    @Test
+    void failureOfTheSharedCallReachesEveryCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IOException failure = new IOException("Jira returned 502");
+        Callable<JsonNode> call = () -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw failure;
+        };
+
+        Future<JsonNode> first = callers.submit(() -> coalescer.execute(ISSUE_URL, HttpMethod.GET, null, call));
+        awaitInFlight();
+        Future<JsonNode> second = callers.submit(() -> coalescer.execute(ISSUE_URL, HttpMethod.GET, null, call));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(0, coalescer.getStats().get("inFlight"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) coalescer.getStats().get("keys");
+        assertEquals(1L, keys.get(0).get("failures"));
+    }
+
+    @Test
+    void interactiveReadDoesNotJoinBackgroundRead() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Callable<JsonNode> call = () -> {
+            upstreamCalls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return objectMapper.readTree("{\"key\":\"RM-1\"}");
+        };
+
+        Future<JsonNode> background = callers.submit(() -> {
+            JiraCallPriority previous = JiraCallPriority.enter(JiraCallPriority.BACKGROUND);
+            try {
+                return coalescer.execute(ISSUE_URL, HttpMethod.GET, null, call);
+            } finally {
+                JiraCallPriority.restore(previous);
+            }
+        });
+        awaitInFlight();
+
+        // Answered by its own call instead of waiting for the background one
+        JsonNode interactive = coalescer.execute(ISSUE_URL, HttpMethod.GET, null,
+                () -> objectMapper.readTree("{\"key\":\"RM-1\"}"));
+
+        assertEquals("RM-1", interactive.path("key").asText());
+        assertEquals(0L, coalescer.getStats().get("coalesced"));
+        release.countDown();
+        assertEquals("RM-1", background.get(5, TimeUnit.SECONDS).path("key").asText());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void completedReadsAreNotCached() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Callable<JsonNode> call = () -> objectMapper.readTree("{\"n\":" + upstreamCalls.incrementAndGet() + "}");
+
+        coalescer.execute(ISSUE_URL, HttpMethod.GET, null, call);
+        JsonNode second = coalescer.execute(ISSUE_URL, HttpMethod.GET, null, call);
+
+        assertEquals(2, second.path("n").asInt());
+        assertEquals(0L, coalescer.getStats().get("coalesced"));
+    }
+
+    @Test
+    void failedReadIsNotRemembered() throws Exception {
+        assertThrows(IOException.class, () -> coalescer.execute(ISSUE_URL, HttpMethod.GET, null, () -> {
+            throw new IOException("timeout");
+        }));
+
+        JsonNode retried = coalescer.execute(ISSUE_URL, HttpMethod.GET, null, () -> objectMapper.readTree("{\"key\":\"RM-1\"}"));
+
+        assertEquals("RM-1", retried.path("key").asText());
+    }
+
+    @Test
+    void bodiesWithTheSameEntriesShareAKey() {
+        Map<String, Object> ordered = new LinkedHashMap<>();
+        ordered.put("jql", "project = RM");
+        ordered.put("maxResults", 50);
+        Map<String, Object> reversed = new LinkedHashMap<>();
+        reversed.put("maxResults", 50);
+        reversed.put("jql", "project = RM");
+
+        String url = "https://jira.example.com/rest/api/3/search/jql";
+        assertEquals(coalescer.requestKey(url, HttpMethod.POST, ordered), coalescer.requestKey(url, HttpMethod.POST, reversed));
+        assertNotEquals(coalescer.requestKey(url, HttpMethod.POST, ordered),
+                coalescer.requestKey(url, HttpMethod.POST, Map.of("jql", "project = OTHER", "maxResults", 50)));
+        assertNotEquals(coalescer.requestKey(ISSUE_URL, HttpMethod.GET, null), coalescer.requestKey(ISSUE_URL, HttpMethod.DELETE, null));
+    }
+
+    @Test
+    void onlyReadsAreCoalescible() {
+        assertTrue(coalescer.isCoalescible(ISSUE_URL, HttpMethod.GET, null));
+        assertTrue(coalescer.isCoalescible("https://jira.example.com/rest/api/3/search/jql", HttpMethod.POST, Map.of()));
+        assertFalse(coalescer.isCoalescible("https://jira.example.com/rest/api/3/issue", HttpMethod.POST, Map.of()));
+        assertFalse(coalescer.isCoalescible(ISSUE_URL, HttpMethod.PUT, Map.of()));
+        assertFalse(coalescer.isCoalescible(ISSUE_URL + "/attachments", HttpMethod.GET, new LinkedMultiValueMap<>()));
+
+        ReflectionTestUtils.setField(coalescer, "enabled", false);
+        assertFalse(coalescer.isCoalescible(ISSUE_URL, HttpMethod.GET, null));
+    }
+
+    @Test
+    void keysBeyondTheTrackedLimitShareOneStatsEntry() throws Exception {
+        ReflectionTestUtils.setField(coalescer, "maxTrackedKeys", 2);
+        for (int i = 1; i <= 4; i++) {
+            coalescer.execute(ISSUE_URL + i, HttpMethod.GET, null, objectMapper::createObjectNode);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) coalescer.getStats().get("keys");
+        assertEquals(3, keys.size());
+        assertTrue(keys.stream().anyMatch(key -> "(other)".equals(key.get("key")) && Long.valueOf(2).equals(key.get("calls"))));
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Integer.valueOf(0).equals(coalescer.getStats().get("inFlight")) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Long.valueOf(expected).equals(coalescer.getStats().get("coalesced")) && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
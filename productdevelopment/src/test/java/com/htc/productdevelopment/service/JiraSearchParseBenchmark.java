@@ -0,0 +1,182 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the two ways of reading a Jira search page: the tree path used by
+ * makeJiraApiCall (body as a String, readTree, getTextValue per field) against
+ * JiraSearchResultParser streaming straight into JiraIssueRecords.
+ * Not a unit test; run it with
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.htc.productdevelopment.service.JiraSearchParseBenchmark
+ * and add "-prof gc" to the options below to compare allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JiraSearchParseBenchmark {
+
+    @Param({"100", "1000"})
+    int issueCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JiraFieldConfig fieldConfig;
+    private JiraService jiraService;
+    private JiraSearchResultParser parser;
+    private byte[] page;
+
+    @Setup
+    public void setUp() {
+        fieldConfig = Mockito.mock(JiraFieldConfig.class);
+        Mockito.when(fieldConfig.getVendorName()).thenReturn("customfield_10290");
+        Mockito.when(fieldConfig.getProductName()).thenReturn("customfield_10291");
+        Mockito.when(fieldConfig.getContractType()).thenReturn("customfield_10284");
+        Mockito.when(fieldConfig.getBillingType()).thenReturn("customfield_10292");
+        Mockito.when(fieldConfig.getLicenseUpdateType()).thenReturn("customfield_10286");
+        Mockito.when(fieldConfig.getRequesterName()).thenReturn("customfield_10243");
+        Mockito.when(fieldConfig.getRequesterEmail()).thenReturn("customfield_10244");
+        Mockito.when(fieldConfig.getOrganization()).thenReturn("customfield_10337");
+        Mockito.when(fieldConfig.getDepartment()).thenReturn("customfield_10338");
+        Mockito.when(fieldConfig.getDueDate()).thenReturn("customfield_10302");
+        Mockito.when(fieldConfig.getRenewalDate()).thenReturn("customfield_10303");
+
+        jiraService = new JiraService(null, null, objectMapper);
+        parser = new JiraSearchResultParser(objectMapper, fieldConfig);
+        parser.compile();
+        page = searchPage(issueCount).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<JiraIssueRecord> treeOfJsonNodes() throws IOException {
+        String body = new String(page, StandardCharsets.UTF_8);
+        JsonNode root = objectMapper.readTree(body);
+        List<JiraIssueRecord> issues = new ArrayList<>();
+        for (JsonNode issue : root.path("issues")) {
+            JsonNode fields = issue.path("fields");
+            issues.add(new JiraIssueRecord(
+                    issue.path("id").asText(null),
+                    issue.path("key").asText(null),
+                    fields.path("summary").asText(null),
+                    fields.has("description") ? fields.get("description").toString() : null,
+                    fields.path("issuetype").path("name").asText(null),
+                    fields.path("project").path("key").asText(null),
+                    fields.path("reporter").path("displayName").asText(null),
+                    fields.path("assignee").path("displayName").asText(null),
+                    fields.path("status").path("name").asText(null),
+                    fields.path("priority").path("name").asText(null),
+                    fields.path("duedate").asText(null),
+                    fields.path("created").asText(null),
+                    fields.path("updated").asText(null),
+                    jiraService.getTextValue(fields, fieldConfig.getVendorName()),
+                    jiraService.getTextValue(fields, fieldConfig.getProductName()),
+                    jiraService.getTextValue(fields, fieldConfig.getContractType()),
+                    jiraService.getTextValue(fields, fieldConfig.getBillingType()),
+                    jiraService.getTextValue(fields, fieldConfig.getLicenseUpdateType()),
+                    jiraService.getTextValue(fields, fieldConfig.getRequesterName()),
+                    jiraService.getTextValue(fields, fieldConfig.getRequesterEmail()),
+                    jiraService.getTextValue(fields, fieldConfig.getOrganization()),
+                    jiraService.getTextValue(fields, fieldConfig.getDepartment()),
+                    jiraService.getTextValue(fields, fieldConfig.getDueDate()),
+                    jiraService.getTextValue(fields, fieldConfig.getRenewalDate()),
+                    null));
+        }
+        return issues;
+    }
+
+    @Benchmark
+    public List<JiraIssueRecord> streamingRecords() throws IOException {
+        return parser.parse(new ByteArrayInputStream(page), false).issues();
+    }
+
+    @Benchmark
+    public List<JiraIssueRecord> streamingRecordsKeepingJson() throws IOException {
+        return parser.parse(new ByteArrayInputStream(page), true).issues();
+    }
+
+    /**
+     * A search page shaped like Jira's, with the noise (self links, avatars, unused custom
+     * fields) that real responses carry
+     */
+    static String searchPage(int issueCount) {
+        StringBuilder json = new StringBuilder("{\"expand\":\"names,schema\",\"issues\":[");
+        for (int i = 0; i < issueCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            int id = 10000 + i;
+            json.append("{\"expand\":\"operations,versionedRepresentations,editmeta,changelog\",")
+                .append("\"id\":\"").append(id).append("\",")
+                .append("\"self\":\"https://example.atlassian.net/rest/api/3/issue/").append(id).append("\",")
+                .append("\"key\":\"RM-").append(i).append("\",\"fields\":{")
+                .append("\"summary\":\"Renewal request ").append(i).append("\",")
+                .append("\"description\":{\"type\":\"doc\",\"version\":1,\"content\":[{\"type\":\"paragraph\",\"content\":[{\"type\":\"text\",\"text\":\"Please renew the subscription before it lapses.\"}]}]},")
+                .append("\"issuetype\":{\"self\":\"https://example.atlassian.net/rest/api/3/issuetype/10001\",\"id\":\"10001\",\"name\":\"Request\",\"subtask\":false,\"iconUrl\":\"https://example.atlassian.net/images/icons/request.svg\"},")
+                .append("\"project\":{\"self\":\"https://example.atlassian.net/rest/api/3/project/10000\",\"id\":\"10000\",\"key\":\"RM\",\"name\":\"Request Management\",\"projectTypeKey\":\"business\"},")
+                .append("\"reporter\":").append(user("Requester " + (i % 40))).append(',')
+                .append("\"assignee\":").append(i % 3 == 0 ? "null" : user("Buyer " + (i % 7))).append(',')
+                .append("\"status\":{\"self\":\"https://example.atlassian.net/rest/api/3/status/3\",\"name\":\"")
+                .append(i % 2 == 0 ? "Negotiation" : "Completed")
+                .append("\",\"id\":\"3\",\"statusCategory\":{\"id\":4,\"key\":\"indeterminate\",\"colorName\":\"yellow\",\"name\":\"In Progress\"}},")
+                .append("\"priority\":{\"self\":\"https://example.atlassian.net/rest/api/3/priority/3\",\"name\":\"Medium\",\"id\":\"3\"},")
+                .append("\"duedate\":\"2026-12-31\",")
+                .append("\"created\":\"2026-10-01T09:15:00.000+0000\",")
+                .append("\"updated\":\"2026-10-14T16:45:12.000+0000\",")
+                .append("\"customfield_10290\":\"Vendor ").append(i % 50).append("\",")
+                .append("\"customfield_10291\":\"Product ").append(i % 120).append("\",")
+                .append("\"customfield_10284\":{\"self\":\"x\",\"value\":\"existing\",\"id\":\"2001\"},")
+                .append("\"customfield_10292\":{\"self\":\"x\",\"value\":\"license\",\"id\":\"2002\"},")
+                .append("\"customfield_10286\":\"upgrade\",")
+                .append("\"customfield_10243\":").append(user("Requester " + (i % 40))).append(',')
+                .append("\"customfield_10244\":\"requester").append(i % 40).append("@example.com\",")
+                .append("\"customfield_10337\":\"HTC\",")
+                .append("\"customfield_10338\":\"Engineering\",")
+                .append("\"customfield_10302\":\"2026-11-30\",")
+                .append("\"customfield_10303\":\"2027-11-30\",")
+                .append("\"customfield_10293\":").append(i % 500).append(',')
+                .append("\"customfield_10500\":null,\"customfield_10501\":[],")
+                .append("\"watches\":{\"self\":\"x\",\"watchCount\":1,\"isWatching\":false}")
+                .append("}}");
+        }
+        return json.append("],\"nextPageToken\":\"next\",\"isLast\":false}").toString();
+    }
+
+    private static String user(String displayName) {
+        return "{\"self\":\"https://example.atlassian.net/rest/api/3/user?accountId=1\",\"accountId\":\"1\","
+                + "\"avatarUrls\":{\"48x48\":\"a\",\"24x24\":\"b\",\"16x16\":\"c\",\"32x32\":\"d\"},"
+                + "\"displayName\":\"" + displayName + "\",\"active\":true,\"timeZone\":\"Asia/Kolkata\"}";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JiraSearchParseBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,150 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.config.JiraFieldConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JiraSearchResultParserTest {
+
+    private static final String PAGE = """
+            {
+              "expand": "names,schema",
+              "issues": [
+                {
+                  "expand": "operations",
+                  "id": "10042",
+                  "self": "https://example.atlassian.net/rest/api/3/issue/10042",
+                  "key": "RM-42",
+                  "fields": {
+                    "summary": "Renew Figma",
+                    "description": {"type": "doc", "version": 1, "content": [{"type": "paragraph"}]},
+                    "issuetype": {"id": "1", "name": "Request", "iconUrl": "x"},
+                    "project": {"id": "100", "key": "RM", "name": "Request Management"},
+                    "reporter": {"accountId": "a1", "displayName": "Asha Rao"},
+                    "assignee": null,
+                    "status": {"name": "Negotiation", "statusCategory": {"key": "indeterminate", "name": "In Progress"}},
+                    "priority": {"name": "High"},
+                    "duedate": "2026-11-30",
+                    "created": "2026-10-01T09:15:00.000+0000",
+                    "updated": "2026-10-14T16:45:12.000+0000",
+                    "customfield_10290": "Figma",
+                    "customfield_10291": "Figma Enterprise",
+                    "customfield_10292": {"self": "x", "value": "license", "id": "2001"},
+                    "customfield_10243": {"accountId": "a2", "displayName": "Ravi Kumar"},
+                    "customfield_10293": 120,
+                    "customfield_10337": ["HTC", "Holograph"],
+                    "customfield_10303": null,
+                    "customfield_99999": {"nested": {"ignored": [1, 2, 3]}}
+                  }
+                },
+                {"id": "10043", "key": "RM-43", "fields": {"summary": "Add Slack seats"}}
+              ],
+              "nextPageToken": "page-2-token",
+              "isLast": false
+            }
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JiraSearchResultParser parser;
+
+    @BeforeEach
+    void setUp() {
+        JiraFieldConfig fieldConfig = mock(JiraFieldConfig.class);
+        when(fieldConfig.getVendorName()).thenReturn("customfield_10290");
+        when(fieldConfig.getProductName()).thenReturn("customfield_10291");
+        when(fieldConfig.getBillingType()).thenReturn("customfield_10292");
+        when(fieldConfig.getRequesterName()).thenReturn("customfield_10243");
+        when(fieldConfig.getOrganization()).thenReturn("customfield_10337");
+        when(fieldConfig.getRenewalDate()).thenReturn("customfield_10303");
+        parser = new JiraSearchResultParser(objectMapper, fieldConfig);
+        parser.compile();
+    }
+
+    private JiraSearchResultParser.SearchPage parse(boolean keepRawJson) throws Exception {
+        return parser.parse(new ByteArrayInputStream(PAGE.getBytes(StandardCharsets.UTF_8)), keepRawJson);
+    }
+
+    @Test
+    void testPageIsDecodedIntoRecords() throws Exception {
+        JiraSearchResultParser.SearchPage page = parse(false);
+
+        assertEquals(2, page.issues().size());
+        assertEquals("page-2-token", page.nextPageToken());
+        assertFalse(page.isLast());
+
+        JiraIssueRecord issue = page.issues().get(0);
+        assertEquals("10042", issue.id());
+        assertEquals("RM-42", issue.key());
+        assertEquals("Renew Figma", issue.summary());
+        assertEquals("Request", issue.issueType());
+        assertEquals("RM", issue.projectKey());
+        assertEquals("Asha Rao", issue.reporter());
+        assertNull(issue.assignee());
+        assertEquals("Negotiation", issue.status());
+        assertEquals("High", issue.priority());
+        assertEquals("2026-11-30", issue.dueDate());
+        assertEquals("2026-10-14T16:45:12.000+0000", issue.updated());
+        assertNull(issue.rawJson());
+
+        JiraIssueRecord second = page.issues().get(1);
+        assertEquals("RM-43", second.key());
+        assertNull(second.status());
+        assertNull(second.vendorName());
+    }
+
+    @Test
+    void testCustomFieldsMatchGetTextValue() throws Exception {
+        JiraIssueRecord issue = parse(false).issues().get(0);
+        JsonNode fields = objectMapper.readTree(PAGE).get("issues").get(0).get("fields");
+        JiraService jiraService = new JiraService(null, null, objectMapper);
+
+        assertEquals(jiraService.getTextValue(fields, "customfield_10290"), issue.vendorName());
+        assertEquals(jiraService.getTextValue(fields, "customfield_10291"), issue.productName());
+        assertEquals(jiraService.getTextValue(fields, "customfield_10292"), issue.billingType());
+        assertEquals(jiraService.getTextValue(fields, "customfield_10243"), issue.requesterName());
+        assertEquals(jiraService.getTextValue(fields, "customfield_10337"), issue.organization());
+        assertEquals("license", issue.billingType());
+        assertEquals("Ravi Kumar", issue.requesterName());
+        assertEquals("[\"HTC\",\"Holograph\"]", issue.organization());
+        assertNull(issue.renewalDate());
+        assertEquals(fields.get("description").toString(), issue.description());
+    }
+
+    @Test
+    void testRawJsonIsKeptWhenRequested() throws Exception {
+        JiraSearchResultParser.SearchPage page = parse(true);
+
+        JsonNode expected = objectMapper.readTree(PAGE).get("issues").get(0);
+        assertEquals(expected, objectMapper.readTree(page.issues().get(0).rawJson()));
+        // Decoding is unaffected by keeping the JSON
+        assertEquals("Figma", page.issues().get(0).vendorName());
+        assertEquals("Negotiation", page.issues().get(0).status());
+    }
+
+    @Test
+    void testTreeIsDecodedLikeAStream() throws Exception {
+        JsonNode issueNode = objectMapper.readTree(PAGE).get("issues").get(0);
+
+        JiraIssueRecord fromTree = parser.parseIssue(issueNode);
+
+        assertEquals(parse(true).issues().get(0), fromTree);
+    }
+
+    @Test
+    void testLastPageWithoutIssues() throws Exception {
+        JiraSearchResultParser.SearchPage page = parser.parse(
+                new ByteArrayInputStream("{\"issues\":[],\"isLast\":true}".getBytes(StandardCharsets.UTF_8)), false);
+
+        assertTrue(page.issues().isEmpty());
+        assertNull(page.nextPageToken());
+        assertTrue(page.isLast());
+    }
+}
@@ -2,18 +2,25 @@ package com.htc.productdevelopment.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.htc.productdevelopment.config.JiraConfig;
+import com.htc.productdevelopment.config.JiraFieldView;
 import com.htc.productdevelopment.model.ContractDetails;
 import com.htc.productdevelopment.repository.ContractDetailsRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class JiraServiceTest {
@@ -30,14 +37,17 @@ class JiraServiceTest {
     @Mock
     private ContractDetailsRepository contractDetailsRepository;
 
+    @Mock
+    private ContractDetailsService contractDetailsService;
+
     @InjectMocks
     private JiraService jiraService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        // Initialize the service with mocked dependencies
-        jiraService = new JiraService(jiraConfig, restTemplate, objectMapper);
+        // Initialize the service with mocked dependencies; spied so single Jira calls can be stubbed
+        jiraService = spy(new JiraService(jiraConfig, restTemplate, objectMapper));
         
         // Use reflection to set the private contractDetailsRepository field
         try {
@@ -47,6 +57,9 @@ class JiraServiceTest {
         } catch (Exception e) {
             fail("Failed to set contractDetailsRepository via reflection: " + e.getMessage());
         }
+        // Completed contracts are saved through ContractDetailsService
+        ReflectionTestUtils.setField(jiraService, "contractDetailsService", contractDetailsService);
+        ReflectionTestUtils.setField(jiraService, "jiraIssueFieldCache", new JiraIssueFieldCache());
     }
 
     @Test
@@ -73,7 +86,7 @@ class JiraServiceTest {
         // Mock the save operation
         ContractDetails savedContract = new ContractDetails();
         savedContract.setId(1L);
-        when(contractDetailsRepository.save(any(ContractDetails.class))).thenReturn(savedContract);
+        when(contractDetailsService.saveContract(any(ContractDetails.class))).thenReturn(savedContract);
 
         // Use reflection to access the private method
         java.lang.reflect.Method method = JiraService.class.getDeclaredMethod(
@@ -84,7 +97,10 @@ class JiraServiceTest {
         method.invoke(jiraService, vendorDetails);
 
         // Verify that the save method was called
-        verify(contractDetailsRepository, times(1)).save(any(ContractDetails.class));
+        verify(contractDetailsService, times(1)).saveContract(argThat(contract ->
+                "completed".equals(contract.getRenewalStatus())
+                        && "Test Vendor".equals(contract.getNameOfVendor())
+                        && "Test Product".equals(contract.getProductName())));
     }
 
     @Test
@@ -93,15 +109,11 @@ class JiraServiceTest {
         String issueKey = "TEST-123";
         String expectedStatus = "Completed";
 
-        // Mock the getIssueByIdOrKey method
-        JsonNode mockIssue = mock(JsonNode.class);
-        JsonNode mockFields = mock(JsonNode.class);
+        // Mock the field-scoped status fetch
         JsonNode mockStatus = mock(JsonNode.class);
         JsonNode mockStatusName = mock(JsonNode.class);
 
-        when(jiraService.getIssueByIdOrKey(issueKey)).thenReturn(mockIssue);
-        when(mockIssue.path("fields")).thenReturn(mockFields);
-        when(mockFields.path("status")).thenReturn(mockStatus);
+        doReturn(mockStatus).when(jiraService).fetchIssueField(issueKey, "status");
         when(mockStatus.path("name")).thenReturn(mockStatusName);
         when(mockStatusName.asText()).thenReturn(expectedStatus);
 
@@ -115,5 +127,179 @@ class JiraServiceTest {
 
         // Verify the result
         assertEquals(expectedStatus, actualStatus);
+        verify(jiraService, never()).getIssueByIdOrKey(anyString(), any());
+    }
+
+    @Test
+    void testFieldValueIsCachedUntilIssueChanges() throws Exception {
+        String issueKey = "TEST-124";
+        JsonNode cost = new ObjectMapper().getNodeFactory().textNode("1200.50");
+        doReturn(cost).when(jiraService).fetchIssueField(issueKey, "customfield_10471");
+
+        assertEquals("1200.50", jiraService.getIssueFieldValue(issueKey, "customfield_10471"));
+        assertEquals("1200.50", jiraService.getIssueFieldValue(issueKey, "customfield_10471"));
+        verify(jiraService, times(1)).fetchIssueField(issueKey, "customfield_10471");
+
+        JiraIssueFieldCache cache = (JiraIssueFieldCache) ReflectionTestUtils.getField(jiraService, "jiraIssueFieldCache");
+        cache.onIssueChanged(new JiraIssueChangedEvent(issueKey, JiraIssueChangedEvent.UPDATED));
+
+        assertEquals("1200.50", jiraService.getIssueFieldValue(issueKey, "customfield_10471"));
+        verify(jiraService, times(2)).fetchIssueField(issueKey, "customfield_10471");
+    }
+
+    @Test
+    void testFieldValueReadByNumericIdIsNotCached() throws Exception {
+        JsonNode cost = new ObjectMapper().getNodeFactory().textNode("1200.50");
+        doReturn(cost).when(jiraService).fetchIssueField("10124", "customfield_10471");
+
+        assertEquals("1200.50", jiraService.getIssueFieldValue("10124", "customfield_10471"));
+        assertEquals("1200.50", jiraService.getIssueFieldValue("10124", "customfield_10471"));
+
+        // Change events name the issue key, so an entry under the id could not be invalidated
+        verify(jiraService, times(2)).fetchIssueField("10124", "customfield_10471");
+        JiraIssueFieldCache cache = (JiraIssueFieldCache) ReflectionTestUtils.getField(jiraService, "jiraIssueFieldCache");
+        assertEquals(0, cache.getStats().get("issues"));
+    }
+
+    private static final String ISSUE_LIST_JQL = "project = \"RM\" ORDER BY created DESC";
+
+    /**
+     * Spied service with a real ObjectMapper and the issue list collaborators mocked
+     */
+    private JiraService issueListService(JiraIssueSyncService syncService) {
+        JiraService service = spy(new JiraService(jiraConfig, restTemplate, new ObjectMapper()));
+        JiraIdentityDirectory identityDirectory = mock(JiraIdentityDirectory.class);
+        when(identityDirectory.issueListQuery(any(), any(), any(), any()))
+                .thenReturn(new JiraIdentityDirectory.IssueListQuery(ISSUE_LIST_JQL, "Acme", null, null));
+        ReflectionTestUtils.setField(service, "jiraIdentityDirectory", identityDirectory);
+        ReflectionTestUtils.setField(service, "jiraIssueSyncService", syncService);
+        ReflectionTestUtils.setField(service, "searchPageSize", 2);
+        return service;
+    }
+
+    private static JsonNode searchPage(String nextPageToken, boolean isLast, String... keys) {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode page = mapper.createObjectNode();
+        ArrayNode issues = page.putArray("issues");
+        for (String key : keys) {
+            issues.addObject().put("key", key);
+        }
+        if (nextPageToken != null) {
+            page.put("nextPageToken", nextPageToken);
+        }
+        page.put("isLast", isLast);
+        return page;
+    }
+
+    @Test
+    void testIssuesPageCursorRoundTrip() throws Exception {
+        JiraService service = issueListService(mock(JiraIssueSyncService.class));
+        doReturn(searchPage("token-2", false, "RM-3", "RM-2"))
+                .when(service).searchIssues(ISSUE_LIST_JQL, JiraFieldView.LIST, 2, null);
+        doReturn(searchPage(null, true, "RM-1"))
+                .when(service).searchIssues(ISSUE_LIST_JQL, JiraFieldView.LIST, 2, "token-2");
+
+        JsonNode first = service.getIssuesPage("USER", 1L, null, null, null, 2, JiraFieldView.LIST);
+        assertEquals(2, first.path("issues").size());
+        assertEquals("RM-3", first.path("issues").get(0).path("key").asText());
+        assertEquals("token-2", first.path("nextCursor").asText());
+        assertFalse(first.path("isLast").asBoolean());
+
+        // The cursor of one page is passed back as-is for the next
+        JsonNode second = service.getIssuesPage("USER", 1L, null, null, first.path("nextCursor").asText(), 2, JiraFieldView.LIST);
+        assertEquals(1, second.path("issues").size());
+        assertEquals("RM-1", second.path("issues").get(0).path("key").asText());
+        assertTrue(second.path("nextCursor").isNull());
+        assertTrue(second.path("isLast").asBoolean());
+    }
+
+    @Test
+    void testIssuesPageWithoutIssuesIsLast() throws Exception {
+        JiraService service = issueListService(mock(JiraIssueSyncService.class));
+        // A token alongside isLast=true must not be handed out as a cursor
+        doReturn(searchPage("stale", true))
+                .when(service).searchIssues(ISSUE_LIST_JQL, JiraFieldView.LIST, 50, null);
+
+        JsonNode page = service.getIssuesPage("USER", 1L, null, null, null, 50, JiraFieldView.LIST);
+
+        assertEquals(0, page.path("issues").size());
+        assertTrue(page.path("nextCursor").isNull());
+        assertTrue(page.path("isLast").asBoolean());
+    }
+
+    @Test
+    void testAllIssuesAreServedFromReadyMirror() throws Exception {
+        JiraIssueSyncService syncService = mock(JiraIssueSyncService.class);
+        when(syncService.isMirrorReady()).thenReturn(true);
+        JsonNode mirrored = searchPage(null, true, "RM-2", "RM-1");
+        when(syncService.findMirroredIssues("Acme", null, null)).thenReturn(mirrored);
+        JiraService service = issueListService(syncService);
+
+        JsonNode issues = service.getAllIssues("USER", 1L, null, null, JiraFieldView.LIST);
+
+        assertSame(mirrored, issues);
+        verify(service, never()).searchIssues(anyString(), any(JiraFieldView.class), anyInt(), any());
+    }
+
+    @Test
+    void testAllIssuesComeFromJiraWhenMirrorIsNotReady() throws Exception {
+        JiraIssueSyncService syncService = mock(JiraIssueSyncService.class);
+        when(syncService.isMirrorReady()).thenReturn(false);
+        JiraService service = issueListService(syncService);
+        doReturn(searchPage("token-2", false, "RM-3", "RM-2"))
+                .when(service).searchIssues(ISSUE_LIST_JQL, JiraFieldView.LIST, 2, null);
+        doReturn(searchPage(null, true, "RM-1"))
+                .when(service).searchIssues(ISSUE_LIST_JQL, JiraFieldView.LIST, 2, "token-2");
+
+        JsonNode issues = service.getAllIssues("USER", 1L, null, null, JiraFieldView.LIST);
+
+        assertEquals(3, issues.path("total").asInt());
+        assertEquals("RM-1", issues.path("issues").get(2).path("key").asText());
+        verify(syncService, never()).findMirroredIssues(any(), any(), any());
+    }
+
+    @Test
+    void testOtherViewsBypassReadyMirror() throws Exception {
+        JiraIssueSyncService syncService = mock(JiraIssueSyncService.class);
+        when(syncService.isMirrorReady()).thenReturn(true);
+        JiraService service = issueListService(syncService);
+        doReturn(searchPage(null, true, "RM-1"))
+                .when(service).searchIssues(ISSUE_LIST_JQL, JiraFieldView.DETAIL, 2, null);
+
+        JsonNode issues = service.getAllIssues("USER", 1L, null, null, JiraFieldView.DETAIL);
+
+        // The mirror only stores the list projection
+        assertEquals(1, issues.path("total").asInt());
+        verify(syncService, never()).findMirroredIssues(any(), any(), any());
+    }
+
+    @Test
+    void testStreamIssuesFollowsJiraPages() throws Exception {
+        JiraIssueSyncService syncService = mock(JiraIssueSyncService.class);
+        when(syncService.isMirrorReady()).thenReturn(false);
+        JiraService service = issueListService(syncService);
+        doReturn(searchPage("token-2", false, "RM-3", "RM-2"))
+                .when(service).searchIssues(ISSUE_LIST_JQL, JiraFieldView.LIST, 2, null);
+        doReturn(searchPage(null, true, "RM-1"))
+                .when(service).searchIssues(ISSUE_LIST_JQL, JiraFieldView.LIST, 2, "token-2");
+
+        List<Integer> pageSizes = new ArrayList<>();
+        service.streamIssues("USER", 1L, null, null, JiraFieldView.LIST, issues -> pageSizes.add(issues.size()));
+
+        assertEquals(List.of(2, 1), pageSizes);
+        verify(syncService, never()).streamMirroredIssues(any(), any(), any(), any());
+    }
+
+    @Test
+    void testStreamIssuesReadsMirrorInChunks() throws Exception {
+        JiraIssueSyncService syncService = mock(JiraIssueSyncService.class);
+        when(syncService.isMirrorReady()).thenReturn(true);
+        JiraService service = issueListService(syncService);
+
+        service.streamIssues("USER", 1L, null, null, JiraFieldView.LIST, issues -> { });
+
+        verify(syncService).streamMirroredIssues(eq("Acme"), isNull(), isNull(), any());
+        verify(syncService, never()).findMirroredIssues(any(), any(), any());
+        verify(service, never()).searchIssues(anyString(), any(JiraFieldView.class), anyInt(), any());
     }
-}
\ No newline at end of file
+}
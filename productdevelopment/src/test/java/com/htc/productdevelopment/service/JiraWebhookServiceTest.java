@@ -0,0 +1,215 @@
+package com.htc.productdevelopment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.htc.productdevelopment.config.JiraFieldProjections;
+import com.htc.productdevelopment.config.JiraFieldView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JiraWebhookServiceTest {
+
+    private static final String SECRET = "webhook-test-secret";
+    private static final String BODY = "{\"webhookEvent\":\"jira:issue_updated\",\"issue\":{\"key\":\"RM-1\"}}";
+
+    @Mock
+    private ContractCompletionOutboxService contractCompletionOutboxService;
+
+    @Mock
+    private JiraIssueSyncService jiraIssueSyncService;
+
+    @Mock
+    private JiraFieldProjections jiraFieldProjections;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JiraWebhookService webhookService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        webhookService = new JiraWebhookService(contractCompletionOutboxService, jiraIssueSyncService, jiraFieldProjections,
+                eventPublisher, objectMapper);
+        ReflectionTestUtils.setField(webhookService, "secret", SECRET);
+        when(jiraIssueSyncService.getProjectKey()).thenReturn("RM");
+        when(jiraFieldProjections.fields(JiraFieldView.LIST)).thenReturn(List.of("summary", "status"));
+        when(jiraFieldProjections.fields(JiraFieldView.CONTRACT_COMPLETION)).thenReturn(List.of("status", "summary"));
+    }
+
+    private static String sign(String body, String key) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testValidSignatureIsAuthentic() throws Exception {
+        assertTrue(webhookService.isAuthentic(BODY, sign(BODY, SECRET), null));
+    }
+
+    @Test
+    void testUppercaseSignatureHexIsAuthentic() throws Exception {
+        String signature = sign(BODY, SECRET);
+        String upper = "sha256=" + signature.substring("sha256=".length()).toUpperCase();
+
+        assertTrue(webhookService.isAuthentic(BODY, upper, null));
+    }
+
+    @Test
+    void testTamperedBodyIsRejected() throws Exception {
+        String signature = sign(BODY, SECRET);
+
+        assertFalse(webhookService.isAuthentic(BODY.replace("RM-1", "RM-2"), signature, null));
+    }
+
+    @Test
+    void testSignatureWithWrongKeyIsRejected() throws Exception {
+        assertFalse(webhookService.isAuthentic(BODY, sign(BODY, "other-secret"), null));
+    }
+
+    @Test
+    void testSignatureDifferingInLastDigitIsRejected() throws Exception {
+        String signature = sign(BODY, SECRET);
+        char last = signature.charAt(signature.length() - 1);
+        String tampered = signature.substring(0, signature.length() - 1) + (last == '0' ? '1' : '0');
+
+        assertFalse(webhookService.isAuthentic(BODY, tampered, null));
+    }
+
+    @Test
+    void testSignatureTakesPrecedenceOverSharedSecret() throws Exception {
+        // A bad signature is not rescued by a correct shared secret
+        assertFalse(webhookService.isAuthentic(BODY, sign(BODY, "other-secret"), SECRET));
+    }
+
+    @Test
+    void testSharedSecretIsAuthentic() {
+        assertTrue(webhookService.isAuthentic(BODY, null, SECRET));
+    }
+
+    @Test
+    void testSignatureWithoutPrefixFallsBackToSharedSecret() {
+        assertTrue(webhookService.isAuthentic(BODY, "md5=abc", SECRET));
+        assertFalse(webhookService.isAuthentic(BODY, "md5=abc", null));
+    }
+
+    @Test
+    void testWrongSharedSecretIsRejected() {
+        assertFalse(webhookService.isAuthentic(BODY, null, "wrong"));
+        assertFalse(webhookService.isAuthentic(BODY, null, SECRET + "x"));
+        assertFalse(webhookService.isAuthentic(BODY, null, ""));
+    }
+
+    @Test
+    void testMissingCredentialsAreRejected() {
+        assertFalse(webhookService.isAuthentic(BODY, null, null));
+    }
+
+    @Test
+    void testUnconfiguredSecretRejectsEverything() throws Exception {
+        ReflectionTestUtils.setField(webhookService, "secret", "");
+
+        // Even a signed call, or one presenting the empty secret, is rejected
+        assertFalse(webhookService.isAuthentic(BODY, sign(BODY, SECRET), null));
+        assertFalse(webhookService.isAuthentic(BODY, null, ""));
+
+        ReflectionTestUtils.setField(webhookService, "secret", "   ");
+        assertFalse(webhookService.isAuthentic(BODY, null, "   "));
+
+        ReflectionTestUtils.setField(webhookService, "secret", null);
+        assertFalse(webhookService.isAuthentic(BODY, null, null));
+    }
+
+    @Test
+    void testConstantTimeEqualsComparesWholeValue() {
+        Boolean same = ReflectionTestUtils.invokeMethod(webhookService, "constantTimeEquals", "abcdef", "abcdef");
+        Boolean prefix = ReflectionTestUtils.invokeMethod(webhookService, "constantTimeEquals", "abcdef", "abc");
+        Boolean lastChar = ReflectionTestUtils.invokeMethod(webhookService, "constantTimeEquals", "abcdef", "abcdeg");
+
+        assertEquals(Boolean.TRUE, same);
+        assertEquals(Boolean.FALSE, prefix);
+        assertEquals(Boolean.FALSE, lastChar);
+    }
+
+    @Test
+    void testUpdatedEventMirrorsIssueAndPublishesEvent() throws Exception {
+        JsonNode payload = objectMapper.readTree("{\"webhookEvent\":\"jira:issue_updated\",\"issue\":{\"id\":\"10\","
+                + "\"key\":\"RM-1\",\"fields\":{\"project\":{\"key\":\"RM\"},\"summary\":\"s\",\"description\":\"d\"}}}");
+
+        Map<String, Object> result = webhookService.handleEvent(payload);
+
+        assertEquals("PROCESSED", result.get("status"));
+        assertEquals(true, result.get("mirrored"));
+        assertEquals(false, result.get("completionEnqueued"));
+        // Only the list projection is stored
+        verify(jiraIssueSyncService).upsertIssue(argThat(node -> node.path("fields").has("summary")
+                && !node.path("fields").has("description")));
+        verify(eventPublisher).publishEvent(new JiraIssueChangedEvent("RM-1", JiraIssueChangedEvent.UPDATED));
+        verify(contractCompletionOutboxService, never()).enqueue(anyString(), anyString(), any());
+    }
+
+    @Test
+    void testStatusChangeToCompletedEnqueuesCompletion() throws Exception {
+        JsonNode payload = objectMapper.readTree("{\"webhookEvent\":\"jira:issue_updated\",\"issue\":{\"key\":\"RM-2\","
+                + "\"fields\":{\"status\":{\"name\":\"Completed\"}}},"
+                + "\"changelog\":{\"items\":[{\"field\":\"status\",\"toString\":\"Completed\"}]}}");
+
+        Map<String, Object> result = webhookService.handleEvent(payload);
+
+        assertEquals(true, result.get("completionEnqueued"));
+        verify(contractCompletionOutboxService).enqueue(eq("RM-2"), eq(ContractCompletionOutboxService.SOURCE_WEBHOOK),
+                argThat(fields -> "Completed".equals(fields.path("status").path("name").asText())));
+    }
+
+    @Test
+    void testOtherProjectIsNotMirrored() throws Exception {
+        JsonNode payload = objectMapper.readTree("{\"webhookEvent\":\"jira:issue_created\",\"issue\":{\"key\":\"OPS-3\","
+                + "\"fields\":{}}}");
+
+        Map<String, Object> result = webhookService.handleEvent(payload);
+
+        assertEquals(false, result.get("mirrored"));
+        verify(jiraIssueSyncService, never()).upsertIssue(any());
+        verify(eventPublisher).publishEvent(new JiraIssueChangedEvent("OPS-3", JiraIssueChangedEvent.CREATED));
+    }
+
+    @Test
+    void testDeletedEventRemovesMirroredIssue() throws Exception {
+        JsonNode payload = objectMapper.readTree("{\"webhookEvent\":\"jira:issue_deleted\",\"issue\":{\"key\":\"RM-4\"}}");
+
+        Map<String, Object> result = webhookService.handleEvent(payload);
+
+        assertEquals("PROCESSED", result.get("status"));
+        verify(jiraIssueSyncService).deleteIssue("RM-4");
+        verify(eventPublisher).publishEvent(new JiraIssueChangedEvent("RM-4", JiraIssueChangedEvent.DELETED));
+    }
+
+    @Test
+    void testUnsupportedOrKeylessEventsAreIgnored() throws Exception {
+        Map<String, Object> unsupported = webhookService.handleEvent(
+                objectMapper.readTree("{\"webhookEvent\":\"comment_created\",\"issue\":{\"key\":\"RM-5\"}}"));
+        Map<String, Object> keyless = webhookService.handleEvent(
+                objectMapper.readTree("{\"webhookEvent\":\"jira:issue_updated\"}"));
+
+        assertEquals("IGNORED", unsupported.get("status"));
+        assertEquals("IGNORED", keyless.get("status"));
+        verifyNoInteractions(eventPublisher);
+    }
+}
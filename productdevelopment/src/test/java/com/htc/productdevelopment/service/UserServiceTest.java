@@ -46,16 +46,11 @@ class UserServiceTest {
         costRoomOrg.setId(1L);
         costRoomOrg.setName("Cost Room");
 
-        User newUser = new User();
-        newUser.setId(1L);
-        newUser.setUid("test-uid");
-        newUser.setEmail("test@example.com");
-        newUser.setName("Test User");
-
         when(userRepository.count()).thenReturn(0L); // First user
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
         when(organizationService.getOrCreateCostRoomOrganization()).thenReturn(costRoomOrg);
-        when(userRepository.save(any(User.class))).thenReturn(newUser);
+        // save returns the user the service built
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         User result = userService.saveUserToDB("test-uid", "test@example.com", "Test User", User.Role.REQUESTER);
@@ -76,17 +71,11 @@ class UserServiceTest {
         costRoomOrg.setId(1L);
         costRoomOrg.setName("Cost Room");
 
-        User newUser = new User();
-        newUser.setId(1L);
-        newUser.setUid("test-uid");
-        newUser.setEmail("test@example.com");
-        newUser.setName("Test User");
-        newUser.setRole(User.Role.SUPER_ADMIN);
-
         when(userRepository.count()).thenReturn(5L); // Not first user
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
         when(organizationService.getOrCreateCostRoomOrganization()).thenReturn(costRoomOrg);
-        when(userRepository.save(any(User.class))).thenReturn(newUser);
+        // save returns the user the service built
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         User result = userService.saveUserToDB("test-uid", "test@example.com", "Test User", User.Role.SUPER_ADMIN);
@@ -0,0 +1,120 @@
+// Replay a Jira issue webhook against the local backend, without Jira.
+//
+// Usage:
+//   JIRA_WEBHOOK_SECRET=... node replay-jira-webhook.js <event> <issueKey> [options]
+//
+//   event:    created | updated | deleted | completed (an update moving the issue to Completed)
+//   options:  --file <payload.json>   send this payload instead of a generated one
+//             --url <endpoint>        default http://localhost:8080/api/jira/webhooks
+//             --fields <fields.json>  extra "fields" merged into the generated issue
+//
+// The body is signed with HMAC-SHA256 (X-Hub-Signature) exactly like Jira does.
+
+const crypto = require('crypto');
+const fs = require('fs');
+const http = require('http');
+const https = require('https');
+
+function parseArgs(argv) {
+  const args = { positional: [] };
+  for (let i = 0; i < argv.length; i++) {
+    if (argv[i].startsWith('--')) {
+      args[argv[i].substring(2)] = argv[++i];
+    } else {
+      args.positional.push(argv[i]);
+    }
+  }
+  return args;
+}
+
+function buildPayload(event, issueKey, extraFields) {
+  const projectKey = issueKey.split('-')[0];
+  const now = new Date().toISOString().replace('Z', '+0000');
+  const webhookEvent = {
+    created: 'jira:issue_created',
+    updated: 'jira:issue_updated',
+    completed: 'jira:issue_updated',
+    deleted: 'jira:issue_deleted',
+  }[event];
+  if (!webhookEvent) {
+    throw new Error(`Unknown event "${event}", expected created, updated, completed or deleted`);
+  }
+
+  const payload = {
+    timestamp: Date.now(),
+    webhookEvent,
+    issue: {
+      id: String(Math.floor(Math.random() * 100000)),
+      key: issueKey,
+      fields: Object.assign({
+        summary: `Replayed webhook for ${issueKey}`,
+        project: { key: projectKey },
+        issuetype: { name: 'Task' },
+        status: { name: event === 'completed' ? 'Completed' : 'Request Created' },
+        created: now,
+        updated: now,
+      }, extraFields),
+    },
+  };
+
+  if (event === 'completed') {
+    payload.issue_event_type_name = 'issue_generic';
+    payload.changelog = {
+      items: [{ field: 'status', fromString: 'Post Approval', toString: 'Completed' }],
+    };
+  }
+  return payload;
+}
+
+function send(url, body, secret) {
+  const headers = { 'Content-Type': 'application/json', 'Content-Length': Buffer.byteLength(body) };
+  if (secret) {
+    headers['X-Hub-Signature'] = 'sha256=' + crypto.createHmac('sha256', secret).update(body).digest('hex');
+  }
+  const target = new URL(url);
+  const client = target.protocol === 'https:' ? https : http;
+
+  return new Promise((resolve, reject) => {
+    const req = client.request(target, { method: 'POST', headers }, (res) => {
+      let data = '';
+      res.on('data', (chunk) => (data += chunk));
+      res.on('end', () => resolve({ status: res.statusCode, body: data }));
+    });
+    req.on('error', reject);
+    req.end(body);
+  });
+}
+
+async function main() {
+  const args = parseArgs(process.argv.slice(2));
+  const [event, issueKey] = args.positional;
+  const url = args.url || 'http://localhost:8080/api/jira/webhooks';
+  const secret = process.env.JIRA_WEBHOOK_SECRET;
+
+  let payload;
+  if (args.file) {
+    payload = JSON.parse(fs.readFileSync(args.file, 'utf8'));
+  } else {
+    if (!event || !issueKey) {
+      console.error('Usage: node replay-jira-webhook.js <created|updated|completed|deleted> <ISSUE-KEY> [--file payload.json] [--fields fields.json] [--url endpoint]');
+      process.exit(1);
+    }
+    const extraFields = args.fields ? JSON.parse(fs.readFileSync(args.fields, 'utf8')) : {};
+    payload = buildPayload(event, issueKey, extraFields);
+  }
+
+  if (!secret) {
+    console.warn('JIRA_WEBHOOK_SECRET is not set; the backend will reject the call');
+  }
+
+  const body = JSON.stringify(payload);
+  console.log(`POST ${url} (${payload.webhookEvent} ${payload.issue && payload.issue.key})`);
+  const response = await send(url, body, secret);
+  console.log('Response status:', response.status);
+  console.log(response.body);
+}
+
+main().catch((err) => {
+  console.error('Replay failed:', err.message);
+  process.exit(1);
+});